@@ -0,0 +1,115 @@
+package net.minedcontrol.bukkit.menus.basis;
+
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import net.minedcontrol.bukkit.menus.basis.events.MenuSelectEvent;
+import net.minedcontrol.bukkit.menus.basis.events.MenuUndoEvent;
+import net.minedcontrol.bukkit.menus.basis.events.PlayerMenuSelectEvent;
+import net.minedcontrol.bukkit.menus.basis.events.PlayerMenuUndoEvent;
+import net.minedcontrol.bukkit.menus.basis.listening.ListenerPriority;
+import net.minedcontrol.bukkit.menus.basis.listening.MenuListener;
+import net.minedcontrol.bukkit.menus.benchmarks.BenchmarkEnvironment;
+import net.minedcontrol.bukkit.menus.underlays.graphs.DirectedGraphUnderlay;
+
+/**
+ * Benchmarks calling the listeners of a selected option. In the options'
+ * package as dispatching is not public.
+ * <p>
+ * Date Created: Oct 17, 2026
+ *
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class MenuOptionBenchmark {
+
+	private static int underlays;
+
+	@Param({"0", "1", "4", "16"})
+	public int listeners;
+
+	private MenuOption option;
+	private Menu menu;
+	private UnderlayNode node;
+
+	//the total number of calls the listeners received
+	private long calls;
+
+
+	@Setup
+	public void setup() {
+		BenchmarkEnvironment.install();
+
+		DirectedGraphUnderlay underlay = new DirectedGraphUnderlay(
+				"option-benchmark-" + underlays++, 
+				BenchmarkEnvironment.element("Start"));
+
+		option = BenchmarkEnvironment.option("dispatch");
+		underlay.getStart(null).addChild(option, underlay.getStart(null));
+
+		ListenerPriority[] priorities = ListenerPriority.values();
+		for(int i = 0; i < listeners; i++) {
+			option.registerListener(new CountingListener(), 
+					priorities[i % priorities.length]);
+		}
+
+		menu = new Menu(underlay, null);
+		node = underlay.getStart(null);
+	}
+
+
+	@Benchmark
+	public long select() {
+		option.select(menu, menu.getCurrentStage(), node);
+		return calls;
+	}
+
+	@Benchmark
+	public long undo() {
+		option.undoLast(menu, node);
+		return calls;
+	}
+
+
+	/**
+	 * A listener that only counts how often it is called.
+	 */
+	private final class CountingListener implements MenuListener {
+
+		@Override
+		public void onSelect(MenuSelectEvent event) {
+			calls++;
+		}
+
+		@Override
+		public void onPlayerSelect(PlayerMenuSelectEvent event) {
+			calls++;
+		}
+
+		@Override
+		public void onUndo(MenuUndoEvent event) {
+			calls++;
+		}
+
+		@Override
+		public void onPlayerUndo(PlayerMenuUndoEvent event) {
+			calls++;
+		}
+	}
+
+}
@@ -0,0 +1,66 @@
+package net.minedcontrol.bukkit.menus.benchmarks;
+
+import java.lang.reflect.Field;
+
+import net.minedcontrol.bukkit.menus.MenuManager;
+import net.minedcontrol.bukkit.menus.Menus;
+import net.minedcontrol.bukkit.menus.basis.MenuElement;
+import net.minedcontrol.bukkit.menus.basis.MenuOption;
+import net.minedcontrol.zamalib.messaging.messages.LiteralMessage;
+
+/**
+ * Sets up just enough of Menus for the benchmarks to create menus,
+ * options and underlays without a running server.
+ * <p>
+ * Date Created: Oct 17, 2026
+ *
+ */
+public final class BenchmarkEnvironment {
+
+	private BenchmarkEnvironment() {}
+
+
+	/**
+	 * Installs a menu manager that has not loaded any configurations or
+	 * created a packet engine, as those need a server. Does nothing if a
+	 * manager is already installed.
+	 *
+	 * @throws IllegalStateException	if the manager cannot be installed.
+	 */
+	public static synchronized void install() throws IllegalStateException {
+		try {
+			Field manager = Menus.class.getDeclaredField("manager");
+			manager.setAccessible(true);
+
+			if(manager.get(null) == null)
+				manager.set(null, new MenuManager());
+		}
+		catch(Exception e) {
+			throw new IllegalStateException("Cannot install the menu manager", e);
+		}
+	}
+
+	/**
+	 * Creates a menu element with literal text.
+	 *
+	 * @param name	The name of the element.
+	 * @return		The new element.
+	 */
+	public static MenuElement element(String name) {
+		return new MenuElement(new LiteralMessage(name),
+				new LiteralMessage(name + " description"), null, null);
+	}
+
+	/**
+	 * Creates a menu option with literal text.
+	 *
+	 * @param id	The id and name of the option.
+	 * @return		The new option.
+	 */
+	public static MenuOption option(String id) {
+		install();
+		return new MenuOption(id, new LiteralMessage(id),
+				new LiteralMessage(id + " description"), null, null);
+	}
+
+}
@@ -0,0 +1,84 @@
+package net.minedcontrol.bukkit.menus.benchmarks;
+
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import net.minedcontrol.bukkit.menus.basis.MenuOption;
+import net.minedcontrol.bukkit.menus.basis.UnderlayNode;
+import net.minedcontrol.bukkit.menus.underlays.graphs.DirectedGraphNode;
+import net.minedcontrol.bukkit.menus.underlays.graphs.DirectedGraphUnderlay;
+
+/**
+ * Benchmarks looking up where a selection leads in a directed graph.
+ * <p>
+ * Date Created: Oct 17, 2026
+ *
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class DirectedGraphBenchmark {
+
+	private static int underlays;
+
+	//the number of options on the node, half leading to children and
+	// half being leaves
+	@Param({"4", "16", "64"})
+	public int options;
+
+	//whether selections are answered by the compiled form of the graph
+	@Param({"false", "true"})
+	public boolean compiled;
+
+	private DirectedGraphNode node;
+	private MenuOption[] selections;
+
+	private int next;
+
+
+	@Setup
+	public void setup() {
+		BenchmarkEnvironment.install();
+
+		DirectedGraphUnderlay underlay = new DirectedGraphUnderlay(
+				"graph-benchmark-" + underlays++, 
+				BenchmarkEnvironment.element("Start"));
+
+		node = underlay.getStart(null);
+		selections = new MenuOption[options];
+
+		for(int i = 0; i < options; i++) {
+			selections[i] = BenchmarkEnvironment.option("option-" + i);
+
+			DirectedGraphNode child = i % 2 == 0 
+					? new DirectedGraphNode(underlay, 
+							BenchmarkEnvironment.element("Child " + i))
+					: null;
+			node.addChild(selections[i], child);
+		}
+
+		if(compiled)
+			underlay.compile();
+	}
+
+
+	@Benchmark
+	public UnderlayNode getNext() {
+		return node.getNext(null, selections[next++ & (options - 1)]);
+	}
+
+}
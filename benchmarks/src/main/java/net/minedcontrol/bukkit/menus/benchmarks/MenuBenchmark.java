@@ -0,0 +1,83 @@
+package net.minedcontrol.bukkit.menus.benchmarks;
+
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import net.minedcontrol.bukkit.menus.basis.Menu;
+import net.minedcontrol.bukkit.menus.basis.MenuOption;
+import net.minedcontrol.bukkit.menus.basis.responses.MenuResponse;
+import net.minedcontrol.bukkit.menus.underlays.graphs.DirectedGraphNode;
+import net.minedcontrol.bukkit.menus.underlays.graphs.DirectedGraphUnderlay;
+
+/**
+ * Benchmarks moving through a menu, using a directed graph of two nodes
+ * that lead to each other so the menu never finishes.
+ * <p>
+ * Date Created: Oct 17, 2026
+ *
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class MenuBenchmark {
+
+	private static int underlays;
+
+	private Menu menu;
+	private MenuOption forward;
+	private MenuOption back;
+
+
+	@Setup
+	public void setup() {
+		BenchmarkEnvironment.install();
+
+		DirectedGraphUnderlay underlay = new DirectedGraphUnderlay(
+				"benchmark-" + underlays++, BenchmarkEnvironment.element("Start"));
+
+		DirectedGraphNode start = underlay.getStart(null);
+		DirectedGraphNode second = new DirectedGraphNode(underlay, 
+				BenchmarkEnvironment.element("Second"));
+
+		forward = BenchmarkEnvironment.option("forward");
+		back = BenchmarkEnvironment.option("back");
+
+		start.addChild(forward, second);
+		second.addChild(back, start);
+
+		menu = new Menu(underlay, null);
+	}
+
+
+	/**
+	 * Selects an option and then the option that leads back.
+	 */
+	@Benchmark
+	public MenuResponse select() {
+		menu.select(forward);
+		return menu.select(back);
+	}
+
+	/**
+	 * Selects an option and then undoes it.
+	 */
+	@Benchmark
+	public boolean selectAndGoBack() {
+		menu.select(forward);
+		return menu.goBack();
+	}
+
+}
@@ -0,0 +1,93 @@
+package net.minedcontrol.bukkit.menus.benchmarks;
+
+import java.util.concurrent.TimeUnit;
+
+import org.bukkit.Material;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import net.minedcontrol.bukkit.menus.uis.blockstructures.blocks.BlockAppearance;
+import net.minedcontrol.bukkit.menus.uis.packetediting.PlayerVariance;
+import net.minedcontrol.zamalib.bukkit.util.blocks.BlockLocation;
+import net.minedcontrol.zamalib.players.ZamaPlayer;
+
+/**
+ * Benchmarks the whitelist check that the packet listener runs for every
+ * block change sent to a player.
+ * <p>
+ * Date Created: Oct 17, 2026
+ *
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class PlayerVarianceBenchmark {
+
+	private static final String WORLD = "world";
+
+	//the number of whitelisted blocks, about the size of a button menu
+	private static final int BLOCKS = 256;
+
+	@SuppressWarnings("deprecation")
+	private static final int SIGN_ID = Material.WALL_SIGN.getId();
+
+	private PlayerVariance variance;
+	private BlockAppearance sign;
+
+	private int next;
+
+
+	@Setup
+	public void setup() {
+		variance = new PlayerVariance(new ZamaPlayer());
+		sign = new BlockAppearance(Material.WALL_SIGN, (byte) 2);
+
+		for(int i = 0; i < BLOCKS; i++) {
+			variance.addPlayerVersion(
+					new BlockLocation(WORLD, i & 15, 64 + (i >> 4), 0), sign);
+		}
+	}
+
+
+	/**
+	 * Checks a block change that was whitelisted.
+	 */
+	@Benchmark
+	public boolean matchWhitelisted() {
+		int i = next++ & (BLOCKS - 1);
+		return variance.matchPlayerVersion(WORLD, i & 15, 64 + (i >> 4), 0, 
+				SIGN_ID, 2, false);
+	}
+
+	/**
+	 * Checks a block change of the server's that was not whitelisted.
+	 */
+	@Benchmark
+	public boolean matchOther() {
+		int i = next++ & (BLOCKS - 1);
+		return variance.matchPlayerVersion(WORLD, i & 15, 64 + (i >> 4), 1, 
+				SIGN_ID, 2, false);
+	}
+
+	/**
+	 * Whitelists a block change, replacing the previous one.
+	 */
+	@Benchmark
+	public int whitelist() {
+		int i = next++ & (BLOCKS - 1);
+		return variance.addPlayerVersion(
+				new BlockLocation(WORLD, i & 15, 64 + (i >> 4), 0), sign);
+	}
+
+}
@@ -0,0 +1,107 @@
+package net.minedcontrol.bukkit.menus.benchmarks;
+
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import net.minedcontrol.bukkit.menus.uis.blockstructures.blocks.SignFormat;
+import net.minedcontrol.bukkit.menus.uis.blockstructures.blocks.SignText;
+import net.minedcontrol.bukkit.menus.uis.blockstructures.blocks.SignUtil;
+import net.minedcontrol.zamalib.messaging.LanguageChoice;
+import net.minedcontrol.zamalib.messaging.messages.LiteralMessage;
+import net.minedcontrol.zamalib.messaging.messages.framework.MultilingualMessage;
+
+/**
+ * Benchmarks turning messages into sign text, which happens for every 
+ * sign of every menu that is drawn.
+ * <p>
+ * Date Created: Oct 17, 2026
+ *
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class SignTextBenchmark {
+
+	private static final String SHORT_MESSAGE = "Back";
+	private static final String MESSAGE = "this is a test message";
+	private static final String LONG_MESSAGE = 
+			"Uh oh, this was a ruse. Prepare for a deluge of sentimentalism.";
+
+	//the number of different option names shown
+	private static final int NAMES = 256;
+
+	private SignFormat format;
+	private MultilingualMessage[] names;
+	private LanguageChoice[] langs;
+
+	private int next;
+
+
+	@Setup
+	public void setup() {
+		format = new SignFormat(new LiteralMessage("&7Select"), null, null, 
+				null);
+
+		names = new MultilingualMessage[NAMES];
+		for(int i = 0; i < NAMES; i++) {
+			names[i] = new LiteralMessage("Option number " + i);
+		}
+
+		langs = LanguageChoice.values();
+	}
+
+
+	@Benchmark
+	public String[] translateShort() {
+		return SignUtil.translateText(SHORT_MESSAGE, 15, 4, true);
+	}
+
+	@Benchmark
+	public String[] translate() {
+		return SignUtil.translateText(MESSAGE, 15, 4, true);
+	}
+
+	@Benchmark
+	public String[] translateLong() {
+		return SignUtil.translateText(LONG_MESSAGE, 15, 4, true);
+	}
+
+	@Benchmark
+	public String[] translatePrepended() {
+		return SignUtil.translateText(MESSAGE, 15, 4, true, "&7");
+	}
+
+	/**
+	 * Formats the same few hundred option names in every language, as
+	 * redrawing menus does.
+	 */
+	@Benchmark
+	public SignText formatNames() {
+		int i = next++;
+		return format.getSignText(names[i & (NAMES - 1)], 
+				langs[(i >>> 8) % langs.length]);
+	}
+
+	/**
+	 * Formats a message that has never been formatted before.
+	 */
+	@Benchmark
+	public SignText formatNewMessage() {
+		return format.getSignText(new LiteralMessage(MESSAGE), 
+				LanguageChoice.ENGLISH);
+	}
+
+}
@@ -0,0 +1,17 @@
+package com.comphenix.protocol;
+
+public class PacketType {
+
+	public static class Play {
+
+		public static class Server {
+
+			public static final PacketType BLOCK_CHANGE = new PacketType();
+			public static final PacketType MULTI_BLOCK_CHANGE = new PacketType();
+			public static final PacketType MAP_CHUNK = new PacketType();
+			public static final PacketType MAP_CHUNK_BULK = new PacketType();
+			public static final PacketType UPDATE_SIGN = new PacketType();
+		}
+	}
+
+}
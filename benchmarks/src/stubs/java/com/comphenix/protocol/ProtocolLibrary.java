@@ -0,0 +1,7 @@
+package com.comphenix.protocol;
+
+public class ProtocolLibrary {
+
+	public static ProtocolManager getProtocolManager() { return null; }
+
+}
@@ -0,0 +1,15 @@
+package com.comphenix.protocol;
+
+import com.comphenix.protocol.events.*;
+
+public interface ProtocolManager {
+
+	void addPacketListener(PacketListener l);
+
+	void removePacketListener(PacketListener l);
+
+	void sendServerPacket(org.bukkit.entity.Player p, PacketContainer c) throws java.lang.reflect.InvocationTargetException;
+
+	void sendServerPacket(org.bukkit.entity.Player p, PacketContainer c, boolean filters) throws java.lang.reflect.InvocationTargetException;
+
+}
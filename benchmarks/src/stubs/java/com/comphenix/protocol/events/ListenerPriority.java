@@ -0,0 +1,7 @@
+package com.comphenix.protocol.events;
+
+public enum ListenerPriority {
+
+	LOWEST, LOW, NORMAL, HIGH, HIGHEST, MONITOR
+
+}
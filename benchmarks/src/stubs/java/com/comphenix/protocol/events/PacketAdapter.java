@@ -0,0 +1,19 @@
+package com.comphenix.protocol.events;
+
+import com.comphenix.protocol.PacketType;
+
+public abstract class PacketAdapter implements PacketListener {
+
+	protected org.bukkit.plugin.Plugin plugin;
+
+	public PacketAdapter(org.bukkit.plugin.Plugin p, PacketType... types) {}
+
+	public PacketAdapter(org.bukkit.plugin.Plugin p, ListenerPriority pr, PacketType... types) {}
+
+	public org.bukkit.plugin.Plugin getPlugin() { return plugin; }
+
+	public void onPacketSending(PacketEvent e) {}
+
+	public void onPacketReceiving(PacketEvent e) {}
+
+}
@@ -0,0 +1,36 @@
+package com.comphenix.protocol.events;
+
+import com.comphenix.protocol.PacketType;
+import com.comphenix.protocol.reflect.StructureModifier;
+
+public class PacketContainer {
+
+	public PacketContainer(PacketType t) {}
+
+	public PacketType getType() { return null; }
+
+	public Object getHandle() { return null; }
+
+	public StructureModifier<Object> getModifier() { return null; }
+
+	public StructureModifier<Integer> getIntegers() { return null; }
+
+	public StructureModifier<org.bukkit.Material> getBlocks() { return null; }
+
+	public StructureModifier<String[]> getStringArrays() { return null; }
+
+	public StructureModifier<byte[]> getByteArrays() { return null; }
+
+	public StructureModifier<int[]> getIntegerArrays() { return null; }
+
+	public StructureModifier<Boolean> getBooleans() { return null; }
+
+	public StructureModifier<Short> getShorts() { return null; }
+
+	public StructureModifier<com.comphenix.protocol.wrappers.ChunkCoordIntPair> getChunkCoordIntPairs() { return null; }
+
+	public PacketContainer deepClone() { return null; }
+
+	public PacketContainer shallowClone() { return null; }
+
+}
@@ -0,0 +1,17 @@
+package com.comphenix.protocol.events;
+
+public class PacketEvent {
+
+	public org.bukkit.entity.Player getPlayer() { return null; }
+
+	public PacketContainer getPacket() { return null; }
+
+	public com.comphenix.protocol.PacketType getPacketType() { return null; }
+
+	public void setPacket(PacketContainer c) {}
+
+	public void setCancelled(boolean b) {}
+
+	public boolean isCancelled() { return false; }
+
+}
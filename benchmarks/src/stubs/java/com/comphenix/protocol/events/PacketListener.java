@@ -0,0 +1,5 @@
+package com.comphenix.protocol.events;
+
+public interface PacketListener {
+
+}
@@ -0,0 +1,13 @@
+package com.comphenix.protocol.reflect;
+
+public class StructureModifier<T> {
+
+	public T read(int i) { return null; }
+
+	public StructureModifier<T> write(int i, T v) { return this; }
+
+	public StructureModifier<T> writeDefaults() { return this; }
+
+	public int size() { return 0; }
+
+}
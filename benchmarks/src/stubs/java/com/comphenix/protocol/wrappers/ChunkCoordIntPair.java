@@ -0,0 +1,11 @@
+package com.comphenix.protocol.wrappers;
+
+public class ChunkCoordIntPair {
+
+	public ChunkCoordIntPair(int x, int z) {}
+
+	public int getChunkX() { return 0; }
+
+	public int getChunkZ() { return 0; }
+
+}
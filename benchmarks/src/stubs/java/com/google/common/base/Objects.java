@@ -0,0 +1,7 @@
+package com.google.common.base;
+
+public class Objects {
+
+	public static boolean equal(Object a, Object b) { return a==b||(a!=null&&a.equals(b)); }
+
+}
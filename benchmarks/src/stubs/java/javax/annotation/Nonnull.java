@@ -0,0 +1,5 @@
+package javax.annotation;
+
+public @interface Nonnull {
+
+}
@@ -0,0 +1,68 @@
+package net.minedcontrol.zamalib.bukkit.util.blocks;
+
+import org.bukkit.Location;
+
+public class BlockLocation {
+
+	private final String worldName;
+	private final int x;
+	private final int y;
+	private final int z;
+
+	public BlockLocation(String worldName, int x, int y, int z) {
+		this.worldName = worldName;
+		this.x = x;
+		this.y = y;
+		this.z = z;
+	}
+
+	public BlockLocation(Location loc) {
+		this(loc.getWorld() != null ? loc.getWorld().getName() : null,
+				loc.getBlockX(), loc.getBlockY(), loc.getBlockZ());
+	}
+
+	public static BlockLocation fromString(String str) {
+		return null;
+	}
+
+	public String getWorldName() {
+		return worldName;
+	}
+
+	public int getX() {
+		return x;
+	}
+
+	public int getY() {
+		return y;
+	}
+
+	public int getZ() {
+		return z;
+	}
+
+	public Location toLocation() {
+		return null;
+	}
+
+	@Override
+	public int hashCode() {
+		int result = worldName != null ? worldName.hashCode() : 0;
+		result = 31 * result + x;
+		result = 31 * result + y;
+		return 31 * result + z;
+	}
+
+	@Override
+	public boolean equals(Object obj) {
+		if(this == obj)
+			return true;
+		if(!(obj instanceof BlockLocation))
+			return false;
+		BlockLocation other = (BlockLocation) obj;
+		return x == other.x && y == other.y && z == other.z
+				&& (worldName == null ? other.worldName == null
+						: worldName.equals(other.worldName));
+	}
+
+}
@@ -0,0 +1,5 @@
+package net.minedcontrol.zamalib.bukkit.util.colors;
+
+public class ColorScheme {
+
+}
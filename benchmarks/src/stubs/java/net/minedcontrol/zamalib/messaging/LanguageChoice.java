@@ -0,0 +1,7 @@
+package net.minedcontrol.zamalib.messaging;
+
+public enum LanguageChoice {
+
+	ENGLISH, SPANISH, FRENCH, GERMAN
+
+}
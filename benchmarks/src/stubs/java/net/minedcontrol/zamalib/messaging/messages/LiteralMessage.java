@@ -0,0 +1,22 @@
+package net.minedcontrol.zamalib.messaging.messages;
+
+import net.minedcontrol.zamalib.messaging.LanguageChoice;
+import net.minedcontrol.zamalib.messaging.messages.framework.MultilingualMessage;
+
+public class LiteralMessage implements MultilingualMessage {
+
+	private final String message;
+
+	public LiteralMessage(String message) {
+		this.message = message;
+	}
+
+	public String getMessage(LanguageChoice lang) {
+		return message;
+	}
+
+	public String getMessage() {
+		return message;
+	}
+
+}
@@ -0,0 +1,9 @@
+package net.minedcontrol.zamalib.messaging.messages.framework;
+
+public interface MultilingualMessage {
+
+	String getMessage(net.minedcontrol.zamalib.messaging.LanguageChoice l);
+
+	String getMessage();
+
+}
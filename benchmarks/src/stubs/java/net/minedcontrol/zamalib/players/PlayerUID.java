@@ -0,0 +1,5 @@
+package net.minedcontrol.zamalib.players;
+
+public class PlayerUID {
+
+}
@@ -0,0 +1,25 @@
+package net.minedcontrol.zamalib.players;
+
+public class ZamaPlayer {
+
+	public String getBukkitName() { return null; }
+
+	public String getName() { return null; }
+
+	public org.bukkit.entity.Player getPlayer() { return null; }
+
+	public PlayerUID getUID() { return null; }
+
+	public org.bukkit.World getWorld() { return null; }
+
+	public void sendBlockChange(org.bukkit.Location l, org.bukkit.Material m, byte d) {}
+
+	public net.minedcontrol.zamalib.messaging.LanguageChoice getLanguagePreference() { return null; }
+
+	public void teleport(org.bukkit.Location l) {}
+
+	public void sendMessage(String s) {}
+
+	public boolean isOnline() { return false; }
+
+}
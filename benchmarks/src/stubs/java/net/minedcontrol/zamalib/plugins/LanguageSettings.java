@@ -0,0 +1,7 @@
+package net.minedcontrol.zamalib.plugins;
+
+public class LanguageSettings {
+
+	public net.minedcontrol.zamalib.messaging.messages.framework.MultilingualMessage getMultilingualMessage(String s) { return null; }
+
+}
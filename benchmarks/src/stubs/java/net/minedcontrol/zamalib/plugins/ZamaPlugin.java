@@ -0,0 +1,11 @@
+package net.minedcontrol.zamalib.plugins;
+
+public class ZamaPlugin extends org.bukkit.plugin.java.JavaPlugin {
+
+	public LanguageSettings getLanguageSettings() { return null; }
+
+	public void postEnable() {}
+
+	public void preDisable() {}
+
+}
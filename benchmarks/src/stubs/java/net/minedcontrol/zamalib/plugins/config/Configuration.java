@@ -0,0 +1,11 @@
+package net.minedcontrol.zamalib.plugins.config;
+
+public abstract class Configuration {
+
+	public Configuration(YAMLConfigAccessor a) {}
+
+	public org.bukkit.configuration.file.FileConfiguration getConfig() { return null; }
+
+	protected abstract void onLoad() throws IllegalStateException;
+
+}
@@ -0,0 +1,11 @@
+package net.minedcontrol.zamalib.plugins.config;
+
+public abstract class PluginConfiguration {
+
+	public PluginConfiguration(org.bukkit.plugin.Plugin p) {}
+
+	public org.bukkit.configuration.file.FileConfiguration getConfig() { return null; }
+
+	protected abstract void onLoad() throws IllegalStateException;
+
+}
@@ -0,0 +1,7 @@
+package net.minedcontrol.zamalib.plugins.config;
+
+public class YAMLConfigAccessor {
+
+	public YAMLConfigAccessor(org.bukkit.plugin.Plugin p, String f, String d) {}
+
+}
@@ -0,0 +1,13 @@
+package net.minedcontrol.zamalib.runtime.master;
+
+public class Zama {
+
+	public static Zama getMaster() { return null; }
+
+	public org.bukkit.plugin.java.JavaPlugin getPlugin() { return null; }
+
+	public static void debug(org.bukkit.plugin.Plugin p, Object a, Object b) {}
+
+	public static net.minedcontrol.zamalib.players.ZamaPlayer getZamaPlayer(org.bukkit.entity.Player p) { return null; }
+
+}
@@ -0,0 +1,15 @@
+package org.bukkit;
+
+public class Bukkit {
+
+	public static Server getServer() { return null; }
+
+	public static org.bukkit.scheduler.BukkitScheduler getScheduler() { return null; }
+
+	public static void broadcastMessage(String s) {}
+
+	public static World getWorld(String n) { return null; }
+
+	public static boolean isPrimaryThread() { return true; }
+
+}
@@ -0,0 +1,7 @@
+package org.bukkit;
+
+public enum ChatColor {
+
+	RED, RESET, AQUA, GRAY
+
+}
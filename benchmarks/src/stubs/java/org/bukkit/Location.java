@@ -0,0 +1,27 @@
+package org.bukkit;
+
+public class Location implements Cloneable {
+
+	public Location(World w,double x,double y,double z) {}
+
+	public Location(World w,double x,double y,double z,float a,float b) {}
+
+	public World getWorld() { return null; }
+
+	public void setWorld(World w) {}
+
+	public int getBlockX() { return 0; }
+
+	public int getBlockY() { return 0; }
+
+	public int getBlockZ() { return 0; }
+
+	public org.bukkit.block.Block getBlock() { return null; }
+
+	public Location clone() { return this; }
+
+	public Location add(double x,double y,double z) { return this; }
+
+	public double distance(Location l) { return 0; }
+
+}
@@ -0,0 +1,26 @@
+package org.bukkit;
+
+public enum Material {
+
+	AIR(0), STONE(1), SIGN_POST(63), WALL_SIGN(68), STONE_BUTTON(77),
+	WOOD_BUTTON(143), ARROW(262), BOWL(281), SIGN(323);
+
+	private final int id;
+
+	private Material(int id) {
+		this.id = id;
+	}
+
+	public int getId() {
+		return id;
+	}
+
+	public static Material getMaterial(int id) {
+		for(Material mat : values()) {
+			if(mat.id == id)
+				return mat;
+		}
+		return null;
+	}
+
+}
@@ -0,0 +1,13 @@
+package org.bukkit;
+
+public interface Server {
+
+	org.bukkit.plugin.PluginManager getPluginManager();
+
+	World getWorld(String n);
+
+	org.bukkit.scheduler.BukkitScheduler getScheduler();
+
+	boolean isPrimaryThread();
+
+}
@@ -0,0 +1,11 @@
+package org.bukkit;
+
+public interface World {
+
+	String getName();
+
+	java.util.UUID getUID();
+
+	org.bukkit.block.Block getBlockAt(Location l);
+
+}
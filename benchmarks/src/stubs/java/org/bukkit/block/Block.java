@@ -0,0 +1,11 @@
+package org.bukkit.block;
+
+public interface Block {
+
+	org.bukkit.Material getType();
+
+	byte getData();
+
+	org.bukkit.Location getLocation();
+
+}
@@ -0,0 +1,29 @@
+package org.bukkit.configuration;
+
+public interface ConfigurationSection {
+
+	String getString(String p);
+
+	String getString(String p, String d);
+
+	int getInt(String p);
+
+	int getInt(String p, int d);
+
+	long getLong(String p, long d);
+
+	boolean getBoolean(String p, boolean d);
+
+	ConfigurationSection getConfigurationSection(String p);
+
+	java.util.Set<String> getKeys(boolean d);
+
+	java.util.List<String> getStringList(String p);
+
+	boolean contains(String p);
+
+	boolean isConfigurationSection(String p);
+
+	String getCurrentPath();
+
+}
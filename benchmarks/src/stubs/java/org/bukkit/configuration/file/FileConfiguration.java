@@ -0,0 +1,5 @@
+package org.bukkit.configuration.file;
+
+public abstract class FileConfiguration implements org.bukkit.configuration.ConfigurationSection {
+
+}
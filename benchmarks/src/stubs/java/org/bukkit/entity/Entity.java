@@ -0,0 +1,21 @@
+package org.bukkit.entity;
+
+public interface Entity {
+
+	org.bukkit.Location getLocation();
+
+	EntityType getType();
+
+	void remove();
+
+	org.bukkit.World getWorld();
+
+	void setVelocity(org.bukkit.util.Vector v);
+
+	org.bukkit.util.Vector getVelocity();
+
+	boolean teleport(org.bukkit.Location l);
+
+	int getEntityId();
+
+}
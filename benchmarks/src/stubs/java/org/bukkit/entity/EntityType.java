@@ -0,0 +1,7 @@
+package org.bukkit.entity;
+
+public enum EntityType {
+
+	ARROW, PLAYER
+
+}
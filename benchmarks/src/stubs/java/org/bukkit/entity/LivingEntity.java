@@ -0,0 +1,9 @@
+package org.bukkit.entity;
+
+public interface LivingEntity extends Entity {
+
+	<T extends Projectile> T launchProjectile(Class<? extends T> c);
+
+	boolean isDead();
+
+}
@@ -0,0 +1,19 @@
+package org.bukkit.entity;
+
+public interface Player extends LivingEntity {
+
+	String getName();
+
+	boolean isOnline();
+
+	boolean hasPermission(String p);
+
+	org.bukkit.inventory.ItemStack getItemInHand();
+
+	Player getPlayer();
+
+	void sendMessage(String s);
+
+	java.util.UUID getUniqueId();
+
+}
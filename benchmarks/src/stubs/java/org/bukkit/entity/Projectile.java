@@ -0,0 +1,7 @@
+package org.bukkit.entity;
+
+public interface Projectile extends Entity {
+
+	LivingEntity getShooter();
+
+}
@@ -0,0 +1,9 @@
+package org.bukkit.event;
+
+public @interface EventHandler {
+
+	EventPriority priority() default EventPriority.NORMAL;
+
+	boolean ignoreCancelled() default false;
+
+}
@@ -0,0 +1,7 @@
+package org.bukkit.event;
+
+public enum EventPriority {
+
+	LOWEST, LOW, NORMAL, HIGH, HIGHEST, MONITOR
+
+}
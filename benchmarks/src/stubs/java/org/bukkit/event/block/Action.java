@@ -0,0 +1,7 @@
+package org.bukkit.event.block;
+
+public enum Action {
+
+	RIGHT_CLICK_BLOCK, LEFT_CLICK_BLOCK, RIGHT_CLICK_AIR, LEFT_CLICK_AIR
+
+}
@@ -0,0 +1,9 @@
+package org.bukkit.event.entity;
+
+public class ProjectileHitEvent {
+
+	public org.bukkit.entity.EntityType getEntityType() { return null; }
+
+	public org.bukkit.entity.Projectile getEntity() { return null; }
+
+}
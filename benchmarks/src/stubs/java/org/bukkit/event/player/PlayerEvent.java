@@ -0,0 +1,7 @@
+package org.bukkit.event.player;
+
+public class PlayerEvent {
+
+	public org.bukkit.entity.Player getPlayer() { return null; }
+
+}
@@ -0,0 +1,9 @@
+package org.bukkit.event.player;
+
+public class PlayerInteractEvent extends PlayerEvent {
+
+	public org.bukkit.event.block.Action getAction() { return null; }
+
+	public org.bukkit.block.Block getClickedBlock() { return null; }
+
+}
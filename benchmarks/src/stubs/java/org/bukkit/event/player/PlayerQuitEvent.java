@@ -0,0 +1,5 @@
+package org.bukkit.event.player;
+
+public class PlayerQuitEvent extends PlayerEvent {
+
+}
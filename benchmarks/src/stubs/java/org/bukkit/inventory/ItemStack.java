@@ -0,0 +1,7 @@
+package org.bukkit.inventory;
+
+public class ItemStack {
+
+	public org.bukkit.Material getType() { return null; }
+
+}
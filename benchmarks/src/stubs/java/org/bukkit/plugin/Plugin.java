@@ -0,0 +1,11 @@
+package org.bukkit.plugin;
+
+public interface Plugin {
+
+	org.bukkit.Server getServer();
+
+	java.util.logging.Logger getLogger();
+
+	java.io.File getDataFolder();
+
+}
@@ -0,0 +1,9 @@
+package org.bukkit.plugin;
+
+public interface PluginManager {
+
+	Plugin getPlugin(String n);
+
+	void registerEvents(org.bukkit.event.Listener l, Plugin p);
+
+}
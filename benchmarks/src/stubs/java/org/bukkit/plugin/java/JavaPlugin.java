@@ -0,0 +1,15 @@
+package org.bukkit.plugin.java;
+
+public abstract class JavaPlugin implements org.bukkit.plugin.Plugin {
+
+	public org.bukkit.Server getServer() { return null; }
+
+	public java.util.logging.Logger getLogger() { return null; }
+
+	public java.io.File getDataFolder() { return null; }
+
+	public void onDisable() {}
+
+	public void onEnable() {}
+
+}
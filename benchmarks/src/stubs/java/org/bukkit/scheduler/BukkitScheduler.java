@@ -0,0 +1,15 @@
+package org.bukkit.scheduler;
+
+public interface BukkitScheduler {
+
+	BukkitTask runTaskLater(org.bukkit.plugin.Plugin p, Runnable r, long d);
+
+	BukkitTask runTaskTimer(org.bukkit.plugin.Plugin p, Runnable r, long d, long per);
+
+	BukkitTask runTask(org.bukkit.plugin.Plugin p, Runnable r);
+
+	BukkitTask runTaskAsynchronously(org.bukkit.plugin.Plugin p, Runnable r);
+
+	BukkitTask runTaskTimerAsynchronously(org.bukkit.plugin.Plugin p, Runnable r, long d, long per);
+
+}
@@ -0,0 +1,9 @@
+package org.bukkit.scheduler;
+
+public interface BukkitTask {
+
+	void cancel();
+
+	int getTaskId();
+
+}
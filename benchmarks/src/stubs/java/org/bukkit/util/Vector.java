@@ -0,0 +1,7 @@
+package org.bukkit.util;
+
+public class Vector {
+
+	public Vector multiply(double d) { return this; }
+
+}
@@ -1,15 +1,23 @@
 package net.minedcontrol.bukkit.menus;
 
+import java.io.File;
+import java.util.ArrayList;
+import java.util.Arrays;
 import java.util.HashMap;
 import java.util.Map;
 import java.util.Set;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
 
 import net.minedcontrol.bukkit.menus.basis.Menu;
 import net.minedcontrol.bukkit.menus.basis.MenuCollection;
 import net.minedcontrol.bukkit.menus.basis.MenuOption;
 import net.minedcontrol.bukkit.menus.basis.MenuUnderlay;
+import net.minedcontrol.bukkit.menus.basis.listening.AsyncListenerExecutor;
+import net.minedcontrol.bukkit.menus.sessions.MenuSessions;
+import net.minedcontrol.bukkit.menus.sessions.SessionStore;
+import net.minedcontrol.bukkit.menus.uis.packetediting.BlockUpdateProtocol;
 import net.minedcontrol.bukkit.menus.uis.packetediting.PacketEngine;
-import net.minedcontrol.bukkit.menus.uis.packetediting.WhitelistEngine;
 import net.minedcontrol.zamalib.players.ZamaPlayer;
 import net.minedcontrol.zamalib.runtime.master.Zama;
 
@@ -23,15 +31,40 @@ import net.minedcontrol.zamalib.runtime.master.Zama;
  */
 public class MenuManager {
 	
+	//how long shutting down waits for asynchronous listeners, in seconds
+	private static final long LISTENER_SHUTDOWN_TIMEOUT = 10;
+	
+	//how long shutting down waits for sessions to be written, in seconds
+	private static final long SESSION_SHUTDOWN_TIMEOUT = 30;
+	
+	//the directory in the plugin's folder that sessions are saved in
+	private static final String SESSION_DIRECTORY = "sessions";
+	
+	//the initial length of the array of options by index
+	private static final int INITIAL_OPTION_CAPACITY = 64;
+	
 	private ConfigurationLoader configs;
 	
 	private MenuCollection menus;
 	
 	private Map<String, MenuOption> options;
+	//the options, indexed by their integer index. Written under the 
+	// manager's lock and republished after each write, so it can be read
+	// without locking.
+	private volatile MenuOption[] optionsByIndex;
 	private Map<String, MenuUnderlay> underlays;
 	
 	private PacketEngine engine;
 	
+	//created the first time an asynchronous listener is called
+	private AsyncListenerExecutor listenerExecutor;
+	
+	//created the first time a menu is saved or restored
+	private MenuSessions sessions;
+	
+	//the number of menus abandoned since the manager was created
+	private final AtomicLong abandoned = new AtomicLong();
+	
 	
 	/**
 	 * Constructs a new menu manager singleton and loads the configuration
@@ -40,6 +73,7 @@ public class MenuManager {
 	public MenuManager() {
 		this.menus = new MenuCollection();
 		this.options = new HashMap<String, MenuOption>();
+		this.optionsByIndex = new MenuOption[INITIAL_OPTION_CAPACITY];
 		this.underlays = new HashMap<String, MenuUnderlay>();
 	}
 	
@@ -58,8 +92,8 @@ public class MenuManager {
 	}
 	
 	/**
-	 * Convenience method that gets a copy of the set of menus for a 
-	 * player from the server-wide collection.
+	 * Convenience method that gets a live, unmodifiable view of the menus
+	 * for a player from the server-wide collection.
 	 * 
 	 * @param player	The player to get the menus of.
 	 * @return			The player's menus.
@@ -70,6 +104,61 @@ public class MenuManager {
 		return menus.getMenus(player);
 	}
 	
+	/**
+	 * Abandons every menu of a player, such as when they leave, so that
+	 * neither the menu collection nor their underlays keep them. Save the
+	 * menus first to resume them later.
+	 * 
+	 * @param player	The player whose menus to abandon.
+	 * @return			The number of menus abandoned.
+	 * 
+	 * @see Menu#abandon()
+	 */
+	public int abandonMenus(ZamaPlayer player) {
+		int count = 0;
+		
+		//copied, as abandoning a menu removes it from the live view
+		for(Menu menu : new ArrayList<Menu>(menus.getMenus(player))) {
+			if(menu.abandon())
+				count++;
+		}
+		
+		abandoned.addAndGet(count);
+		return count;
+	}
+	
+	/**
+	 * Lets go of a player who is leaving. Their menus are saved first if
+	 * sessions have been used, so that they can be resumed when they
+	 * return, and are then abandoned. Done by Menus itself when a player
+	 * quits.
+	 * 
+	 * @param player	The player who is leaving.
+	 * @return			The number of menus abandoned.
+	 * 
+	 * @see #abandonMenus(ZamaPlayer)
+	 */
+	public int releasePlayer(ZamaPlayer player) {
+		MenuSessions saver;
+		synchronized(this) {
+			saver = sessions;
+		}
+		
+		if(saver != null)
+			saver.save(player);
+		
+		return abandonMenus(player);
+	}
+	
+	/**
+	 * Gets the number of menus that have been abandoned, such as by their
+	 * players leaving, since the server started.
+	 * 
+	 * @return	The number of abandoned menus.
+	 */
+	public long getAbandonedCount() {
+		return abandoned.get();
+	}
 	
 	/**
 	 * Gets the engine being use to manage packets.
@@ -83,6 +172,65 @@ public class MenuManager {
 		return engine;
 	}
 	
+	/**
+	 * Gets the executor that calls asynchronous menu listeners, creating
+	 * it if it does not exist yet.
+	 * 
+	 * @return	The asynchronous listener executor.
+	 */
+	public synchronized AsyncListenerExecutor getListenerExecutor() {
+		if(listenerExecutor == null) {
+			MenusConfiguration pluginConfig = configs != null 
+					? configs.getPluginConfig() : null;
+			
+			listenerExecutor = new AsyncListenerExecutor(pluginConfig != null
+					? pluginConfig.getAsyncListenerThreads()
+					: MenusConfiguration.DEFAULT_ASYNC_LISTENER_THREADS);
+		}
+		
+		return listenerExecutor;
+	}
+	
+	/**
+	 * Gets the saver of players' menus, creating it if it does not exist 
+	 * yet.
+	 * 
+	 * @return	The menu sessions.
+	 */
+	public synchronized MenuSessions getSessions() {
+		if(sessions == null) {
+			sessions = new MenuSessions(new SessionStore(new File(
+					Menus.getPlugin().getDataFolder(), SESSION_DIRECTORY)));
+		}
+		
+		return sessions;
+	}
+	
+	/**
+	 * Shuts down the background work of the Menus utility, saving the 
+	 * menus of the players still online and waiting a short time for them
+	 * to be written and for asynchronous listeners that are still being 
+	 * called. Menus are only saved if sessions have been used.
+	 */
+	public synchronized void shutdown() {
+		if(sessions != null) {
+			sessions.saveAll();
+			if(!sessions.close(SESSION_SHUTDOWN_TIMEOUT, TimeUnit.SECONDS)) {
+				String message = "Saved menus were not all written before "
+						+ "shutting down.";
+				Zama.debug(Menus.getPlugin(), message, message);
+			}
+		}
+		
+		if(listenerExecutor != null && !listenerExecutor.shutdown(
+				LISTENER_SHUTDOWN_TIMEOUT, TimeUnit.SECONDS)) {
+			
+			String message = "Asynchronous menu listeners did not finish "
+					+ "before shutting down.";
+			Zama.debug(Menus.getPlugin(), message, message);
+		}
+	}
+	
 	/**
 	 * Gets the collection of the configurations for the Menus utility.
 	 * 
@@ -106,6 +254,24 @@ public class MenuManager {
 		return options.get(id);
 	}
 	
+	/**
+	 * Gets the menu option object for a given integer index, if it is 
+	 * found.
+	 * 
+	 * @param index	The index of the desired menu option.
+	 * @return		The menu option for the given index, if found, else
+	 * 				<code>null</code>.
+	 * 
+	 * @see MenuOption#getIndex()
+	 */
+	public MenuOption getOption(int index) {
+		MenuOption[] byIndex = optionsByIndex;
+		if(index < 0 || index >= byIndex.length)
+			return null;
+		
+		return byIndex[index];
+	}
+	
 	/**
 	 * Gets the menu underlay object for a given string id, if it is found.
 	 * 
@@ -134,6 +300,30 @@ public class MenuManager {
 			return false;
 		
 		options.put(key, option);
+		indexOption(option);
+		return true;
+	}
+	
+	/**
+	 * Removes a menu option from the central collection, both by its 
+	 * string id and by its integer index, such as a generated option that
+	 * will not be used again. Nothing is removed from the stages or 
+	 * underlays that use the option.
+	 * 
+	 * @param option	The menu option to remove.
+	 * @return			<code>true</code> if the option was in the 
+	 * 					collection and has been removed.
+	 */
+	public boolean removeOption(MenuOption option) {
+		if(option == null)
+			return false;
+		
+		//leaves another option registered under the same id alone
+		if(options.get(option.getId()) != option)
+			return false;
+		
+		options.remove(option.getId());
+		unindexOption(option);
 		return true;
 	}
 	
@@ -166,9 +356,14 @@ public class MenuManager {
 		this.configs = new ConfigurationLoader();
 		this.configs.initialize();
 		
-		//TODO TESTING IMPLEMENTATION (TEMPORARY)
+		//falls back to the default protocol if config.yml did not load
+		MenusConfiguration pluginConfig = configs.getPluginConfig();
+		BlockUpdateProtocol protocol = pluginConfig != null 
+				? pluginConfig.getBlockUpdateProtocol() 
+				: BlockUpdateProtocol.WHITELIST;
+		
 		try {
-			this.engine = new WhitelistEngine(); 
+			this.engine = protocol.createEngine(pluginConfig); 
 		}
 		catch(Exception e) {
 			String message = "Error encountered while initializing the packet engine.";
@@ -176,5 +371,45 @@ public class MenuManager {
 			Zama.debug(Menus.getPlugin(), e, e);
 		}
 	}
+	
+	
+	//--------
+	//PRIVATE
+	//--------
+	
+	/**
+	 * Adds an option to the array of options by index, growing the array
+	 * if the index is past its end. 
+	 * 
+	 * @param option	The option.
+	 */
+	private synchronized void indexOption(MenuOption option) {
+		MenuOption[] byIndex = optionsByIndex;
+		int index = option.getIndex();
+		
+		if(index >= byIndex.length) {
+			byIndex = Arrays.copyOf(byIndex, 
+					Math.max(byIndex.length * 2, index + 1));
+		}
+		
+		byIndex[index] = option;
+		optionsByIndex = byIndex;
+	}
+	
+	/**
+	 * Clears an option's slot in the array of options by index, if it is
+	 * still the option in it.
+	 * 
+	 * @param option	The option.
+	 */
+	private synchronized void unindexOption(MenuOption option) {
+		MenuOption[] byIndex = optionsByIndex;
+		int index = option.getIndex();
+		
+		if(index < byIndex.length && byIndex[index] == option) {
+			byIndex[index] = null;
+			optionsByIndex = byIndex;
+		}
+	}
 
 }
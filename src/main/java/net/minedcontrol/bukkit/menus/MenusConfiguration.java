@@ -1,5 +1,8 @@
 package net.minedcontrol.bukkit.menus;
 
+import org.bukkit.configuration.file.FileConfiguration;
+
+import net.minedcontrol.bukkit.menus.uis.packetediting.BlockUpdateProtocol;
 import net.minedcontrol.zamalib.plugins.config.PluginConfiguration;
 
 /**
@@ -13,18 +16,96 @@ import net.minedcontrol.zamalib.plugins.config.PluginConfiguration;
 
 public class MenusConfiguration extends PluginConfiguration {
 	
+	//the protocol used if none is configured
+	private static final BlockUpdateProtocol DEFAULT_PROTOCOL = 
+			BlockUpdateProtocol.WHITELIST;
+	
+	/**
+	 * The time to live of whitelisted block updates if none is configured,
+	 * in server ticks.
+	 */
+	public static final int DEFAULT_VARIANCE_TTL = 100;
+	
+	/**
+	 * The number of threads asynchronous menu listeners are called on if 
+	 * none is configured.
+	 */
+	public static final int DEFAULT_ASYNC_LISTENER_THREADS = 4;
+	
+	//how fake blocks are sent and protected from server updates
+	private BlockUpdateProtocol protocol;
+	
+	//how long whitelisted block updates last if never sent, in ticks
+	private int varianceTtl;
+	
+	//how many asynchronous listener calls can run at once
+	private int asyncListenerThreads;
+	
 	
 	public MenusConfiguration() 
 			throws IllegalArgumentException {
 		
 		super(Menus.getPlugin());
 	}
+	
+	/**
+	 * Gets the protocol the packet engine should use to send fake blocks.
+	 * 
+	 * @return	The configured block update protocol.
+	 */
+	public BlockUpdateProtocol getBlockUpdateProtocol() {
+		return protocol != null ? protocol : DEFAULT_PROTOCOL;
+	}
+
+	/**
+	 * Gets how long a whitelisted block update is kept if its packet is
+	 * never sent.
+	 * 
+	 * @return	The time to live in server ticks. <code>0</code> or less 
+	 * 			if they are kept until sent.
+	 */
+	public int getVarianceTtl() {
+		return varianceTtl;
+	}
+	
+	/**
+	 * Gets the number of threads asynchronous menu listeners are called on.
+	 * 
+	 * @return	The number of threads. Always positive.
+	 */
+	public int getAsyncListenerThreads() {
+		return asyncListenerThreads > 0 
+				? asyncListenerThreads : DEFAULT_ASYNC_LISTENER_THREADS;
+	}
 
 	@Override
 	protected void onLoad() throws IllegalStateException {
 		// TODO Add parsing of the config.yml into whatever fields are
-		// necessary, such as the settings of the packet engine.
+		// necessary.
+		
+		FileConfiguration config = getConfig();
+		
+		//--the packet engine's protocol--
+		String protocolName = config.getString("packets.protocol");
+		if(protocolName == null || protocolName.equals("")) {
+			protocol = DEFAULT_PROTOCOL;
+		}
+		else {
+			try {
+				protocol = BlockUpdateProtocol.valueOf(protocolName.toUpperCase());
+			}
+			catch(IllegalArgumentException e) {
+				throw new IllegalStateException("Error while loading config.yml: "
+						+ "'" + protocolName + "' is not a block update protocol");
+			}
+		}
+		
+		//--how long whitelisted updates last--
+		varianceTtl = config.getInt("packets.variance-ttl", DEFAULT_VARIANCE_TTL);
 		
+		//--how many threads asynchronous listeners get--
+		asyncListenerThreads = config.getInt("listeners.async-threads", 
+				DEFAULT_ASYNC_LISTENER_THREADS);
 	}
 	
 
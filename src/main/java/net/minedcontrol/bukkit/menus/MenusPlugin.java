@@ -1,5 +1,7 @@
 package net.minedcontrol.bukkit.menus;
 
+import net.minedcontrol.bukkit.menus.listeners.PacketEngineListener;
+import net.minedcontrol.bukkit.menus.listeners.PlayerMenusListener;
 import net.minedcontrol.bukkit.menus.testing.TestClientMain;
 import net.minedcontrol.zamalib.plugins.ZamaPlugin;
 
@@ -17,10 +19,23 @@ public class MenusPlugin extends ZamaPlugin {
 	public void postEnable() {
 		MenuManager manager = Menus.getManager(); // initialize the manager
 		
+		getServer().getPluginManager().registerEvents(
+				new PlayerMenusListener(), this);
+		getServer().getPluginManager().registerEvents(
+				new PacketEngineListener(), this);
+		
 		//TODO Testing code (REMOVE)
 		TestClientMain testing = new TestClientMain(this);
 	}
 	
+	@Override
+	public void onDisable() {
+		//lets asynchronous listeners finish before the plugin goes away
+		Menus.getManager().shutdown();
+		
+		super.onDisable();
+	}
+	
 	/**
 	 * Gets the manager of the Menus utility.
 	 * 
@@ -0,0 +1,178 @@
+package net.minedcontrol.bukkit.menus.basis;
+
+/**
+ * The choices a menu has made, up to a fixed number, kept in a ring so
+ * that remembering a new choice never moves the others.
+ * <p>
+ * Paths can be taken from the history without copying it. The ring has
+ * room for twice the remembered choices, and is only copied when a
+ * change would overwrite a choice that a path taken from it can still
+ * see. With a path taken for every choice, that is about once per
+ * capacity's worth of choices, or when a choice is made after undoing
+ * one.
+ * <p>
+ * Not thread-safe. Paths taken from it are.
+ * <p>
+ * Date Created: Oct 17, 2026
+ *
+ * @see MenuPath
+ */
+final class ChoiceHistory {
+
+	private final int capacity;
+
+	private MenuChoice[] slots;
+
+	//the absolute positions of the oldest remembered choice and of the
+	// one after the most recent. Only ever grow apart by one choice at a
+	// time, so never overflow in practice.
+	private long start;
+	private long end;
+
+	//the union of the ranges of the paths taken since the ring was last
+	// copied, which must not be overwritten. Empty when start >= end.
+	private long sharedStart;
+	private long sharedEnd;
+
+	//the last path taken, reused until the history changes
+	private MenuPath path;
+
+
+	/**
+	 * Class constructor.
+	 *
+	 * @param capacity	The maximum number of choices to remember. Must be
+	 * 					positive.
+	 *
+	 * @throws IllegalArgumentException	if the capacity is not positive.
+	 */
+	ChoiceHistory(int capacity) throws IllegalArgumentException {
+		if(capacity <= 0)
+			throw new IllegalArgumentException("capacity must be positive");
+
+		this.capacity = capacity;
+		this.slots = new MenuChoice[capacity * 2];
+	}
+
+
+	//--------
+	//DEFAULT
+	//--------
+
+	/**
+	 * Remembers a new choice, forgetting the oldest one if the history is
+	 * full.
+	 *
+	 * @param choice	The choice. Not <code>null</code>.
+	 */
+	void push(MenuChoice choice) {
+		//the slot was last written with either this position, if a choice
+		// was undone, or the position a full ring before it
+		if(sharedStart < sharedEnd
+				&& (end < sharedEnd || end - slots.length >= sharedStart))
+			detach();
+
+		slots[slot(end++)] = choice;
+
+		if(end - start > capacity) {
+			if(sharedStart >= sharedEnd)
+				slots[slot(start)] = null;
+
+			start++;
+		}
+
+		path = null;
+	}
+
+	/**
+	 * Forgets the most recent choice.
+	 *
+	 * @return	The choice. <code>null</code> if there are none.
+	 */
+	MenuChoice pop() {
+		if(end == start)
+			return null;
+
+		int slot = slot(--end);
+		MenuChoice choice = slots[slot];
+
+		//paths may still be able to see it
+		if(sharedStart >= sharedEnd)
+			slots[slot] = null;
+
+		path = null;
+		return choice;
+	}
+
+	/**
+	 * Gets whether there are no remembered choices.
+	 *
+	 * @return	<code>true</code> if the history is empty.
+	 */
+	boolean isEmpty() {
+		return end == start;
+	}
+
+	/**
+	 * Gets the maximum number of choices remembered.
+	 *
+	 * @return	The history's capacity.
+	 */
+	int getCapacity() {
+		return capacity;
+	}
+
+	/**
+	 * Gets the remembered choices as they are now, without copying them.
+	 *
+	 * @return	The current path.
+	 */
+	MenuPath getPath() {
+		if(path != null)
+			return path;
+
+		if(end == start)
+			return path = MenuPath.empty();
+
+		if(sharedStart >= sharedEnd) {
+			sharedStart = start;
+			sharedEnd = end;
+		}
+		else {
+			sharedStart = Math.min(sharedStart, start);
+			sharedEnd = Math.max(sharedEnd, end);
+		}
+
+		return path = new MenuPath(slots, start, (int) (end - start));
+	}
+
+
+	//--------
+	//PRIVATE
+	//--------
+
+	/**
+	 * Gets the slot in the ring of an absolute position.
+	 *
+	 * @param position	The position.
+	 * @return			The slot.
+	 */
+	private int slot(long position) {
+		return (int) (position % slots.length);
+	}
+
+	/**
+	 * Gives the history its own copy of the ring, leaving the old one to
+	 * the paths that were taken from it.
+	 */
+	private void detach() {
+		MenuChoice[] copy = new MenuChoice[slots.length];
+		for(long i = start; i < end; i++) {
+			copy[slot(i)] = slots[slot(i)];
+		}
+
+		slots = copy;
+		sharedStart = sharedEnd = 0;
+	}
+
+}
@@ -1,7 +1,10 @@
 package net.minedcontrol.bukkit.menus.basis;
 
-import java.util.LinkedList;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
 import java.util.Stack;
+import java.util.concurrent.Executor;
 
 import net.minedcontrol.bukkit.menus.Menus;
 import net.minedcontrol.bukkit.menus.basis.responses.MenuResponse;
@@ -50,14 +53,15 @@ import net.minedcontrol.zamalib.players.ZamaPlayer;
 
 public class Menu {
 	
-	//the maximum amount of decisions that will be remembered for a menu.
-	private static final int MAX_PATH_SIZE = 50;
+	//the amount of decisions that will be remembered for a menu, unless
+	// its underlay sets its own.
+	private static final int DEFAULT_PATH_CAPACITY = 50;
 
 	private final MenuUnderlay underlay;
 	
-	//the choices made so far in the menu. New choices added to the end,
-	// old choices removed from the front when it eclipses the max size.
-	private final LinkedList<MenuChoice> path;
+	//the choices made so far in the menu. Forgets the oldest choices 
+	// once it is full.
+	private final ChoiceHistory path;
 
 	private ZamaPlayer player;
 
@@ -72,6 +76,10 @@ public class Menu {
 	private MenuStage stage;
 
 	private MenuInterface ui;
+	
+	//runs this menu's asynchronous listener calls in order. Created the
+	// first time one is needed.
+	private Executor listenerQueue;
 
 
 	/**
@@ -92,6 +100,30 @@ public class Menu {
 	public Menu(MenuUnderlay underlay, ZamaPlayer player) 
 			throws IllegalArgumentException,IllegalStateException { 
 
+		this(underlay, player, null, null);
+	}
+	
+	/**
+	 * Private constructor, for new and resumed menus.
+	 * 
+	 * @param underlay	The underlay that this menu should traverse over.
+	 * 					Not <code>null</code>.
+	 * @param player	The player this menu is for, if any.
+	 * @param position	The node to resume the menu at. <code>null</code>
+	 * 					to start at the start of the underlay.
+	 * @param choices	The choices the menu had made, from the oldest. 
+	 * 					<code>null</code> for none.
+	 * 
+	 * @throws IllegalArgumentException	if the underlay is <code>null</code>.
+	 * @throws IllegalStateException	on being unable to get a valid
+	 * 									starting point from the given 
+	 * 									underlay or being unable to add 
+	 * 									this menu to the underlay.
+	 */
+	private Menu(MenuUnderlay underlay, ZamaPlayer player, 
+			UnderlayNode position, List<MenuChoice> choices) 
+			throws IllegalArgumentException,IllegalStateException { 
+
 
 		if(underlay == null)
 			throw new IllegalArgumentException("underlay cannot be null");
@@ -104,15 +136,76 @@ public class Menu {
 			throw new IllegalStateException("could not add this menu to"
 					+ " the underlay");
 
-		this.path = new LinkedList<MenuChoice>();
+		this.path = new ChoiceHistory(getPathCapacity(underlay));
+		if(choices != null) {
+			for(MenuChoice choice : choices) {
+				path.push(choice);
+			}
+		}
 		
-		setPosition(underlay.getStart(this));
-		if(this.position == null)
+		setPosition(position != null ? position : underlay.getStart(this));
+		if(this.position == null) {
+			underlay.removeMenu(this);
 			throw new IllegalStateException("cannot get a starting point "
 					+ "from the underlay");
+		}
 		
 		Menus.getManager().getMenuCollection().addMenu(this);
 	}
+	
+	/**
+	 * Resumes a menu from a snapshot of it, at the node it was at and with 
+	 * the choices it had made. Does not call any listeners.
+	 * <p>
+	 * If some of the choices can no longer be found, such as after their
+	 * options were removed, the menu only remembers the choices made 
+	 * after them.
+	 * 
+	 * @param snapshot	The snapshot. Not <code>null</code>.
+	 * @param player	The player the menu is for. Can be 
+	 * 					<code>null</code> for none.
+	 * @return			The resumed menu.
+	 * 
+	 * @throws IllegalArgumentException	on a <code>null</code> snapshot.
+	 * @throws IllegalStateException	if the snapshot's underlay or node 
+	 * 									cannot be found, or the underlay 
+	 * 									cannot be resumed.
+	 */
+	public static Menu restore(MenuSnapshot snapshot, ZamaPlayer player) 
+			throws IllegalArgumentException, IllegalStateException {
+		
+		if(snapshot == null)
+			throw new IllegalArgumentException("snapshot cannot be null");
+		
+		MenuUnderlay found = Menus.getManager().getUnderlay(snapshot.getUnderlayId());
+		if(!(found instanceof ResumableUnderlay))
+			throw new IllegalStateException("no resumable underlay '" 
+					+ snapshot.getUnderlayId() + "'");
+		
+		ResumableUnderlay underlay = (ResumableUnderlay) found;
+		UnderlayNode position = underlay.getNode(snapshot.getNodeId());
+		if(position == null)
+			throw new IllegalStateException("no node '" + snapshot.getNodeId()
+					+ "' in underlay '" + snapshot.getUnderlayId() + "'");
+		
+		//keeps the choices after the last one that cannot be found, so 
+		// that undoing never skips a choice
+		List<MenuChoice> choices = new ArrayList<MenuChoice>(snapshot.numChoices());
+		for(int i = 0; i < snapshot.numChoices(); i++) {
+			UnderlayNode where = underlay.getNode(snapshot.getChoiceNode(i));
+			MenuOption option = Menus.getManager().getOption(
+					snapshot.getChoiceOption(i));
+			
+			if(where == null || option == null) {
+				choices.clear();
+				continue;
+			}
+			
+			choices.add(new MenuChoice(where, snapshot.getChoiceTime(i), option));
+		}
+		
+		return new Menu(underlay, player, position, choices);
+	}
 
 
 	//--------
@@ -151,13 +244,69 @@ public class Menu {
 	 * @return	The path that led to the current state of the menu.
 	 */
 	public final Stack<MenuChoice> getPath() {
-		Stack<MenuChoice> path = new Stack<MenuChoice>();
+		return path.getPath().toStack();
+	}
+	
+	/**
+	 * Gets the path this menu took so far, from the oldest remembered 
+	 * choice to the most recent. Unlike {@link #getPath()}, does not copy 
+	 * the path, and the result does not change as the menu goes on.
+	 * <p>
+	 * The path may not be complete. This menu may limit the maximum amount
+	 * of choices it remembers.
+	 * 
+	 * @return	The path that led to the current state of the menu.
+	 * 
+	 * @see PathLimitedUnderlay
+	 */
+	public final MenuPath getMenuPath() {
+		return path.getPath();
+	}
+
+	/**
+	 * Takes a snapshot of this menu, from which it can be resumed with
+	 * {@link #restore(MenuSnapshot, ZamaPlayer)}. Choices made at nodes 
+	 * without ids are left out, along with every choice before them.
+	 * 
+	 * @return	The snapshot. <code>null</code> if the menu has finished, 
+	 * 			its underlay cannot be resumed, or its current node has no 
+	 * 			id.
+	 */
+	public final MenuSnapshot snapshot() {
+		if(position == null || !(underlay instanceof ResumableUnderlay))
+			return null;
+		
+		ResumableUnderlay resumable = (ResumableUnderlay) underlay;
+		String nodeId = resumable.getNodeId(position);
+		if(nodeId == null)
+			return null;
 		
-		for(MenuChoice choice : this.path) {
-			path.add(choice);
+		MenuPath choices = path.getPath();
+		String[] nodes = new String[choices.size()];
+		String[] options = new String[choices.size()];
+		long[] times = new long[choices.size()];
+		
+		int count = 0;
+		for(MenuChoice choice : choices) {
+			String where = resumable.getNodeId(choice.getWhere());
+			if(where == null) {
+				count = 0;
+				continue;
+			}
+			
+			nodes[count] = where;
+			options[count] = choice.getChoice().getId();
+			times[count] = choice.getWhen();
+			count++;
 		}
 		
-		return path;
+		if(count < nodes.length) {
+			nodes = Arrays.copyOf(nodes, count);
+			options = Arrays.copyOf(options, count);
+			times = Arrays.copyOf(times, count);
+		}
+		
+		return new MenuSnapshot(underlay.getId(), nodeId, nodes, options, times);
 	}
 
 	/**
@@ -212,7 +361,7 @@ public class Menu {
 		}
 		
 		//calls the option's listeners
-		option.select(this, stage);
+		option.select(this, stage, position);
 		
 		//adds a the selection to the path if it was valid
 		addToPath(new MenuChoice(position, option));
@@ -240,12 +389,31 @@ public class Menu {
 		if(path.isEmpty())
 			return false;
 
-		MenuChoice last = path.removeLast();
-		last.getChoice().undoLast(this);
+		MenuChoice last = path.pop();
+		last.getChoice().undoLast(this, last.getWhere());
 		setPosition(last.getWhere());
 		return true;
 	}
 
+	/**
+	 * Ends this menu where it is without selecting anything, such as when
+	 * its user leaves partway through the dialogue. The menu is removed 
+	 * from its underlay and the menu collection and its interface is 
+	 * closed, as when it finishes, but no listeners are called. 
+	 * <p>
+	 * Take a snapshot of the menu first to resume it later.
+	 * 
+	 * @return	<code>true</code> if the menu was abandoned. 
+	 * 			<code>false</code> if it had already ended.
+	 */
+	public final boolean abandon() {
+		if(position == null)
+			return false;
+		
+		setPosition(null);
+		return true;
+	}
+
 	/**
 	 * Mutually associates this menu with a frontend user interface.
 	 * 
@@ -267,6 +435,7 @@ public class Menu {
 
 		this.ui = ui;
 		ui.setMenu(this);
+		Menus.getManager().getMenuCollection().interfaceChanged(this, null);
 		
 		//updates the display of the interface after being associated
 		if(position != null)
@@ -283,7 +452,27 @@ public class Menu {
 		ui.close(); //closes the interface before dissociating
 		ui.removeMenu();
 
+		MenuInterface old = ui;
 		this.ui = null;
+		Menus.getManager().getMenuCollection().interfaceChanged(this, old);
+	}
+	
+
+	//--------
+	//DEFAULT
+	//--------
+	
+	/**
+	 * Gets the queue this menu's asynchronous listener calls are made on,
+	 * so that they are made one at a time and in the order they happened.
+	 * 
+	 * @return	This menu's listener queue.
+	 */
+	final Executor getListenerQueue() {
+		if(listenerQueue == null)
+			listenerQueue = Menus.getManager().getListenerExecutor().newQueue();
+		
+		return listenerQueue;
 	}
 	
 
@@ -325,8 +514,8 @@ public class Menu {
 	}
 	
 	/**
-	 * Adds a new choice to the path, making sure it does not eclipse the
-	 * maximum path length.
+	 * Adds a new choice to the path. The path forgets its oldest choice
+	 * when it is full.
 	 * 
 	 * @param choice	The choice to add.
 	 */
@@ -334,10 +523,22 @@ public class Menu {
 		if(choice == null)
 			return;
 		
-		path.add(choice);
-		
-		while (path.size() > MAX_PATH_SIZE) {
-			path.removeFirst();
+		path.push(choice);
+	}
+	
+	/**
+	 * Gets the number of choices a menu over an underlay should remember.
+	 * 
+	 * @param underlay	The underlay.
+	 * @return			The path capacity.
+	 */
+	private static int getPathCapacity(MenuUnderlay underlay) {
+		if(underlay instanceof PathLimitedUnderlay) {
+			int capacity = ((PathLimitedUnderlay) underlay).getPathCapacity();
+			if(capacity > 0)
+				return capacity;
 		}
+		
+		return DEFAULT_PATH_CAPACITY;
 	}
 }
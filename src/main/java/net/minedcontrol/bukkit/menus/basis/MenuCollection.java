@@ -1,9 +1,14 @@
 package net.minedcontrol.bukkit.menus.basis;
 
-import java.util.HashMap;
-import java.util.HashSet;
+import java.util.AbstractSet;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Iterator;
+import java.util.List;
 import java.util.Map;
 import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
 
 import net.minedcontrol.zamalib.players.PlayerUID;
 import net.minedcontrol.zamalib.players.ZamaPlayer;
@@ -12,6 +17,14 @@ import net.minedcontrol.zamalib.players.ZamaPlayer;
  * A collection of menus. Intended to serve as a server-wide, singleton 
  * collection.
  * <p>
+ * Menus are indexed by their player, their underlay, and the type of their
+ * interface. Every set returned is an unmodifiable, live view of the
+ * collection rather than a copy: it reflects menus being added and
+ * removed, and can be iterated from any thread while that happens,
+ * without ever throwing a
+ * <code>ConcurrentModificationException</code>. Copy a view to keep
+ * the menus it held at a point in time.
+ * <p>
  * Date Created: Jan 28, 2014
  * 
  * @author Brutus
@@ -20,12 +33,36 @@ import net.minedcontrol.zamalib.players.ZamaPlayer;
 
 public class MenuCollection {
 	
-	private Map<PlayerUID, Set<Menu>> userMenus;
-	private Set<Menu> userlessMenus;
+	private final Set<Menu> allMenus;
+	private final Set<Menu> userlessMenus;
+
+	//the secondary indexes. Sets are removed once empty, and the views of
+	// them look their set up again on each use so they stay live.
+	private final ConcurrentMap<PlayerUID, Set<Menu>> userMenus;
+	private final ConcurrentMap<MenuUnderlay, Set<Menu>> underlayMenus;
+	//key: an interface class, or any of its superclasses that are 
+	// menu interfaces
+	private final ConcurrentMap<Class<?>, Set<Menu>> interfaceMenus;
+
+	//the types a menu is indexed by for each class of interface it has had
+	private final ConcurrentMap<Class<?>, Class<?>[]> interfaceTypes;
+
+	//the views handed out, which never change
+	private final Set<Menu> allView;
+	private final Set<Menu> userlessView;
+
 	
 	public MenuCollection() {
-		this.userMenus = new HashMap<PlayerUID, Set<Menu>>();
-		this.userlessMenus = new HashSet<Menu>();
+		this.allMenus = newMenuSet();
+		this.userlessMenus = newMenuSet();
+
+		this.userMenus = new ConcurrentHashMap<PlayerUID, Set<Menu>>();
+		this.underlayMenus = new ConcurrentHashMap<MenuUnderlay, Set<Menu>>();
+		this.interfaceMenus = new ConcurrentHashMap<Class<?>, Set<Menu>>();
+		this.interfaceTypes = new ConcurrentHashMap<Class<?>, Class<?>[]>();
+
+		this.allView = Collections.unmodifiableSet(allMenus);
+		this.userlessView = Collections.unmodifiableSet(userlessMenus);
 	}
 
 	//--------
@@ -33,48 +70,79 @@ public class MenuCollection {
 	//--------
 	
 	/**
-	 * Gets a copy of the set of all of the menus in the collection.
+	 * Gets a live view of all of the menus in the collection.
 	 * 
 	 * @return	All of the menus in the collection.
 	 */
 	public Set<Menu> getAllMenus() {
-		Set<Menu> ret = new HashSet<Menu>();
-		
-		for(Set<Menu> menus : userMenus.values()) {
-			if(menus == null) continue;
-			
-			ret.addAll(menus);
-		}
-		
-		ret.addAll(userlessMenus);
-		return ret;
+		return allView;
 	}
 	
 	/**
-	 * Gets a copy of the set of menus for a player.
+	 * Gets a live view of the menus for a player.
 	 * 
 	 * @param player	The player to get the menus of.
-	 * @return			The player's menus.
+	 * @return			The player's menus. Empty if the player is
+	 * 					<code>null</code>.
 	 */
 	public Set<Menu> getMenus(ZamaPlayer player) {
 		if(player == null)
-			return new HashSet<Menu>();
-		
-		Set<Menu> menus = userMenus.get(player);
-		if(menus == null)
-			return new HashSet<Menu>();
+			return Collections.emptySet();
 		
-		return new HashSet<Menu>(menus);
+		return getMenus(player.getUID());
 	}
 	
 	/**
-	 * Gets all menus from the collection that do not have a user 
-	 * associated with them.
+	 * Gets a live view of the menus for a player by their unique id.
+	 * 
+	 * @param player	The unique id of the player to get the menus of.
+	 * @return			The player's menus. Empty if the id is
+	 * 					<code>null</code>.
+	 */
+	public Set<Menu> getMenus(PlayerUID player) {
+		if(player == null)
+			return Collections.emptySet();
+
+		return new IndexView<PlayerUID>(userMenus, player);
+	}
+
+	/**
+	 * Gets a live view of the menus traversing an underlay.
+	 * 
+	 * @param underlay	The underlay to get the menus of.
+	 * @return			The underlay's menus. Empty if the underlay is
+	 * 					<code>null</code>.
+	 */
+	public Set<Menu> getMenus(MenuUnderlay underlay) {
+		if(underlay == null)
+			return Collections.emptySet();
+
+		return new IndexView<MenuUnderlay>(underlayMenus, underlay);
+	}
+
+	/**
+	 * Gets a live view of the menus displayed by a type of interface,
+	 * including those displayed by subclasses of it.
+	 * 
+	 * @param type	The type of interface.
+	 * @return		The menus with an interface of that type. Empty if the
+	 * 				type is <code>null</code>.
+	 */
+	public Set<Menu> getMenus(Class<? extends MenuInterface> type) {
+		if(type == null)
+			return Collections.emptySet();
+
+		return new IndexView<Class<?>>(interfaceMenus, type);
+	}
+
+	/**
+	 * Gets a live view of all menus from the collection that do not have
+	 * a user associated with them.
 	 * 
 	 * @return	The set of userless menus.
 	 */
 	public Set<Menu> getUserlessMenus() {
-		return new HashSet<Menu>(userlessMenus);
+		return userlessView;
 	}
 	
 	
@@ -88,21 +156,24 @@ public class MenuCollection {
 	 * 
 	 * @param menu	The menu to add.
 	 */
-	void addMenu(Menu menu) {
-		if(menu == null)
+	@SuppressWarnings("deprecation")
+	synchronized void addMenu(Menu menu) {
+		if(menu == null || !allMenus.add(menu))
 			return;
 		
 		ZamaPlayer user = menu.getUser();
 		if(user == null)
 			userlessMenus.add(menu);
+		else
+			index(userMenus, user.getUID(), menu);
 		
-		else {
-			Set<Menu> menus = userMenus.get(user.getUID());
-			
-			if(menus == null)
-				userMenus.put(user.getUID(), menus = new HashSet<Menu>());
+		index(underlayMenus, menu.getUnderlay(), menu);
 			
-			menus.add(menu);
+		MenuInterface ui = menu.getInterface();
+		if(ui != null) {
+			for(Class<?> type : getInterfaceTypes(ui.getClass())) {
+				index(interfaceMenus, type, menu);
+			}
 		}
 	}
 	
@@ -112,29 +183,173 @@ public class MenuCollection {
 	 * 
 	 * @param menu	The menu to remove.
 	 */
-	void removeMenu(Menu menu) {
-		if(menu == null) 
+	@SuppressWarnings("deprecation")
+	synchronized void removeMenu(Menu menu) {
+		if(menu == null || !allMenus.remove(menu))
 			return;
 		
 		ZamaPlayer user = menu.getUser();
 		if(user == null)
 			userlessMenus.remove(menu);
+		else
+			unindex(userMenus, user.getUID(), menu);
 		
-		else {
-			Set<Menu> menus = userMenus.get(user.getUID());
-			
-			if(menus == null)
-				return;
+		unindex(underlayMenus, menu.getUnderlay(), menu);
 			
-			menus.remove(menu);
+		MenuInterface ui = menu.getInterface();
+		if(ui != null) {
+			for(Class<?> type : getInterfaceTypes(ui.getClass())) {
+				unindex(interfaceMenus, type, menu);
+			}
+		}
+	}
 			
-			//removes the player's key,value pair if they no longer have
-			// any menus active.
-			if(menus.isEmpty())
-				userMenus.remove(user.getUID());
+	/**
+	 * Moves a menu in the index of interface types after its interface
+	 * has changed. Done automatically by the menu.
+	 * 
+	 * @param menu	The menu.
+	 * @param old	The interface the menu had before. Can be
+	 * 				<code>null</code> if it had none.
+	 */
+	synchronized void interfaceChanged(Menu menu, MenuInterface old) {
+		//menus that are not in the collection, such as finished ones,
+		// are not indexed
+		if(menu == null || !allMenus.contains(menu))
+			return;
 			
+		if(old != null) {
+			for(Class<?> type : getInterfaceTypes(old.getClass())) {
+				unindex(interfaceMenus, type, menu);
+			}
 		}
 		
+		MenuInterface ui = menu.getInterface();
+		if(ui != null) {
+			for(Class<?> type : getInterfaceTypes(ui.getClass())) {
+				index(interfaceMenus, type, menu);
+			}
+		}
+	}
+
+
+	//--------
+	//PRIVATE
+	//--------
+
+	/**
+	 * Creates a set of menus that can be iterated while it is changed.
+	 * 
+	 * @return	A new concurrent set.
+	 */
+	private static Set<Menu> newMenuSet() {
+		return Collections.newSetFromMap(new ConcurrentHashMap<Menu, Boolean>());
+	}
+
+	/**
+	 * Adds a menu to the set for a key of an index, creating the set if
+	 * the key has none. Must be called while synchronized.
+	 * 
+	 * @param index	The index.
+	 * @param key	The key. Not <code>null</code>.
+	 * @param menu	The menu.
+	 */
+	private static <K> void index(Map<K, Set<Menu>> index, K key, Menu menu) {
+		Set<Menu> menus = index.get(key);
+
+		if(menus == null)
+			index.put(key, menus = newMenuSet());
+
+		menus.add(menu);
+	}
+
+	/**
+	 * Removes a menu from the set for a key of an index, removing the set
+	 * once it is empty. Must be called while synchronized.
+	 * 
+	 * @param index	The index.
+	 * @param key	The key. Not <code>null</code>.
+	 * @param menu	The menu.
+	 */
+	private static <K> void unindex(Map<K, Set<Menu>> index, K key, Menu menu) {
+		Set<Menu> menus = index.get(key);
+
+		if(menus == null)
+			return;
+
+		menus.remove(menu);
+
+		//removes the key, so that players who have left and underlays
+		// that are no longer used are not kept
+		if(menus.isEmpty())
+			index.remove(key);
+	}
+
+	/**
+	 * Gets the types a menu with an interface of a class is indexed by:
+	 * the class and every superclass of it that is a menu interface.
+	 * 
+	 * @param uiClass	The class of the interface.
+	 * @return			The types to index the menu by.
+	 */
+	private Class<?>[] getInterfaceTypes(Class<?> uiClass) {
+		Class<?>[] types = interfaceTypes.get(uiClass);
+		if(types != null)
+			return types;
+
+		List<Class<?>> list = new ArrayList<Class<?>>();
+		for(Class<?> c = uiClass; c != null
+				&& MenuInterface.class.isAssignableFrom(c); c = c.getSuperclass()) {
+
+			list.add(c);
+		}
+
+		types = list.toArray(new Class<?>[list.size()]);
+		interfaceTypes.put(uiClass, types);
+		return types;
+	}
+
+	/**
+	 * An unmodifiable, live view of the menus for a key of an index.
+	 * Looks the key's set up again on each use, as the set is replaced
+	 * whenever the key's menus all end and new ones begin.
+	 */
+	private static final class IndexView<K> extends AbstractSet<Menu> {
+
+		private final Map<K, Set<Menu>> index;
+		private final K key;
+
+		private IndexView(Map<K, Set<Menu>> index, K key) {
+			this.index = index;
+			this.key = key;
+		}
+
+		@Override
+		public Iterator<Menu> iterator() {
+			Set<Menu> menus = index.get(key);
+			if(menus == null)
+				return Collections.<Menu>emptySet().iterator();
+
+			return Collections.unmodifiableSet(menus).iterator();
+		}
+
+		@Override
+		public int size() {
+			Set<Menu> menus = index.get(key);
+			return menus != null ? menus.size() : 0;
+		}
+
+		@Override
+		public boolean isEmpty() {
+			Set<Menu> menus = index.get(key);
+			return menus == null || menus.isEmpty();
+		}
+
+		@Override
+		public boolean contains(Object o) {
+			Set<Menu> menus = index.get(key);
+			return menus != null && menus.contains(o);
+		}
 	}
 
 }
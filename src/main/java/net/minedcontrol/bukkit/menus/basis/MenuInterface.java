@@ -22,7 +22,10 @@ import net.minedcontrol.bukkit.menus.basis.responses.MenuResponseType;
  * either the menu or its current set of options.
  * <p>
  * Potentially has a limited number of option slots it can contain and a 
- * limited length of option names/titles it can display.
+ * limited length of option names/titles it can display. Stages with more 
+ * options than an interface can display are split into pages, which the
+ * interface can move between with {@link #nextPage()} and 
+ * {@link #previousPage()}.
  * <p>
  * To dissociate a menu from its interface, you must use the methods within
  * the underlying menu class, which govern and guarantee mutual 
@@ -58,6 +61,11 @@ public abstract class MenuInterface {
 	
 	private boolean closed;
 	
+	//the stage the page number is for, and the page of it being displayed.
+	// The page goes back to the first whenever the stage changes.
+	private MenuStage pagedStage;
+	private int page;
+	
 	
 	/**
 	 * Class constructor. 
@@ -125,6 +133,76 @@ public abstract class MenuInterface {
 	 */
 	public abstract int maxOptions();
 	
+	/**
+	 * Gets the page of the menu's current stage that this interface is
+	 * displaying.
+	 * 
+	 * @return	The current page. <code>null</code> if the interface has no
+	 * 			menu or the menu has no stage.
+	 */
+	public final MenuPage getPage() {
+		if(menu == null)
+			return null;
+		
+		MenuStage stage = menu.getCurrentStage();
+		if(stage == null)
+			return null;
+		
+		return getPage(stage);
+	}
+	
+	/**
+	 * Displays a page of the menu's current stage.
+	 * 
+	 * @param number	The page number, starting at <code>0</code>.
+	 * @return			<code>true</code> if the page was displayed. 
+	 * 					<code>false</code> if the interface is not open or
+	 * 					there is no such page.
+	 */
+	public final boolean setPage(int number) {
+		if(!isOpen() || number < 0)
+			return false;
+		
+		MenuStage stage = menu.getCurrentStage();
+		if(stage == null)
+			return false;
+		
+		if(number >= MenuPage.getPageCount(stage.numOptions(), 
+				getPageSize(stage)))
+			return false;
+		
+		getPage(stage); //resets the page if the stage changed
+		if(number != page) {
+			page = number;
+			displayPage(getPage(stage));
+		}
+		
+		return true;
+	}
+	
+	/**
+	 * Displays the next page of the menu's current stage, if there is one.
+	 * 
+	 * @return	<code>true</code> if the next page was displayed.
+	 */
+	public final boolean nextPage() {
+		MenuPage current = getPage();
+		return current != null && current.hasNext() 
+				&& setPage(current.getNumber() + 1);
+	}
+	
+	/**
+	 * Displays the previous page of the menu's current stage, if there is 
+	 * one.
+	 * 
+	 * @return	<code>true</code> if the previous page was displayed.
+	 */
+	public final boolean previousPage() {
+		MenuPage current = getPage();
+		return current != null && current.hasPrevious() 
+				&& setPage(current.getNumber() - 1);
+	}
+	
 	
 	
 	//--------
@@ -144,6 +222,49 @@ public abstract class MenuInterface {
 	 * hide the user interface.
 	 */
 	protected abstract void onClose();
+	
+	/**
+	 * Gets how many options of a stage this interface displays per page. 
+	 * Defaults to {@link #maxOptions()}. Interfaces that give up some of
+	 * their option slots to page controls when a stage does not fit should 
+	 * return fewer for those stages.
+	 * 
+	 * @param stage	The stage being displayed. Not <code>null</code>.
+	 * @return		The number of options per page. Must be positive.
+	 */
+	protected int getPageSize(MenuStage stage) {
+		return Math.max(maxOptions(), 1);
+	}
+	
+	/**
+	 * Called when the user moves to another page of the same stage and 
+	 * it needs to be reflected in the ui's display. Redraws the whole
+	 * stage by default; interfaces that display pages should override it
+	 * and display only the page.
+	 * 
+	 * @param page	The page to display.
+	 */
+	protected void displayPage(MenuPage page) {
+		updateDisplay(page.getStage());
+	}
+	
+	/**
+	 * Gets the page of a stage that this interface is displaying, or the
+	 * first page if it has not displayed the stage before.
+	 * 
+	 * @param stage	The stage. Not <code>null</code>.
+	 * @return		The page being displayed.
+	 */
+	protected final MenuPage getPage(MenuStage stage) {
+		//compares by identity, as an equal stage of another node is still
+		// a new stage to the user
+		if(stage != pagedStage) {
+			pagedStage = stage;
+			page = 0;
+		}
+		
+		return new MenuPage(stage, page, getPageSize(stage));
+	}
 
 	
 	//--------
@@ -169,6 +290,10 @@ public abstract class MenuInterface {
 	final void displayStage(MenuStage stage) {
 		closed = false;
 		
+		//a new stage always starts on its first page
+		pagedStage = stage;
+		page = 0;
+		
 		if(stage == null) {
 			close();
 			
@@ -5,6 +5,7 @@ import java.util.HashMap;
 import java.util.HashSet;
 import java.util.Map;
 import java.util.Set;
+import java.util.concurrent.atomic.AtomicInteger;
 
 import org.bukkit.inventory.ItemStack;
 
@@ -14,6 +15,7 @@ import net.minedcontrol.bukkit.menus.basis.events.MenuSelectEvent;
 import net.minedcontrol.bukkit.menus.basis.events.MenuUndoEvent;
 import net.minedcontrol.bukkit.menus.basis.events.PlayerMenuSelectEvent;
 import net.minedcontrol.bukkit.menus.basis.events.PlayerMenuUndoEvent;
+import net.minedcontrol.bukkit.menus.basis.listening.AsyncMenuListener;
 import net.minedcontrol.bukkit.menus.basis.listening.MenuListener;
 import net.minedcontrol.bukkit.menus.basis.listening.ListenerPriority;
 import net.minedcontrol.zamalib.bukkit.util.colors.ColorScheme;
@@ -29,6 +31,11 @@ import net.minedcontrol.zamalib.players.ZamaPlayer;
  * singleton, so that listening to menu options is 
  * underlay-data-structure-independent and easy to deal with via the API.
  * <p>
+ * Is also given a dense integer index when it is created, which 
+ * underlays and stages can look it up by through arrays and primitive
+ * maps rather than by hashing. Indices only last for a runtime; the 
+ * string id is what should be stored.
+ * <p>
  * Date Created: Jan 8, 2014
  * 
  * @author Brutus
@@ -41,14 +48,33 @@ public class MenuOption extends MenuElement {
 	
 	private static final ListenerPriority DEFAULT_PRIORITY = ListenerPriority.getDefaultPriority();
 	
+	//cached once, as ListenerPriority#values() copies the array each call
+	private static final ListenerPriority[] PRIORITY_ORDER = ListenerPriority.values();
+	
+	private static final MenuListener[] NO_LISTENERS = new MenuListener[0];
+	
+	//the index the next option created is given
+	private static final AtomicInteger NEXT_INDEX = new AtomicInteger();
+	
 	//this menus unique identifier, used to access it from the collection
 	// of all options.
 	private final String id;
+	//this option's dense index, unique within a runtime
+	private final int index;
 	
 	//A map of sets of listeners, keyed by their priority. 
 	private final Map<ListenerPriority, Set<MenuListener>> listeners;
 	//A map of all listeners, with their priority as the value
 	private final Map<MenuListener, ListenerPriority> priorities;
+	//guards changes to the maps and rebuilding the dispatch table
+	private final Object listenerLock = new Object();
+	
+	//every listener in the order they are called, rebuilt whenever a
+	// listener is registered or unregistered so that calling an event is
+	// a single walk over an array that is never changed once published.
+	// Asynchronous listeners are kept apart, as they are called later.
+	private volatile MenuListener[] dispatch = NO_LISTENERS;
+	private volatile MenuListener[] asyncDispatch = NO_LISTENERS;
 	
 	
 	/**
@@ -87,6 +113,7 @@ public class MenuOption extends MenuElement {
 					+ "null or empty");
 		
 		this.id = id;
+		this.index = NEXT_INDEX.getAndIncrement();
 		
 		this.priorities = new HashMap<MenuListener, ListenerPriority>();
 		this.listeners = new EnumMap<ListenerPriority, 
@@ -109,6 +136,20 @@ public class MenuOption extends MenuElement {
 		return this.id;
 	}
 	
+	/**
+	 * Gets the integer index of this option. Options are numbered from 
+	 * <code>0</code> in the order they are created, so the indices can be
+	 * used to look options up in arrays. Unlike the string id, the index 
+	 * is not the same across restarts.
+	 * 
+	 * @return	This option's index.
+	 * 
+	 * @see net.minedcontrol.bukkit.menus.MenuManager#getOption(int)
+	 */
+	public final int getIndex() {
+		return this.index;
+	}
+	
 	/**
 	 * Gets a copy of the set of all the listeners of this menu option.
 	 * 
@@ -116,7 +157,9 @@ public class MenuOption extends MenuElement {
 	 * 			none.
 	 */
 	public final Set<MenuListener> getContents() {
-		return new HashSet<MenuListener>(priorities.keySet());
+		synchronized(listenerLock) {
+			return new HashSet<MenuListener>(priorities.keySet());
+		}
 	}
 	
 	/**
@@ -133,12 +176,13 @@ public class MenuOption extends MenuElement {
 		if(priority == null)
 			return ret;
 		
-		Set<MenuListener> src = listeners.get(priority);
-		
-		if(src == null)
-			return ret;
+		synchronized(listenerLock) {
+			Set<MenuListener> src = listeners.get(priority);
+			
+			if(src != null)
+				ret.addAll(src);
+		}
 		
-		ret.addAll(src);
 		return ret;
 	}
 	
@@ -173,24 +217,26 @@ public class MenuOption extends MenuElement {
 		if(priority == null)
 			priority = DEFAULT_PRIORITY;
 		
-		//if a previous instance of this listener has been registered,
-		// unregisters it before registering it again.
-		if(priorities.containsKey(listener))
-			unregisterListener(listener);
-		
-		priorities.put(listener, priority);
-		
-		
-		Set<MenuListener> lSet = listeners.get(priority);
-		
-		//if no listeners at this priority have been added yet, creates a
-		// set in the map for it.
-		if(lSet == null) {
-			lSet = new HashSet<MenuListener>();
-			listeners.put(priority, lSet);
+		synchronized(listenerLock) {
+			//if a previous instance of this listener has been registered,
+			// unregisters it before registering it again.
+			removeListener(listener);
+			
+			priorities.put(listener, priority);
+			
+			
+			Set<MenuListener> lSet = listeners.get(priority);
+			
+			//if no listeners at this priority have been added yet, creates a
+			// set in the map for it.
+			if(lSet == null) {
+				lSet = new HashSet<MenuListener>();
+				listeners.put(priority, lSet);
+			}
+			
+			lSet.add(listener);
+			rebuildDispatch();
 		}
-		
-		lSet.add(listener);
 	}
 	
 	
@@ -203,14 +249,9 @@ public class MenuOption extends MenuElement {
 		if(listener == null)
 			return;
 		
-		//Iterates over all values to find the listener and unregister it.
-		// Not very efficient, but unlikely to be used much and allows for
-		// efficient addition and access through the EnumMap. If it becomes
-		// an issue, a secondary index can be added (which will consume
-		// more memory and cause less efficiency in additions) to make removal
-		// more efficient.
-		for(Map.Entry<ListenerPriority, Set<MenuListener>> ent : listeners.entrySet()) {
-			ent.getValue().remove(listener);
+		synchronized(listenerLock) {
+			if(removeListener(listener))
+				rebuildDispatch();
 		}
 	}
 	
@@ -222,43 +263,53 @@ public class MenuOption extends MenuElement {
 	
 	/**
 	 * Selects this option, calling its listeners. Will pass on a player
-	 * object if a player menu is provided.
+	 * object if a player menu is provided. Must be called before the menu
+	 * records the selection.
+	 * <p>
+	 * Makes no event at all if the option has no listeners, and otherwise 
+	 * a light one that only reads the menu's path if it is asked for.
 	 * 
 	 * @param menu	The menu selecting this option. If <code>null</code>
 	 * 				or otherwise invalid, method will return early.
+	 * @param stage	The stage the option was selected from.
+	 * @param node	The node the option was selected at.
 	 */
-	final void select(Menu menu, MenuStage stage) {
-		if(menu == null)
+	final void select(Menu menu, MenuStage stage, UnderlayNode node) {
+		if(menu == null || !hasListeners())
 			return;
 		
 		ZamaPlayer user = menu.getUser();
 		if(user != null) {
-			callEvent(new PlayerMenuSelectEvent(this, menu, stage,
-					menu.getPath(), user));
+			callEvent(menu, new PlayerMenuSelectEvent(this, menu, stage,
+					node, user));
 			
 		} else {
-			callEvent(new MenuSelectEvent(this, menu, stage, menu.getPath()));
+			callEvent(menu, new MenuSelectEvent(this, menu, stage, node));
 		}
 	}
 	
 	/**
 	 * Undoes this option for the menu (and player if a player menu), 
-	 * calling its listeners with an undo event.
+	 * calling its listeners with an undo event. Must be called before the
+	 * menu goes on from the undo.
+	 * <p>
+	 * Makes no event at all if the option has no listeners, and otherwise 
+	 * a light one that only reads the menu's path if it is asked for.
 	 * 
 	 * @param menu	The menu undoing this option. If <code>null</code>
 	 * 				or otherwise invalid, method will return early.
+	 * @param node	The node the menu returns to.
 	 */
-	final void undoLast(Menu menu) {
-		if(menu == null)
+	final void undoLast(Menu menu, UnderlayNode node) {
+		if(menu == null || !hasListeners())
 			return;
 		
 		ZamaPlayer user = menu.getUser();
 		if(user != null) {
-			callEvent(new PlayerMenuUndoEvent(this, menu, 
-					menu.getPath(), user));
+			callEvent(menu, new PlayerMenuUndoEvent(this, menu, node, user));
 			
 		} else {
-			callEvent(new MenuUndoEvent(this, menu, menu.getPath()));
+			callEvent(menu, new MenuUndoEvent(this, menu, node));
 		}
 	}
 	
@@ -272,27 +323,127 @@ public class MenuOption extends MenuElement {
 	
 	/**
 	 * Private helper method that calls a menu event for the listeners
-	 * of this option.
+	 * of this option. Synchronous listeners are called straight away, and
+	 * asynchronous ones are queued behind the menu's earlier events.
 	 * 
+	 * @param menu	The menu the event happened in.
 	 * @param event	The event to call.
 	 */
-	private void callEvent(MenuEvent event) {
+	private void callEvent(Menu menu, final MenuEvent event) {
 		if(event == null)
 			return;
 		
-		//for each listener priority, in the order that they are defined,
-		// gets the set of listeners registered at that priority (if any)
-		// and calls them, in arbitrary order within the set, using the
-		// internal implementation of the specific event.
-		for(ListenerPriority priority : ListenerPriority.values()) {
+		//reads the tables once, so listeners registered or unregistered
+		// while the event is being called take effect from the next event
+		MenuListener[] table = dispatch;
+		final MenuListener[] asyncTable = asyncDispatch;
+		
+		//asynchronous listeners are called after the menu has moved on, 
+		// so light events read the path they may ask for now
+		if(asyncTable.length > 0)
+			loadPath(event);
+		
+		for(int i = 0; i < table.length; i++) {
+			event.call(table[i]);
+		}
+		
+		if(asyncTable.length == 0)
+			return;
+		
+		menu.getListenerQueue().execute(new Runnable() {
+			@Override
+			public void run() {
+				for(int i = 0; i < asyncTable.length; i++) {
+					event.call(asyncTable[i]);
+				}
+			}
+		});
+	}
+	
+	/**
+	 * Gets whether this option has any listeners to call, without taking
+	 * the listener lock.
+	 * 
+	 * @return	<code>true</code> if it has synchronous or asynchronous 
+	 * 			listeners.
+	 */
+	private boolean hasListeners() {
+		return dispatch.length > 0 || asyncDispatch.length > 0;
+	}
+	
+	/**
+	 * Reads the menu's path into a light event, if it has not been read 
+	 * already.
+	 * 
+	 * @param event	The event.
+	 */
+	private static void loadPath(MenuEvent event) {
+		if(event instanceof MenuSelectEvent)
+			((MenuSelectEvent) event).getMenuPath();
+		else if(event instanceof MenuUndoEvent)
+			((MenuUndoEvent) event).getMenuPath();
+	}
+	
+	/**
+	 * Removes a listener from the maps of listeners, if it is registered.
+	 * Must be called while holding the listener lock.
+	 * 
+	 * @param listener	The listener to remove.
+	 * @return			<code>true</code> if the listener was registered.
+	 */
+	private boolean removeListener(MenuListener listener) {
+		//the priority index gives the one set the listener can be in
+		ListenerPriority priority = priorities.remove(listener);
+		if(priority == null)
+			return false;
+		
+		Set<MenuListener> lSet = listeners.get(priority);
+		if(lSet != null) {
+			lSet.remove(listener);
 			
+			if(lSet.isEmpty())
+				listeners.remove(priority);
+		}
+		
+		return true;
+	}
+	
+	/**
+	 * Rebuilds the dispatch table from the maps of listeners, with the 
+	 * listeners of each priority in the order the priorities are defined,
+	 * and in arbitrary order within a priority. Must be called while
+	 * holding the listener lock.
+	 */
+	private void rebuildDispatch() {
+		if(priorities.isEmpty()) {
+			dispatch = asyncDispatch = NO_LISTENERS;
+			return;
+		}
+		
+		int asyncCount = 0;
+		for(MenuListener listener : priorities.keySet()) {
+			if(listener instanceof AsyncMenuListener)
+				asyncCount++;
+		}
+		
+		MenuListener[] table = new MenuListener[priorities.size() - asyncCount];
+		MenuListener[] asyncTable = asyncCount > 0 
+				? new MenuListener[asyncCount] : NO_LISTENERS;
+		int i = 0, j = 0;
+		for(ListenerPriority priority : PRIORITY_ORDER) {
 			Set<MenuListener> listenSet = listeners.get(priority);
 			
 			if(listenSet == null) continue;
 			for(MenuListener listener : listenSet) {
-				event.call(listener);
+				if(listener instanceof AsyncMenuListener)
+					asyncTable[j++] = listener;
+				else
+					table[i++] = listener;
 			}
 		}
+		
+		dispatch = table;
+		asyncDispatch = asyncTable;
 	}
 	
 
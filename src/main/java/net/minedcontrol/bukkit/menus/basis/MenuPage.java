@@ -0,0 +1,172 @@
+package net.minedcontrol.bukkit.menus.basis;
+
+import java.util.List;
+
+/**
+ * A page of the options of a stage, for interfaces that cannot display
+ * every option of a stage at once.
+ * <p>
+ * A view over the stage rather than a copy of its options, so pages of
+ * stages with thousands of options are as cheap to make as pages of small
+ * ones. Page indices are relative to the page, from <code>0</code> to
+ * <code>numOptions() - 1</code>.
+ * <p>
+ * Date Created: Oct 17, 2026
+ *
+ * @see MenuInterface#getPage()
+ */
+public final class MenuPage {
+
+	private final MenuStage stage;
+	private final int number;
+	private final int pageSize;
+
+	//the index in the stage of this page's first option
+	private final int first;
+	private final int count;
+
+
+	/**
+	 * Class constructor. A page number past the last page is taken to be
+	 * the last page.
+	 *
+	 * @param stage		The stage this is a page of. Not <code>null</code>.
+	 * @param number	The page number, starting at <code>0</code>.
+	 * @param pageSize	The most options on a page. Must be positive.
+	 *
+	 * @throws IllegalArgumentException	on a <code>null</code> stage, a
+	 * 									negative page number, or a page size
+	 * 									that is not positive.
+	 */
+	public MenuPage(MenuStage stage, int number, int pageSize)
+			throws IllegalArgumentException {
+
+		if(stage == null)
+			throw new IllegalArgumentException("stage cannot be null");
+
+		if(number < 0)
+			throw new IllegalArgumentException("page number cannot be negative");
+
+		if(pageSize <= 0)
+			throw new IllegalArgumentException("page size must be positive");
+
+		this.stage = stage;
+		this.pageSize = pageSize;
+		this.number = Math.min(number, getPageCount(stage.numOptions(), pageSize) - 1);
+		this.first = this.number * pageSize;
+		this.count = Math.min(pageSize, stage.numOptions() - first);
+	}
+
+
+	//--------
+	//PUBLIC
+	//--------
+
+	/**
+	 * Gets the number of pages that a number of options take up.
+	 *
+	 * @param numOptions	The number of options.
+	 * @param pageSize		The most options on a page. Must be positive.
+	 * @return				The number of pages. Always at least
+	 * 						<code>1</code>, as a stage with no options is
+	 * 						still shown.
+	 */
+	public static int getPageCount(int numOptions, int pageSize) {
+		if(numOptions <= 0)
+			return 1;
+
+		return (numOptions - 1) / pageSize + 1;
+	}
+
+	/**
+	 * Gets the stage this is a page of.
+	 *
+	 * @return	This page's stage.
+	 */
+	public MenuStage getStage() {
+		return stage;
+	}
+
+	/**
+	 * Gets the title of this page's stage.
+	 *
+	 * @return	The stage's title.
+	 */
+	public MenuElement getTitle() {
+		return stage.getTitle();
+	}
+
+	/**
+	 * Gets the number of this page, starting at <code>0</code>.
+	 *
+	 * @return	This page's number.
+	 */
+	public int getNumber() {
+		return number;
+	}
+
+	/**
+	 * Gets the number of pages of the stage.
+	 *
+	 * @return	The page count.
+	 */
+	public int getPageCount() {
+		return getPageCount(stage.numOptions(), pageSize);
+	}
+
+	/**
+	 * Gets whether there is a page before this one.
+	 *
+	 * @return	<code>true</code> if this is not the first page.
+	 */
+	public boolean hasPrevious() {
+		return number > 0;
+	}
+
+	/**
+	 * Gets whether there is a page after this one.
+	 *
+	 * @return	<code>true</code> if this is not the last page.
+	 */
+	public boolean hasNext() {
+		return first + count < stage.numOptions();
+	}
+
+	/**
+	 * Gets an unmodifiable, ordered list of the options on this page,
+	 * which is a view of the stage's options rather than a copy.
+	 *
+	 * @return	This page's options.
+	 */
+	public List<MenuOption> getOptions() {
+		return stage.getOptions().subList(first, first + count);
+	}
+
+	/**
+	 * Gets the option at an index of this page.
+	 *
+	 * @param index	The index on this page.
+	 * @return		The option.
+	 *
+	 * @throws IndexOutOfBoundsException	if the index is negative or not
+	 * 										less than the number of options
+	 * 										on this page.
+	 */
+	public MenuOption getOption(int index) throws IndexOutOfBoundsException {
+		if(index < 0 || index >= count)
+			throw new IndexOutOfBoundsException("index " + index
+					+ " of a page of " + count + " options");
+
+		return stage.getOption(first + index);
+	}
+
+	/**
+	 * Gets the number of options on this page.
+	 *
+	 * @return	The number of options.
+	 */
+	public int numOptions() {
+		return count;
+	}
+
+}
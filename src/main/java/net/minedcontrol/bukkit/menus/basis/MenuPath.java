@@ -0,0 +1,172 @@
+package net.minedcontrol.bukkit.menus.basis;
+
+import java.util.Iterator;
+import java.util.NoSuchElementException;
+import java.util.Stack;
+
+/**
+ * An unchanging view of the choices a menu made up to a point, from the
+ * oldest remembered choice to the most recent.
+ * <p>
+ * Paths are taken from a menu without copying its choices, and stay the
+ * same as the menu goes on to make or undo more choices. They are safe to
+ * keep and to read from any thread.
+ * <p>
+ * Date Created: Oct 17, 2026
+ *
+ * @see Menu#getMenuPath()
+ */
+public final class MenuPath implements Iterable<MenuChoice> {
+
+	private static final MenuPath EMPTY = new MenuPath(new MenuChoice[1], 0, 0);
+
+	//the ring of choices this path is a part of, shared with the menu's
+	// history. The slots of this path are never written to again.
+	private final MenuChoice[] slots;
+
+	//the absolute position of the oldest choice in the ring
+	private final long start;
+	private final int size;
+
+
+	/**
+	 * Class constructor.
+	 *
+	 * @param slots	The ring of choices.
+	 * @param start	The absolute position of the oldest choice.
+	 * @param size	The number of choices.
+	 */
+	MenuPath(MenuChoice[] slots, long start, int size) {
+		this.slots = slots;
+		this.start = start;
+		this.size = size;
+	}
+
+
+	//--------
+	//PUBLIC
+	//--------
+
+	/**
+	 * Gets a path with no choices.
+	 *
+	 * @return	An empty path.
+	 */
+	public static MenuPath empty() {
+		return EMPTY;
+	}
+
+	/**
+	 * Creates a path of the choices in a stack, with the top of the stack
+	 * as the most recent choice. Copies the stack.
+	 *
+	 * @param path	The stack of choices. Not <code>null</code>.
+	 * @return		A path of the same choices.
+	 *
+	 * @throws IllegalArgumentException	if the stack is <code>null</code>.
+	 */
+	public static MenuPath of(Stack<MenuChoice> path) throws IllegalArgumentException {
+		if(path == null)
+			throw new IllegalArgumentException("path cannot be null");
+
+		if(path.isEmpty())
+			return EMPTY;
+
+		return new MenuPath(path.toArray(new MenuChoice[path.size()]), 0,
+				path.size());
+	}
+
+	/**
+	 * Gets the number of choices in this path.
+	 *
+	 * @return	This path's size.
+	 */
+	public int size() {
+		return size;
+	}
+
+	/**
+	 * Gets whether this path has no choices.
+	 *
+	 * @return	<code>true</code> if the path is empty.
+	 */
+	public boolean isEmpty() {
+		return size == 0;
+	}
+
+	/**
+	 * Gets a choice by its position in this path, with the oldest choice
+	 * at <code>0</code>, the same as the indices of {@link #toStack()}.
+	 *
+	 * @param index	The position of the choice.
+	 * @return		The choice.
+	 *
+	 * @throws IndexOutOfBoundsException	if the index is negative or not
+	 * 										less than the size.
+	 */
+	public MenuChoice get(int index) throws IndexOutOfBoundsException {
+		if(index < 0 || index >= size)
+			throw new IndexOutOfBoundsException("index " + index
+					+ " of a path of size " + size);
+
+		return slots[(int) ((start + index) % slots.length)];
+	}
+
+	/**
+	 * Gets the most recent choice in this path.
+	 *
+	 * @return	The last choice. <code>null</code> if the path is empty.
+	 */
+	public MenuChoice peek() {
+		return size == 0 ? null : get(size - 1);
+	}
+
+	/**
+	 * Gets a new stack of the choices in this path, with the most recent
+	 * choice at the top of the stack.
+	 *
+	 * @return	A stack of this path's choices.
+	 */
+	public Stack<MenuChoice> toStack() {
+		Stack<MenuChoice> stack = new Stack<MenuChoice>();
+		stack.ensureCapacity(size);
+
+		for(int i = 0; i < size; i++) {
+			stack.add(get(i));
+		}
+
+		return stack;
+	}
+
+	/**
+	 * Gets an iterator over the choices in this path, from the oldest to
+	 * the most recent. Does not support removal.
+	 *
+	 * @return	An iterator over this path.
+	 */
+	@Override
+	public Iterator<MenuChoice> iterator() {
+		return new Iterator<MenuChoice>() {
+			private int next;
+
+			@Override
+			public boolean hasNext() {
+				return next < size;
+			}
+
+			@Override
+			public MenuChoice next() {
+				if(next >= size)
+					throw new NoSuchElementException();
+
+				return get(next++);
+			}
+
+			@Override
+			public void remove() {
+				throw new UnsupportedOperationException("paths cannot be changed");
+			}
+		};
+	}
+
+}
@@ -0,0 +1,142 @@
+package net.minedcontrol.bukkit.menus.basis;
+
+/**
+ * The saved state of a menu, from which it can be resumed later: the id of
+ * its underlay, the id of the node it is at, and the choices it has made,
+ * as the ids of the nodes they were made at and the options chosen.
+ * <p>
+ * Only refers to underlays, nodes and options by their ids, so can be kept
+ * and stored without keeping them loaded. Immutable.
+ * <p>
+ * Date Created: Oct 17, 2026
+ *
+ * @see Menu#snapshot()
+ * @see Menu#restore(MenuSnapshot, net.minedcontrol.zamalib.players.ZamaPlayer)
+ * @see ResumableUnderlay
+ */
+public final class MenuSnapshot {
+
+	private final String underlayId;
+	private final String nodeId;
+
+	//the choices, from the oldest to the most recent
+	private final String[] choiceNodes;
+	private final String[] choiceOptions;
+	private final long[] choiceTimes;
+
+
+	/**
+	 * Class constructor. Copies the arrays of choices.
+	 *
+	 * @param underlayId	The id of the menu's underlay. Not
+	 * 						<code>null</code>.
+	 * @param nodeId		The id of the node the menu is at. Not
+	 * 						<code>null</code>.
+	 * @param choiceNodes	The ids of the nodes each choice was made at,
+	 * 						from the oldest. Not <code>null</code>.
+	 * @param choiceOptions	The ids of the options chosen. Not
+	 * 						<code>null</code>.
+	 * @param choiceTimes	When each choice was made, in milliseconds
+	 * 						since the epoch. Not <code>null</code>.
+	 *
+	 * @throws IllegalArgumentException	on a <code>null</code> parameter or
+	 * 									choice, or if the arrays of choices
+	 * 									are not all the same length.
+	 */
+	public MenuSnapshot(String underlayId, String nodeId, String[] choiceNodes,
+			String[] choiceOptions, long[] choiceTimes)
+			throws IllegalArgumentException {
+
+		if(underlayId == null || nodeId == null || choiceNodes == null
+				|| choiceOptions == null || choiceTimes == null)
+			throw new IllegalArgumentException("params cannot be null");
+
+		if(choiceNodes.length != choiceOptions.length
+				|| choiceNodes.length != choiceTimes.length)
+			throw new IllegalArgumentException("choice arrays must be the same length");
+
+		for(int i = 0; i < choiceNodes.length; i++) {
+			if(choiceNodes[i] == null || choiceOptions[i] == null)
+				throw new IllegalArgumentException("choices cannot be null");
+		}
+
+		this.underlayId = underlayId;
+		this.nodeId = nodeId;
+		this.choiceNodes = choiceNodes.clone();
+		this.choiceOptions = choiceOptions.clone();
+		this.choiceTimes = choiceTimes.clone();
+	}
+
+
+	//--------
+	//PUBLIC
+	//--------
+
+	/**
+	 * Gets the id of the menu's underlay.
+	 *
+	 * @return	The underlay id.
+	 */
+	public String getUnderlayId() {
+		return underlayId;
+	}
+
+	/**
+	 * Gets the id of the node the menu was at.
+	 *
+	 * @return	The node id.
+	 */
+	public String getNodeId() {
+		return nodeId;
+	}
+
+	/**
+	 * Gets the number of choices the menu had remembered.
+	 *
+	 * @return	The number of choices.
+	 */
+	public int numChoices() {
+		return choiceNodes.length;
+	}
+
+	/**
+	 * Gets the id of the node a choice was made at.
+	 *
+	 * @param index	The index of the choice, with the oldest at
+	 * 				<code>0</code>.
+	 * @return		The node id.
+	 *
+	 * @throws IndexOutOfBoundsException	on an index out of range.
+	 */
+	public String getChoiceNode(int index) throws IndexOutOfBoundsException {
+		return choiceNodes[index];
+	}
+
+	/**
+	 * Gets the id of the option chosen in a choice.
+	 *
+	 * @param index	The index of the choice, with the oldest at
+	 * 				<code>0</code>.
+	 * @return		The option id.
+	 *
+	 * @throws IndexOutOfBoundsException	on an index out of range.
+	 */
+	public String getChoiceOption(int index) throws IndexOutOfBoundsException {
+		return choiceOptions[index];
+	}
+
+	/**
+	 * Gets when a choice was made.
+	 *
+	 * @param index	The index of the choice, with the oldest at
+	 * 				<code>0</code>.
+	 * @return		The time of the choice, in milliseconds since the
+	 * 				epoch.
+	 *
+	 * @throws IndexOutOfBoundsException	on an index out of range.
+	 */
+	public long getChoiceTime(int index) throws IndexOutOfBoundsException {
+		return choiceTimes[index];
+	}
+
+}
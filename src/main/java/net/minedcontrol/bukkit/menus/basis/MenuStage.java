@@ -1,9 +1,12 @@
 package net.minedcontrol.bukkit.menus.basis;
 
-import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
 import java.util.Collections;
 import java.util.List;
 
+import net.minedcontrol.bukkit.menus.util.LongIntHashMap;
+
 /**
  * A set of elements that represent a single, atomic, unchanging stage of a 
  * menu, what the user may see at a given time.
@@ -17,6 +20,10 @@ import java.util.List;
  * the elements using indices without fear of null pointers in getting the 
  * list of options or list mutation.
  * <p>
+ * Backed by an array that is never changed, so a stage can be shared by
+ * every menu at the same point of an underlay, and its options read
+ * without copying them.
+ * <p>
  * Date Created: Jan 13, 2014
  * 
  * @author Brutus
@@ -25,38 +32,76 @@ import java.util.List;
 
 public class MenuStage {
 
+	//the number of options above which options are looked up through an
+	// index rather than by searching the array
+	private static final int INDEX_THRESHOLD = 8;
+
 	private final MenuElement title;
-	private final List<MenuOption> options;
+	private final MenuOption[] options;
+	
+	//an unmodifiable view of the options, handed out instead of copies
+	private final List<MenuOption> optionList;
+	
+	//key: the integer index of an option of this stage
+	//value: the index in this stage of its first occurrence
+	//null when there are too few options for it to be worth keeping
+	private final LongIntHashMap indices;
+	
+	private final int hash;
 	
 	/**
-	 * Class constructor.
+	 * Class constructor. <code>null</code> options are left out.
 	 * 
 	 * @param title		The title of this stage, not <code>null</code>.
-	 * @param options	The options of this stage, not <code>null</code>.
+	 * @param options	The options of this stage, in order, not 
+	 * 					<code>null</code>.
 	 * 
 	 * @throws IllegalArgumentException	if any of the parameters are 
 	 * 									<code>null</code>.
 	 */
-	public MenuStage(MenuElement title, List<MenuOption> options) {
+	public MenuStage(MenuElement title, Collection<? extends MenuOption> options) {
 		if(title == null || options == null) 
 			throw new IllegalArgumentException("params cannot be null");
 		
 		this.title = title;
-				
-		this.options = new ArrayList<MenuOption>(options);
-		this.options.removeAll(Collections.singleton(null));
+		
+		MenuOption[] opts = options.toArray(new MenuOption[options.size()]);
+		
+		//leaves out nulls, only copying the array again if there are any
+		int count = 0;
+		for(MenuOption option : opts) {
+			if(option != null)
+				opts[count++] = option;
+		}
+		
+		this.options = count == opts.length ? opts : Arrays.copyOf(opts, count);
+		this.optionList = Collections.unmodifiableList(Arrays.asList(this.options));
+		
+		if(count > INDEX_THRESHOLD) {
+			this.indices = new LongIntHashMap(count, -1);
+			
+			for(int i = 0; i < count; i++) {
+				if(!indices.containsKey(this.options[i].getIndex()))
+					indices.put(this.options[i].getIndex(), i);
+			}
+		}
+		else {
+			this.indices = null;
+		}
+		
+		this.hash = 31 * title.hashCode() + Arrays.hashCode(this.options);
 	}
 	
 
 	/**
-	 * Gets a copied, ordered list of the options for this stage. The 
-	 * indices of the list's initial state can be used to access option
-	 * objects through this stage using {@link #getOption(int)}.
+	 * Gets an unmodifiable, ordered list of the options for this stage. 
+	 * The indices of the list can be used to access option objects 
+	 * through this stage using {@link #getOption(int)}.
 	 * 
 	 * @return	This stage's options.
 	 */
 	public final List<MenuOption> getOptions() {
-		return new ArrayList<MenuOption>(options);
+		return optionList;
 	}
 	
 	/**
@@ -66,7 +111,7 @@ public class MenuStage {
 	 * @return			<code>true</code> if the stage contains this option.
 	 */
 	public final boolean contains(MenuOption option) {
-		return options.contains(option);
+		return indexOf(option) >= 0;
 	}
 
 	/**
@@ -91,7 +136,7 @@ public class MenuStage {
 	 * 										negative.
 	 */
 	public final MenuOption getOption(int index) throws IndexOutOfBoundsException {
-		return options.get(index);
+		return options[index];
 	}
 	
 	/**
@@ -102,7 +147,20 @@ public class MenuStage {
 	 * 					the option is not found in this collection.
 	 */
 	public final int indexOf(MenuOption option) {
-		return options.indexOf(option);
+		if(option == null)
+			return -1;
+		
+		//options are only equal to themselves, so their indices stand in
+		// for them
+		if(indices != null)
+			return indices.get(option.getIndex());
+		
+		for(int i = 0; i < options.length; i++) {
+			if(option.equals(options[i]))
+				return i;
+		}
+		
+		return -1;
 	}
 
 	/**
@@ -111,7 +169,23 @@ public class MenuStage {
 	 * @return	The number of options.
 	 */
 	public final int numOptions() {
-		return options.size();
+		return options.length;
+	}
+
+	@Override
+	public int hashCode() {
+		return hash;
+	}
+
+	@Override
+	public boolean equals(Object obj) {
+		if (this == obj)
+			return true;
+		if (!(obj instanceof MenuStage))
+			return false;
+		MenuStage other = (MenuStage) obj;
+		return hash == other.hash && title.equals(other.title)
+				&& Arrays.equals(options, other.options);
 	}
 
 }
@@ -0,0 +1,23 @@
+package net.minedcontrol.bukkit.menus.basis;
+
+/**
+ * A menu underlay that sets how many past choices the menus traversing it
+ * remember, such as one with very long or very short dialogues. Menus 
+ * over other underlays remember a default number.
+ * <p>
+ * Date Created: Oct 17, 2026
+ * 
+ * @see Menu#getMenuPath()
+ */
+public interface PathLimitedUnderlay extends MenuUnderlay {
+	
+	/**
+	 * Gets the number of past choices that menus traversing this underlay
+	 * should remember, and so how many choices can be undone.
+	 * 
+	 * @return	The number of choices to remember. <code>0</code> or less
+	 * 			to use the default.
+	 */
+	public int getPathCapacity();
+
+}
@@ -0,0 +1,35 @@
+package net.minedcontrol.bukkit.menus.basis;
+
+/**
+ * An underlay whose nodes can be named, so that a menu over it can be 
+ * saved as a snapshot and resumed later, such as after its player leaves 
+ * and joins again or after a restart.
+ * <p>
+ * Node ids only need to be unique within the underlay, and should stay 
+ * the same across restarts for snapshots to be resumed at the right node.
+ * <p>
+ * Date Created: Oct 17, 2026
+ * 
+ * @see MenuSnapshot
+ */
+public interface ResumableUnderlay extends MenuUnderlay {
+	
+	/**
+	 * Gets the id of a node of this underlay.
+	 * 
+	 * @param node	The node.
+	 * @return		The node's id. <code>null</code> if the node has no id
+	 * 				or is not part of this underlay.
+	 */
+	public String getNodeId(UnderlayNode node);
+	
+	/**
+	 * Gets a node of this underlay by its id.
+	 * 
+	 * @param id	The id of the node.
+	 * @return		The node. <code>null</code> if this underlay has no 
+	 * 				node with that id.
+	 */
+	public UnderlayNode getNode(String id);
+
+}
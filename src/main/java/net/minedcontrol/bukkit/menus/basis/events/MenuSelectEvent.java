@@ -5,13 +5,19 @@ import java.util.Stack;
 import net.minedcontrol.bukkit.menus.basis.Menu;
 import net.minedcontrol.bukkit.menus.basis.MenuChoice;
 import net.minedcontrol.bukkit.menus.basis.MenuOption;
+import net.minedcontrol.bukkit.menus.basis.MenuPath;
 import net.minedcontrol.bukkit.menus.basis.MenuStage;
+import net.minedcontrol.bukkit.menus.basis.UnderlayNode;
 import net.minedcontrol.bukkit.menus.basis.listening.MenuListener;
 
 /**
  * Event thrown when an option in a menu is selected, to the listeners of
  * that menu option.
  * <p>
+ * Events made with the menu's node rather than its path are light: they
+ * only read the menu's path if a listener asks for it, while the 
+ * selection is being made.
+ * <p>
  * Date Created: Jan 16, 2014
  * 
  * @author Brutus
@@ -21,9 +27,12 @@ import net.minedcontrol.bukkit.menus.basis.listening.MenuListener;
 public class MenuSelectEvent implements MenuEvent {
 	
 	private final MenuOption option;
-	private final Stack<MenuChoice> path;
 	private final Menu menu;
 	private final MenuStage stage;
+	private final UnderlayNode node;
+	
+	//read from the menu the first time it is asked for, if not given
+	private MenuPath path;
 	
 	
 	/**
@@ -42,6 +51,25 @@ public class MenuSelectEvent implements MenuEvent {
 	public MenuSelectEvent(MenuOption selected, Menu menu, MenuStage stage, 
 			Stack<MenuChoice> path) throws IllegalArgumentException {
 		
+		this(selected, menu, stage, path != null ? MenuPath.of(path) : null);
+	}
+	
+	/**
+	 * Class constructor.
+	 * 
+	 * @param selected	The option that was selected, not <code>null</code>.
+	 * @param menu		The menu that the option was selected with, not
+	 * 					<code>null</code>.
+	 * @param stage		The stage in which the selection was made.
+	 * @param path		The path of the menu up until the point of the
+	 * 					selection, not <code>null</code>.
+	 * 
+	 * @throws IllegalArgumentException	if any of the parameters are 
+	 * 									<code>null</code>.
+	 */
+	public MenuSelectEvent(MenuOption selected, Menu menu, MenuStage stage, 
+			MenuPath path) throws IllegalArgumentException {
+		
 		if(selected == null || menu == null || path == null)
 			throw new IllegalArgumentException("params cannot be null");
 		
@@ -49,6 +77,33 @@ public class MenuSelectEvent implements MenuEvent {
 		this.path = path;
 		this.menu = menu;
 		this.stage = stage;
+		this.node = null;
+	}
+	
+	/**
+	 * Class constructor for a light event, which reads the menu's path the
+	 * first time it is asked for. The path must be asked for, if at all, 
+	 * before the menu records the selection.
+	 * 
+	 * @param selected	The option that was selected, not <code>null</code>.
+	 * @param menu		The menu that the option was selected with, not
+	 * 					<code>null</code>.
+	 * @param stage		The stage in which the selection was made.
+	 * @param node		The node at which the selection was made.
+	 * 
+	 * @throws IllegalArgumentException	if the option or menu is 
+	 * 									<code>null</code>.
+	 */
+	public MenuSelectEvent(MenuOption selected, Menu menu, MenuStage stage, 
+			UnderlayNode node) throws IllegalArgumentException {
+		
+		if(selected == null || menu == null)
+			throw new IllegalArgumentException("params cannot be null");
+		
+		this.option = selected;
+		this.menu = menu;
+		this.stage = stage;
+		this.node = node;
 	}
 
 	@Override
@@ -80,15 +135,35 @@ public class MenuSelectEvent implements MenuEvent {
 	 */
 	public MenuStage getMenuStage() { return this.stage; }
 	
+	/**
+	 * Gets the node of the menu's underlay that the selection was made at.
+	 * 
+	 * @return	The selection's node. <code>null</code> if the event was 
+	 * 			made with the menu's path rather than its node.
+	 */
+	public UnderlayNode getNode() { return this.node; }
+	
 	/**
 	 * Gets the path the menu took to get to the option in the form of
 	 * a stack, with the most recent entries at the top of the stack.
 	 * 
 	 * @return	The path that led to the selection.
 	 */
-	@SuppressWarnings("unchecked")
 	public Stack<MenuChoice> getPath() {
-		return ((Stack<MenuChoice>) path.clone());
+		return getMenuPath().toStack();
+	}
+	
+	/**
+	 * Gets the path the menu took to get to the option, without copying
+	 * it, from the oldest remembered choice to the most recent.
+	 * 
+	 * @return	The path that led to the selection.
+	 */
+	public MenuPath getMenuPath() {
+		if(path == null)
+			path = menu.getMenuPath();
+		
+		return this.path;
 	}
 	
 
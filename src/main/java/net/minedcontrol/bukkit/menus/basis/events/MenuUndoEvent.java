@@ -5,11 +5,17 @@ import java.util.Stack;
 import net.minedcontrol.bukkit.menus.basis.Menu;
 import net.minedcontrol.bukkit.menus.basis.MenuChoice;
 import net.minedcontrol.bukkit.menus.basis.MenuOption;
+import net.minedcontrol.bukkit.menus.basis.MenuPath;
+import net.minedcontrol.bukkit.menus.basis.UnderlayNode;
 import net.minedcontrol.bukkit.menus.basis.listening.MenuListener;
 
 /**
  * An event called when an option is undone from a menu.
  * <p>
+ * Events made with the menu's node rather than its path are light: they
+ * only read the menu's path if a listener asks for it, while the undo is
+ * being made.
+ * <p>
  * Date Created: Jan 17, 2014
  * 
  * @author Brutus
@@ -18,8 +24,11 @@ import net.minedcontrol.bukkit.menus.basis.listening.MenuListener;
 public class MenuUndoEvent implements MenuEvent {
 
 	private MenuOption option;
-	private Stack<MenuChoice> path;
 	private Menu menu;
+	private UnderlayNode node;
+	
+	//read from the menu the first time it is asked for, if not given
+	private MenuPath path;
 
 	/**
 	 * Class constructor.
@@ -36,6 +45,24 @@ public class MenuUndoEvent implements MenuEvent {
 	public MenuUndoEvent(MenuOption selected, Menu menu, 
 			Stack<MenuChoice> path) throws IllegalArgumentException {
 		
+		this(selected, menu, path != null ? MenuPath.of(path) : null);
+	}
+	
+	/**
+	 * Class constructor.
+	 * 
+	 * @param selected	The option being undone, not <code>null</code>.
+	 * @param menu		The menu that the option was undone with, not
+	 * 					<code>null</code>.
+	 * @param path		The path of the menu up until the point of the
+	 * 					undoing, not <code>null</code>.
+	 * 
+	 * @throws IllegalArgumentException	if any of the parameters are 
+	 * 									<code>null</code>.
+	 */
+	public MenuUndoEvent(MenuOption selected, Menu menu, 
+			MenuPath path) throws IllegalArgumentException {
+		
 		
 		if(selected == null || menu == null || path == null)
 			throw new IllegalArgumentException("params cannot be null");
@@ -44,6 +71,31 @@ public class MenuUndoEvent implements MenuEvent {
 		this.path = path;
 		this.menu = menu;
 	}
+	
+	/**
+	 * Class constructor for a light event, which reads the menu's path the
+	 * first time it is asked for. The path must be asked for, if at all, 
+	 * before the menu goes on from the undo.
+	 * 
+	 * @param selected	The option being undone, not <code>null</code>.
+	 * @param menu		The menu that the option was undone with, not
+	 * 					<code>null</code>.
+	 * @param node		The node the menu returns to, at which the option 
+	 * 					was chosen.
+	 * 
+	 * @throws IllegalArgumentException	if the option or menu is 
+	 * 									<code>null</code>.
+	 */
+	public MenuUndoEvent(MenuOption selected, Menu menu, 
+			UnderlayNode node) throws IllegalArgumentException {
+		
+		if(selected == null || menu == null)
+			throw new IllegalArgumentException("params cannot be null");
+		
+		this.option = selected;
+		this.menu = menu;
+		this.node = node;
+	}
 
 	@Override
 	public void call(MenuListener listener) {
@@ -66,6 +118,15 @@ public class MenuUndoEvent implements MenuEvent {
 	 * @return	The selection's menu.
 	 */
 	public Menu getMenu() { return this.menu; }
+	
+	/**
+	 * Gets the node of the menu's underlay that the menu returns to, at
+	 * which the undone option was chosen.
+	 * 
+	 * @return	The undo's node. <code>null</code> if the event was made 
+	 * 			with the menu's path rather than its node.
+	 */
+	public UnderlayNode getNode() { return this.node; }
 
 	/**
 	 * Gets the path the menu took to get to the option in the form of
@@ -73,9 +134,21 @@ public class MenuUndoEvent implements MenuEvent {
 	 * 
 	 * @return	The path that led to the undone selection.
 	 */
-	@SuppressWarnings("unchecked")
 	public Stack<MenuChoice> getPath() {
-		return ((Stack<MenuChoice>) path.clone());
+		return getMenuPath().toStack();
+	}
+	
+	/**
+	 * Gets the path the menu took to get to the option, without copying
+	 * it, from the oldest remembered choice to the most recent.
+	 * 
+	 * @return	The path that led to the undone selection.
+	 */
+	public MenuPath getMenuPath() {
+		if(path == null)
+			path = menu.getMenuPath();
+		
+		return this.path;
 	}
 
 }
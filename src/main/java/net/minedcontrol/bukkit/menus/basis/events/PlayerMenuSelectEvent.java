@@ -5,7 +5,9 @@ import java.util.Stack;
 import net.minedcontrol.bukkit.menus.basis.Menu;
 import net.minedcontrol.bukkit.menus.basis.MenuChoice;
 import net.minedcontrol.bukkit.menus.basis.MenuOption;
+import net.minedcontrol.bukkit.menus.basis.MenuPath;
 import net.minedcontrol.bukkit.menus.basis.MenuStage;
+import net.minedcontrol.bukkit.menus.basis.UnderlayNode;
 import net.minedcontrol.bukkit.menus.basis.listening.MenuListener;
 import net.minedcontrol.zamalib.players.ZamaPlayer;
 
@@ -42,6 +44,29 @@ public class PlayerMenuSelectEvent extends MenuSelectEvent implements MenuEvent
 			Stack<MenuChoice> path, ZamaPlayer player) 
 					throws IllegalArgumentException {
 		
+		this(selected, menu, stage, path != null ? MenuPath.of(path) : null, 
+				player);
+	}
+	
+	/**
+	 * Class constructor. 
+	 * 
+	 * @param selected	The option that was selected, not <code>null</code>.
+	 * @param menu		The menu that the option was selected with, not
+	 * 					<code>null</code>.
+	 * @param stage		The stage in which the selection was made.
+	 * @param path		The path of the menu up until the point of the
+	 * 					selection, not <code>null</code>.
+	 * @param player	The player that made the selection, not 
+	 * 					<code>null</code>.
+	 * 
+	 * @throws IllegalArgumentException	if any of the parameters are 
+	 * 									<code>null</code>.
+	 */
+	public PlayerMenuSelectEvent(MenuOption selected, Menu menu, MenuStage stage,
+			MenuPath path, ZamaPlayer player) 
+					throws IllegalArgumentException {
+		
 		super(selected, menu, stage, path);
 		
 		if(player == null)
@@ -50,6 +75,34 @@ public class PlayerMenuSelectEvent extends MenuSelectEvent implements MenuEvent
 		this.player = player;
 	}
 	
+	/**
+	 * Class constructor for a light event, which reads the menu's path the
+	 * first time it is asked for. The path must be asked for, if at all, 
+	 * before the menu records the selection.
+	 * 
+	 * @param selected	The option that was selected, not <code>null</code>.
+	 * @param menu		The menu that the option was selected with, not
+	 * 					<code>null</code>.
+	 * @param stage		The stage in which the selection was made.
+	 * @param node		The node at which the selection was made.
+	 * @param player	The player that made the selection, not 
+	 * 					<code>null</code>.
+	 * 
+	 * @throws IllegalArgumentException	if the option, menu or player is
+	 * 									<code>null</code>.
+	 */
+	public PlayerMenuSelectEvent(MenuOption selected, Menu menu, MenuStage stage,
+			UnderlayNode node, ZamaPlayer player) 
+					throws IllegalArgumentException {
+		
+		super(selected, menu, stage, node);
+		
+		if(player == null)
+			throw new IllegalArgumentException("player cannot be null");
+		
+		this.player = player;
+	}
+	
 	@Override
 	public void call(MenuListener listener) {
 		if(listener == null)
@@ -5,6 +5,8 @@ import java.util.Stack;
 import net.minedcontrol.bukkit.menus.basis.Menu;
 import net.minedcontrol.bukkit.menus.basis.MenuChoice;
 import net.minedcontrol.bukkit.menus.basis.MenuOption;
+import net.minedcontrol.bukkit.menus.basis.MenuPath;
+import net.minedcontrol.bukkit.menus.basis.UnderlayNode;
 import net.minedcontrol.bukkit.menus.basis.listening.MenuListener;
 import net.minedcontrol.zamalib.players.ZamaPlayer;
 
@@ -38,6 +40,26 @@ public class PlayerMenuUndoEvent extends MenuUndoEvent implements MenuEvent {
 			Stack<MenuChoice> path, ZamaPlayer player) 
 					throws IllegalArgumentException {
 		
+		this(selected, menu, path != null ? MenuPath.of(path) : null, player);
+	}
+	
+	/**
+	 * Class constructor.
+	 * 
+	 * @param selected	The option being undone, not <code>null</code>.
+	 * @param menu		The menu that the option was undone with, not
+	 * 					<code>null</code>.
+	 * @param path		The path of the menu up until the point of the
+	 * 					undoing, not <code>null</code>.
+	 * @param player	The player that undid the selection.
+	 * 
+	 * @throws IllegalArgumentException	if any of the parameters are 
+	 * 									<code>null</code>.
+	 */
+	public PlayerMenuUndoEvent(MenuOption selected, Menu menu,
+			MenuPath path, ZamaPlayer player) 
+					throws IllegalArgumentException {
+		
 		super(selected, menu, path);
 		
 		if(player == null)
@@ -46,6 +68,33 @@ public class PlayerMenuUndoEvent extends MenuUndoEvent implements MenuEvent {
 		this.player = player;
 	}
 	
+	/**
+	 * Class constructor for a light event, which reads the menu's path the
+	 * first time it is asked for. The path must be asked for, if at all, 
+	 * before the menu goes on from the undo.
+	 * 
+	 * @param selected	The option being undone, not <code>null</code>.
+	 * @param menu		The menu that the option was undone with, not
+	 * 					<code>null</code>.
+	 * @param node		The node the menu returns to, at which the option 
+	 * 					was chosen.
+	 * @param player	The player that undid the selection.
+	 * 
+	 * @throws IllegalArgumentException	if the option, menu or player is
+	 * 									<code>null</code>.
+	 */
+	public PlayerMenuUndoEvent(MenuOption selected, Menu menu,
+			UnderlayNode node, ZamaPlayer player) 
+					throws IllegalArgumentException {
+		
+		super(selected, menu, node);
+		
+		if(player == null)
+			throw new IllegalArgumentException("player cannot be null");
+		
+		this.player = player;
+	}
+	
 	@Override
 	public void call(MenuListener listener) {
 		if(listener == null)
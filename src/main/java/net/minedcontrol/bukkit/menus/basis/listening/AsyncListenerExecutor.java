@@ -0,0 +1,245 @@
+package net.minedcontrol.bukkit.menus.basis.listening;
+
+import java.lang.reflect.Method;
+import java.util.Queue;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.Executor;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ThreadFactory;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import org.bukkit.Bukkit;
+
+import net.minedcontrol.bukkit.menus.Menus;
+import net.minedcontrol.zamalib.runtime.master.Zama;
+
+/**
+ * Runs the calls to asynchronous menu listeners on a bounded number of
+ * threads, handing each menu a queue that runs its calls one at a time
+ * and in order.
+ * <p>
+ * Uses virtual threads when the server's Java version has them, and
+ * daemon threads otherwise, so that a stuck listener never keeps the
+ * server from stopping.
+ * <p>
+ * Date Created: Oct 17, 2026
+ *
+ * @see AsyncMenuListener
+ */
+public final class AsyncListenerExecutor {
+
+	//the most calls a queue runs before letting other queues have a turn
+	private static final int BATCH_SIZE = 64;
+
+	private final ThreadPoolExecutor pool;
+
+
+	/**
+	 * Class constructor.
+	 *
+	 * @param threads	The most listener calls to run at the same time.
+	 * 					Must be positive.
+	 *
+	 * @throws IllegalArgumentException	if the number of threads is not
+	 * 									positive.
+	 */
+	public AsyncListenerExecutor(int threads) throws IllegalArgumentException {
+		if(threads <= 0)
+			throw new IllegalArgumentException("the number of threads must be positive");
+
+		//the pool's queue only ever holds one task per menu with waiting
+		// calls, so does not need a bound of its own
+		this.pool = new ThreadPoolExecutor(threads, threads, 30,
+				TimeUnit.SECONDS, new LinkedBlockingQueue<Runnable>(),
+				createThreadFactory());
+		this.pool.allowCoreThreadTimeOut(true);
+	}
+
+
+	//--------
+	//PUBLIC
+	//--------
+
+	/**
+	 * Creates a queue that runs the tasks given to it one at a time, in
+	 * the order they were given, on this executor's threads.
+	 * <p>
+	 * If this executor has been shut down, tasks given to the queue are
+	 * run by the thread that gives them instead.
+	 *
+	 * @return	A new queue.
+	 */
+	public Executor newQueue() {
+		return new SerialQueue();
+	}
+
+	/**
+	 * Stops accepting new work and waits for queued calls to finish.
+	 *
+	 * @param timeout	The longest time to wait.
+	 * @param unit		The unit of the timeout.
+	 * @return			<code>true</code> if every call finished in time.
+	 */
+	public boolean shutdown(long timeout, TimeUnit unit) {
+		pool.shutdown();
+
+		try {
+			return pool.awaitTermination(timeout, unit);
+		}
+		catch(InterruptedException e) {
+			Thread.currentThread().interrupt();
+			return false;
+		}
+	}
+
+	/**
+	 * Gets whether this executor has been shut down.
+	 *
+	 * @return	<code>true</code> if it no longer accepts new work.
+	 */
+	public boolean isShutdown() {
+		return pool.isShutdown();
+	}
+
+	/**
+	 * Runs a task on the server thread, such as an asynchronous listener
+	 * feeding a result back into its menu. Runs it immediately if called
+	 * from the server thread, and on the next tick otherwise.
+	 *
+	 * @param task	The task to run. Not <code>null</code>.
+	 *
+	 * @throws IllegalArgumentException	on a <code>null</code> task.
+	 */
+	public static void runSync(Runnable task) throws IllegalArgumentException {
+		if(task == null)
+			throw new IllegalArgumentException("task cannot be null");
+
+		if(Bukkit.isPrimaryThread())
+			task.run();
+		else
+			Bukkit.getScheduler().runTask(Menus.getPlugin(), task);
+	}
+
+
+	//--------
+	//PRIVATE
+	//--------
+
+	/**
+	 * Creates a factory of virtual threads if the running version of Java
+	 * has them, or of daemon threads if it does not. Looked up by
+	 * reflection, as the plugin is built for older versions of Java.
+	 *
+	 * @return	The thread factory.
+	 */
+	private static ThreadFactory createThreadFactory() {
+		try {
+			Class<?> builderClass = Class.forName("java.lang.Thread$Builder");
+			Object builder = Thread.class.getMethod("ofVirtual").invoke(null);
+
+			builder = builderClass.getMethod("name", String.class, long.class)
+					.invoke(builder, "Menus-Listener-", 0L);
+
+			Method factory = builderClass.getMethod("factory");
+			return (ThreadFactory) factory.invoke(builder);
+		}
+		catch(Exception e) {
+			//no virtual threads before Java 21
+		}
+
+		return new ThreadFactory() {
+			private final AtomicInteger count = new AtomicInteger();
+
+			@Override
+			public Thread newThread(Runnable r) {
+				Thread thread = new Thread(r, "Menus-Listener-"
+						+ count.getAndIncrement());
+				thread.setDaemon(true);
+				return thread;
+			}
+		};
+	}
+
+	/**
+	 * Runs a single task, reporting anything it throws rather than letting
+	 * it stop the queue it is in.
+	 *
+	 * @param task	The task.
+	 */
+	private static void runSafely(Runnable task) {
+		try {
+			task.run();
+		}
+		catch(Throwable t) {
+			String message = "Error encountered in an asynchronous menu listener.";
+			Zama.debug(Menus.getPlugin(), message, message);
+			Zama.debug(Menus.getPlugin(), t, t);
+		}
+	}
+
+	/**
+	 * A queue of tasks that are run one at a time and in order. Holds at
+	 * most one task in the pool at a time, which runs the queue's tasks
+	 * until it is empty or has had its turn.
+	 */
+	private final class SerialQueue implements Executor, Runnable {
+
+		private final Queue<Runnable> tasks = new ConcurrentLinkedQueue<Runnable>();
+
+		//whether this queue is in the pool or being run
+		private final AtomicBoolean scheduled = new AtomicBoolean();
+
+		@Override
+		public void execute(Runnable task) {
+			if(task == null)
+				throw new NullPointerException();
+
+			tasks.add(task);
+			schedule();
+		}
+
+		@Override
+		public void run() {
+			for(int i = 0; i < BATCH_SIZE; i++) {
+				Runnable task = tasks.poll();
+				if(task == null)
+					break;
+
+				runSafely(task);
+			}
+
+			scheduled.set(false);
+
+			//picks up tasks added after the last poll, or left over from
+			// this turn
+			if(!tasks.isEmpty())
+				schedule();
+		}
+
+		/**
+		 * Puts this queue into the pool if it is not already there.
+		 */
+		private void schedule() {
+			if(!scheduled.compareAndSet(false, true))
+				return;
+
+			try {
+				pool.execute(this);
+			}
+			catch(RejectedExecutionException e) {
+				//shut down, so the calls are made here rather than lost
+				Runnable task;
+				while((task = tasks.poll()) != null) {
+					runSafely(task);
+				}
+
+				scheduled.set(false);
+			}
+		}
+	}
+
+}
@@ -0,0 +1,26 @@
+package net.minedcontrol.bukkit.menus.basis.listening;
+
+/**
+ * A menu listener that is called off the server thread, for listeners that
+ * do slow work such as writing to a database and should never hold up the
+ * server's tick. Monitoring listeners, which only record what was chosen,
+ * are the usual candidates.
+ * <p>
+ * Asynchronous listeners are called after the option's synchronous
+ * listeners, in the same order of priority. The events of a single menu
+ * are always handed to its asynchronous listeners one at a time and in
+ * the order they happened, but the events of different menus may be
+ * handled at the same time.
+ * <p>
+ * The menu has usually moved on by the time an asynchronous listener is
+ * called. Events' options, stages, paths and players are safe to read,
+ * but the menu itself must only be used from the server thread, which
+ * {@link AsyncListenerExecutor#runSync(Runnable)} can hand work back to.
+ * <p>
+ * Date Created: Oct 17, 2026
+ *
+ * @see AsyncListenerExecutor
+ */
+public interface AsyncMenuListener extends MenuListener {
+
+}
@@ -2,6 +2,7 @@ package net.minedcontrol.bukkit.menus.listeners;
 
 import java.util.HashMap;
 import java.util.HashSet;
+import java.util.List;
 import java.util.Map;
 import java.util.Set;
 
@@ -10,6 +11,7 @@ import net.minedcontrol.bukkit.menus.MenusPlugin;
 import net.minedcontrol.bukkit.menus.basis.Menu;
 import net.minedcontrol.bukkit.menus.basis.MenuUnderlay;
 import net.minedcontrol.bukkit.menus.basis.responses.MenuResponse;
+import net.minedcontrol.bukkit.menus.sessions.MenuSessions;
 import net.minedcontrol.bukkit.menus.uis.blockstructures.dynamic.buttonui.ButtonInteractionInterface;
 import net.minedcontrol.bukkit.menus.uis.blockstructures.dynamic.buttonui.ButtonInteractionStructure;
 import net.minedcontrol.bukkit.menus.uis.blockstructures.dynamic.buttonui.ButtonStructureConfiguration;
@@ -32,6 +34,7 @@ import org.bukkit.event.EventHandler;
 import org.bukkit.event.Listener;
 import org.bukkit.event.block.Action;
 import org.bukkit.event.entity.ProjectileHitEvent;
+import org.bukkit.event.player.PlayerChangedWorldEvent;
 import org.bukkit.event.player.PlayerInteractEvent;
 import org.bukkit.event.player.PlayerJoinEvent;
 import org.bukkit.event.player.PlayerQuitEvent;
@@ -330,19 +333,44 @@ public class ButtonMenuListener implements Listener {
 			public void run() {
 
 				ZamaPlayer player = Zama.getZamaPlayer(event.getPlayer());
-				Menu menu = new Menu(mainUnderlay, player);
+				if(player == null)
+					return;
 				
-				ButtonInteractionInterface ui = new ButtonInteractionInterface(mainStruct);
-				menu.setInterface(ui);
-
-				//debug 
-				Zama.debug(Menus.getPlugin(), null, "opening main menu for player " + player.getName());
-
-				Set<ButtonInteractionInterface> uis = menus.get(player.getUID());
-				if(uis == null)
-					menus.put(player.getUID(), uis = new HashSet<ButtonInteractionInterface>());
-
-				uis.add(ui);
+				//resumes the main menu where the player left it, if they 
+				// saved one, or else opens a new one
+				Menus.getManager().getSessions().restore(player, 
+						new MenuSessions.RestoreCallback() {
+					
+					@SuppressWarnings("deprecation")
+					@Override
+					public void onRestore(ZamaPlayer player, List<Menu> restored) {
+						//only one main menu is shown. Any other restored 
+						// menus could not be seen or used, so they are let go
+						// rather than saved again on the next quit.
+						Menu menu = null;
+						for(Menu m : restored) {
+							if(menu == null && m.getUnderlay() == mainUnderlay)
+								menu = m;
+							else
+								m.abandon();
+						}
+						
+						if(menu == null)
+							menu = new Menu(mainUnderlay, player);
+						
+						ButtonInteractionInterface ui = new ButtonInteractionInterface(mainStruct);
+						menu.setInterface(ui);
+
+						//debug 
+						Zama.debug(Menus.getPlugin(), null, "opening main menu for player " + player.getName());
+
+						Set<ButtonInteractionInterface> uis = menus.get(player.getUID());
+						if(uis == null)
+							menus.put(player.getUID(), uis = new HashSet<ButtonInteractionInterface>());
+
+						uis.add(ui);
+					}
+				});
 			}
 		}, 10L);
 		
@@ -367,6 +395,32 @@ public class ButtonMenuListener implements Listener {
 		if(zp == null)
 			return;
 
+		//the player's menus themselves are saved and let go by Menus
 		menus.remove(zp.getUID());
+		forgetStructures(zp);
+	}
+
+	@EventHandler
+	public void onPlayerChangeWorld(PlayerChangedWorldEvent event) {
+		ZamaPlayer zp = Zama.getZamaPlayer(event.getPlayer());
+		if(zp == null)
+			return;
+
+		//the client drops its fake blocks along with the old world
+		forgetStructures(zp);
+	}
+
+	/**
+	 * Makes every configured structure forget what it has sent a player.
+	 * 
+	 * @param player	The player to forget.
+	 */
+	private void forgetStructures(ZamaPlayer player) {
+		if(structureConfig == null)
+			return;
+
+		for(ButtonInteractionStructure struct : structureConfig.getStructures()) {
+			struct.forget(player);
+		}
 	}
 }
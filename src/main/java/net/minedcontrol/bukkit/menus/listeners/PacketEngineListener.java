@@ -0,0 +1,33 @@
+package net.minedcontrol.bukkit.menus.listeners;
+
+import net.minedcontrol.bukkit.menus.Menus;
+import net.minedcontrol.bukkit.menus.uis.packetediting.PacketEngine;
+import net.minedcontrol.zamalib.players.ZamaPlayer;
+import net.minedcontrol.zamalib.runtime.master.Zama;
+
+import org.bukkit.event.EventHandler;
+import org.bukkit.event.EventPriority;
+import org.bukkit.event.Listener;
+import org.bukkit.event.player.PlayerQuitEvent;
+
+/**
+ * Listener that clears what the packet engine is holding for players
+ * when they leave.
+ * <p>
+ * Date Created: Oct 17, 2026
+ * 
+ */
+public class PacketEngineListener implements Listener {
+
+	@SuppressWarnings("deprecation")
+	@EventHandler(priority = EventPriority.MONITOR)
+	public void onPlayerQuit(PlayerQuitEvent event) {
+		ZamaPlayer zp = Zama.getZamaPlayer(event.getPlayer());
+		if(zp == null)
+			return;
+
+		PacketEngine engine = Menus.getManager().getPacketEngine();
+		if(engine != null)
+			engine.clearPlayer(zp);
+	}
+}
@@ -0,0 +1,32 @@
+package net.minedcontrol.bukkit.menus.listeners;
+
+import net.minedcontrol.bukkit.menus.Menus;
+import net.minedcontrol.zamalib.players.ZamaPlayer;
+import net.minedcontrol.zamalib.runtime.master.Zama;
+
+import org.bukkit.event.EventHandler;
+import org.bukkit.event.EventPriority;
+import org.bukkit.event.Listener;
+import org.bukkit.event.player.PlayerQuitEvent;
+
+/**
+ * Listener that lets go of the menus of players when they leave, so that
+ * menus that are never finished are not kept for the life of the server.
+ * <p>
+ * Runs after other plugins' quit listeners, which may still want to use 
+ * the menus, and before the packet engine is cleared.
+ * <p>
+ * Date Created: Oct 17, 2026
+ *
+ */
+public class PlayerMenusListener implements Listener {
+
+	@EventHandler(priority = EventPriority.HIGHEST)
+	public void onPlayerQuit(PlayerQuitEvent event) {
+		ZamaPlayer zp = Zama.getZamaPlayer(event.getPlayer());
+		if(zp == null)
+			return;
+
+		Menus.getManager().releasePlayer(zp);
+	}
+}
@@ -0,0 +1,253 @@
+package net.minedcontrol.bukkit.menus.sessions;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+import java.util.concurrent.TimeUnit;
+
+import org.bukkit.entity.Player;
+
+import net.minedcontrol.bukkit.menus.Menus;
+import net.minedcontrol.bukkit.menus.basis.Menu;
+import net.minedcontrol.bukkit.menus.basis.MenuCollection;
+import net.minedcontrol.bukkit.menus.basis.MenuSnapshot;
+import net.minedcontrol.bukkit.menus.basis.listening.AsyncListenerExecutor;
+import net.minedcontrol.zamalib.players.ZamaPlayer;
+import net.minedcontrol.zamalib.runtime.master.Zama;
+
+/**
+ * Saves players' menus when they leave or the server stops, and resumes
+ * them when they join again.
+ * <p>
+ * Nothing is read when the server starts. A player's saved menus are only
+ * read when they are restored, off the server thread, and are then 
+ * resumed on the server thread. Restoring consumes the saved menus. Only 
+ * menus over underlays that can be resumed are saved, and players keep
+ * their saved menus until they are restored while the player is online.
+ * <p>
+ * Date Created: Oct 17, 2026
+ * 
+ * @see Menu#snapshot()
+ * @see SessionStore
+ */
+public class MenuSessions {
+	
+	private final SessionStore store;
+	
+	
+	/**
+	 * Class constructor.
+	 * 
+	 * @param store	The store to save sessions in. Not <code>null</code>.
+	 * 
+	 * @throws IllegalArgumentException	on a <code>null</code> store.
+	 */
+	public MenuSessions(SessionStore store) throws IllegalArgumentException {
+		if(store == null)
+			throw new IllegalArgumentException("store cannot be null");
+		
+		this.store = store;
+	}
+	
+	
+	//--------
+	//PUBLIC
+	//--------
+	
+	/**
+	 * Saves the menus a player currently has, replacing any they had 
+	 * saved. Saves nothing if none of their menus can be resumed, keeping
+	 * any menus they had saved but not yet restored. The menus are written
+	 * in the background.
+	 * 
+	 * @param player	The player. Not <code>null</code>.
+	 * @return			The number of menus saved.
+	 */
+	public int save(ZamaPlayer player) {
+		UUID uid = getUniqueId(player);
+		if(uid == null)
+			return 0;
+		
+		List<MenuSnapshot> snapshots = snapshot(
+				Menus.getManager().getMenuCollection().getMenus(player));
+		
+		if(!snapshots.isEmpty())
+			store.save(uid, snapshots);
+		
+		return snapshots.size();
+	}
+	
+	/**
+	 * Saves the menus of every player, such as when the server is 
+	 * stopping. The menus are written in the background.
+	 * 
+	 * @return	The number of menus saved.
+	 */
+	public int saveAll() {
+		MenuCollection collection = Menus.getManager().getMenuCollection();
+		
+		//groups the menus by player first, as the collection is indexed
+		// by the players' ZamaLib ids rather than their unique ids
+		Map<UUID, List<Menu>> byPlayer = new HashMap<UUID, List<Menu>>();
+		for(Menu menu : collection.getAllMenus()) {
+			UUID uid = getUniqueId(menu.getUser());
+			if(uid == null)
+				continue;
+			
+			List<Menu> menus = byPlayer.get(uid);
+			if(menus == null)
+				byPlayer.put(uid, menus = new ArrayList<Menu>());
+			
+			menus.add(menu);
+		}
+		
+		int saved = 0;
+		for(Map.Entry<UUID, List<Menu>> ent : byPlayer.entrySet()) {
+			List<MenuSnapshot> snapshots = snapshot(ent.getValue());
+			if(snapshots.isEmpty())
+				continue;
+			
+			store.save(ent.getKey(), snapshots);
+			saved += snapshots.size();
+		}
+		
+		return saved;
+	}
+	
+	/**
+	 * Resumes the menus a player had saved, if any, and deletes them from
+	 * the store. Reads them in the background and resumes them on the 
+	 * server thread.
+	 * 
+	 * @param player	The player. Not <code>null</code>.
+	 * @param callback	Given the resumed menus on the server thread, which
+	 * 					still need to be given interfaces. Given an empty
+	 * 					list if the player had no saved menus, and not 
+	 * 					called if they leave before their menus are read.
+	 * 					Can be <code>null</code>.
+	 */
+	public void restore(final ZamaPlayer player, final RestoreCallback callback) {
+		UUID uid = getUniqueId(player);
+		if(uid == null)
+			return;
+		
+		store.load(uid, new SessionStore.LoadCallback() {
+			@Override
+			public void onLoad(final UUID uid, final List<MenuSnapshot> snapshots) {
+				AsyncListenerExecutor.runSync(new Runnable() {
+					@Override
+					public void run() {
+						//keeps the session for next time if the player has
+						// already left again
+						if(!player.isOnline())
+							return;
+						
+						List<Menu> menus = Collections.emptyList();
+						if(!snapshots.isEmpty()) {
+							store.delete(uid);
+							menus = resume(player, snapshots);
+						}
+						
+						if(callback != null)
+							callback.onRestore(player, menus);
+					}
+				});
+			}
+		});
+	}
+	
+	/**
+	 * Writes every saved session and stops writing, waiting for it to 
+	 * finish.
+	 * 
+	 * @param timeout	The longest time to wait.
+	 * @param unit		The unit of the timeout.
+	 * @return			<code>true</code> if every session was written in 
+	 * 					time.
+	 */
+	public boolean close(long timeout, TimeUnit unit) {
+		return store.close(timeout, unit);
+	}
+	
+	/**
+	 * Called with a player's resumed menus.
+	 */
+	public interface RestoreCallback {
+		
+		/**
+		 * Called with a player's resumed menus, on the server thread.
+		 * 
+		 * @param player	The player.
+		 * @param menus		The resumed menus. Empty if there were none.
+		 */
+		public void onRestore(ZamaPlayer player, List<Menu> menus);
+	}
+	
+	
+	//--------
+	//PRIVATE
+	//--------
+	
+	/**
+	 * Takes snapshots of the menus that can be resumed.
+	 * 
+	 * @param menus	The menus.
+	 * @return		Their snapshots.
+	 */
+	private static List<MenuSnapshot> snapshot(Iterable<Menu> menus) {
+		List<MenuSnapshot> snapshots = new ArrayList<MenuSnapshot>();
+		for(Menu menu : menus) {
+			MenuSnapshot snapshot = menu.snapshot();
+			if(snapshot != null)
+				snapshots.add(snapshot);
+		}
+		
+		return snapshots;
+	}
+	
+	/**
+	 * Resumes menus from their snapshots, skipping any that can no longer
+	 * be resumed.
+	 * 
+	 * @param player	The player the menus are for.
+	 * @param snapshots	The snapshots.
+	 * @return			The resumed menus.
+	 */
+	private static List<Menu> resume(ZamaPlayer player, 
+			List<MenuSnapshot> snapshots) {
+		
+		List<Menu> menus = new ArrayList<Menu>(snapshots.size());
+		for(MenuSnapshot snapshot : snapshots) {
+			try {
+				menus.add(Menu.restore(snapshot, player));
+			}
+			catch(IllegalStateException e) {
+				//the underlay or node no longer exists
+				String message = "Could not resume a menu of " 
+						+ player.getName() + ": " + e.getMessage();
+				Zama.debug(Menus.getPlugin(), message, message);
+			}
+		}
+		
+		return menus;
+	}
+	
+	/**
+	 * Gets the unique id a player's sessions are stored by.
+	 * 
+	 * @param player	The player.
+	 * @return			Their unique id. <code>null</code> if there is no
+	 * 					player or they are not on the server.
+	 */
+	private static UUID getUniqueId(ZamaPlayer player) {
+		if(player == null)
+			return null;
+		
+		Player bukkitPlayer = player.getPlayer();
+		return bukkitPlayer != null ? bukkitPlayer.getUniqueId() : null;
+	}
+
+}
@@ -0,0 +1,281 @@
+package net.minedcontrol.bukkit.menus.sessions;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+import net.minedcontrol.bukkit.menus.basis.MenuSnapshot;
+
+/**
+ * Encodes a player's menu snapshots into a compact binary form and back.
+ * <p>
+ * Every id is written once, to a table at the start, and referred to by
+ * its index in the table. Indices, counts and the times between choices
+ * are written as variable-length integers, so a typical menu takes a
+ * handful of bytes beyond its ids.
+ * <p>
+ * Format, version 1:
+ * <pre>
+ * int     magic ("MNUS")
+ * byte    version
+ * varint  number of ids, then each id as modified UTF-8
+ * varint  number of menus, then for each menu:
+ *   varint  underlay id index
+ *   varint  node id index
+ *   varint  number of choices, then for each choice:
+ *     varint  node id index
+ *     varint  option id index
+ *     varlong milliseconds since the previous choice, zigzag encoded
+ * </pre>
+ * <p>
+ * Date Created: Oct 17, 2026
+ * 
+ * @see MenuSnapshot
+ */
+public final class SessionCodec {
+	
+	private static final int MAGIC = 0x4D4E5553;
+	private static final int VERSION = 1;
+	
+	
+	private SessionCodec() {}
+	
+	
+	//--------
+	//PUBLIC
+	//--------
+	
+	/**
+	 * Encodes a list of snapshots.
+	 * 
+	 * @param snapshots	The snapshots. Not <code>null</code>.
+	 * @return			The encoded snapshots.
+	 */
+	public static byte[] encode(List<MenuSnapshot> snapshots) {
+		//builds the table of ids
+		Map<String, Integer> indices = new HashMap<String, Integer>();
+		List<String> ids = new ArrayList<String>();
+		for(MenuSnapshot snapshot : snapshots) {
+			intern(snapshot.getUnderlayId(), indices, ids);
+			intern(snapshot.getNodeId(), indices, ids);
+			
+			for(int i = 0; i < snapshot.numChoices(); i++) {
+				intern(snapshot.getChoiceNode(i), indices, ids);
+				intern(snapshot.getChoiceOption(i), indices, ids);
+			}
+		}
+		
+		ByteArrayOutputStream bytes = new ByteArrayOutputStream(64);
+		DataOutputStream out = new DataOutputStream(bytes);
+		try {
+			out.writeInt(MAGIC);
+			out.writeByte(VERSION);
+			
+			writeVarLong(out, ids.size());
+			for(String id : ids) {
+				out.writeUTF(id);
+			}
+			
+			writeVarLong(out, snapshots.size());
+			for(MenuSnapshot snapshot : snapshots) {
+				writeVarLong(out, indices.get(snapshot.getUnderlayId()));
+				writeVarLong(out, indices.get(snapshot.getNodeId()));
+				writeVarLong(out, snapshot.numChoices());
+				
+				long last = 0;
+				for(int i = 0; i < snapshot.numChoices(); i++) {
+					writeVarLong(out, indices.get(snapshot.getChoiceNode(i)));
+					writeVarLong(out, indices.get(snapshot.getChoiceOption(i)));
+					
+					long time = snapshot.getChoiceTime(i);
+					writeVarLong(out, zigzag(time - last));
+					last = time;
+				}
+			}
+		}
+		catch(IOException e) {
+			//not thrown by a byte array stream
+			throw new IllegalStateException(e);
+		}
+		
+		return bytes.toByteArray();
+	}
+	
+	/**
+	 * Decodes a list of snapshots.
+	 * 
+	 * @param data	The encoded snapshots. Not <code>null</code>.
+	 * @return		The snapshots.
+	 * 
+	 * @throws IOException	if the data is not a valid encoding of 
+	 * 						snapshots, or is of an unknown version.
+	 */
+	public static List<MenuSnapshot> decode(byte[] data) throws IOException {
+		DataInputStream in = new DataInputStream(new ByteArrayInputStream(data));
+		
+		if(in.readInt() != MAGIC)
+			throw new IOException("not a menu session");
+		
+		int version = in.readUnsignedByte();
+		if(version != VERSION)
+			throw new IOException("unknown menu session version " + version);
+		
+		String[] ids = new String[readCount(in, data.length)];
+		for(int i = 0; i < ids.length; i++) {
+			ids[i] = in.readUTF();
+		}
+		
+		int menus = readCount(in, data.length);
+		List<MenuSnapshot> snapshots = new ArrayList<MenuSnapshot>(menus);
+		for(int m = 0; m < menus; m++) {
+			String underlayId = readId(in, ids);
+			String nodeId = readId(in, ids);
+			
+			int choices = readCount(in, data.length);
+			String[] nodes = new String[choices];
+			String[] options = new String[choices];
+			long[] times = new long[choices];
+			
+			long last = 0;
+			for(int i = 0; i < choices; i++) {
+				nodes[i] = readId(in, ids);
+				options[i] = readId(in, ids);
+				times[i] = last += unzigzag(readVarLong(in));
+			}
+			
+			snapshots.add(new MenuSnapshot(underlayId, nodeId, nodes, 
+					options, times));
+		}
+		
+		return snapshots;
+	}
+	
+	
+	//--------
+	//PRIVATE
+	//--------
+	
+	/**
+	 * Adds an id to the table of ids if it is not already in it.
+	 * 
+	 * @param id		The id.
+	 * @param indices	The index of each id in the table.
+	 * @param ids		The table.
+	 */
+	private static void intern(String id, Map<String, Integer> indices, 
+			List<String> ids) {
+		
+		if(!indices.containsKey(id)) {
+			indices.put(id, ids.size());
+			ids.add(id);
+		}
+	}
+	
+	/**
+	 * Reads a count, checking that it could fit in the data.
+	 * 
+	 * @param in		The stream.
+	 * @param maxCount	The largest possible count.
+	 * @return			The count.
+	 * 
+	 * @throws IOException	on a read error or an impossible count.
+	 */
+	private static int readCount(DataInputStream in, int maxCount) 
+			throws IOException {
+		
+		long count = readVarLong(in);
+		if(count < 0 || count > maxCount)
+			throw new IOException("corrupt menu session");
+		
+		return (int) count;
+	}
+	
+	/**
+	 * Reads the index of an id and looks the id up.
+	 * 
+	 * @param in	The stream.
+	 * @param ids	The table of ids.
+	 * @return		The id.
+	 * 
+	 * @throws IOException	on a read error or an index out of the table.
+	 */
+	private static String readId(DataInputStream in, String[] ids) 
+			throws IOException {
+		
+		long index = readVarLong(in);
+		if(index < 0 || index >= ids.length)
+			throw new IOException("corrupt menu session");
+		
+		return ids[(int) index];
+	}
+	
+	/**
+	 * Writes a non-negative number in as few bytes as it needs, seven bits
+	 * at a time.
+	 * 
+	 * @param out	The stream.
+	 * @param value	The number.
+	 * 
+	 * @throws IOException	on a write error.
+	 */
+	private static void writeVarLong(DataOutputStream out, long value) 
+			throws IOException {
+		
+		while((value & ~0x7FL) != 0) {
+			out.writeByte((int) ((value & 0x7F) | 0x80));
+			value >>>= 7;
+		}
+		
+		out.writeByte((int) value);
+	}
+	
+	/**
+	 * Reads a number written by 
+	 * {@link #writeVarLong(DataOutputStream, long)}.
+	 * 
+	 * @param in	The stream.
+	 * @return		The number.
+	 * 
+	 * @throws IOException	on a read error or a number that is too long.
+	 */
+	private static long readVarLong(DataInputStream in) throws IOException {
+		long value = 0;
+		for(int shift = 0; shift < 64; shift += 7) {
+			int b = in.readUnsignedByte();
+			value |= (long) (b & 0x7F) << shift;
+			
+			if((b & 0x80) == 0)
+				return value;
+		}
+		
+		throw new IOException("corrupt menu session");
+	}
+	
+	/**
+	 * Maps a signed number to an unsigned one, so small negative numbers
+	 * are also written in few bytes.
+	 * 
+	 * @param value	The signed number.
+	 * @return		The unsigned number.
+	 */
+	private static long zigzag(long value) {
+		return (value << 1) ^ (value >> 63);
+	}
+	
+	/**
+	 * Reverses {@link #zigzag(long)}.
+	 * 
+	 * @param value	The unsigned number.
+	 * @return		The signed number.
+	 */
+	private static long unzigzag(long value) {
+		return (value >>> 1) ^ -(value & 1);
+	}
+
+}
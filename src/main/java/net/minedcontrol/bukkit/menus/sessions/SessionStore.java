@@ -0,0 +1,355 @@
+package net.minedcontrol.bukkit.menus.sessions;
+
+import java.io.File;
+import java.io.FileInputStream;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.nio.file.AtomicMoveNotSupportedException;
+import java.nio.file.Files;
+import java.nio.file.StandardCopyOption;
+import java.util.Collections;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ThreadFactory;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+import net.minedcontrol.bukkit.menus.Menus;
+import net.minedcontrol.bukkit.menus.basis.MenuSnapshot;
+import net.minedcontrol.zamalib.runtime.master.Zama;
+
+/**
+ * A store of players' saved menus on the local disk, as one small file 
+ * per player, so that only the sessions of players who actually join are
+ * ever read.
+ * <p>
+ * Saving only queues the player's snapshots. A single background thread
+ * writes every queued session at once, and only the latest session of a
+ * player is written if they were saved several times before it got to
+ * them. Loading sees queued sessions that have not been written yet.
+ * <p>
+ * Thread-safe.
+ * <p>
+ * Date Created: Oct 17, 2026
+ * 
+ * @see SessionCodec
+ */
+public final class SessionStore {
+	
+	private static final String EXTENSION = ".session";
+	
+	private final File directory;
+	
+	//reads and writes sessions, one at a time
+	private final ExecutorService io;
+	
+	//sessions waiting to be written, an empty list meaning to delete
+	private final ConcurrentMap<UUID, List<MenuSnapshot>> pending;
+	
+	//whether a write of the pending sessions is queued
+	private final AtomicBoolean scheduled;
+	
+	
+	/**
+	 * Class constructor.
+	 * 
+	 * @param directory	The directory to keep sessions in. Created if it 
+	 * 					does not exist. Not <code>null</code>.
+	 * 
+	 * @throws IllegalArgumentException	on a <code>null</code> directory.
+	 */
+	public SessionStore(File directory) throws IllegalArgumentException {
+		if(directory == null)
+			throw new IllegalArgumentException("directory cannot be null");
+		
+		this.directory = directory;
+		this.pending = new ConcurrentHashMap<UUID, List<MenuSnapshot>>();
+		this.scheduled = new AtomicBoolean();
+		
+		this.io = Executors.newSingleThreadExecutor(new ThreadFactory() {
+			@Override
+			public Thread newThread(Runnable r) {
+				Thread thread = new Thread(r, "Menus-Sessions");
+				thread.setDaemon(true);
+				return thread;
+			}
+		});
+	}
+	
+	
+	//--------
+	//PUBLIC
+	//--------
+	
+	/**
+	 * Queues a player's session to be written, replacing their previous
+	 * one.
+	 * 
+	 * @param player	The unique id of the player. Not <code>null</code>.
+	 * @param snapshots	Snapshots of the player's menus. An empty list 
+	 * 					deletes their session.
+	 * 
+	 * @throws IllegalArgumentException	on a <code>null</code> parameter.
+	 */
+	public void save(UUID player, List<MenuSnapshot> snapshots) 
+			throws IllegalArgumentException {
+		
+		if(player == null || snapshots == null)
+			throw new IllegalArgumentException("params cannot be null");
+		
+		pending.put(player, snapshots);
+		schedule();
+	}
+	
+	/**
+	 * Queues a player's session to be deleted.
+	 * 
+	 * @param player	The unique id of the player. Not <code>null</code>.
+	 */
+	public void delete(UUID player) {
+		save(player, Collections.<MenuSnapshot>emptyList());
+	}
+	
+	/**
+	 * Reads a player's session on the store's thread, after any writes 
+	 * queued before it.
+	 * 
+	 * @param player	The unique id of the player. Not <code>null</code>.
+	 * @param callback	Given the player's snapshots, on the store's 
+	 * 					thread. Given an empty list if the player has no 
+	 * 					session or it could not be read.
+	 * 
+	 * @throws IllegalArgumentException	on a <code>null</code> parameter.
+	 */
+	public void load(final UUID player, final LoadCallback callback) 
+			throws IllegalArgumentException {
+		
+		if(player == null || callback == null)
+			throw new IllegalArgumentException("params cannot be null");
+		
+		try {
+			io.execute(new Runnable() {
+				@Override
+				public void run() {
+					callback.onLoad(player, read(player));
+				}
+			});
+		}
+		catch(RejectedExecutionException e) {
+			//closed, so nothing more is loaded
+			callback.onLoad(player, Collections.<MenuSnapshot>emptyList());
+		}
+	}
+	
+	/**
+	 * Writes every queued session and stops the store's thread, waiting
+	 * for it to finish.
+	 * 
+	 * @param timeout	The longest time to wait.
+	 * @param unit		The unit of the timeout.
+	 * @return			<code>true</code> if every session was written in 
+	 * 					time.
+	 */
+	public boolean close(long timeout, TimeUnit unit) {
+		//queues a last write, even if one is already queued, as it may 
+		// have started before the last sessions were saved
+		try {
+			io.execute(new Runnable() {
+				@Override
+				public void run() {
+					writePending();
+				}
+			});
+		}
+		catch(RejectedExecutionException e) {
+			//already closed
+		}
+		
+		io.shutdown();
+		
+		try {
+			return io.awaitTermination(timeout, unit);
+		}
+		catch(InterruptedException e) {
+			Thread.currentThread().interrupt();
+			return false;
+		}
+	}
+	
+	/**
+	 * Called with a player's session once it has been read.
+	 */
+	public interface LoadCallback {
+		
+		/**
+		 * Called with a player's session once it has been read.
+		 * 
+		 * @param player	The unique id of the player.
+		 * @param snapshots	The player's snapshots, empty if they have 
+		 * 					none.
+		 */
+		public void onLoad(UUID player, List<MenuSnapshot> snapshots);
+	}
+	
+	
+	//--------
+	//PRIVATE
+	//--------
+	
+	/**
+	 * Queues a write of the pending sessions if one is not already queued.
+	 */
+	private void schedule() {
+		if(!scheduled.compareAndSet(false, true))
+			return;
+		
+		try {
+			io.execute(new Runnable() {
+				@Override
+				public void run() {
+					scheduled.set(false);
+					writePending();
+				}
+			});
+		}
+		catch(RejectedExecutionException e) {
+			//closed, so the sessions can only be written here
+			scheduled.set(false);
+			writePending();
+		}
+	}
+	
+	/**
+	 * Writes every pending session.
+	 */
+	private void writePending() {
+		if(pending.isEmpty())
+			return;
+		
+		if(!directory.isDirectory() && !directory.mkdirs()) {
+			String message = "Could not create the menu session directory.";
+			Zama.debug(Menus.getPlugin(), message, message);
+			return;
+		}
+		
+		for(Map.Entry<UUID, List<MenuSnapshot>> ent : pending.entrySet()) {
+			try {
+				write(ent.getKey(), ent.getValue());
+			}
+			catch(IOException e) {
+				String message = "Could not save the menus of " + ent.getKey() + ".";
+				Zama.debug(Menus.getPlugin(), message, message);
+				Zama.debug(Menus.getPlugin(), e, e);
+			}
+			
+			//keeps the session if it was saved again while being written
+			pending.remove(ent.getKey(), ent.getValue());
+		}
+	}
+	
+	/**
+	 * Writes a player's session to its file, through a temporary file so 
+	 * a half-written session never replaces a whole one. The temporary 
+	 * file is moved over the old one atomically where the file system
+	 * allows it.
+	 * 
+	 * @param player	The unique id of the player.
+	 * @param snapshots	The snapshots. Deletes the file if empty.
+	 * 
+	 * @throws IOException	on a write error.
+	 */
+	private void write(UUID player, List<MenuSnapshot> snapshots) 
+			throws IOException {
+		
+		File file = getFile(player);
+		if(snapshots.isEmpty()) {
+			if(file.exists() && !file.delete())
+				throw new IOException("could not delete " + file);
+			
+			return;
+		}
+		
+		File temp = new File(directory, player + EXTENSION + ".tmp");
+		OutputStream out = new FileOutputStream(temp);
+		try {
+			out.write(SessionCodec.encode(snapshots));
+		}
+		finally {
+			out.close();
+		}
+		
+		//replaces the old file in one step, so it is never missing
+		try {
+			Files.move(temp.toPath(), file.toPath(), 
+					StandardCopyOption.REPLACE_EXISTING, 
+					StandardCopyOption.ATOMIC_MOVE);
+		}
+		catch(AtomicMoveNotSupportedException e) {
+			Files.move(temp.toPath(), file.toPath(), 
+					StandardCopyOption.REPLACE_EXISTING);
+		}
+	}
+	
+	/**
+	 * Reads a player's session, from the pending sessions if it has not
+	 * been written yet.
+	 * 
+	 * @param player	The unique id of the player.
+	 * @return			The player's snapshots. Empty if they have none or
+	 * 					it could not be read.
+	 */
+	private List<MenuSnapshot> read(UUID player) {
+		List<MenuSnapshot> queued = pending.get(player);
+		if(queued != null)
+			return queued;
+		
+		File file = getFile(player);
+		if(!file.isFile())
+			return Collections.emptyList();
+		
+		try {
+			byte[] data = new byte[(int) file.length()];
+			InputStream in = new FileInputStream(file);
+			try {
+				int read = 0;
+				while(read < data.length) {
+					int n = in.read(data, read, data.length - read);
+					if(n < 0)
+						throw new IOException("unexpected end of " + file);
+					
+					read += n;
+				}
+			}
+			finally {
+				in.close();
+			}
+			
+			return SessionCodec.decode(data);
+		}
+		catch(IOException e) {
+			String message = "Could not read the saved menus of " + player + ".";
+			Zama.debug(Menus.getPlugin(), message, message);
+			Zama.debug(Menus.getPlugin(), e, e);
+			return Collections.emptyList();
+		}
+	}
+	
+	/**
+	 * Gets the file of a player's session.
+	 * 
+	 * @param player	The unique id of the player.
+	 * @return			The file.
+	 */
+	private File getFile(UUID player) {
+		return new File(directory, player + EXTENSION);
+	}
+
+}
@@ -14,6 +14,9 @@ import net.minedcontrol.zamalib.messaging.messages.framework.MultilingualMessage
  * for inputting headers, footers, or middle lines and filling the rest with
  * external text.
  * <p>
+ * Rendered text is cached per message and language, so each message is
+ * only word-wrapped once per language.
+ * <p>
  * Date Created: Jan 12, 2014
  * 
  * @author Brutus
@@ -25,9 +28,14 @@ public final class SignFormat {
 	private static final int LINE_LENGTH = 15;
 	private static final int NUM_LINES = 4;
 	
+	//the number of messages to keep rendered versions of per format
+	private static final int MAX_CACHED_MESSAGES = 4096;
+	
 	private final MultilingualMessage[] format;
 	private final int numNulls;
 	
+	private final SignTextCache rendered;
+	
 	/**
 	 * Class Constructor. Takes a series of messages that make up the 
 	 * predefined lines on the sign. Any message version that exceeds the 
@@ -72,12 +80,14 @@ public final class SignFormat {
 		}
 		
 		this.numNulls = n;
+		this.rendered = new SignTextCache(MAX_CACHED_MESSAGES);
 	}
 	
 	
 	/**
 	 * Generates a sign-safe text object in this defined format from a
-	 * given message.
+	 * given message. The text is shared between calls with the same
+	 * message and language.
 	 * 
 	 * @param msg	The message to format into sign-safe text.
 	 * @param lang	The version of the messages to use.
@@ -85,6 +95,35 @@ public final class SignFormat {
 	 */
 	public SignText getSignText(MultilingualMessage msg, LanguageChoice lang) {
 		
+		SignText cached = rendered.get(msg, lang);
+		if(cached != null)
+			return cached;
+		
+		SignText text = renderSignText(msg, lang);
+		rendered.put(msg, lang, text);
+		return text;
+	}
+	
+	/**
+	 * Gets the cache of the text this format has rendered, such as to 
+	 * check how often rendered text is reused.
+	 * 
+	 * @return	This format's render cache.
+	 */
+	public SignTextCache getRenderCache() {
+		return rendered;
+	}
+	
+	
+	/**
+	 * Renders a message into sign-safe text in this format.
+	 * 
+	 * @param msg	The message to format into sign-safe text.
+	 * @param lang	The version of the messages to use.
+	 * @return		A new sign-safe text object using this format.
+	 */
+	private SignText renderSignText(MultilingualMessage msg, LanguageChoice lang) {
+		
 		String str = msg.getMessage(lang);
 		
 		int exIndex = 0;
@@ -0,0 +1,225 @@
+package net.minedcontrol.bukkit.menus.uis.blockstructures.blocks;
+
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+import org.bukkit.Bukkit;
+import org.bukkit.World;
+
+import com.comphenix.protocol.events.PacketContainer;
+
+import net.minedcontrol.bukkit.menus.uis.packetediting.packets.WrapperPlayServerUpdateSign;
+import net.minedcontrol.zamalib.bukkit.util.blocks.BlockLocation;
+
+/**
+ * A bounded cache of prebuilt sign update packets, keyed by the sign's
+ * location and the text on it. Players who are shown the same text on the
+ * same sign, such as a title sign in the same language, are all sent the
+ * same packet instead of each getting a new one.
+ * <p>
+ * Each cached packet also keeps the world its sign is in, so that checking
+ * a player is in the sign's world is an identity comparison rather than a
+ * comparison of world names.
+ * <p>
+ * The least recently used packets are dropped once the cache is full.
+ * Cached packets are shared and must not be modified, nor handed to code
+ * that can modify them. That includes sending them through ProtocolLib's
+ * packet listeners, some of which edit packets in place, such as to fill
+ * in per-player text. A shallow copy should be sent instead, which is
+ * far cheaper than building the packet again.
+ * <p>
+ * Not thread-safe, and meant to be used from the server thread only.
+ * <p>
+ * Date Created: Oct 17, 2026
+ *
+ * @see SignUtil#updateSignText(net.minedcontrol.zamalib.players.ZamaPlayer, BlockLocation, SignText)
+ */
+public class SignPacketCache {
+
+	private final Map<Key, CachedPacket> packets;
+
+	private long hits;
+	private long misses;
+
+
+	/**
+	 * Class constructor.
+	 *
+	 * @param maxSize	The maximum number of packets to keep. Must be
+	 * 					positive.
+	 *
+	 * @throws IllegalArgumentException	if the maximum size is not positive.
+	 */
+	public SignPacketCache(final int maxSize) throws IllegalArgumentException {
+		if(maxSize <= 0)
+			throw new IllegalArgumentException("the maximum size must be positive");
+
+		this.packets = new LinkedHashMap<Key, CachedPacket>(16, 0.75f, true) {
+			private static final long serialVersionUID = 1L;
+
+			@Override
+			protected boolean removeEldestEntry(Map.Entry<Key, CachedPacket> eldest) {
+				return size() > maxSize;
+			}
+		};
+	}
+
+
+	//--------
+	//PUBLIC
+	//--------
+
+	/**
+	 * Gets the sign update packet for a sign showing some text, building
+	 * and caching it if it is not already cached.
+	 * <p>
+	 * The returned packet is shared and must not be modified.
+	 *
+	 * @param world	The world the sign is in, which the player the packet
+	 * 				is sent to must also be in.
+	 * @param sign	The location of the sign.
+	 * @param text	The text to show on the sign.
+	 * @return		The packet.
+	 *
+	 * @throws IllegalArgumentException	if the world is not the world of the
+	 * 									sign's location.
+	 * @throws NullPointerException		on a <code>null</code> parameter, or
+	 * 									if the sign's world is not loaded.
+	 */
+	public PacketContainer getPacket(World world, BlockLocation sign,
+			SignText text) throws IllegalArgumentException, NullPointerException {
+
+		if(world == null || sign == null || text == null)
+			throw new NullPointerException();
+
+		Key key = new Key(sign, text);
+		CachedPacket entry = packets.get(key);
+
+		//the world is resolved once per entry, and again only if it seems
+		// to have changed, such as after being unloaded and loaded again
+		if(entry == null || entry.world != world) {
+			World signWorld = Bukkit.getWorld(sign.getWorldName());
+			if(signWorld == null)
+				throw new NullPointerException("The sign's world is not loaded");
+
+			if(signWorld != world)
+				throw new IllegalArgumentException("Player and sign must be in"
+						+ " the same world.");
+
+			if(entry == null) {
+				misses++;
+				entry = new CachedPacket(signWorld, buildPacket(sign, text));
+				packets.put(key, entry);
+				return entry.packet;
+			}
+
+			entry.world = signWorld;
+		}
+
+		hits++;
+		return entry.packet;
+	}
+
+	/**
+	 * Removes every cached packet.
+	 */
+	public void clear() {
+		packets.clear();
+	}
+
+	/**
+	 * Gets the number of cached packets.
+	 *
+	 * @return	This cache's size.
+	 */
+	public int size() {
+		return packets.size();
+	}
+
+	/**
+	 * Gets the number of requested packets that were already cached.
+	 *
+	 * @return	The number of cache hits.
+	 */
+	public long getHits() {
+		return hits;
+	}
+
+	/**
+	 * Gets the number of requested packets that had to be built.
+	 *
+	 * @return	The number of cache misses.
+	 */
+	public long getMisses() {
+		return misses;
+	}
+
+
+	//--------
+	//PRIVATE
+	//--------
+
+	/**
+	 * Builds a sign update packet.
+	 *
+	 * @param sign	The location of the sign.
+	 * @param text	The text to show on the sign.
+	 * @return		The new packet.
+	 */
+	private static PacketContainer buildPacket(BlockLocation sign, SignText text) {
+		WrapperPlayServerUpdateSign wrapper = new WrapperPlayServerUpdateSign();
+		wrapper.setX(sign.getX());
+		wrapper.setY((short) sign.getY());
+		wrapper.setZ(sign.getZ());
+		wrapper.setLines(text.toArray());
+
+		return wrapper.getHandle();
+	}
+
+	/**
+	 * A sign location and the text on it.
+	 */
+	private static final class Key {
+
+		private final BlockLocation sign;
+		private final SignText text;
+		private final int hash;
+
+		private Key(BlockLocation sign, SignText text) {
+			this.sign = sign;
+			this.text = text;
+			this.hash = 31 * sign.hashCode() + text.hashCode();
+		}
+
+		@Override
+		public int hashCode() {
+			return hash;
+		}
+
+		@Override
+		public boolean equals(Object obj) {
+			if (this == obj)
+				return true;
+			if (!(obj instanceof Key))
+				return false;
+			Key other = (Key) obj;
+			return hash == other.hash && sign.equals(other.sign)
+					&& text.equals(other.text);
+		}
+	}
+
+	/**
+	 * A cached packet and the world of its sign.
+	 */
+	private static final class CachedPacket {
+
+		private World world;
+		private final PacketContainer packet;
+
+		private CachedPacket(World world, PacketContainer packet) {
+			this.world = world;
+			this.packet = packet;
+		}
+	}
+
+}
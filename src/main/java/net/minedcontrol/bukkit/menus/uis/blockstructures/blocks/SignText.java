@@ -1,5 +1,7 @@
 package net.minedcontrol.bukkit.menus.uis.blockstructures.blocks;
 
+import java.util.Arrays;
+
 /**
  * A fixed collection of strings that is safe for the contents of a sign.
  * <p>
@@ -65,4 +67,23 @@ public final class SignText {
 		return str;
 	}
 
+
+	@Override
+	public int hashCode() {
+		return Arrays.hashCode(text);
+	}
+
+
+	@Override
+	public boolean equals(Object obj) {
+		if (this == obj)
+			return true;
+		if (obj == null)
+			return false;
+		if (getClass() != obj.getClass())
+			return false;
+		SignText other = (SignText) obj;
+		return Arrays.equals(text, other.text);
+	}
+
 }
@@ -0,0 +1,190 @@
+package net.minedcontrol.bukkit.menus.uis.blockstructures.blocks;
+
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.atomic.AtomicLong;
+
+import net.minedcontrol.zamalib.messaging.LanguageChoice;
+
+/**
+ * A cache of rendered sign text, keyed by the message it was rendered from
+ * and the language it was rendered in. Rendering is deterministic for
+ * immutable messages, so each version only needs to be rendered once and
+ * can then be shared by every display of it.
+ * <p>
+ * Each message keeps one slot per language. Looking a version up does not
+ * create any objects.
+ * <p>
+ * Each cache counts its own hits and misses. Sets of versions kept
+ * outside a cache through {@link #newVersions()} are not counted.
+ * <p>
+ * Thread-safe. Versions are immutable, so two threads rendering the same
+ * version at once only results in one of them being kept.
+ * <p>
+ * Date Created: Oct 17, 2026
+ *
+ * @see SignFormat
+ */
+public final class SignTextCache {
+
+	//the number of messages after which the cache is emptied, in case
+	// the messages it is used with are not a fixed set
+	private final int maxMessages;
+
+	//key: the message the text was rendered from
+	//value: the rendered versions of the message, indexed by language
+	private final ConcurrentMap<Object, SignText[]> rendered;
+	
+	private final AtomicLong hits;
+	private final AtomicLong misses;
+
+
+	/**
+	 * Class constructor.
+	 *
+	 * @param maxMessages	The number of messages to keep versions of
+	 * 						before the cache is emptied. Must be positive.
+	 *
+	 * @throws IllegalArgumentException	if the maximum is not positive.
+	 */
+	public SignTextCache(int maxMessages) throws IllegalArgumentException {
+		if(maxMessages <= 0)
+			throw new IllegalArgumentException("the maximum number of messages must be positive");
+
+		this.maxMessages = maxMessages;
+		this.rendered = new ConcurrentHashMap<Object, SignText[]>();
+		this.hits = new AtomicLong();
+		this.misses = new AtomicLong();
+	}
+
+
+	//--------
+	//PUBLIC
+	//--------
+
+	/**
+	 * Gets the rendered version of a message in a language.
+	 *
+	 * @param message	The message. Not <code>null</code>.
+	 * @param lang		The language.
+	 * @return			The rendered version, <code>null</code> if it has
+	 * 					not been rendered yet.
+	 */
+	public SignText get(Object message, LanguageChoice lang) {
+		SignText[] versions = rendered.get(message);
+		SignText text = versions != null ? getVersion(versions, lang) : null;
+		
+		(text != null ? hits : misses).incrementAndGet();
+		return text;
+	}
+
+	/**
+	 * Stores the rendered version of a message in a language.
+	 *
+	 * @param message	The message. Not <code>null</code>.
+	 * @param lang		The language.
+	 * @param text		The rendered version. Not <code>null</code>.
+	 */
+	public void put(Object message, LanguageChoice lang, SignText text) {
+		SignText[] versions = rendered.get(message);
+		if(versions == null) {
+			if(rendered.size() >= maxMessages)
+				rendered.clear();
+
+			versions = newVersions();
+			SignText[] existing = rendered.putIfAbsent(message, versions);
+			if(existing != null)
+				versions = existing;
+		}
+
+		putVersion(versions, lang, text);
+	}
+
+	/**
+	 * Gets the number of messages with rendered versions.
+	 *
+	 * @return	This cache's size.
+	 */
+	public int size() {
+		return rendered.size();
+	}
+
+	/**
+	 * Removes every rendered version.
+	 */
+	public void clear() {
+		rendered.clear();
+	}
+
+	/**
+	 * Gets the number of versions that were found already rendered in
+	 * this cache.
+	 *
+	 * @return	The number of cache hits.
+	 */
+	public long getHits() {
+		return hits.get();
+	}
+
+	/**
+	 * Gets the number of versions that had to be rendered because they 
+	 * were not in this cache.
+	 *
+	 * @return	The number of cache misses.
+	 */
+	public long getMisses() {
+		return misses.get();
+	}
+
+	/**
+	 * Creates an empty set of versions for a single message, for a
+	 * message that keeps its own versions rather than using a cache.
+	 *
+	 * @return	A slot for each language.
+	 */
+	public static SignText[] newVersions() {
+		//the extra slot is for a null language
+		return new SignText[LanguageChoice.values().length + 1];
+	}
+
+	/**
+	 * Gets a version from a set of versions.
+	 *
+	 * @param versions	The versions, from {@link #newVersions()}.
+	 * @param lang		The language.
+	 * @return			The version, <code>null</code> if it has not been
+	 * 					rendered yet.
+	 */
+	public static SignText getVersion(SignText[] versions, LanguageChoice lang) {
+		return versions[slot(lang)];
+	}
+
+	/**
+	 * Stores a version in a set of versions.
+	 *
+	 * @param versions	The versions, from {@link #newVersions()}.
+	 * @param lang		The language.
+	 * @param text		The rendered version.
+	 */
+	public static void putVersion(SignText[] versions, LanguageChoice lang,
+			SignText text) {
+
+		versions[slot(lang)] = text;
+	}
+
+
+	//--------
+	//PRIVATE
+	//--------
+
+	/**
+	 * Gets the slot of a language in a set of versions.
+	 *
+	 * @param lang	The language.
+	 * @return		The index of the language's version.
+	 */
+	private static int slot(LanguageChoice lang) {
+		return lang != null ? lang.ordinal() + 1 : 0;
+	}
+
+}
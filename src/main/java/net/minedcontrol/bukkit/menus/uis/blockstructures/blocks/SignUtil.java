@@ -2,10 +2,10 @@ package net.minedcontrol.bukkit.menus.uis.blockstructures.blocks;
 
 import java.lang.reflect.InvocationTargetException;
 
-import net.minedcontrol.bukkit.menus.uis.packetediting.packets.WrapperPlayServerUpdateSign;
 import net.minedcontrol.zamalib.bukkit.util.blocks.BlockLocation;
 import net.minedcontrol.zamalib.players.ZamaPlayer;
 import com.comphenix.protocol.ProtocolLibrary;
+import com.comphenix.protocol.events.PacketContainer;
 
 
 /**
@@ -26,6 +26,14 @@ public class SignUtil {
 	//the maximum supported length of lines on a sign.
 	private static final int MAX_LINE_LENGTH = 15;
 
+	//the number of sign update packets kept for reuse
+	private static final int SIGN_PACKET_CACHE_SIZE = 1024;
+
+	//prebuilt sign update packets, shared by every player that is shown
+	// the same text on the same sign
+	private static final SignPacketCache signPackets = 
+			new SignPacketCache(SIGN_PACKET_CACHE_SIZE);
+
 
 	/**
 	 * Sends a sign update packet to a player to create a clientside only
@@ -33,6 +41,12 @@ public class SignUtil {
 	 * <p>
 	 * Does not check to make sure the block is already displayed to the
 	 * player as a sign or that it will not crash their client.
+	 * <p>
+	 * Packets are cached and reused for every player who is shown the same
+	 * text on the same sign. Each send is a shallow copy of the cached 
+	 * packet, so it still goes through other plugins' packet listeners 
+	 * without their changes reaching later players. Must be used from the 
+	 * server thread.
 	 * 
 	 * @param player	The player to send the packet to.
 	 * @param sign		The sign block to update.
@@ -48,16 +62,9 @@ public class SignUtil {
 	public static void updateSignText(ZamaPlayer player, BlockLocation sign, SignText text) 
 			throws IllegalArgumentException,NullPointerException,RuntimeException {
 
-			if(!player.getPlayer().getWorld().getName().equalsIgnoreCase((sign.getWorldName())))
-				throw new IllegalArgumentException("Player and sign must be in"
-						+ " the same world.");
-			
-
-			WrapperPlayServerUpdateSign wrapper = new WrapperPlayServerUpdateSign();
-			wrapper.setX(sign.getX());
-			wrapper.setY((short)sign.getY());
-			wrapper.setZ(sign.getZ());
-			wrapper.setLines(text.toArray());
+			//checks the worlds match by identity
+			PacketContainer packet = signPackets.getPacket(
+					player.getPlayer().getWorld(), sign, text);
 
 		try {
 			
@@ -70,7 +77,10 @@ public class SignUtil {
 			Zama.debug(Menus.getPlugin(), null, "sending a sign update of [" 
 			+ msg + "] to player " + player.getName() + " at " + sign.toString());*/
 			
-			ProtocolLibrary.getProtocolManager().sendServerPacket(player.getPlayer(), wrapper.getHandle());
+			//listeners may edit the packet they are sent in place, so they
+			// are given a copy rather than the shared one
+			ProtocolLibrary.getProtocolManager().sendServerPacket(
+					player.getPlayer(), packet.shallowClone());
 		}
 		catch(InvocationTargetException e) {
 			throw new RuntimeException("Cannot send sign update packet", e);
@@ -79,6 +89,17 @@ public class SignUtil {
 	}
 
 
+	/**
+	 * Gets the cache of sign update packets, such as to check how often
+	 * packets are reused.
+	 * 
+	 * @return	The sign update packet cache.
+	 */
+	public static SignPacketCache getSignPacketCache() {
+		return signPackets;
+	}
+
+
 	/**
 	 * Translates a string into a sign-safe array of strings and prepends
 	 * a message, such as a formatting code, to it.
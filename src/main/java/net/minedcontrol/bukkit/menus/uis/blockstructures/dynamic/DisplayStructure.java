@@ -113,12 +113,31 @@ public class DisplayStructure extends ToggleableStructure {
 	 * @param text		The sign to change the text of.
 	 */
 	public void updateDisplay(ZamaPlayer player, SignText text) {
+		updateDisplay(player, text, null);
+	}
+	
+	/**
+	 * Updates the display sign's text of this structure for the player,
+	 * unless their view shows they are already seeing that text.
+	 * <p>
+	 * Should only be used if this structure already appears as 'on' to
+	 * the player.
+	 * 
+	 * @param player	The player to change the sign's text for.
+	 * @param text		The sign to change the text of.
+	 * @param view		What the player was last sent for this structure.
+	 * 					Updated with the sign and text if they are sent. 
+	 * 					<code>null</code> to always send the text.
+	 */
+	public void updateDisplay(ZamaPlayer player, SignText text, 
+			PlayerView view) {
 		try {
 			//order matters here, the appearance of the sign must be
 			// updated before its sign is subsequently updated
-			sign.setOn(player);
-			Menus.getManager().getPacketEngine().sendSignTextUpdate(player, 
-					getSignLocation(), text);
+			sign.setOn(player, view);
+			if(view == null || view.updateSign(getSignLocation(), text))
+				Menus.getManager().getPacketEngine().sendSignTextUpdate(player, 
+						getSignLocation(), text);
 		}
 		catch(Exception e) {
 			Zama.debug(Menus.getPlugin(), null, "An error was encountered"
@@ -160,10 +179,10 @@ public class DisplayStructure extends ToggleableStructure {
 	 * @throws NullPointerException	if <code>null</code> is used.
 	 */
 	@Override
-	public void setOn(ZamaPlayer player) {
-		setBlock(player, sign, true);
+	public void setOn(ZamaPlayer player, PlayerView view) {
+		setBlock(player, sign, true, view);
 		
-		super.setOn(player);
+		super.setOn(player, view);
 
 	}
 	
@@ -180,10 +199,17 @@ public class DisplayStructure extends ToggleableStructure {
 	 * @throws NullPointerException	if <code>null</code> is used.
 	 */
 	@Override
-	public void setOff(ZamaPlayer player) {
-		setBlock(player, sign, false);
+	public void setOff(ZamaPlayer player, PlayerView view) {
+		setBlock(player, sign, false, view);
+		
+		super.setOff(player, view);
+	}
+	
+	@Override
+	public void release(ZamaPlayer player) {
+		sign.release(player);
 		
-		super.setOff(player);
+		super.release(player);
 	}
 
 
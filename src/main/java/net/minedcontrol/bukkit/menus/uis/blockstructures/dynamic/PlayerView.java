@@ -0,0 +1,92 @@
+package net.minedcontrol.bukkit.menus.uis.blockstructures.dynamic;
+
+import java.util.HashMap;
+import java.util.Map;
+
+import net.minedcontrol.bukkit.menus.uis.blockstructures.blocks.BlockAppearance;
+import net.minedcontrol.bukkit.menus.uis.blockstructures.blocks.SignText;
+import net.minedcontrol.zamalib.bukkit.util.blocks.BlockLocation;
+
+/**
+ * A record of the fake block appearances and sign texts that have last
+ * been sent to a single player for a dynamic structure. Used to only send
+ * the parts of a structure that actually change between redraws.
+ * <p>
+ * A view only knows what it has been told was sent. If the player's client
+ * loses the fakes some other way (such as by reloading the chunk), the view
+ * should be cleared so that the next redraw sends everything again.
+ * <p>
+ * Not thread-safe, and meant to be used from the server thread only.
+ * <p>
+ * Date Created: Oct 17, 2026
+ *
+ * @see DynamicStructure
+ */
+public class PlayerView {
+
+	//the last appearance sent for each location
+	private final Map<BlockLocation, BlockAppearance> blocks;
+
+	//the last text sent for each sign
+	private final Map<BlockLocation, SignText> signs;
+
+
+	/**
+	 * Class constructor. Creates an empty view, in which nothing is known
+	 * to have been sent.
+	 */
+	public PlayerView() {
+		this.blocks = new HashMap<BlockLocation, BlockAppearance>();
+		this.signs = new HashMap<BlockLocation, SignText>();
+	}
+
+
+	//--------
+	//PUBLIC
+	//--------
+
+	/**
+	 * Records that a block appearance is going to be sent to the player,
+	 * if it differs from what they were last sent for that location.
+	 * <p>
+	 * A changed block also forgets any text sent to a sign at the same
+	 * location, as the client clears the text along with the old block.
+	 *
+	 * @param loc			The location of the block. Not <code>null</code>.
+	 * @param appearance	The appearance to send. Not <code>null</code>.
+	 * @return				<code>true</code> if the appearance differs from
+	 * 						the last one sent and needs to be sent.
+	 */
+	public boolean updateBlock(BlockLocation loc, BlockAppearance appearance) {
+		BlockAppearance old = blocks.put(loc, appearance);
+		if(appearance.equals(old))
+			return false;
+
+		signs.remove(loc);
+		return true;
+	}
+
+	/**
+	 * Records that a sign's text is going to be sent to the player, if it
+	 * differs from what they were last sent for that sign.
+	 *
+	 * @param loc	The location of the sign. Not <code>null</code>.
+	 * @param text	The text to send. Not <code>null</code>.
+	 * @return		<code>true</code> if the text differs from the last text
+	 * 				sent and needs to be sent.
+	 */
+	public boolean updateSign(BlockLocation loc, SignText text) {
+		SignText old = signs.put(loc, text);
+		return !text.equals(old);
+	}
+
+	/**
+	 * Forgets everything that has been sent, so that the next update of
+	 * every block and sign is sent again.
+	 */
+	public void clear() {
+		blocks.clear();
+		signs.clear();
+	}
+
+}
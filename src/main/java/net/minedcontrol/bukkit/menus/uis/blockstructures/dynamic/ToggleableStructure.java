@@ -84,32 +84,85 @@ public class ToggleableStructure extends DynamicStructure {
 	 * @throws NullPointerException	if <code>null</code> is used.
 	 */
 	public void setOn(ZamaPlayer player) {
+		setOn(player, null);
+	}
+
+	/**
+	 * Sends update packets to the player's client to make them see the
+	 * 'on' appearance of this structure.
+	 * <p>
+	 * Does nothing if the player and this structure are not in the same
+	 * world.
+	 * 
+	 * @param player	The player to display the 'off' block appearances to.
+	 * 					Not <code>null</code>.
+	 * 
+	 * @throws NullPointerException	if <code>null</code> is used.
+	 */
+	public void setOff(ZamaPlayer player) {
+		setOff(player, null);
+	}
+
+	/**
+	 * Sends update packets to the player's client to make them see the
+	 * 'on' appearance of this structure, skipping any blocks that their 
+	 * view shows they already see in that state.
+	 * <p>
+	 * Does nothing if the player and this structure are not in the same
+	 * world.
+	 * 
+	 * @param player	The player to display the 'on' block appearances to.
+	 * 					Not <code>null</code>.
+	 * @param view		What the player was last sent for this structure.
+	 * 					Updated with the blocks that are sent. 
+	 * 					<code>null</code> to send every block.
+	 * 
+	 * @throws NullPointerException	if the player is <code>null</code>.
+	 */
+	public void setOn(ZamaPlayer player, PlayerView view) {
 		if(!player.getWorld().equals(world))
 			return;
 
 		for(ToggleableBlock tb : blocks) {
-			setBlock(player, tb, true);
+			setBlock(player, tb, true, view);
 		}
 	}
 
 	/**
 	 * Sends update packets to the player's client to make them see the
-	 * 'on' appearance of this structure.
+	 * 'off' appearance of this structure, skipping any blocks that their 
+	 * view shows they already see in that state.
 	 * <p>
 	 * Does nothing if the player and this structure are not in the same
 	 * world.
 	 * 
 	 * @param player	The player to display the 'off' block appearances to.
 	 * 					Not <code>null</code>.
+	 * @param view		What the player was last sent for this structure.
+	 * 					Updated with the blocks that are sent. 
+	 * 					<code>null</code> to send every block.
 	 * 
-	 * @throws NullPointerException	if <code>null</code> is used.
+	 * @throws NullPointerException	if the player is <code>null</code>.
 	 */
-	public void setOff(ZamaPlayer player) {
+	public void setOff(ZamaPlayer player, PlayerView view) {
 		if(!player.getWorld().equals(world))
 			return;
 
 		for(ToggleableBlock tb : blocks) {
-			setBlock(player, tb, false);
+			setBlock(player, tb, false, view);
+		}
+	}
+
+
+	/**
+	 * Stops the packet engine holding on to the blocks of this structure
+	 * for a player, such as once it has been hidden from them.
+	 * 
+	 * @param player	The player to release the blocks for.
+	 */
+	public void release(ZamaPlayer player) {
+		for(ToggleableBlock tb : blocks) {
+			tb.release(player);
 		}
 	}
 
@@ -130,6 +183,22 @@ public class ToggleableStructure extends DynamicStructure {
 		else block.setOff(player);
 	}
 
+	/**
+	 * Sets a block to its on or off state/appearance for a player, unless
+	 * their view shows they already see it in that state.
+	 * 
+	 * @param player	The player to make the change for.
+	 * @param block		The block to toggle.
+	 * @param on		Whether to set the block on or off.
+	 * @param view		What the player was last sent, or <code>null</code>
+	 * 					to always send the change.
+	 */
+	protected static void setBlock(ZamaPlayer player, ToggleableBlock block, 
+			boolean on, PlayerView view) {
+		if(on)  block.setOn(player, view);
+		else block.setOff(player, view);
+	}
+
 
 	@Override
 	public ToggleableStructure copy(World world, int xOffset, int yOffset,
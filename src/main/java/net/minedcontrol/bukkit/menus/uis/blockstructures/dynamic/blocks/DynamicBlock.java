@@ -63,4 +63,16 @@ public abstract class DynamicBlock extends ChangeableBlock {
 		appearance.createFake(player, getLocation(), engine);
 	}
 
+	/**
+	 * Stops the packet engine holding on to this block for a player, so
+	 * that they see the server's own updates to it again.
+	 * 
+	 * @param player	The player to release the block for.
+	 * 
+	 * @see PacketEngine#releaseBlock(ZamaPlayer, BlockLocation)
+	 */
+	public void release(ZamaPlayer player) {
+		engine.releaseBlock(player, getLocation());
+	}
+
 }
@@ -1,6 +1,7 @@
 package net.minedcontrol.bukkit.menus.uis.blockstructures.dynamic.blocks;
 
 import net.minedcontrol.bukkit.menus.uis.blockstructures.blocks.SignText;
+import net.minedcontrol.bukkit.menus.uis.blockstructures.blocks.SignTextCache;
 import net.minedcontrol.zamalib.messaging.LanguageChoice;
 import net.minedcontrol.zamalib.messaging.messages.LiteralMessage;
 import net.minedcontrol.zamalib.messaging.messages.framework.MultilingualMessage;
@@ -10,6 +11,8 @@ import net.minedcontrol.zamalib.messaging.messages.framework.MultilingualMessage
  * A multilingual set of messages that can be converted to an array of
  * strings, ensured to be safe for a sign.
  * <p>
+ * Each language's version is only created once, and is then shared.
+ * <p>
  * Date Created: Jan 28, 2014
  * 
  * @author Brutus
@@ -23,6 +26,9 @@ public final class MultilingualSignText {
 	
 	private final MultilingualMessage[] lines;
 	
+	//the versions already created, per language
+	private final SignText[] rendered;
+	
 	/**
 	 * Class constructor. Max line length is 15, so any messages that
 	 * have a version in excess of that will be truncated when converted
@@ -44,6 +50,7 @@ public final class MultilingualSignText {
 		lines[2] = sanitizeMessage(line3);
 		lines[3] = sanitizeMessage(line4);
 		
+		this.rendered = SignTextCache.newVersions();
 	}
 	
 	
@@ -72,6 +79,10 @@ public final class MultilingualSignText {
 	 * @return
 	 */
 	public SignText getSignText(LanguageChoice lang) {
+		
+		SignText cached = SignTextCache.getVersion(rendered, lang);
+		if(cached != null)
+			return cached;
 
 		String[] arr = new String[NUM_LINES];
 		
@@ -81,7 +92,9 @@ public final class MultilingualSignText {
 				arr[i] = arr[i].substring(0, LINE_LENGTH);
 		}
 		
-		return new SignText(arr[0], arr[1], arr[2], arr[3]);
+		SignText text = new SignText(arr[0], arr[1], arr[2], arr[3]);
+		SignTextCache.putVersion(rendered, lang, text);
+		return text;
 	}
 
 }
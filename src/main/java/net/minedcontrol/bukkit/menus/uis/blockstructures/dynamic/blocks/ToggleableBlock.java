@@ -3,6 +3,7 @@ package net.minedcontrol.bukkit.menus.uis.blockstructures.dynamic.blocks;
 import org.bukkit.World;
 
 import net.minedcontrol.bukkit.menus.uis.blockstructures.blocks.BlockAppearance;
+import net.minedcontrol.bukkit.menus.uis.blockstructures.dynamic.PlayerView;
 import net.minedcontrol.zamalib.bukkit.util.blocks.BlockLocation;
 import net.minedcontrol.zamalib.players.ZamaPlayer;
 
@@ -65,6 +66,34 @@ public class ToggleableBlock extends DynamicBlock {
 		sendBlockUpdate(player, off);
 	}
 	
+	/**
+	 * Makes this block appear to be in its 'on' state for a player, unless
+	 * their view shows they already see it that way.
+	 * 
+	 * @param player	The player to change this block's appearance for.
+	 * @param view		What the player was last sent. Updated to include
+	 * 					this block. <code>null</code> to always send the 
+	 * 					update.
+	 */
+	public void setOn(ZamaPlayer player, PlayerView view) {
+		if(view == null || view.updateBlock(getLocation(), on))
+			sendBlockUpdate(player, on);
+	}
+	
+	/**
+	 * Makes this block appear to be in its 'off' state for a player, unless
+	 * their view shows they already see it that way.
+	 * 
+	 * @param player	The player to change this block's appearance for.
+	 * @param view		What the player was last sent. Updated to include
+	 * 					this block. <code>null</code> to always send the 
+	 * 					update.
+	 */
+	public void setOff(ZamaPlayer player, PlayerView view) {
+		if(view == null || view.updateBlock(getLocation(), off))
+			sendBlockUpdate(player, off);
+	}
+	
 	/**
 	 * Gets the appearance of the block for its "on" state.
 	 * 
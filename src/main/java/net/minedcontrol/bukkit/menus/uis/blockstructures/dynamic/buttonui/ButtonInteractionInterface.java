@@ -1,9 +1,15 @@
 package net.minedcontrol.bukkit.menus.uis.blockstructures.dynamic.buttonui;
 
+import net.minedcontrol.bukkit.menus.Menus;
+import net.minedcontrol.bukkit.menus.basis.MenuElement;
 import net.minedcontrol.bukkit.menus.basis.MenuInterface;
+import net.minedcontrol.bukkit.menus.basis.MenuPage;
 import net.minedcontrol.bukkit.menus.basis.MenuStage;
 import net.minedcontrol.bukkit.menus.basis.responses.MenuResponse;
+import net.minedcontrol.bukkit.menus.basis.responses.MenuResponseType;
+import net.minedcontrol.bukkit.menus.uis.packetediting.PacketEngine;
 import net.minedcontrol.zamalib.bukkit.util.blocks.BlockLocation;
+import net.minedcontrol.zamalib.messaging.messages.LiteralMessage;
 import net.minedcontrol.zamalib.messaging.messages.framework.MultilingualMessage;
 import net.minedcontrol.zamalib.players.ZamaPlayer;
 
@@ -12,6 +18,10 @@ import net.minedcontrol.zamalib.players.ZamaPlayer;
  * A per-player menu interface that uses a dynamic button-interaction 
  * structure in order to interact with the underlying menu object.
  * <p>
+ * Stages with more options than the structure has option-slots are shown
+ * a page at a time, with the structure's last two option-slots used as
+ * buttons to move to the previous and next pages.
+ * <p>
  * Date Created: Jan 6, 2014
  * 
  * @author Brutus
@@ -19,9 +29,27 @@ import net.minedcontrol.zamalib.players.ZamaPlayer;
  */
 
 public class ButtonInteractionInterface extends MenuInterface {
+	
+	private static final MenuElement DEFAULT_PREVIOUS = new MenuElement(
+			new LiteralMessage("<< Previous"), 
+			new LiteralMessage("Shows the previous page of options."), 
+			null, null);
+	private static final MenuElement DEFAULT_NEXT = new MenuElement(
+			new LiteralMessage("Next >>"), 
+			new LiteralMessage("Shows the next page of options."), 
+			null, null);
 
 	private ButtonInteractionStructure structure;
 	
+	//what the page controls are displayed as
+	private MenuElement previousControl = DEFAULT_PREVIOUS;
+	private MenuElement nextControl = DEFAULT_NEXT;
+	
+	//whether the structure has been fully drawn for the user since this
+	// interface started using it. Until it has, the structure's record of
+	// what the user was last sent cannot be trusted.
+	private boolean drawn;
+	
 
 	/**
 	 * Class constructor.
@@ -60,12 +88,25 @@ public class ButtonInteractionInterface extends MenuInterface {
 
 		int bIndex = structure.getOptionButtonIndex(loc);
 		
-		MenuStage stage = getMenu().getCurrentStage();
-		if(stage == null)
+		MenuPage page = getPage();
+		if(page == null || bIndex < 0)
 			return null;
+		
+		//the page controls, when the stage is split into pages
+		if(isPaged(page)) {
+			int controlIndex = structure.getPreviousPageIndex();
+			
+			if(bIndex == controlIndex)
+				return previousPage() 
+						? new MenuResponse(MenuResponseType.CONTINUE) : null;
+			
+			if(bIndex == controlIndex + 1)
+				return nextPage() 
+						? new MenuResponse(MenuResponseType.CONTINUE) : null;
+		}
 
-		if(bIndex > -1 && bIndex < stage.numOptions())
-			return select(stage.getOption(bIndex));
+		if(bIndex < page.numOptions())
+			return select(page.getOption(bIndex));
 
 		return null;
 	}
@@ -89,22 +130,51 @@ public class ButtonInteractionInterface extends MenuInterface {
 		if(loc == null)
 			return null;
 		
-		MenuStage stage = getMenu().getCurrentStage();
-		if(stage == null)
+		MenuPage page = getPage();
+		if(page == null)
 			return null;
 		
 		//if the title sign, gets the title desc
 		if(structure.isTitleSign(loc))
-			return stage.getTitle().getDescription();
+			return page.getTitle().getDescription();
 		
-		//else if an option sign, gets the option's desc
 		int sIndex = structure.getOptionSignIndex(loc);
-		if(sIndex > -1 && sIndex < stage.numOptions())
-			return stage.getOption(sIndex).getDescription();
+		if(sIndex < 0)
+			return null;
+		
+		//else if a page control sign, gets the control's desc
+		if(isPaged(page)) {
+			int controlIndex = structure.getPreviousPageIndex();
+			
+			if(sIndex == controlIndex)
+				return page.hasPrevious() 
+						? previousControl.getDescription() : null;
+			
+			if(sIndex == controlIndex + 1)
+				return page.hasNext() ? nextControl.getDescription() : null;
+		}
+		
+		//else if an option sign, gets the option's desc
+		if(sIndex < page.numOptions())
+			return page.getOption(sIndex).getDescription();
 		
 		return null;
 	}
 	
+	/**
+	 * Sets what the page controls are displayed as, such as to translate
+	 * them. Only takes effect the next time the controls are drawn.
+	 * 
+	 * @param previous	The element for the previous page control. 
+	 * 					<code>null</code> for the default.
+	 * @param next		The element for the next page control.
+	 * 					<code>null</code> for the default.
+	 */
+	public void setPageControls(MenuElement previous, MenuElement next) {
+		this.previousControl = previous != null ? previous : DEFAULT_PREVIOUS;
+		this.nextControl = next != null ? next : DEFAULT_NEXT;
+	}
+	
 	/**
 	 * Changes the structure this user interface is making use of.
 	 * 	
@@ -124,6 +194,7 @@ public class ButtonInteractionInterface extends MenuInterface {
 		
 		onClose();
 		structure = newStructure;
+		drawn = false;
 		
 		if(teleportPlayer)
 			user.teleport(structure.getLocation());
@@ -142,8 +213,23 @@ public class ButtonInteractionInterface extends MenuInterface {
 		return structure.maxOptions();
 	}
 
+	@Override
+	protected int getPageSize(MenuStage stage) {
+		//only gives slots over to the controls if the stage does not fit
+		if(stage.numOptions() <= structure.maxOptions() 
+				|| structure.getPageSize() <= 0)
+			return Math.max(structure.maxOptions(), 1);
+		
+		return structure.getPageSize();
+	}
+
 	@Override
 	protected void updateDisplay(MenuStage stage) {
+		displayPage(getPage(stage));
+	}
+
+	@Override
+	protected void displayPage(MenuPage page) {
 		ZamaPlayer user = getMenu().getUser();
 
 		//does nothing if the menu does not have a user, because this
@@ -151,8 +237,31 @@ public class ButtonInteractionInterface extends MenuInterface {
 		if(user == null)
 			return;
 
-		structure.displayTitle(user, stage.getTitle());
-		structure.displayOptions(user, stage.getOptions());
+		//the first draw sends everything, as the user may have been sent 
+		// other things (or reloaded the chunks) since the structure last
+		// drew for them. Every draw does if the engine lets resent chunks
+		// wipe the fakes, as there is no telling when that happened.
+		if(!drawn || !tracksChunkResends()) {
+			structure.forget(user);
+			drawn = true;
+		}
+
+		//sends the title and options together as a single batch
+		//only the options on the page are read and drawn
+		structure.beginBatch(user);
+		try {
+			structure.displayTitle(user, page.getTitle());
+			
+			if(isPaged(page))
+				structure.displayPage(user, page.getOptions(), 
+						page.hasPrevious() ? previousControl : null,
+						page.hasNext() ? nextControl : null);
+			else
+				structure.displayOptions(user, page.getOptions());
+		}
+		finally {
+			structure.flushBatch(user);
+		}
 	}
 
 	@Override
@@ -168,6 +277,31 @@ public class ButtonInteractionInterface extends MenuInterface {
 			return;
 
 		structure.hide(user);
+		drawn = false;
+	}
+	
+	/**
+	 * Gets whether the packet engine sends the fakes again after the
+	 * chunks they are in are resent, so that what the structure remembers
+	 * sending the user can be trusted between draws.
+	 * 
+	 * @return	<code>true</code> if the fakes survive resent chunks.
+	 */
+	@SuppressWarnings("deprecation")
+	private static boolean tracksChunkResends() {
+		PacketEngine engine = Menus.getManager().getPacketEngine();
+		return engine != null && engine.tracksChunkResends();
+	}
+	
+	/**
+	 * Gets whether a page is one of several and the structure has room for
+	 * the page controls, so they are shown.
+	 * 
+	 * @param page	The page.
+	 * @return		<code>true</code> if the page controls are shown.
+	 */
+	private boolean isPaged(MenuPage page) {
+		return page.getPageCount() > 1 && structure.getPageSize() > 0;
 	}
 
 }
@@ -1,5 +1,6 @@
 package net.minedcontrol.bukkit.menus.uis.blockstructures.dynamic.buttonui;
 
+import java.util.ArrayList;
 import java.util.HashMap;
 import java.util.LinkedList;
 import java.util.List;
@@ -15,6 +16,8 @@ import net.minedcontrol.bukkit.menus.uis.blockstructures.blocks.SignFormat;
 import net.minedcontrol.bukkit.menus.uis.blockstructures.blocks.SignText;
 import net.minedcontrol.bukkit.menus.uis.blockstructures.dynamic.DisplayStructure;
 import net.minedcontrol.bukkit.menus.uis.blockstructures.dynamic.DynamicStructure;
+import net.minedcontrol.bukkit.menus.uis.blockstructures.dynamic.PlayerView;
+import net.minedcontrol.bukkit.menus.uis.packetediting.PacketEngine;
 import net.minedcontrol.zamalib.bukkit.util.blocks.BlockLocation;
 import net.minedcontrol.zamalib.messaging.LanguageChoice;
 import net.minedcontrol.zamalib.players.ZamaPlayer;
@@ -32,13 +35,15 @@ import net.minedcontrol.zamalib.runtime.master.Zama;
  * different state for each player observing it by sending fake block and 
  * sign-text updates to their client. 
  * <p>
- * This is only used as a logical structure to construct sets of block 
- * updates to send to the client and stores no information about what a 
- * player is/should be seeing after the block updates are sent. However, 
- * options are always displayed in the same order that they are passed in 
- * and it is possible to reverse engineer what option a player tried to 
- * interact with by correlating the index of the sign/button representing 
- * the option to the index of the option in their current menu's option set. 
+ * This is mainly used as a logical structure to construct sets of block 
+ * updates to send to the client. It remembers what each player was last 
+ * sent so that redrawing the title and options only sends the blocks and
+ * signs that actually changed, but it stores nothing about which menu a 
+ * player is in. Options are always displayed in the same order that they 
+ * are passed in and it is possible to reverse engineer what option a 
+ * player tried to interact with by correlating the index of the 
+ * sign/button representing the option to the index of the option in 
+ * their current menu's option set. 
  * <p>
  * This is essentially a shortcut to translate the static, multi-viewer 
  * minecraft world into a dynamic, per-viewer state. It is not a user
@@ -63,7 +68,7 @@ public class ButtonInteractionStructure extends DynamicStructure {
 	private DisplayStructure titleStructure;
 	//an ordered list of the option structures, to use and occupy them in
 	// the same order they were passed in.
-	private LinkedList<ButtonOptionStructure> structures;
+	private List<ButtonOptionStructure> structures;
 
 	//maps of the structures' list indexes keyed by the location of their 
 	// elements that players can interact with. Sacrifices memory 
@@ -74,6 +79,10 @@ public class ButtonInteractionStructure extends DynamicStructure {
 	//the text format for the display signs of this structure
 	private SignFormat titleFormat, optionFormat;
 
+	//what each player was last sent for this structure
+	//key: the bukkit name of the player
+	private Map<String, PlayerView> views;
+
 	/**
 	 * Class constructor.
 	 * 
@@ -118,9 +127,10 @@ public class ButtonInteractionStructure extends DynamicStructure {
 
 		//creates a set of the structures with the same ordering as the
 		// passed in list.
-		structures = new LinkedList<ButtonOptionStructure>();
+		structures = new ArrayList<ButtonOptionStructure>(optionStructures.size());
 		buttonIndexes = new HashMap<BlockLocation, Integer>(); 
 		signIndexes = new HashMap<BlockLocation, Integer>();
+		views = new HashMap<String, PlayerView>();
 
 		int index = 0;
 		for(ButtonOptionStructure bos : optionStructures) {
@@ -140,6 +150,9 @@ public class ButtonInteractionStructure extends DynamicStructure {
 	 * using fake block and sign-text updates. Toggles any option-slots it 
 	 * will use to display options to their "on" state and any unused 
 	 * option-slots to their "off" state.
+	 * <p>
+	 * Only the blocks and signs that differ from what the player was last
+	 * sent by this structure are updated.
 	 * 
 	 * @param player	The player to send the sign update to. 
 	 * 					Not <code>null</code>.
@@ -148,34 +161,73 @@ public class ButtonInteractionStructure extends DynamicStructure {
 	 * @throws NullPointerException	if player or list are <code>null</code>.
 	 */
 	public void displayOptions(ZamaPlayer player, List<MenuOption> options) {
+		displayOptions(player, options, structures.size(), null, null);
+	}
 
-		LanguageChoice lang = player.getLanguagePreference();
-
-		//Iterates in order over the structure list. Displays each option
-		// for the player, and then turns off the rest. Will truncate the
-		// options list if there are not enough structures.
-		for(int i = 0; i < structures.size(); i++) {
-
-			ButtonOptionStructure bos = structures.get(i);
-
-			// displays the next option on the structure if there are more 
-			// options.
-			if(i < options.size()) { 
-				MenuOption option = options.get(i);
+	/**
+	 * Displays a page of options on the option-slots of this structure, 
+	 * with the last two option-slots given over to controls for moving to 
+	 * the previous and next pages. Toggles the slots of a control to their 
+	 * "off" state if it is <code>null</code>, such as on the first or last 
+	 * page.
+	 * <p>
+	 * Only the blocks and signs that differ from what the player was last
+	 * sent by this structure are updated.
+	 * 
+	 * @param player	The player to send the sign update to. 
+	 * 					Not <code>null</code>.
+	 * @param options	An ordered list of the options on the page. Any
+	 * 					beyond the slots before the controls are not 
+	 * 					displayed.
+	 * @param previous	The element to display as the previous page 
+	 * 					control. Can be <code>null</code>.
+	 * @param next		The element to display as the next page control.
+	 * 					Can be <code>null</code>.
+	 * 
+	 * @throws NullPointerException		if player or list are 
+	 * 									<code>null</code>.
+	 * @throws IllegalStateException	if this structure has too few 
+	 * 									option-slots to give two to page 
+	 * 									controls.
+	 * 
+	 * @see #getPageSize()
+	 */
+	public void displayPage(ZamaPlayer player, List<MenuOption> options,
+			MenuElement previous, MenuElement next) throws IllegalStateException {
+		
+		if(getPageSize() <= 0)
+			throw new IllegalStateException("too few option slots for page controls");
+		
+		displayOptions(player, options, getPageSize(), previous, next);
+	}
 
-				bos.setOn(player);
-				bos.updateDisplay(player, optionFormat.getSignText(option.getName(), lang));
+	/**
+	 * Gets the index of the option-slot used as the previous page control
+	 * when displaying a page. The next page control is the slot after it.
+	 * 
+	 * @return	The index of the previous page control. 
+	 */
+	public int getPreviousPageIndex() {
+		return structures.size() - 2;
+	}
 
-			} else { // turns off the unused structures
-				bos.setOff(player);
-			}
-		}
+	/**
+	 * Gets the number of options displayed when displaying a page, which 
+	 * is every option-slot except the two given over to page controls.
+	 * 
+	 * @return	The number of options on a page. <code>0</code> or less if
+	 * 			this structure cannot display pages.
+	 */
+	public int getPageSize() {
+		return structures.size() - 2;
 	}
 
 	/**
 	 * Displays a title on the title display sign of this structure for
 	 * a player using a fake sign-text update. Toggles the title section
 	 * of the structure "on" in order to display the text.
+	 * <p>
+	 * Nothing is sent if the player is already seeing the title.
 	 * 
 	 * @param player	The player to send the sign update to. 
 	 * 					Not <code>null</code>.
@@ -188,8 +240,16 @@ public class ButtonInteractionStructure extends DynamicStructure {
 		LanguageChoice lang = player.getLanguagePreference();
 		SignText text = titleFormat.getSignText(title.getName(), lang);
 
-		titleStructure.setOn(player);
-		titleStructure.updateDisplay(player, text);
+		PlayerView view = getView(player);
+
+		beginBatch(player);
+		try {
+			titleStructure.setOn(player, view);
+			titleStructure.updateDisplay(player, text, view);
+		}
+		finally {
+			flushBatch(player);
+		}
 	}
 
 	/**
@@ -200,9 +260,9 @@ public class ButtonInteractionStructure extends DynamicStructure {
 	 * entering the "off" state may not be visually represented by 
 	 * appearing from being hidden.
 	 * <p>
-	 * Does not keep track of what a player has been sent or currently 
-	 * should be seeing on signs, so it may be necessary to refresh the
-	 * displayed options/title.
+	 * Always sends every block, and forgets any text the player was sent
+	 * on the signs, so it may be necessary to refresh the displayed 
+	 * options/title.
 	 * 
 	 * @param player	The player to send the block updates to. 
 	 * 					Not <code>null</code>.
@@ -214,9 +274,18 @@ public class ButtonInteractionStructure extends DynamicStructure {
 		//debug
 		Zama.debug(Menus.getPlugin(), null, "Showing a structure for player " + player.getName());
 
-		titleStructure.setOn(player);
-		for(ButtonOptionStructure bos : structures) {
-			bos.setOn(player);
+		PlayerView view = getView(player);
+		view.clear();
+
+		beginBatch(player);
+		try {
+			titleStructure.setOn(player, view);
+			for(ButtonOptionStructure bos : structures) {
+				bos.setOn(player, view);
+			}
+		}
+		finally {
+			flushBatch(player);
 		}
 	}
 
@@ -231,6 +300,10 @@ public class ButtonInteractionStructure extends DynamicStructure {
 	 * differs from the configured "off" state. As such, it may be necessary
 	 * to manually hide a structure when a player loads it in order for the
 	 * "off" state to be the default appearance.
+	 * <p>
+	 * Always sends every block, regardless of what the player was last 
+	 * sent. The packet engine then lets go of the blocks, as a hidden
+	 * structure has nothing to protect.
 	 * 
 	 * @param player	The player to send the block updates to. 
 	 * 					Not <code>null</code>.
@@ -242,10 +315,37 @@ public class ButtonInteractionStructure extends DynamicStructure {
 		//debug
 		Zama.debug(Menus.getPlugin(), null, "Hiding a structure for player " + player.getName());
 
-		titleStructure.setOff(player);
-		for(ButtonOptionStructure bos : structures) {
-			bos.setOff(player);
+		PlayerView view = getView(player);
+		view.clear();
+
+		beginBatch(player);
+		try {
+			titleStructure.setOff(player, view);
+			for(ButtonOptionStructure bos : structures) {
+				bos.setOff(player, view);
+			}
+		}
+		finally {
+			flushBatch(player);
 		}
+		
+		release(player);
+	}
+
+	/**
+	 * Forgets what a player has been sent by this structure, so that the
+	 * next redraw for them sends every block and sign. Should be used when
+	 * the player's client may have lost the fake blocks, such as when they
+	 * leave or reload the chunks the structure is in. The packet engine
+	 * also lets go of the blocks until they are next sent.
+	 * 
+	 * @param player	The player to forget. Not <code>null</code>.
+	 * 
+	 * @throws NullPointerException	if player is <code>null</code>.
+	 */
+	public void forget(ZamaPlayer player) {
+		views.remove(player.getBukkitName());
+		release(player);
 	}
 
 	/**
@@ -328,6 +428,130 @@ public class ButtonInteractionStructure extends DynamicStructure {
 		return this.loc;
 	}
 
+	/**
+	 * Starts holding back the block updates sent to a player, so that 
+	 * a redraw of this structure is sent as a few multi-block changes 
+	 * rather than one packet per block. Must be matched by a call to 
+	 * {@link #flushBatch(ZamaPlayer)}.
+	 * 
+	 * @param player	The player to batch the updates of.
+	 */
+	@SuppressWarnings("deprecation")
+	public void beginBatch(ZamaPlayer player) {
+		PacketEngine engine = Menus.getManager().getPacketEngine();
+		if(engine != null)
+			engine.beginBatch(player);
+	}
+	
+	/**
+	 * Sends the updates held back since the matching call to
+	 * {@link #beginBatch(ZamaPlayer)}.
+	 * 
+	 * @param player	The player to send the batched updates to.
+	 */
+	@SuppressWarnings("deprecation")
+	public void flushBatch(ZamaPlayer player) {
+		PacketEngine engine = Menus.getManager().getPacketEngine();
+		if(engine != null)
+			engine.flushBatch(player);
+	}
+
+	/**
+	 * Displays options on the first option-slots of this structure, then
+	 * page controls on the last two, if any.
+	 * 
+	 * @param player	The player to send the updates to.
+	 * @param options	The options to display.
+	 * @param slots		The number of slots to use for options. The rest 
+	 * 					are used for the controls.
+	 * @param previous	The previous page control, if any.
+	 * @param next		The next page control, if any.
+	 */
+	private void displayOptions(ZamaPlayer player, List<MenuOption> options,
+			int slots, MenuElement previous, MenuElement next) {
+
+		LanguageChoice lang = player.getLanguagePreference();
+		PlayerView view = getView(player);
+		
+		int shown = Math.min(slots, options.size());
+
+		beginBatch(player);
+		try {
+			//Iterates in order over the structure list. Displays each option
+			// for the player, and then turns off the rest. Will truncate the
+			// options list if there are not enough structures. Only reads
+			// the options that are shown.
+			for(int i = 0; i < structures.size(); i++) {
+
+				MenuElement element;
+				if(i < shown)
+					element = options.get(i);
+				else if(i < slots)
+					element = null;
+				else 
+					element = i == slots ? previous : next;
+
+				displayElement(player, view, lang, structures.get(i), element);
+			}
+		}
+		finally {
+			flushBatch(player);
+		}
+	}
+
+	/**
+	 * Displays an element on an option-slot, or turns the slot off.
+	 * 
+	 * @param player	The player to send the updates to.
+	 * @param view		What the player was last sent.
+	 * @param lang		The player's language.
+	 * @param bos		The option-slot.
+	 * @param element	The element to display. <code>null</code> to turn
+	 * 					the slot off.
+	 */
+	private void displayElement(ZamaPlayer player, PlayerView view, 
+			LanguageChoice lang, ButtonOptionStructure bos, 
+			MenuElement element) {
+		
+		if(element == null) { // turns off the unused structures
+			bos.setOff(player, view);
+			return;
+		}
+		
+		bos.setOn(player, view);
+		bos.updateDisplay(player, 
+				optionFormat.getSignText(element.getName(), lang), 
+				view);
+	}
+
+	/**
+	 * Stops the packet engine holding on to every block of this structure
+	 * for a player.
+	 * 
+	 * @param player	The player to release the blocks for.
+	 */
+	private void release(ZamaPlayer player) {
+		titleStructure.release(player);
+		for(ButtonOptionStructure bos : structures) {
+			bos.release(player);
+		}
+	}
+
+	/**
+	 * Gets the record of what a player was last sent by this structure,
+	 * creating an empty one if they have not been sent anything.
+	 * 
+	 * @param player	The player to get the view of.
+	 * @return			The player's view of this structure.
+	 */
+	private PlayerView getView(ZamaPlayer player) {
+		PlayerView view = views.get(player.getBukkitName());
+		if(view == null) 
+			views.put(player.getBukkitName(), view = new PlayerView());
+		
+		return view;
+	}
+
 	@Override
 	public ButtonInteractionStructure copy(World world, int xOffset, int yOffset,
 			int zOffset) {
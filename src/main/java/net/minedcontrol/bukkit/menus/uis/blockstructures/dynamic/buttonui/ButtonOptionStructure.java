@@ -5,6 +5,7 @@ import java.util.Set;
 
 import net.minedcontrol.bukkit.menus.uis.blockstructures.dynamic.DisplayStructure;
 import net.minedcontrol.bukkit.menus.uis.blockstructures.dynamic.DynamicStructure;
+import net.minedcontrol.bukkit.menus.uis.blockstructures.dynamic.PlayerView;
 import net.minedcontrol.bukkit.menus.uis.blockstructures.dynamic.ToggleableStructure;
 import net.minedcontrol.bukkit.menus.uis.blockstructures.dynamic.blocks.ToggleableBlock;
 import net.minedcontrol.zamalib.bukkit.util.blocks.BlockLocation;
@@ -112,17 +113,24 @@ public class ButtonOptionStructure extends DisplayStructure {
 	}
 	
 	@Override
-	public void setOn(ZamaPlayer player) {
-		super.setOn(player);
+	public void setOn(ZamaPlayer player, PlayerView view) {
+		super.setOn(player, view);
 		
-		setBlock(player, button, true);
+		setBlock(player, button, true, view);
 	}
 	
 	@Override
-	public void setOff(ZamaPlayer player) {
-		super.setOff(player);
+	public void setOff(ZamaPlayer player, PlayerView view) {
+		super.setOff(player, view);
 		
-		setBlock(player, button, false);
+		setBlock(player, button, false, view);
+	}
+	
+	@Override
+	public void release(ZamaPlayer player) {
+		super.release(player);
+		
+		button.release(player);
 	}
 
 	@Override
@@ -1,5 +1,7 @@
 package net.minedcontrol.bukkit.menus.uis.blockstructures.dynamic.buttonui;
 
+import java.util.Collection;
+import java.util.Collections;
 import java.util.HashMap;
 import java.util.HashSet;
 import java.util.LinkedList;
@@ -112,6 +114,15 @@ public class ButtonStructureConfiguration extends Configuration {
 		return structures.get(id);
 	}
 
+	/**
+	 * Gets all of the structures loaded from the configuration.
+	 * 
+	 * @return	The configured structures, as an unmodifiable view.
+	 */
+	public Collection<ButtonInteractionStructure> getStructures() {
+		return Collections.unmodifiableCollection(structures.values());
+	}
+
 	@Override
 	protected void onLoad() throws IllegalStateException {
 		if(plugin == null) plugin = Menus.getPlugin();
@@ -0,0 +1,277 @@
+package net.minedcontrol.bukkit.menus.uis.packetediting;
+
+import java.util.HashMap;
+import java.util.Map;
+
+import org.bukkit.Bukkit;
+import org.bukkit.plugin.java.JavaPlugin;
+
+import net.minedcontrol.bukkit.menus.uis.blockstructures.blocks.BlockAppearance;
+import net.minedcontrol.bukkit.menus.uis.blockstructures.blocks.SignText;
+import net.minedcontrol.bukkit.menus.uis.blockstructures.blocks.SignUtil;
+import net.minedcontrol.bukkit.menus.uis.packetediting.packets.WrapperPlayServerMultiBlockChange;
+import net.minedcontrol.zamalib.bukkit.util.blocks.BlockLocation;
+import net.minedcontrol.zamalib.players.ZamaPlayer;
+import net.minedcontrol.zamalib.runtime.master.Zama;
+
+/**
+ * The shared base of the packet engines. Sends fake block and sign-text
+ * updates and batches them per player, leaving what happens around each
+ * sent block update to the implementation.
+ * <p>
+ * Date Created: Oct 17, 2026
+ *
+ * @see PacketEngine
+ */
+public abstract class AbstractPacketEngine implements PacketEngine {
+
+	protected final JavaPlugin plugin;
+
+	//whether ProtocolLib is available to send multi-block changes with.
+	// Without it, batched changes are sent one block at a time.
+	private final boolean multiBlockChanges;
+
+	//key: bukkit player name (not Zama's)
+	//value: the updates being held back for the player while a batch is
+	// open. Removed once the outermost batch is flushed.
+	private Map<String, BlockChangeBatch> batches;
+
+
+	/**
+	 * Class constructor.
+	 */
+	public AbstractPacketEngine() {
+		this.plugin = Zama.getMaster().getPlugin();
+		this.multiBlockChanges = Bukkit.getServer().getPluginManager()
+				.getPlugin("ProtocolLib") != null;
+		this.batches = new HashMap<String, BlockChangeBatch>();
+	}
+
+
+	//--------
+	//PUBLIC
+	//--------
+
+	@Override
+	public void sendBlockUpdate(ZamaPlayer player, BlockLocation block,
+			BlockAppearance appearance) {
+
+		try {
+
+			if(player == null || block == null || appearance == null)
+				throw new NullPointerException();
+
+			//holds the update back if a batch is open and it can be sent
+			// with the rest of the player's world
+			BlockChangeBatch batch = batches.get(player.getBukkitName());
+			if(batch != null && batch.isOpen() && isInPlayerWorld(player, block)) {
+				batch.addBlockChange(block, appearance);
+				return;
+			}
+
+			sendSingleBlockUpdate(player, block, appearance);
+
+		}
+		catch(Exception e) {
+			Zama.debug(plugin, null, "Encountered an error "
+					+ "while attempting to send a block update for " +
+					(player != null ? "player " + player.getName() :
+							"a null player"));
+			Zama.debug(plugin, null, e);
+		}
+
+	}
+
+	@Override
+	public void sendSignTextUpdate( ZamaPlayer player, BlockLocation block,
+			SignText text) {
+
+		try {
+			if(player == null || block == null || text == null)
+				throw new NullPointerException();
+
+			BlockChangeBatch batch = batches.get(player.getBukkitName());
+			if(batch != null && batch.isOpen()) {
+				batch.addSignUpdate(block, text);
+				return;
+			}
+
+			SignUtil.updateSignText(player, block, text);
+		}
+		catch(Exception e) {
+			Zama.debug(plugin, null, "Encountered an error "
+					+ "while attempting to send a sign text update for " +
+					(player != null ? "player " + player.getName() :
+							"a null player"));
+			Zama.debug(plugin, null, e);
+		}
+	}
+
+	@Override
+	public void beginBatch(ZamaPlayer player) {
+		if(player == null)
+			return;
+
+		BlockChangeBatch batch = batches.get(player.getBukkitName());
+		if(batch == null) {
+			batch = new BlockChangeBatch();
+			batches.put(player.getBukkitName(), batch);
+		}
+
+		batch.open();
+	}
+
+	@Override
+	public void flushBatch(ZamaPlayer player) {
+		if(player == null)
+			return;
+
+		BlockChangeBatch batch = batches.get(player.getBukkitName());
+		if(batch == null || !batch.close())
+			return;
+
+		batches.remove(player.getBukkitName());
+
+		try {
+			sendBatch(player, batch);
+		}
+		catch(Exception e) {
+			Zama.debug(plugin, null, "Encountered an error "
+					+ "while attempting to send a batch of updates for " +
+					"player " + player.getName());
+			Zama.debug(plugin, null, e);
+		}
+	}
+
+	/**
+	 * Does nothing, as the engine holds on to no blocks unless the 
+	 * implementation does.
+	 */
+	@Override
+	public void releaseBlock(ZamaPlayer player, BlockLocation block) {
+	}
+
+	/**
+	 * Returns <code>false</code>, as nothing is sent after a chunk unless 
+	 * the implementation listens for them.
+	 */
+	@Override
+	public boolean tracksChunkResends() {
+		return false;
+	}
+
+	@Override
+	public void clearPlayer(ZamaPlayer player) {
+		if(player == null)
+			return;
+
+		batches.remove(player.getBukkitName());
+	}
+
+
+	//--------
+	//PROTECTED
+	//--------
+
+	/**
+	 * Sends a single block change packet.
+	 *
+	 * @param player		The player to send the update to.
+	 * @param block			The location of the block to update.
+	 * @param appearance	The way the block should look.
+	 */
+	protected void sendSingleBlockUpdate(ZamaPlayer player, BlockLocation block,
+			BlockAppearance appearance) {
+
+		//debug
+		/*Zama.debug(Menus.getPlugin(), null, "sending an update of ["
+				+ appearance.getMaterial().name() + ", " + appearance.getData()
+				+ "] to " + player.getName() + " at " + block.toString());*/
+
+		player.sendBlockChange(block.toLocation(),
+				appearance.getMaterial(), appearance.getData());
+	}
+
+	/**
+	 * Sends all of the batched block changes in a single chunk as one
+	 * multi-block change packet.
+	 *
+	 * @param player	The player to send the updates to.
+	 * @param chunkX	The x coordinate of the chunk.
+	 * @param chunkZ	The z coordinate of the chunk.
+	 * @param changes	The changes in the chunk, at least two.
+	 */
+	@SuppressWarnings("deprecation")
+	protected void sendChunkUpdate(ZamaPlayer player, int chunkX, int chunkZ,
+			Map<BlockLocation, BlockAppearance> changes) {
+
+		int[] records = new int[changes.size()];
+		int count = 0;
+
+		for(Map.Entry<BlockLocation, BlockAppearance> ent : changes.entrySet()) {
+			BlockLocation loc = ent.getKey();
+			BlockAppearance app = ent.getValue();
+
+			records[count++] = WrapperPlayServerMultiBlockChange.toRecord(
+					loc.getX(), loc.getY(), loc.getZ(),
+					app.getMaterial().getId(), app.getData());
+		}
+
+		WrapperPlayServerMultiBlockChange packet =
+				new WrapperPlayServerMultiBlockChange();
+		packet.setChunk(chunkX, chunkZ);
+		packet.setRecords(records, count);
+		packet.sendPacket(player.getPlayer());
+	}
+
+
+	//--------
+	//PRIVATE
+	//--------
+
+	/**
+	 * Sends the contents of a finished batch, one multi-block change per
+	 * chunk followed by the sign-text updates.
+	 * <p>
+	 * Chunks with a single change are sent as a normal block change, which
+	 * is smaller than a multi-block change with one record.
+	 *
+	 * @param player	The player to send the updates to.
+	 * @param batch		The batch to send.
+	 */
+	private void sendBatch(ZamaPlayer player, BlockChangeBatch batch) {
+
+		for(Map<BlockLocation, BlockAppearance> changes : batch.getChunkChanges()) {
+
+			if(changes.size() == 1 || !multiBlockChanges) {
+				for(Map.Entry<BlockLocation, BlockAppearance> ent : changes.entrySet()) {
+					sendSingleBlockUpdate(player, ent.getKey(), ent.getValue());
+				}
+				continue;
+			}
+
+			BlockLocation any = changes.keySet().iterator().next();
+			sendChunkUpdate(player, any.getX() >> 4, any.getZ() >> 4, changes);
+		}
+
+		for(Map.Entry<BlockLocation, SignText> ent : batch.getSignUpdates().entrySet()) {
+			SignUtil.updateSignText(player, ent.getKey(), ent.getValue());
+		}
+
+		batch.clear();
+	}
+
+	/**
+	 * Gets whether a block is in the world the player is currently in.
+	 * Multi-block changes do not carry a world, so only blocks in the
+	 * player's world can be batched.
+	 *
+	 * @param player	The player.
+	 * @param block		The block location.
+	 * @return			<code>true</code> if they are in the same world.
+	 */
+	private boolean isInPlayerWorld(ZamaPlayer player, BlockLocation block) {
+		return player.getWorld().getName().equals(block.getWorldName());
+	}
+
+}
@@ -0,0 +1,175 @@
+package net.minedcontrol.bukkit.menus.uis.packetediting;
+
+import java.util.Collection;
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+import net.minedcontrol.bukkit.menus.uis.blockstructures.blocks.BlockAppearance;
+import net.minedcontrol.bukkit.menus.uis.blockstructures.blocks.SignText;
+import net.minedcontrol.zamalib.bukkit.util.blocks.BlockLocation;
+
+/**
+ * A per-player collection of fake block and sign-text updates that have
+ * been held back by a packet engine so that they can be sent together,
+ * grouped by the chunk they are in.
+ * <p>
+ * Batches can be opened multiple times before being sent (such as when a
+ * structure redraw happens inside of a larger interface redraw). Only the
+ * outermost batch actually releases the updates.
+ * <p>
+ * Later updates to a location replace earlier ones, so a block that is
+ * toggled more than once during a batch is only sent once.
+ * <p>
+ * Not thread-safe, and meant to be used from the server thread only.
+ * <p>
+ * Date Created: Oct 17, 2026
+ *
+ * @see PacketEngine#beginBatch(net.minedcontrol.zamalib.players.ZamaPlayer)
+ */
+public class BlockChangeBatch {
+
+	//how many times the batch has been opened without being flushed
+	private int depth;
+
+	//key: packed chunk coordinates of the chunk the changes are in
+	//value: the block changes in that chunk, in the order they were made
+	private final Map<Long, Map<BlockLocation, BlockAppearance>> chunks;
+
+	//sign text updates, sent after all of the block changes so that the
+	// signs already exist client-side when their text arrives
+	private final Map<BlockLocation, SignText> signs;
+
+
+	/**
+	 * Class constructor. Creates an empty batch that is not yet open.
+	 */
+	public BlockChangeBatch() {
+		this.chunks = new LinkedHashMap<Long, Map<BlockLocation, BlockAppearance>>();
+		this.signs = new LinkedHashMap<BlockLocation, SignText>();
+	}
+
+
+	//--------
+	//PUBLIC
+	//--------
+
+	/**
+	 * Opens the batch, or nests another level within an already open one.
+	 */
+	public void open() {
+		depth++;
+	}
+
+	/**
+	 * Closes one level of the batch.
+	 *
+	 * @return	<code>true</code> if this closed the outermost level and the
+	 * 			collected updates should now be sent.
+	 */
+	public boolean close() {
+		if(depth == 0)
+			return false;
+
+		return --depth == 0;
+	}
+
+	/**
+	 * Gets whether the batch is currently open and collecting updates.
+	 *
+	 * @return	<code>true</code> if updates should be added to this batch
+	 * 			rather than sent.
+	 */
+	public boolean isOpen() {
+		return depth > 0;
+	}
+
+	/**
+	 * Gets whether the batch has no collected updates.
+	 *
+	 * @return	<code>true</code> if there is nothing to send.
+	 */
+	public boolean isEmpty() {
+		return chunks.isEmpty() && signs.isEmpty();
+	}
+
+	/**
+	 * Adds a block change to the batch, replacing any previous change to
+	 * the same location.
+	 *
+	 * @param loc			The location of the block. Not <code>null</code>.
+	 * @param appearance	How the block should appear. Not <code>null</code>.
+	 */
+	public void addBlockChange(BlockLocation loc, BlockAppearance appearance) {
+		Long key = chunkKey(loc.getX() >> 4, loc.getZ() >> 4);
+
+		Map<BlockLocation, BlockAppearance> changes = chunks.get(key);
+		if(changes == null) {
+			changes = new LinkedHashMap<BlockLocation, BlockAppearance>();
+			chunks.put(key, changes);
+		}
+
+		//removes the old entry first so the location takes the ordering
+		// of its latest change
+		changes.remove(loc);
+		changes.put(loc, appearance);
+
+		//a new block at the location clears any text queued for it before
+		// the change, the text must be re-sent after the block.
+		signs.remove(loc);
+	}
+
+	/**
+	 * Adds a sign-text update to the batch, replacing any previous text
+	 * queued for the same sign.
+	 *
+	 * @param loc	The location of the sign. Not <code>null</code>.
+	 * @param text	The text to display. Not <code>null</code>.
+	 */
+	public void addSignUpdate(BlockLocation loc, SignText text) {
+		signs.put(loc, text);
+	}
+
+	/**
+	 * Gets the collected block changes, grouped by chunk.
+	 *
+	 * @return	The block changes of each chunk, as a live view.
+	 */
+	public Collection<Map<BlockLocation, BlockAppearance>> getChunkChanges() {
+		return chunks.values();
+	}
+
+	/**
+	 * Gets the collected sign-text updates.
+	 *
+	 * @return	The sign updates, as a live view.
+	 */
+	public Map<BlockLocation, SignText> getSignUpdates() {
+		return signs;
+	}
+
+	/**
+	 * Removes all of the collected updates without changing whether the
+	 * batch is open.
+	 */
+	public void clear() {
+		chunks.clear();
+		signs.clear();
+	}
+
+
+	//--------
+	//PRIVATE
+	//--------
+
+	/**
+	 * Packs a pair of chunk coordinates into a single key.
+	 *
+	 * @param chunkX	The chunk's x coordinate.
+	 * @param chunkZ	The chunk's z coordinate.
+	 * @return			The packed key.
+	 */
+	private static Long chunkKey(int chunkX, int chunkZ) {
+		return Long.valueOf(((long) chunkX << 32) | (chunkZ & 0xFFFFFFFFL));
+	}
+
+}
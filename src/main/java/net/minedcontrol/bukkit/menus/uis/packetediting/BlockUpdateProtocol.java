@@ -1,10 +1,77 @@
 package net.minedcontrol.bukkit.menus.uis.packetediting;
 
+import net.minedcontrol.bukkit.menus.MenusConfiguration;
+
+/**
+ * The ways fake blocks can be sent to players and protected from the
+ * server's own block updates, each backed by a packet engine.
+ * 
+ * @author Brutus
+ *
+ * @see PacketEngine
+ */
 public enum BlockUpdateProtocol {
 	
-	OFF(),
-	NORMAL(),
-	LOCKING(),
-	WHITELIST(),
+	/**
+	 * Sends nothing, players do not see fake blocks.
+	 */
+	OFF() {
+		@Override
+		public PacketEngine createEngine(MenusConfiguration settings) {
+			return new DisabledEngine();
+		}
+	},
+	
+	/**
+	 * Sends fake blocks without intercepting any packets.
+	 */
+	NORMAL() {
+		@Override
+		public PacketEngine createEngine(MenusConfiguration settings) {
+			return new NormalEngine();
+		}
+	},
+	
+	/**
+	 * Cancels the server's updates to blocks a player has been sent fakes
+	 * of, and lets every other update through.
+	 */
+	LOCKING() {
+		@Override
+		public PacketEngine createEngine(MenusConfiguration settings) 
+				throws IllegalStateException {
+			return new LockingEngine();
+		}
+	},
+	
+	/**
+	 * Cancels every block update that was not whitelisted by the engine
+	 * beforehand.
+	 */
+	WHITELIST() {
+		@Override
+		public PacketEngine createEngine(MenusConfiguration settings) 
+				throws IllegalStateException {
+			return new WhitelistEngine(settings != null 
+					? settings.getVarianceTtl() 
+					: MenusConfiguration.DEFAULT_VARIANCE_TTL);
+		}
+	},
+
+	;
+	
+	/**
+	 * Creates a new packet engine that sends fake blocks with this
+	 * protocol.
+	 * 
+	 * @param settings	The settings to configure the engine with.
+	 * 					<code>null</code> to use the defaults.
+	 * @return			The new engine.
+	 * 
+	 * @throws IllegalStateException	if the engine's dependencies could
+	 * 									not be found.
+	 */
+	public abstract PacketEngine createEngine(MenusConfiguration settings) 
+			throws IllegalStateException;
 
 }
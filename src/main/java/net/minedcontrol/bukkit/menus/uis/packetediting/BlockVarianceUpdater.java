@@ -0,0 +1,523 @@
+package net.minedcontrol.bukkit.menus.uis.packetediting;
+
+import java.lang.reflect.InvocationTargetException;
+
+import org.bukkit.Bukkit;
+import org.bukkit.Material;
+import org.bukkit.entity.Player;
+import org.bukkit.plugin.Plugin;
+
+import com.comphenix.protocol.PacketType;
+import com.comphenix.protocol.ProtocolLibrary;
+import com.comphenix.protocol.events.PacketAdapter;
+import com.comphenix.protocol.events.PacketContainer;
+import com.comphenix.protocol.events.PacketEvent;
+import com.comphenix.protocol.reflect.StructureModifier;
+
+import net.minedcontrol.bukkit.menus.uis.blockstructures.blocks.BlockAppearance;
+import net.minedcontrol.bukkit.menus.uis.packetediting.packets.WrapperPlayServerMultiBlockChange;
+import net.minedcontrol.bukkit.menus.util.IntObjectHashMap;
+import net.minedcontrol.zamalib.bukkit.util.blocks.BlockLocation;
+import net.minedcontrol.zamalib.players.ZamaPlayer;
+import net.minedcontrol.zamalib.runtime.master.Zama;
+
+/**
+ * A packet listener that keeps track of the fake blocks sent to each
+ * player, and decides which outgoing block updates are allowed to reach
+ * them based on those fakes. What is allowed is left to the
+ * implementation.
+ * <p>
+ * Single and multi-block changes are filtered, and chunks that are sent
+ * are followed up with the fakes the player was seeing in them.
+ * <p>
+ * Recorded fakes can be given a time to live, after which they are
+ * removed even if no packet ever matched them.
+ * <p>
+ * Date Created: Oct 17, 2026
+ *
+ * @see PlayerVariance
+ */
+public abstract class BlockVarianceUpdater {
+
+	// The current listener
+	private PacketAdapter listener;
+
+	//key: entity id of the player, which stays the same for as long as
+	// they are online and can be looked up without creating objects
+	//value: any registered differences between the player's view of the
+	// world and the server's.
+	//
+	//Read from the packet threads without locking. The map is never
+	// changed once published, players are added and removed by publishing
+	// a changed copy under this object's lock. That only happens when a
+	// player is first given a fake block or leaves, so copying is far
+	// cheaper than making every packet check lock.
+	private volatile IntObjectHashMap<PlayerVariance> variances;
+
+	//expires recorded fakes, null if they do not expire
+	private final VarianceExpiryWheel expiries;
+
+
+	/**
+	 * Class constructor. Registers the packet listener.
+	 *
+	 * @param plugin	The plugin to register the listener for.
+	 * @param ttl		The number of server ticks after which a recorded
+	 * 					fake is removed. <code>0</code> or less to keep
+	 * 					them until they are replaced or the player is
+	 * 					removed.
+	 *
+	 * @throws IllegalArgumentException	on a <code>null</code> parameter.
+	 */
+	public BlockVarianceUpdater(Plugin plugin, int ttl)
+			throws IllegalArgumentException {
+
+		if(plugin == null)
+			throw new IllegalArgumentException("plugin cannot be null");
+
+		this.variances = new IntObjectHashMap<PlayerVariance>(64);
+		this.expiries = ttl > 0 ? new VarianceExpiryWheel(ttl) : null;
+
+		registerListener(plugin);
+
+		if(expiries != null)
+			scheduleExpiries(plugin);
+	}
+
+
+	//--------
+	//PUBLIC
+	//--------
+
+	/**
+	 * Records that a player is being sent a block appearance. Must be
+	 * used from the server thread.
+	 * <p>
+	 * Does nothing on a <code>null</code> parameter.
+	 *
+	 * @param player		The player the appearance is for.
+	 * @param loc			The location of the block.
+	 * @param appearance	The appearance being sent.
+	 */
+	public void addPlayerVersion(ZamaPlayer player, BlockLocation loc,
+			BlockAppearance appearance) {
+
+		if(loc == null || player == null || appearance == null)
+			return;
+
+		int id = player.getPlayer().getEntityId();
+
+		PlayerVariance var = variances.get(id);
+		if(var == null)
+			var = addPlayer(id, player);
+
+		int stamp = var.addPlayerVersion(loc, appearance);
+
+		if(expiries != null && stamp >= 0)
+			expiries.schedule(var, loc.getWorldName(), 
+					PlayerVariance.packLocation(loc.getX(), loc.getY(), loc.getZ()), 
+					stamp);
+	}
+
+	/**
+	 * Removes the fake recorded for a player at a block, if any. Must be
+	 * used from the server thread.
+	 * <p>
+	 * Does nothing on a <code>null</code> parameter.
+	 *
+	 * @param player	The player the fake was for.
+	 * @param loc		The location of the block.
+	 */
+	public void removePlayerVersion(ZamaPlayer player, BlockLocation loc) {
+		if(loc == null || player == null || player.getPlayer() == null)
+			return;
+
+		PlayerVariance var = variances.get(player.getPlayer().getEntityId());
+		if(var != null)
+			var.removePlayerVersion(loc);
+	}
+
+	/**
+	 * Removes everything recorded for a player, such as when they leave.
+	 * <p>
+	 * Does nothing on a <code>null</code> parameter.
+	 *
+	 * @param player	The player to remove.
+	 */
+	public void removePlayer(ZamaPlayer player) {
+		if(player == null || player.getPlayer() == null)
+			return;
+
+		int id = player.getPlayer().getEntityId();
+
+		synchronized(this) {
+			if(variances.get(id) == null)
+				return;
+
+			IntObjectHashMap<PlayerVariance> copy =
+					new IntObjectHashMap<PlayerVariance>(variances);
+			copy.remove(id);
+			variances = copy;
+		}
+	}
+
+	/**
+	 * Gets the number of recorded fakes that have expired without ever 
+	 * being matched by a packet or replaced.
+	 *
+	 * @return	The number of reclaimed fakes. Always <code>0</code> if 
+	 * 			they do not expire.
+	 */
+	public long getReclaimedCount() {
+		return expiries != null ? expiries.getReclaimed() : 0;
+	}
+
+	/**
+	 * Gets the block update packet listener.
+	 *
+	 * @return The block update listener.
+	 */
+	public PacketAdapter getListener() {
+		return this.listener;
+	}
+
+
+	//--------
+	//PROTECTED
+	//--------
+
+	/**
+	 * Gets whether a block update should reach a player who has no
+	 * recorded fake blocks at all. Decided without reading the packet.
+	 *
+	 * @return	<code>true</code> to send such updates.
+	 */
+	protected abstract boolean allowsWithoutVariance();
+
+	/**
+	 * Decides what a player should be sent for an outgoing block update, 
+	 * given the fake blocks recorded for them. Used for both single and 
+	 * multi-block changes.
+	 * <p>
+	 * Called from the packet threads for every block update, so should
+	 * not create objects.
+	 *
+	 * @param var		The player's recorded fakes.
+	 * @param worldName	The name of the world the player is in.
+	 * @param x			The x coordinate of the block.
+	 * @param y			The y coordinate of the block.
+	 * @param z			The z coordinate of the block.
+	 * @param blockId	The id of the block's new material.
+	 * @param data		The block's new data value.
+	 * @return			The packed appearance to send instead, the same as
+	 * 					the update's to send it unchanged, or 
+	 * 					<code>-1</code> to not send it.
+	 *
+	 * @see PlayerVariance#packAppearance(int, int)
+	 */
+	protected abstract int filterBlockChange(PlayerVariance var,
+			String worldName, int x, int y, int z, int blockId, int data);
+
+
+	//--------
+	//PRIVATE
+	//--------
+
+	/**
+	 * Publishes a new, empty variance for a player, unless another thread
+	 * beat this one to it.
+	 *
+	 * @param id		The entity id of the player.
+	 * @param player	The player.
+	 * @return			The player's variance.
+	 */
+	private synchronized PlayerVariance addPlayer(int id, ZamaPlayer player) {
+		PlayerVariance var = variances.get(id);
+		if(var != null)
+			return var;
+
+		var = new PlayerVariance(player);
+
+		IntObjectHashMap<PlayerVariance> copy =
+				new IntObjectHashMap<PlayerVariance>(variances);
+		copy.put(id, var);
+		variances = copy;
+
+		return var;
+	}
+
+	/**
+	 * Starts the repeating task that ticks the expiry wheel. Runs every
+	 * few ticks, so it does not log what it reclaims; the total is kept
+	 * by {@link #getReclaimedCount()}.
+	 *
+	 * @param plugin	The plugin to run the task for.
+	 */
+	private void scheduleExpiries(Plugin plugin) {
+		long period = expiries.getTicksPerSlot();
+
+		Bukkit.getScheduler().runTaskTimer(plugin, new Runnable() {
+			public void run() {
+				expiries.tick();
+			}
+		}, period, period);
+	}
+
+	//TODO (?)block updates like a button being pressed?
+	private void registerListener(final Plugin plugin) {
+		ProtocolLibrary.getProtocolManager().addPacketListener(
+				listener = new PacketAdapter(plugin, 
+						PacketType.Play.Server.BLOCK_CHANGE,
+						PacketType.Play.Server.MULTI_BLOCK_CHANGE,
+						PacketType.Play.Server.MAP_CHUNK,
+						PacketType.Play.Server.MAP_CHUNK_BULK) {
+					@Override
+					public void onPacketSending(PacketEvent event) {
+
+						//sees every block change for every player, so
+						// this avoids creating any objects of its own
+
+						PacketType type = event.getPacketType();
+						Player player = event.getPlayer();
+
+						PlayerVariance var = variances.get(player.getEntityId());
+
+						if(type == PacketType.Play.Server.MAP_CHUNK 
+								|| type == PacketType.Play.Server.MAP_CHUNK_BULK) {
+							
+							//chunks are never cancelled, only followed up
+							if(var != null)
+								onChunkSending(plugin, event, var);
+							return;
+						}
+
+						//nothing recorded for the player, decides without
+						// reading the packet
+						if(var == null) {
+							if(!allowsWithoutVariance())
+								event.setCancelled(true);
+							return;
+						}
+
+						if(type == PacketType.Play.Server.MULTI_BLOCK_CHANGE)
+							onMultiBlockChangeSending(event, var);
+						else
+							onBlockChangeSending(event, var);
+					}
+				});
+	}
+
+	/**
+	 * Filters an outgoing single block change, cancelling it unless it is 
+	 * allowed to be sent unchanged.
+	 *
+	 * @param event	The packet event.
+	 * @param var	The player's recorded fakes.
+	 */
+	@SuppressWarnings("deprecation")
+	private void onBlockChangeSending(PacketEvent event, PlayerVariance var) {
+		PacketContainer packet = event.getPacket();
+
+		StructureModifier<Integer> ints = packet.getIntegers();
+		StructureModifier<Material> mats = packet.getBlocks();
+		Material mat = mats.read(0);
+		if(mat == null) {
+			event.setCancelled(true);
+			return;
+		}
+
+		int blockId = mat.getId();
+		int data = ints.read(3);
+
+		//a single block that would need patching is simply cancelled, the
+		// player is already seeing the patched version
+		int app = filterBlockChange(var, event.getPlayer().getWorld().getName(),
+				ints.read(0), ints.read(1), ints.read(2), blockId, data);
+
+		if(app != PlayerVariance.packAppearance(blockId, data))
+			event.setCancelled(true);
+	}
+
+	/**
+	 * Filters the records of an outgoing multi-block change. Records that
+	 * are not allowed are dropped, records that need patching are 
+	 * rewritten, and the packet is cancelled if none are left.
+	 * <p>
+	 * The original packet may be shared between players, so a changed 
+	 * copy is sent in its place rather than editing it.
+	 *
+	 * @param event	The packet event.
+	 * @param var	The player's recorded fakes.
+	 */
+	private void onMultiBlockChangeSending(PacketEvent event, PlayerVariance var) {
+		PacketContainer packet = event.getPacket();
+		WrapperPlayServerMultiBlockChange wrapper = 
+				new WrapperPlayServerMultiBlockChange(packet);
+
+		byte[] data = wrapper.getRecordData();
+		int count = wrapper.getRecordCount();
+		if(data == null)
+			return;
+
+		int baseX = wrapper.getChunkX() << 4;
+		int baseZ = wrapper.getChunkZ() << 4;
+		String worldName = event.getPlayer().getWorld().getName();
+
+		//only created once a record has to change
+		int[] records = null;
+		int kept = 0;
+
+		for(int i = 0; i < count; i++) {
+			int offset = i * WrapperPlayServerMultiBlockChange.RECORD_SIZE;
+			int record = (data[offset] & 0xFF) << 24 
+					| (data[offset + 1] & 0xFF) << 16
+					| (data[offset + 2] & 0xFF) << 8 
+					| (data[offset + 3] & 0xFF);
+
+			//the low half of a record is the same as a packed appearance
+			int app = record & 0xFFFF;
+			int result = filterBlockChange(var, worldName, 
+					baseX + ((record >>> 28) & 0xF), (record >>> 16) & 0xFF, 
+					baseZ + ((record >>> 24) & 0xF), app >>> 4, app & 0xF);
+
+			if(result != app && records == null) {
+				//copies over the records that were kept so far
+				records = new int[count];
+				for(int j = 0; j < i; j++) {
+					int o = j * WrapperPlayServerMultiBlockChange.RECORD_SIZE;
+					records[j] = (data[o] & 0xFF) << 24 | (data[o + 1] & 0xFF) << 16
+							| (data[o + 2] & 0xFF) << 8 | (data[o + 3] & 0xFF);
+				}
+			}
+
+			if(result == -1) 
+				continue;
+
+			if(records != null)
+				records[kept] = (record & 0xFFFF0000) | result;
+			kept++;
+		}
+
+		if(records == null)
+			return;
+
+		if(kept == 0) {
+			event.setCancelled(true);
+			return;
+		}
+
+		WrapperPlayServerMultiBlockChange copy = 
+				new WrapperPlayServerMultiBlockChange(packet.shallowClone());
+		copy.setRecords(records, kept);
+		event.setPacket(copy.getHandle());
+	}
+
+	/**
+	 * Follows an outgoing chunk up with the fakes the player has been shown
+	 * in it, as chunk data replaces every block in the chunk. Patching the
+	 * compressed chunk data itself would cost far more than the follow-up.
+	 * <p>
+	 * The follow-up is sent on the next server tick, after the chunk.
+	 *
+	 * @param plugin	The plugin to schedule the follow-up for.
+	 * @param event		The packet event.
+	 * @param var		The player's recorded fakes.
+	 */
+	private void onChunkSending(Plugin plugin, PacketEvent event, 
+			final PlayerVariance var) {
+		
+		PacketContainer packet = event.getPacket();
+		final Player player = event.getPlayer();
+		final String worldName = player.getWorld().getName();
+
+		final int[] chunkXs;
+		final int[] chunkZs;
+
+		if(event.getPacketType() == PacketType.Play.Server.MAP_CHUNK) {
+			StructureModifier<Integer> ints = packet.getIntegers();
+			
+			//a chunk without any sections is the chunk being unloaded
+			if(ints.read(2) == 0)
+				return;
+			
+			int chunkX = ints.read(0);
+			int chunkZ = ints.read(1);
+			if(!var.hasShownVersions(worldName, chunkX, chunkZ))
+				return;
+
+			chunkXs = new int[] {chunkX};
+			chunkZs = new int[] {chunkZ};
+		}
+		else {
+			StructureModifier<int[]> arrays = packet.getIntegerArrays();
+			int[] xs = arrays.read(0);
+			int[] zs = arrays.read(1);
+
+			int count = 0;
+			boolean[] shown = new boolean[xs.length];
+			for(int i = 0; i < xs.length; i++) {
+				if(shown[i] = var.hasShownVersions(worldName, xs[i], zs[i]))
+					count++;
+			}
+			if(count == 0)
+				return;
+
+			chunkXs = new int[count];
+			chunkZs = new int[count];
+			for(int i = 0, j = 0; i < xs.length; i++) {
+				if(!shown[i]) continue;
+				chunkXs[j] = xs[i];
+				chunkZs[j] = zs[i];
+				j++;
+			}
+		}
+
+		Bukkit.getScheduler().runTask(plugin, new Runnable() {
+			public void run() {
+				if(!player.isOnline() 
+						|| !player.getWorld().getName().equals(worldName))
+					return;
+
+				for(int i = 0; i < chunkXs.length; i++) {
+					sendShownVersions(player, var, worldName, chunkXs[i], 
+							chunkZs[i]);
+				}
+			}
+		});
+	}
+
+	/**
+	 * Sends the fakes a player has been shown in a chunk as a multi-block
+	 * change, bypassing this listener as they are already recorded.
+	 *
+	 * @param player	The player to send them to.
+	 * @param var		The player's recorded fakes.
+	 * @param worldName	The name of the world the chunk is in.
+	 * @param chunkX	The x coordinate of the chunk.
+	 * @param chunkZ	The z coordinate of the chunk.
+	 */
+	private void sendShownVersions(Player player, PlayerVariance var, 
+			String worldName, int chunkX, int chunkZ) {
+
+		int[] records = var.getShownRecords(worldName, chunkX, chunkZ);
+		if(records.length == 0)
+			return;
+
+		WrapperPlayServerMultiBlockChange packet = 
+				new WrapperPlayServerMultiBlockChange();
+		packet.setChunk(chunkX, chunkZ);
+		packet.setRecords(records, records.length);
+
+		try {
+			ProtocolLibrary.getProtocolManager().sendServerPacket(player, 
+					packet.getHandle(), false);
+		}
+		catch(InvocationTargetException e) {
+			Zama.debug(listener.getPlugin(), null, "Encountered an error "
+					+ "while resending the fake blocks of a chunk to player "
+					+ player.getName());
+			Zama.debug(listener.getPlugin(), null, e);
+		}
+	}
+
+}
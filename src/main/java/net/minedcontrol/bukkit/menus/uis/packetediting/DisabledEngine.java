@@ -0,0 +1,50 @@
+package net.minedcontrol.bukkit.menus.uis.packetediting;
+
+import net.minedcontrol.bukkit.menus.uis.blockstructures.blocks.BlockAppearance;
+import net.minedcontrol.bukkit.menus.uis.blockstructures.blocks.SignText;
+import net.minedcontrol.zamalib.bukkit.util.blocks.BlockLocation;
+import net.minedcontrol.zamalib.players.ZamaPlayer;
+
+/**
+ * A packet engine that sends nothing. Block-based interfaces can still be
+ * built and used, but players will not see any of their fake blocks or
+ * sign text.
+ * <p>
+ * Date Created: Oct 17, 2026
+ * 
+ * @see BlockUpdateProtocol#OFF
+ */
+public class DisabledEngine implements PacketEngine {
+
+	@Override
+	public void sendBlockUpdate(ZamaPlayer player, BlockLocation block,
+			BlockAppearance appearance) {
+	}
+
+	@Override
+	public void sendSignTextUpdate(ZamaPlayer player, BlockLocation block,
+			SignText text) {
+	}
+
+	@Override
+	public void beginBatch(ZamaPlayer player) {
+	}
+
+	@Override
+	public void flushBatch(ZamaPlayer player) {
+	}
+
+	@Override
+	public void releaseBlock(ZamaPlayer player, BlockLocation block) {
+	}
+
+	@Override
+	public boolean tracksChunkResends() {
+		return false;
+	}
+
+	@Override
+	public void clearPlayer(ZamaPlayer player) {
+	}
+
+}
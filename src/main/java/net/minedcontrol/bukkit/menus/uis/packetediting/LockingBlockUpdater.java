@@ -0,0 +1,53 @@
+package net.minedcontrol.bukkit.menus.uis.packetediting;
+
+import org.bukkit.plugin.Plugin;
+
+/**
+ * A packet listener that locks the blocks a player has been sent fakes
+ * of. The server's own updates to those blocks are cancelled so that the
+ * fakes are not overwritten, while every other block update is sent as
+ * normal.
+ * <p>
+ * Locks last until they are removed or the player is, a lock's 
+ * appearance is replaced whenever a new fake is sent for the same block.
+ * <p>
+ * Date Created: Oct 17, 2026
+ * 
+ * @see LockingEngine
+ */
+public class LockingBlockUpdater extends BlockVarianceUpdater {
+
+	/**
+	 * Class constructor. Registers the packet listener.
+	 * 
+	 * @param plugin	The plugin to register the listener for.
+	 * 
+	 * @throws IllegalArgumentException	on a <code>null</code> parameter.
+	 */
+	public LockingBlockUpdater(Plugin plugin) 
+			throws IllegalArgumentException {
+
+		//locks are meant to last, they never expire
+		super(plugin, 0);
+	}
+
+
+	@Override
+	protected boolean allowsWithoutVariance() {
+		//no locked blocks for the player
+		return true;
+	}
+
+	@Override
+	protected int filterBlockChange(PlayerVariance var, String worldName,
+			int x, int y, int z, int blockId, int data) {
+		
+		//locked blocks keep their fake, everything else is sent unchanged
+		int fake = var.showPlayerVersion(worldName, x, y, z, blockId, data);
+		if(fake != -1)
+			return fake;
+		
+		return PlayerVariance.packAppearance(blockId, data);
+	}
+
+}
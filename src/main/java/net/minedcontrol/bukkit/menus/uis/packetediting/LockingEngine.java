@@ -0,0 +1,128 @@
+package net.minedcontrol.bukkit.menus.uis.packetediting;
+
+import java.util.Map;
+
+import org.bukkit.Bukkit;
+import org.bukkit.Location;
+import org.bukkit.block.Block;
+
+import net.minedcontrol.bukkit.menus.uis.blockstructures.blocks.BlockAppearance;
+import net.minedcontrol.zamalib.bukkit.util.blocks.BlockLocation;
+import net.minedcontrol.zamalib.players.ZamaPlayer;
+
+/**
+ * A packet engine that locks every block it fakes for a player, 
+ * suppressing the server's own updates to those blocks until they are 
+ * released or the player leaves. All other block updates reach the player
+ * as normal.
+ * <p>
+ * Blocks sent as they really are on the server are not locked, as there 
+ * is no fake to protect.
+ * <p>
+ * Date Created: Oct 17, 2026
+ * 
+ * @see BlockUpdateProtocol#LOCKING
+ */
+public class LockingEngine extends AbstractPacketEngine {
+
+	private LockingBlockUpdater blockUpdates;
+
+	/**
+	 * Class constructor.
+	 * 
+	 * @throws IllegalStateException	if unable to find its dependency
+	 * 									"ProtocolLib"
+	 */
+	public LockingEngine() throws IllegalStateException {
+		if(Bukkit.getServer().getPluginManager().getPlugin("ProtocolLib") == null)
+			throw new IllegalStateException("This engine relies on ProtocolLib, which was not found");
+
+		this.blockUpdates = new LockingBlockUpdater(plugin);
+	}
+
+
+	@Override
+	public void releaseBlock(ZamaPlayer player, BlockLocation block) {
+		blockUpdates.removePlayerVersion(player, block);
+	}
+
+	/**
+	 * Returns <code>true</code>, as locked blocks are sent again after 
+	 * every chunk they are in.
+	 */
+	@Override
+	public boolean tracksChunkResends() {
+		return true;
+	}
+
+	@Override
+	public void clearPlayer(ZamaPlayer player) {
+		super.clearPlayer(player);
+		blockUpdates.removePlayer(player);
+	}
+
+	@Override
+	protected void sendSingleBlockUpdate(ZamaPlayer player, BlockLocation block,
+			BlockAppearance appearance) {
+
+		//locks before sending, so the fake itself is let through
+		lock(player, block, appearance);
+
+		super.sendSingleBlockUpdate(player, block, appearance);
+	}
+
+	@Override
+	protected void sendChunkUpdate(ZamaPlayer player, int chunkX, int chunkZ,
+			Map<BlockLocation, BlockAppearance> changes) {
+
+		for(Map.Entry<BlockLocation, BlockAppearance> ent : changes.entrySet()) {
+			lock(player, ent.getKey(), ent.getValue());
+		}
+
+		super.sendChunkUpdate(player, chunkX, chunkZ, changes);
+	}
+
+
+	//--------
+	//PRIVATE
+	//--------
+
+	/**
+	 * Locks a block for a player at the appearance being sent, or drops
+	 * its lock if that is the block's real appearance.
+	 * 
+	 * @param player		The player to lock the block for.
+	 * @param block			The location of the block.
+	 * @param appearance	The appearance being sent.
+	 */
+	private void lock(ZamaPlayer player, BlockLocation block, 
+			BlockAppearance appearance) {
+		
+		if(isReal(block, appearance))
+			blockUpdates.removePlayerVersion(player, block);
+		else
+			blockUpdates.addPlayerVersion(player, block, appearance);
+	}
+
+	/**
+	 * Gets whether an appearance is how a block really is on the server.
+	 * 
+	 * @param block			The location of the block.
+	 * @param appearance	The appearance to check.
+	 * @return				<code>true</code> if the block exists and looks
+	 * 						the same.
+	 */
+	@SuppressWarnings("deprecation")
+	private static boolean isReal(BlockLocation block, 
+			BlockAppearance appearance) {
+		
+		Location l = block.toLocation();
+		if(l == null)
+			return false;
+
+		Block real = l.getBlock();
+		return real != null && real.getType() == appearance.getMaterial()
+				&& real.getData() == appearance.getData();
+	}
+
+}
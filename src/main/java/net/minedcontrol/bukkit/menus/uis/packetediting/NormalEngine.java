@@ -0,0 +1,26 @@
+package net.minedcontrol.bukkit.menus.uis.packetediting;
+
+/**
+ * A packet engine that sends fake block and sign-text updates without
+ * intercepting any packets. Fakes last until the server or client
+ * replaces them, but no packet listener is registered, so nothing is
+ * added to the cost of the server's own block updates.
+ * <p>
+ * Best for servers where the blocks faked by menus are never changed by
+ * the live world. As chunks that are resent wipe the fakes in them, 
+ * interfaces redraw everything rather than only what changed.
+ * <p>
+ * Date Created: Oct 17, 2026
+ * 
+ * @see BlockUpdateProtocol#NORMAL
+ */
+public class NormalEngine extends AbstractPacketEngine {
+
+	/**
+	 * Class constructor.
+	 */
+	public NormalEngine() {
+		super();
+	}
+
+}
@@ -41,5 +41,63 @@ public interface PacketEngine {
 	 */
 	public void sendSignTextUpdate(ZamaPlayer player, BlockLocation block, 
 			SignText text);
+	
+	/**
+	 * Starts holding back the block and sign updates sent to a player so 
+	 * that they can be sent together when the batch is flushed. Block 
+	 * changes in the same chunk are combined into a single multi-block 
+	 * change, and sign text is sent after all of the block changes.
+	 * <p>
+	 * Batches can be nested, in which case the updates are only sent when
+	 * the outermost batch is flushed. Every call to this method must be
+	 * matched with a call to {@link #flushBatch(ZamaPlayer)}, ideally in a
+	 * <code>finally</code> block.
+	 * 
+	 * @param player	The player to batch the updates of.
+	 */
+	public void beginBatch(ZamaPlayer player);
+	
+	/**
+	 * Closes a batch opened with {@link #beginBatch(ZamaPlayer)}, sending 
+	 * the held back updates if it was the outermost batch.
+	 * <p>
+	 * Does nothing if no batch is open for the player.
+	 * 
+	 * @param player	The player to send the batched updates to.
+	 */
+	public void flushBatch(ZamaPlayer player);
+	
+	/**
+	 * Stops holding on to a block the engine has faked for a player, so 
+	 * that the server's own updates to it reach them again. Should be used 
+	 * once the fake is no longer meant to be seen, such as when the 
+	 * structure it is part of is hidden, and after the batch it was sent 
+	 * in has been flushed.
+	 * <p>
+	 * Does nothing if the engine is not holding the block.
+	 * 
+	 * @param player	The player to release the block for.
+	 * @param block		The location of the block.
+	 */
+	public void releaseBlock(ZamaPlayer player, BlockLocation block);
+	
+	/**
+	 * Gets whether the engine sends its fakes again after the chunks they
+	 * are in are resent to a player, such as when they teleport, respawn 
+	 * or reload the chunks. If it does not, a client may have lost any fake
+	 * it was sent and only sending everything again is safe.
+	 * 
+	 * @return	<code>true</code> if fakes survive chunks being resent.
+	 */
+	public boolean tracksChunkResends();
+	
+	/**
+	 * Forgets everything the engine is holding for a player, such as 
+	 * open batches and the blocks it is protecting for them. Should be 
+	 * used when the player leaves.
+	 * 
+	 * @param player	The player to clear.
+	 */
+	public void clearPlayer(ZamaPlayer player);
 
 }
@@ -1,9 +1,12 @@
 package net.minedcontrol.bukkit.menus.uis.packetediting;
 
-import java.util.HashMap;
-import java.util.Map;
+import java.util.Arrays;
+
+import org.bukkit.Material;
 
 import net.minedcontrol.bukkit.menus.uis.blockstructures.blocks.BlockAppearance;
+import net.minedcontrol.bukkit.menus.uis.packetediting.packets.WrapperPlayServerMultiBlockChange;
+import net.minedcontrol.bukkit.menus.util.LongIntHashMap;
 import net.minedcontrol.zamalib.bukkit.util.blocks.BlockLocation;
 import net.minedcontrol.zamalib.players.ZamaPlayer;
 
@@ -27,15 +30,62 @@ public class PlayerVariance {
 	// to see if they are whitelisted (inefficient). Make complex, but
 	// hidden code to do less objective, but still safe comparisons with 
 	// simple API.
+	//
+	//Blocks are stored per world in primitive maps, keyed by their packed
+	// coordinates with their packed appearance as the value, so checking
+	// a packet against the variance creates no objects at all. The upper
+	// bits of each value hold a stamp of when the entry was added, so that
+	// an expiry scheduled for an old entry does not remove a newer one.
+	//
+	//Entries start out pending, and are marked as shown once their packet
+	// is seen going out. Shown entries are what the player is currently 
+	// seeing, and are kept so they can be sent again when the chunk they
+	// are in is resent. They are also indexed by chunk, as every chunk 
+	// packet sent to the player checks for them.
+	//
+	//Thread-safe. Variances are written from the main thread and checked
+	// and consumed from the packet threads, so every access locks on the
+	// variance itself. Each player has their own lock, and the only
+	// threads that ever meet on it are the main thread and the thread
+	// sending that player's packets, so players never wait on each other.
 	
 
+	//marks an empty slot in the block maps, never a valid appearance
+	private static final int NO_APPEARANCE = -1;
+
+	//the layout of the block map values, a shown flag above a 14 bit 
+	// stamp above a 16 bit packed appearance. Keeps every value 
+	// non-negative.
+	private static final int SHOWN = 1 << 30;
+	private static final int STAMP_SHIFT = 16;
+	private static final int APPEARANCE_MASK = 0xFFFF;
+	private static final int STAMP_MASK = 0x3FFF;
+
+	//most players only ever have variance in one or two worlds
+	private static final int INITIAL_WORLDS = 2;
+	private static final int INITIAL_BLOCKS = 64;
+	private static final int INITIAL_CHUNKS = 16;
+	//the initial length of the list of shown entries of a chunk
+	private static final int INITIAL_CHUNK_ENTRIES = 4;
+
 	//TODO what about when the player is offline? Add checks for that
 	// that affect the return values?
 	private ZamaPlayer player;
 	
 	//TODO add more types of variance, potentially use more advanced
 	// types of storing them. Expiries? What they were before? Sign text?...
-	private Map<BlockLocation, BlockAppearance> blocks;
+
+	//parallel arrays of the names of the worlds the player has variance in
+	// and the block variance in each of those worlds. Searched linearly,
+	// which is faster than hashing for so few worlds.
+	private String[] worldNames;
+	private LongIntHashMap[] worldBlocks;
+	//the shown entries of each world, by chunk
+	private ShownChunks[] worldShown;
+	private int worldCount;
+
+	//the stamp given to the next added entry
+	private int nextStamp;
 
 
 	/**
@@ -50,7 +100,9 @@ public class PlayerVariance {
 			throw new IllegalArgumentException("player cannot be null");
 		
 		this.player = player;
-		this.blocks = new HashMap<BlockLocation, BlockAppearance>();
+		this.worldNames = new String[INITIAL_WORLDS];
+		this.worldBlocks = new LongIntHashMap[INITIAL_WORLDS];
+		this.worldShown = new ShownChunks[INITIAL_WORLDS];
 	}
 	
 	/**
@@ -69,12 +121,24 @@ public class PlayerVariance {
 	 * @return		The player specific version of the block at the location.
 	 * 				Returns <code>null</code> if none was found.
 	 */
-	public BlockAppearance getPlayerVersion(BlockLocation loc)  {
+	@SuppressWarnings("deprecation")
+	public synchronized BlockAppearance getPlayerVersion(BlockLocation loc)  {
 		
 		if(loc == null)
 			throw new NullPointerException("null location used");
 		
-		return blocks.get(loc);
+		LongIntHashMap blocks = getBlocks(loc.getWorldName());
+		if(blocks == null)
+			return null;
+
+		int value = blocks.get(packLocation(loc.getX(), loc.getY(), loc.getZ()));
+		if(value == NO_APPEARANCE)
+			return null;
+
+		int app = value & APPEARANCE_MASK;
+
+		return new BlockAppearance(Material.getMaterial(app >>> 4),
+				(byte) (app & 0xF));
 	}
 	
 	/**
@@ -83,12 +147,61 @@ public class PlayerVariance {
 	 * 
 	 * @param loc			The location of the block.
 	 * @param appearance	How the block should appear.
+	 * @return				The stamp of the new entry, to expire it with.
+	 * 						<code>-1</code> if nothing was added.
+	 *
+	 * @see #expirePlayerVersion(String, long, int)
 	 */
-	public void addPlayerVersion(BlockLocation loc, BlockAppearance appearance) {
+	@SuppressWarnings("deprecation")
+	public synchronized int addPlayerVersion(BlockLocation loc, BlockAppearance appearance) {
 		if(loc == null || appearance == null)
-			return;
+			return -1;
 		
-		blocks.put(loc, appearance);
+		int world = indexOf(loc.getWorldName());
+		if(world < 0)
+			world = addWorld(loc.getWorldName());
+
+		int stamp = nextStamp;
+		nextStamp = (nextStamp + 1) & STAMP_MASK;
+
+		long key = packLocation(loc.getX(), loc.getY(), loc.getZ());
+		int old = worldBlocks[world].put(key, (stamp << STAMP_SHIFT) 
+				| packAppearance(appearance.getMaterial().getId(), 
+						appearance.getData()));
+
+		//the new entry is pending until it is shown
+		if(old != NO_APPEARANCE && (old & SHOWN) != 0)
+			worldShown[world].remove(key);
+
+		return stamp;
+	}
+
+	/**
+	 * Removes the player-specific version of a block if it is still the
+	 * entry that was given a stamp, and has not been replaced since.
+	 *
+	 * @param worldName	The name of the world the block is in.
+	 * @param key		The packed location of the block.
+	 * @param stamp		The stamp the entry was given when added.
+	 * @return			<code>true</code> if the entry was removed.
+	 *
+	 * @see #packLocation(int, int, int)
+	 */
+	public synchronized boolean expirePlayerVersion(String worldName, long key,
+			int stamp) {
+
+		LongIntHashMap blocks = getBlocks(worldName);
+		if(blocks == null)
+			return false;
+
+		//shown entries are what the player is seeing, they do not expire
+		int value = blocks.get(key);
+		if(value == NO_APPEARANCE || (value & SHOWN) != 0 
+				|| ((value >>> STAMP_SHIFT) & STAMP_MASK) != stamp)
+			return false;
+
+		blocks.remove(key);
+		return true;
 	}
 	
 	/**
@@ -96,11 +209,438 @@ public class PlayerVariance {
 	 * 
 	 * @param loc	The location of the block. Not <code>null</code>.
 	 */
-	public void removePlayerVersion(BlockLocation loc) {
-		blocks.remove(loc);
+	public synchronized void removePlayerVersion(BlockLocation loc) {
+		int world = indexOf(loc.getWorldName());
+		if(world < 0)
+			return;
+
+		long key = packLocation(loc.getX(), loc.getY(), loc.getZ());
+		int old = worldBlocks[world].remove(key);
+		if(old != NO_APPEARANCE && (old & SHOWN) != 0)
+			worldShown[world].remove(key);
+	}
+
+	/**
+	 * Checks whether a block form matches a pending player-specific 
+	 * version of the block at a location, without creating any objects. 
+	 * Meant for checking outgoing packets.
+	 *
+	 * @param worldName	The name of the world the block is in.
+	 * @param x			The x coordinate of the block.
+	 * @param y			The y coordinate of the block.
+	 * @param z			The z coordinate of the block.
+	 * @param blockId	The id of the block form's material.
+	 * @param data		The data of the block form.
+	 * @param consume	Whether to mark the player-specific version as 
+	 * 					shown if it matches, so it will not match again.
+	 * @return			<code>true</code> if the form matches the pending
+	 * 					player-specific version. <code>false</code> if it
+	 * 					does not, the version was already shown, or there 
+	 * 					is no player-specific version.
+	 */
+	public synchronized boolean matchPlayerVersion(String worldName, int x, int y, int z,
+			int blockId, int data, boolean consume) {
+
+		int world = indexOf(worldName);
+		if(world < 0)
+			return false;
+
+		long key = packLocation(x, y, z);
+
+		int value = worldBlocks[world].get(key);
+		if(value == NO_APPEARANCE || (value & SHOWN) != 0
+				|| (value & APPEARANCE_MASK) != packAppearance(blockId, data))
+			return false;
+
+		if(consume)
+			markShown(world, key, value);
+
+		return true;
+	}
+
+	/**
+	 * Gets the player-specific version of the block at a location, marking
+	 * it as shown if a block form matches it, without creating any 
+	 * objects. Meant for checking outgoing packets.
+	 *
+	 * @param worldName	The name of the world the block is in.
+	 * @param x			The x coordinate of the block.
+	 * @param y			The y coordinate of the block.
+	 * @param z			The z coordinate of the block.
+	 * @param blockId	The id of the block form's material.
+	 * @param data		The data of the block form.
+	 * @return			The packed player-specific version of the block.
+	 * 					<code>-1</code> if there is none.
+	 *
+	 * @see #packAppearance(int, int)
+	 */
+	public synchronized int showPlayerVersion(String worldName, 
+			int x, int y, int z, int blockId, int data) {
+
+		int world = indexOf(worldName);
+		if(world < 0)
+			return NO_APPEARANCE;
+
+		long key = packLocation(x, y, z);
+
+		int value = worldBlocks[world].get(key);
+		if(value == NO_APPEARANCE)
+			return NO_APPEARANCE;
+
+		int app = value & APPEARANCE_MASK;
+		if(app == packAppearance(blockId, data) && (value & SHOWN) == 0)
+			markShown(world, key, value);
+
+		return app;
+	}
+
+	/**
+	 * Gets whether any player-specific versions that the player has been
+	 * shown are in a chunk, without creating any objects. Takes constant
+	 * time, however many versions the player has.
+	 *
+	 * @param worldName	The name of the world the chunk is in.
+	 * @param chunkX	The x coordinate of the chunk.
+	 * @param chunkZ	The z coordinate of the chunk.
+	 * @return			<code>true</code> if any shown versions are in the
+	 * 					chunk.
+	 */
+	public synchronized boolean hasShownVersions(String worldName, 
+			int chunkX, int chunkZ) {
+
+		int world = indexOf(worldName);
+		if(world < 0)
+			return false;
+
+		return worldShown[world].count(packChunk(chunkX, chunkZ)) > 0;
+	}
+
+	/**
+	 * Gets the player-specific versions that the player has been shown in
+	 * a chunk, as multi-block change records. Only goes over the versions
+	 * in the chunk.
+	 *
+	 * @param worldName	The name of the world the chunk is in.
+	 * @param chunkX	The x coordinate of the chunk.
+	 * @param chunkZ	The z coordinate of the chunk.
+	 * @return			The records of the shown versions in the chunk. 
+	 * 					Empty if there are none.
+	 *
+	 * @see WrapperPlayServerMultiBlockChange#setRecords(int[], int)
+	 */
+	public synchronized int[] getShownRecords(String worldName, 
+			int chunkX, int chunkZ) {
+
+		int world = indexOf(worldName);
+		if(world < 0)
+			return new int[0];
+
+		LongIntHashMap blocks = worldBlocks[world];
+		ShownChunks shown = worldShown[world];
+
+		long chunk = packChunk(chunkX, chunkZ);
+		int count = shown.count(chunk);
+		long[] keys = shown.keys(chunk);
+
+		int[] records = new int[count];
+		for(int i = 0; i < count; i++) {
+			long key = keys[i];
+			int app = blocks.get(key) & APPEARANCE_MASK;
+			records[i] = WrapperPlayServerMultiBlockChange.toRecord(
+					unpackX(key), unpackY(key), unpackZ(key), 
+					app >>> 4, app & 0xF);
+		}
+
+		return records;
+	}
+
+	/**
+	 * Gets the number of block locations the player has a specific version
+	 * of, across all worlds.
+	 *
+	 * @return	The number of varied blocks.
+	 */
+	public synchronized int size() {
+		int size = 0;
+		for(int i = 0; i < worldCount; i++) {
+			size += worldBlocks[i].size();
+		}
+		return size;
+	}
+
+	/**
+	 * Packs block coordinates into a single key. Uses 26 bits for each of
+	 * x and z, which covers the whole minecraft world, and 12 bits for y.
+	 *
+	 * @param x	The x coordinate.
+	 * @param y	The y coordinate.
+	 * @param z	The z coordinate.
+	 * @return	The packed coordinates.
+	 */
+	public static long packLocation(int x, int y, int z) {
+		return ((long) (x & 0x3FFFFFF) << 38) | ((long) (z & 0x3FFFFFF) << 12)
+				| (y & 0xFFF);
+	}
+
+	/**
+	 * Gets the x coordinate of a packed location.
+	 *
+	 * @param key	The packed location.
+	 * @return		The x coordinate.
+	 *
+	 * @see #packLocation(int, int, int)
+	 */
+	public static int unpackX(long key) {
+		//shifts the 26 bits to the top of an int and back to sign-extend
+		return ((int) (key >>> 38)) << 6 >> 6;
+	}
+
+	/**
+	 * Gets the y coordinate of a packed location.
+	 *
+	 * @param key	The packed location.
+	 * @return		The y coordinate.
+	 *
+	 * @see #packLocation(int, int, int)
+	 */
+	public static int unpackY(long key) {
+		return ((int) key) << 20 >> 20;
+	}
+
+	/**
+	 * Gets the z coordinate of a packed location.
+	 *
+	 * @param key	The packed location.
+	 * @return		The z coordinate.
+	 *
+	 * @see #packLocation(int, int, int)
+	 */
+	public static int unpackZ(long key) {
+		return ((int) (key >>> 12)) << 6 >> 6;
+	}
+
+	/**
+	 * Packs a block id and data value into a single, non-negative value.
+	 *
+	 * @param blockId	The id of the block's material.
+	 * @param data		The block's data value.
+	 * @return			The packed appearance.
+	 */
+	public static int packAppearance(int blockId, int data) {
+		return ((blockId & 0xFFF) << 4) | (data & 0xF);
+	}
+
+
+	//--------
+	//PRIVATE
+	//--------
+
+	/**
+	 * Gets the position of a world in the arrays of worlds, if the player
+	 * has variance in it.
+	 *
+	 * @param worldName	The name of the world.
+	 * @return			The world's position, or <code>-1</code> if the
+	 * 					player has no variance in the world.
+	 */
+	private int indexOf(String worldName) {
+		for(int i = 0; i < worldCount; i++) {
+			//world names are normally the same instance, so this is
+			// usually decided by the reference check
+			if(worldNames[i].equals(worldName))
+				return i;
+		}
+		return -1;
+	}
+
+	/**
+	 * Gets the block variance for a world, if any.
+	 *
+	 * @param worldName	The name of the world.
+	 * @return			The world's block map, or <code>null</code> if the
+	 * 					player has no variance in the world.
+	 */
+	private LongIntHashMap getBlocks(String worldName) {
+		int world = indexOf(worldName);
+		return world < 0 ? null : worldBlocks[world];
+	}
+
+	/**
+	 * Marks an entry as shown and indexes it by its chunk.
+	 *
+	 * @param world	The position of the entry's world.
+	 * @param key	The packed location of the entry.
+	 * @param value	The entry's current value, which is not shown.
+	 */
+	private void markShown(int world, long key, int value) {
+		worldBlocks[world].put(key, value | SHOWN);
+		worldShown[world].add(key);
+	}
+
+	/**
+	 * Packs chunk coordinates into a single key.
+	 *
+	 * @param chunkX	The x coordinate of the chunk.
+	 * @param chunkZ	The z coordinate of the chunk.
+	 * @return			The packed chunk.
+	 */
+	private static long packChunk(int chunkX, int chunkZ) {
+		return ((long) chunkX << 32) | (chunkZ & 0xFFFFFFFFL);
+	}
+
+	/**
+	 * Adds an empty block map for a world.
+	 *
+	 * @param worldName	The name of the world.
+	 * @return			The position of the new world.
+	 */
+	private int addWorld(String worldName) {
+		if(worldCount == worldNames.length) {
+			worldNames = Arrays.copyOf(worldNames, worldCount * 2);
+			worldBlocks = Arrays.copyOf(worldBlocks, worldCount * 2);
+			worldShown = Arrays.copyOf(worldShown, worldCount * 2);
+		}
+
+		worldNames[worldCount] = worldName;
+		worldBlocks[worldCount] = new LongIntHashMap(INITIAL_BLOCKS, NO_APPEARANCE);
+		worldShown[worldCount] = new ShownChunks();
+
+		return worldCount++;
 	}
 
 
+	/**
+	 * The shown entries of a world, grouped by the chunk they are in. Each
+	 * chunk with shown entries has a slot holding a list of their packed 
+	 * locations, and the slots of chunks that no longer have any are
+	 * reused. Finding a chunk's entries is a single lookup, and removing 
+	 * one goes over only the entries of its chunk.
+	 */
+	private static final class ShownChunks {
+
+		//key: a packed chunk. value: the chunk's slot.
+		private final LongIntHashMap slots;
+
+		//by slot, the packed locations of the chunk's shown entries and
+		// how many of them there are
+		private long[][] entries;
+		private int[] counts;
+		private int used;
+
+		//the slots of chunks that no longer have shown entries
+		private int[] free;
+		private int freeCount;
+
+		private ShownChunks() {
+			this.slots = new LongIntHashMap(INITIAL_CHUNKS, -1);
+			this.entries = new long[INITIAL_CHUNKS][];
+			this.counts = new int[INITIAL_CHUNKS];
+			this.free = new int[INITIAL_CHUNKS];
+		}
+
+		/**
+		 * Gets the number of shown entries in a chunk.
+		 *
+		 * @param chunk	The packed chunk.
+		 * @return		The number of entries.
+		 */
+		int count(long chunk) {
+			int slot = slots.get(chunk);
+			return slot < 0 ? 0 : counts[slot];
+		}
+
+		/**
+		 * Gets the shown entries of a chunk, which are the first
+		 * {@link #count(long)} of the array returned. The array must not
+		 * be changed.
+		 *
+		 * @param chunk	The packed chunk.
+		 * @return		The packed locations of the entries.
+		 */
+		long[] keys(long chunk) {
+			int slot = slots.get(chunk);
+			return slot < 0 ? new long[0] : entries[slot];
+		}
+
+		/**
+		 * Adds a shown entry. Must not already be added.
+		 *
+		 * @param key	The packed location of the entry.
+		 */
+		void add(long key) {
+			long chunk = chunkOf(key);
+			int slot = slots.get(chunk);
+			if(slot < 0) {
+				slot = allocate();
+				slots.put(chunk, slot);
+			}
+
+			long[] list = entries[slot];
+			if(list == null)
+				entries[slot] = list = new long[INITIAL_CHUNK_ENTRIES];
+			else if(counts[slot] == list.length)
+				entries[slot] = list = Arrays.copyOf(list, list.length * 2);
+
+			list[counts[slot]++] = key;
+		}
+
+		/**
+		 * Removes a shown entry, if it was added.
+		 *
+		 * @param key	The packed location of the entry.
+		 */
+		void remove(long key) {
+			long chunk = chunkOf(key);
+			int slot = slots.get(chunk);
+			if(slot < 0)
+				return;
+
+			long[] list = entries[slot];
+			int count = counts[slot];
+			for(int i = 0; i < count; i++) {
+				if(list[i] != key)
+					continue;
+
+				//the order of a chunk's entries does not matter
+				list[i] = list[--count];
+				counts[slot] = count;
+
+				if(count == 0) {
+					slots.remove(chunk);
+					free[freeCount++] = slot;
+				}
+				return;
+			}
+		}
+
+		/**
+		 * Gets a slot for a chunk, reusing a freed one if there is any.
+		 *
+		 * @return	The slot.
+		 */
+		private int allocate() {
+			if(freeCount > 0)
+				return free[--freeCount];
+
+			if(used == entries.length) {
+				entries = Arrays.copyOf(entries, used * 2);
+				counts = Arrays.copyOf(counts, used * 2);
+				free = Arrays.copyOf(free, used * 2);
+			}
+
+			return used++;
+		}
+
+		/**
+		 * Gets the chunk a packed location is in.
+		 *
+		 * @param key	The packed location.
+		 * @return		The packed chunk.
+		 */
+		private static long chunkOf(long key) {
+			return packChunk(unpackX(key) >> 4, unpackZ(key) >> 4);
+		}
+	}
 
 
 }
@@ -0,0 +1,199 @@
+package net.minedcontrol.bukkit.menus.uis.packetediting;
+
+import java.util.Arrays;
+
+/**
+ * A hashed timer wheel that removes player variance entries once they
+ * have gone unused for a set time, so that fakes whose packets were never
+ * seen by the listener do not stay whitelisted for the rest of the
+ * session.
+ * <p>
+ * The wheel is a ring of slots, each holding the entries that expire when
+ * the wheel next reaches it. Scheduling an entry and expiring a whole
+ * slot are both cheap, and there is no task per entry, only a single
+ * {@link #tick()} driven by a repeating task. Entries expire at most one
+ * slot's worth of time after their time to live.
+ * <p>
+ * Entries are removed using the stamp they were added with, so an entry
+ * that was replaced or consumed in the meantime is left alone.
+ * <p>
+ * Not thread-safe, and meant to be used from the server thread only.
+ * <p>
+ * Date Created: Oct 17, 2026
+ *
+ * @see PlayerVariance#expirePlayerVersion(String, long, int)
+ */
+public class VarianceExpiryWheel {
+
+	//the number of slots, a power of two. Entries are never scheduled
+	// more than half way around the wheel, so no entry ever needs to
+	// wait for more than one pass.
+	private static final int SLOTS = 64;
+	private static final int MAX_DELAY = SLOTS / 2;
+
+	private static final int INITIAL_SLOT_SIZE = 16;
+
+	private final Slot[] slots;
+
+	//the number of server ticks that each slot covers
+	private final int ticksPerSlot;
+
+	//the number of slots from the current one that new entries go in
+	private final int delay;
+
+	//the slot that will be expired by the next tick
+	private int cursor;
+
+	//the total number of entries that have been removed by the wheel
+	private long reclaimed;
+
+
+	/**
+	 * Class constructor.
+	 *
+	 * @param ttl	The number of server ticks before an entry expires.
+	 * 				Must be positive.
+	 *
+	 * @throws IllegalArgumentException	if the time to live is not
+	 * 									positive.
+	 */
+	public VarianceExpiryWheel(int ttl) throws IllegalArgumentException {
+		if(ttl <= 0)
+			throw new IllegalArgumentException("the time to live must be positive");
+
+		this.ticksPerSlot = (ttl + MAX_DELAY - 1) / MAX_DELAY;
+		this.delay = (ttl + ticksPerSlot - 1) / ticksPerSlot;
+
+		this.slots = new Slot[SLOTS];
+		for(int i = 0; i < SLOTS; i++) {
+			slots[i] = new Slot();
+		}
+	}
+
+
+	//--------
+	//PUBLIC
+	//--------
+
+	/**
+	 * Schedules an entry to expire once the time to live has passed.
+	 *
+	 * @param var		The variance the entry is in.
+	 * @param worldName	The name of the world of the entry's block.
+	 * @param key		The packed location of the entry's block.
+	 * @param stamp		The stamp the entry was given when it was added.
+	 */
+	public void schedule(PlayerVariance var, String worldName, long key,
+			int stamp) {
+
+		slots[(cursor + delay) & (SLOTS - 1)].add(var, worldName, key, stamp);
+	}
+
+	/**
+	 * Expires the entries in the current slot and moves on to the next.
+	 * Should be called once every {@link #getTicksPerSlot()} server ticks.
+	 *
+	 * @return	The number of entries that were removed.
+	 */
+	public int tick() {
+		int expired = slots[cursor].expire();
+		cursor = (cursor + 1) & (SLOTS - 1);
+
+		reclaimed += expired;
+		return expired;
+	}
+
+	/**
+	 * Gets how often {@link #tick()} needs to be called.
+	 *
+	 * @return	The number of server ticks between each tick of the wheel.
+	 */
+	public int getTicksPerSlot() {
+		return ticksPerSlot;
+	}
+
+	/**
+	 * Gets the total number of entries the wheel has removed, which were
+	 * never consumed or replaced before they expired.
+	 *
+	 * @return	The number of reclaimed entries.
+	 */
+	public long getReclaimed() {
+		return reclaimed;
+	}
+
+	/**
+	 * Gets the number of entries waiting in the wheel, including ones
+	 * that have already been consumed or replaced.
+	 *
+	 * @return	The number of scheduled entries.
+	 */
+	public int getScheduled() {
+		int scheduled = 0;
+		for(Slot slot : slots) {
+			scheduled += slot.size;
+		}
+		return scheduled;
+	}
+
+
+	//--------
+	//PRIVATE
+	//--------
+
+	/**
+	 * The entries that expire at the same time, stored in parallel arrays
+	 * that are reused every pass of the wheel.
+	 */
+	private static final class Slot {
+
+		private PlayerVariance[] vars = new PlayerVariance[INITIAL_SLOT_SIZE];
+		private String[] worlds = new String[INITIAL_SLOT_SIZE];
+		private long[] keys = new long[INITIAL_SLOT_SIZE];
+		private int[] stamps = new int[INITIAL_SLOT_SIZE];
+		private int size;
+
+		/**
+		 * Adds an entry to the slot.
+		 */
+		private void add(PlayerVariance var, String worldName, long key,
+				int stamp) {
+
+			if(size == keys.length) {
+				int length = size * 2;
+				vars = Arrays.copyOf(vars, length);
+				worlds = Arrays.copyOf(worlds, length);
+				keys = Arrays.copyOf(keys, length);
+				stamps = Arrays.copyOf(stamps, length);
+			}
+
+			vars[size] = var;
+			worlds[size] = worldName;
+			keys[size] = key;
+			stamps[size] = stamp;
+			size++;
+		}
+
+		/**
+		 * Expires every entry in the slot and empties it.
+		 *
+		 * @return	The number of entries that were still present and were
+		 * 			removed.
+		 */
+		private int expire() {
+			int expired = 0;
+			for(int i = 0; i < size; i++) {
+				if(vars[i].expirePlayerVersion(worlds[i], keys[i], stamps[i]))
+					expired++;
+			}
+
+			//lets go of the variances of players who may have left
+			Arrays.fill(vars, 0, size, null);
+			Arrays.fill(worlds, 0, size, null);
+			size = 0;
+
+			return expired;
+		}
+	}
+
+}
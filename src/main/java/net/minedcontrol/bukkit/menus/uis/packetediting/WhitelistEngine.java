@@ -1,89 +1,94 @@
 package net.minedcontrol.bukkit.menus.uis.packetediting;
 
+import java.util.Map;
+
 import org.bukkit.Bukkit;
-import org.bukkit.plugin.java.JavaPlugin;
 
 import net.minedcontrol.bukkit.menus.uis.blockstructures.blocks.BlockAppearance;
-import net.minedcontrol.bukkit.menus.uis.blockstructures.blocks.SignText;
-import net.minedcontrol.bukkit.menus.uis.blockstructures.blocks.SignUtil;
 import net.minedcontrol.zamalib.bukkit.util.blocks.BlockLocation;
 import net.minedcontrol.zamalib.players.ZamaPlayer;
-import net.minedcontrol.zamalib.runtime.master.Zama;
 
-public class WhitelistEngine implements PacketEngine {
+public class WhitelistEngine extends AbstractPacketEngine {
 
 	/*
 	 * A packet engine that only allows edits that it whitelists first.
 	 * 
+	 * Both single and batched multi-block changes are whitelisted, as
+	 * the listener filters both.
+	 * 
 	 * TODO full documentation
 	 */
 
-	private JavaPlugin plugin;
-
 	private WhitelistBlockUpdater blockUpdates;
 
 	/**
 	 * Class constructor.
 	 * 
+	 * @param ttl	The number of server ticks after which a whitelisted
+	 * 				update that was never sent is removed from the 
+	 * 				whitelist. <code>0</code> or less to never remove them.
+	 * 
 	 * @throws IllegalStateException	if unable to find its dependency
 	 * 									"ProtocolLib"
 	 */
-	public WhitelistEngine() throws IllegalStateException {
+	public WhitelistEngine(int ttl) throws IllegalStateException {
 		if(Bukkit.getServer().getPluginManager().getPlugin("ProtocolLib") == null)
 			throw new IllegalStateException("This engine relies on ProtocolLib, which was not found");
 
-		this.plugin = Zama.getMaster().getPlugin();
-		this.blockUpdates = new WhitelistBlockUpdater(plugin);
+		this.blockUpdates = new WhitelistBlockUpdater(plugin, ttl);
+	}
+	
+	/**
+	 * Gets the number of whitelisted updates that expired without ever
+	 * being sent.
+	 * 
+	 * @return	The number of reclaimed whitelist entries.
+	 */
+	public long getReclaimedCount() {
+		return blockUpdates.getReclaimedCount();
 	}
 
 
 	@Override
-	public void sendBlockUpdate(ZamaPlayer player, BlockLocation block,
-			BlockAppearance appearance) {
-
-		try {
-
-			if(player == null || block == null || appearance == null)
-				throw new NullPointerException();
-
-			blockUpdates.whitelistBlockUpdate(player, block, appearance);
-
-			//debug
-			/*Zama.debug(Menus.getPlugin(), null, "sending an update of [" 
-					+ appearance.getMaterial().name() + ", " + appearance.getData() 
-					+ "] to " + player.getName() + " at " + block.toString());*/
+	public void clearPlayer(ZamaPlayer player) {
+		super.clearPlayer(player);
+		blockUpdates.removePlayer(player);
+	}
 
-			player.sendBlockChange(block.toLocation(), 
-					appearance.getMaterial(), appearance.getData());
+	/**
+	 * Whitelists and sends a single block change packet.
+	 * 
+	 * @param player		The player to send the update to.
+	 * @param block			The location of the block to update.
+	 * @param appearance	The way the block should look.
+	 */
+	@Override
+	protected void sendSingleBlockUpdate(ZamaPlayer player, BlockLocation block,
+			BlockAppearance appearance) {
 
-		}
-		catch(Exception e) {
-			Zama.debug(plugin, null, "Encountered an error "
-					+ "while attempting to send a block update for " + 
-					(player != null ? "player " + player.getName() : 
-							"a null player"));
-			Zama.debug(plugin, null, e);
-		}
+		blockUpdates.whitelistBlockUpdate(player, block, appearance);
 
+		super.sendSingleBlockUpdate(player, block, appearance);
 	}
 
+	/**
+	 * Whitelists every change in a chunk and sends them as one 
+	 * multi-block change packet.
+	 * 
+	 * @param player	The player to send the updates to.
+	 * @param chunkX	The x coordinate of the chunk.
+	 * @param chunkZ	The z coordinate of the chunk.
+	 * @param changes	The changes in the chunk.
+	 */
 	@Override
-	public void sendSignTextUpdate( ZamaPlayer player, BlockLocation block,
-			SignText text) {
+	protected void sendChunkUpdate(ZamaPlayer player, int chunkX, int chunkZ,
+			Map<BlockLocation, BlockAppearance> changes) {
 
-		try {
-			if(player == null || block == null || text == null)
-				throw new NullPointerException();
-
-			SignUtil.updateSignText(player, block, text);
-		}
-		catch(Exception e) {
-			Zama.debug(plugin, null, "Encountered an error "
-					+ "while attempting to send a sign text update for " + 
-					(player != null ? "player " + player.getName() : 
-							"a null player"));
-			Zama.debug(plugin, null, e);
+		for(Map.Entry<BlockLocation, BlockAppearance> ent : changes.entrySet()) {
+			blockUpdates.whitelistBlockUpdate(player, ent.getKey(), ent.getValue());
 		}
+
+		super.sendChunkUpdate(player, chunkX, chunkZ, changes);
 	}
 
 
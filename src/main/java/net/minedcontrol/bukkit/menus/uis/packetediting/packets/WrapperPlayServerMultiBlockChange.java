@@ -0,0 +1,124 @@
+/*
+ *  PacketWrapper - Contains wrappers for each packet in Minecraft.
+ *  Copyright (C) 2012 Kristian S. Stangeland
+ *
+ *  This program is free software; you can redistribute it and/or modify it under the terms of the
+ *  GNU Lesser General Public License as published by the Free Software Foundation; either version 2 of
+ *  the License, or (at your option) any later version.
+ *
+ *  This program is distributed in the hope that it will be useful, but WITHOUT ANY WARRANTY;
+ *  without even the implied warranty of MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.
+ *  See the GNU General Public License for more details.
+ *
+ *  You should have received a copy of the GNU General Public License along with this program;
+ *  if not, write to the Free Software Foundation, Inc., 59 Temple Place, Suite 330, Boston, MA
+ *  02111-1307 USA
+ */
+package net.minedcontrol.bukkit.menus.uis.packetediting.packets;
+
+import com.comphenix.protocol.PacketType;
+import com.comphenix.protocol.events.PacketContainer;
+import com.comphenix.protocol.wrappers.ChunkCoordIntPair;
+
+public class WrapperPlayServerMultiBlockChange extends AbstractPacket {
+	public static final PacketType TYPE = PacketType.Play.Server.MULTI_BLOCK_CHANGE;
+
+	//the size of a single block change record, in bytes.
+	public static final int RECORD_SIZE = 4;
+
+	public WrapperPlayServerMultiBlockChange() {
+		super(new PacketContainer(TYPE), TYPE);
+		handle.getModifier().writeDefaults();
+	}
+
+	public WrapperPlayServerMultiBlockChange(PacketContainer packet) {
+		super(packet, TYPE);
+	}
+
+	/**
+	 * Retrieve the chunk X Coordinate.
+	 * @return The current chunk X
+	 */
+	public int getChunkX() {
+		return handle.getChunkCoordIntPairs().read(0).getChunkX();
+	}
+
+	/**
+	 * Retrieve the chunk Z Coordinate.
+	 * @return The current chunk Z
+	 */
+	public int getChunkZ() {
+		return handle.getChunkCoordIntPairs().read(0).getChunkZ();
+	}
+
+	/**
+	 * Set the chunk the records of this packet are relative to.
+	 * @param chunkX - the chunk X coordinate.
+	 * @param chunkZ - the chunk Z coordinate.
+	 */
+	public void setChunk(int chunkX, int chunkZ) {
+		handle.getChunkCoordIntPairs().write(0, new ChunkCoordIntPair(chunkX, chunkZ));
+	}
+
+	/**
+	 * Retrieve the number of records in this packet.
+	 * @return The current record count.
+	 */
+	public int getRecordCount() {
+		return handle.getIntegers().read(0);
+	}
+
+	/**
+	 * Retrieve the raw record data, four bytes per changed block.
+	 * @return The current record data.
+	 */
+	public byte[] getRecordData() {
+		return handle.getByteArrays().read(0);
+	}
+
+	/**
+	 * Set the raw record data, four bytes per changed block. Also updates
+	 * the record count.
+	 * @param value - new value.
+	 */
+	public void setRecordData(byte[] value) {
+		if (value == null)
+			throw new IllegalArgumentException("Array cannot be NULL.");
+		if (value.length % RECORD_SIZE != 0)
+			throw new IllegalArgumentException("The record data must be a multiple of four bytes long.");
+		handle.getIntegers().write(0, value.length / RECORD_SIZE);
+		handle.getByteArrays().write(0, value);
+	}
+
+	/**
+	 * Set the records of this packet from their packed integer form.
+	 * @param records - the records, see {@link #toRecord(int, int, int, int, int)}.
+	 * @param count - the number of records in the array to use.
+	 */
+	public void setRecords(int[] records, int count) {
+		byte[] data = new byte[count * RECORD_SIZE];
+		for (int i = 0; i < count; i++) {
+			int record = records[i];
+			int offset = i * RECORD_SIZE;
+			data[offset] = (byte) (record >>> 24);
+			data[offset + 1] = (byte) (record >>> 16);
+			data[offset + 2] = (byte) (record >>> 8);
+			data[offset + 3] = (byte) record;
+		}
+		setRecordData(data);
+	}
+
+	/**
+	 * Packs a single block change into its record form.
+	 * @param x - the X coordinate relative to the chunk (0-15).
+	 * @param y - the Y coordinate (0-255).
+	 * @param z - the Z coordinate relative to the chunk (0-15).
+	 * @param blockId - the new block id.
+	 * @param data - the new block data (0-15).
+	 * @return The packed record.
+	 */
+	public static int toRecord(int x, int y, int z, int blockId, int data) {
+		return (x & 0xF) << 28 | (z & 0xF) << 24 | (y & 0xFF) << 16
+				| (blockId & 0xFFF) << 4 | (data & 0xF);
+	}
+}
@@ -0,0 +1,176 @@
+package net.minedcontrol.bukkit.menus.underlays.generated;
+
+import net.minedcontrol.bukkit.menus.basis.Menu;
+import net.minedcontrol.bukkit.menus.basis.MenuOption;
+import net.minedcontrol.bukkit.menus.basis.MenuStage;
+import net.minedcontrol.bukkit.menus.basis.UnderlayNode;
+
+/**
+ * A virtualized underlay node, whose stage is generated for each menu on
+ * demand rather than built ahead of time, such as a stage that lists the
+ * menu user's teammates as options.
+ * <p>
+ * Generated stages are cached by the context key of the menus they were
+ * generated for, up to a maximum number of stages, so menus that share a
+ * key share a stage. Stages stay cached until they are invalidated or
+ * pushed out by newer ones. Menus keep the stage they were shown until
+ * they move to another node, so invalidating a stage only affects menus
+ * that arrive at this node afterwards.
+ * <p>
+ * Date Created: Oct 17, 2026
+ * 
+ * @param <K>	The type of the generator's context keys.
+ * 
+ * @see StageGenerator
+ * @see GeneratedUnderlay
+ */
+public class GeneratedNode<K> implements UnderlayNode {
+	
+	/**
+	 * The number of stages kept if no maximum is given.
+	 */
+	public static final int DEFAULT_CACHE_SIZE = 256;
+	
+	private final StageGenerator<K> generator;
+	
+	private final StageCache<K> cache;
+	
+	
+	/**
+	 * Class constructor. Keeps up to the default number of stages.
+	 * 
+	 * @param generator	Generates this node's stages and decides where 
+	 * 					their options lead. Not <code>null</code>.
+	 * 
+	 * @throws IllegalArgumentException	on a <code>null</code> generator.
+	 */
+	public GeneratedNode(StageGenerator<K> generator) 
+			throws IllegalArgumentException {
+		
+		this(generator, DEFAULT_CACHE_SIZE);
+	}
+	
+	/**
+	 * Class constructor.
+	 * 
+	 * @param generator		Generates this node's stages and decides where 
+	 * 						their options lead. Not <code>null</code>.
+	 * @param maxCached		The maximum number of generated stages to keep.
+	 * 						Must be positive.
+	 * 
+	 * @throws IllegalArgumentException	on a <code>null</code> generator or
+	 * 									a maximum that is not positive.
+	 */
+	public GeneratedNode(StageGenerator<K> generator, int maxCached) 
+			throws IllegalArgumentException {
+		
+		if(generator == null)
+			throw new IllegalArgumentException("generator cannot be null");
+		
+		this.generator = generator;
+		this.cache = new StageCache<K>(maxCached);
+	}
+	
+	
+	//--------
+	//PUBLIC
+	//--------
+	
+	/**
+	 * {@inheritDoc}
+	 * <p>
+	 * Generates the stage for the menu's context key if it is not cached.
+	 * 
+	 * @throws IllegalStateException	if the generator gives no context key
+	 * 									or no stage.
+	 */
+	@Override
+	public MenuStage getMenuStage(Menu menu) throws IllegalStateException {
+		K key = generator.getContextKey(menu);
+		if(key == null)
+			throw new IllegalStateException("the generator gave no context key");
+		
+		return cache.get(key, generator, menu);
+	}
+
+	/**
+	 * {@inheritDoc}
+	 * <p>
+	 * The selection must be one of the options of the stage the menu is
+	 * currently showing from this node.
+	 */
+	@Override
+	public UnderlayNode getNext(Menu menu, MenuOption selection)
+			throws IllegalArgumentException {
+		
+		if(selection == null)
+			throw new IllegalArgumentException("selection cannot be null");
+		
+		//checks against the stage the menu was shown, which may no longer
+		// be the cached one
+		MenuStage stage = menu.getCurrentStage();
+		if(stage == null || !stage.contains(selection))
+			throw new IllegalArgumentException("the selection is not an "
+					+ "option of this node");
+		
+		return generator.getNext(menu, selection);
+	}
+	
+	/**
+	 * Gets the generator of this node's stages.
+	 * 
+	 * @return	This node's generator.
+	 */
+	public final StageGenerator<K> getGenerator() {
+		return generator;
+	}
+	
+	/**
+	 * Drops the stage for a context key, such as when the members of a
+	 * party change, so it is generated again for the next menu that
+	 * needs it.
+	 * 
+	 * @param key	The context key.
+	 */
+	public final void invalidate(K key) {
+		if(key == null)
+			return;
+		
+		cache.invalidate(key);
+	}
+	
+	/**
+	 * Drops every generated stage.
+	 */
+	public final void invalidateAll() {
+		cache.clear();
+	}
+	
+	/**
+	 * Gets the number of generated stages being kept.
+	 * 
+	 * @return	The number of cached stages.
+	 */
+	public final int getCachedStages() {
+		return cache.size();
+	}
+	
+	/**
+	 * Gets the number of stages that were requested and already cached.
+	 * 
+	 * @return	The number of cache hits.
+	 */
+	public final long getCacheHits() {
+		return cache.getHits();
+	}
+	
+	/**
+	 * Gets the number of stages that had to be generated.
+	 * 
+	 * @return	The number of cache misses.
+	 */
+	public final long getCacheMisses() {
+		return cache.getMisses();
+	}
+	
+}
@@ -0,0 +1,91 @@
+package net.minedcontrol.bukkit.menus.underlays.generated;
+
+import java.util.Collections;
+import java.util.HashSet;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+
+import net.minedcontrol.bukkit.menus.Menus;
+import net.minedcontrol.bukkit.menus.basis.Menu;
+import net.minedcontrol.bukkit.menus.basis.MenuUnderlay;
+import net.minedcontrol.bukkit.menus.basis.UnderlayNode;
+
+/**
+ * A virtualized underlay, which starts at a node whose stages are 
+ * generated, and which follows wherever its generator leads. Generators 
+ * can lead to other generated nodes, or to realized nodes, so that 
+ * virtualized and realized stages can be mixed.
+ * <p>
+ * Also serves as a collection of the menus currently traversing this
+ * underlay.
+ * <p>
+ * Date Created: Oct 17, 2026
+ * 
+ * @see GeneratedNode
+ */
+public class GeneratedUnderlay implements MenuUnderlay {
+	
+	private final String id;
+	private final UnderlayNode start;
+	
+	private final Set<Menu> menus;
+	
+	
+	/**
+	 * Class constructor.
+	 * 
+	 * @param underlayId	The string id of this underlay. Should be unique
+	 * 						within a runtime and is used to access this
+	 * 						underlay from the menu manager singleton.
+	 * @param start			The first node of the underlay, usually a
+	 * 						generated node.
+	 * 
+	 * @throws IllegalArgumentException	On a <code>null</code> parameter
+	 * 									or an empty id.
+	 */
+	public GeneratedUnderlay(String underlayId, UnderlayNode start) 
+			throws IllegalArgumentException {
+		
+		if(underlayId == null || start == null)
+			throw new IllegalArgumentException("params cannot be null");
+		
+		if(underlayId.equals(""))
+			throw new IllegalArgumentException("id cannot be empty");
+		
+		this.id = underlayId;
+		this.start = start;
+		this.menus = Collections.newSetFromMap(new ConcurrentHashMap<Menu, Boolean>());
+		
+		Menus.getManager().addUnderlay(this);
+	}
+
+	@Override
+	public final String getId() {
+		return this.id;
+	}
+	
+	@Override
+	public final UnderlayNode getStart(Menu menu) {
+		return start;
+	}
+
+	@Override
+	public final Set<Menu> getMenus() {
+		return new HashSet<Menu>(menus);
+	}
+
+	@SuppressWarnings("deprecation")
+	@Override
+	public final boolean addMenu(Menu menu) {
+		if(!equals(menu.getUnderlay()))
+			return false;
+		
+		return menus.add(menu);
+	}
+
+	@Override
+	public final boolean removeMenu(Menu menu) {
+		return menus.remove(menu);
+	}
+
+}
@@ -0,0 +1,151 @@
+package net.minedcontrol.bukkit.menus.underlays.generated;
+
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+import net.minedcontrol.bukkit.menus.basis.Menu;
+import net.minedcontrol.bukkit.menus.basis.MenuStage;
+
+/**
+ * A bounded cache of generated stages, keyed by their context key. The
+ * least recently used stages are dropped once it is full.
+ * <p>
+ * Thread-safe. Stages are generated outside of the cache's lock, so a 
+ * slow generator does not hold up menus that hit the cache, and a stage
+ * generated while the cache is being invalidated is not kept.
+ * <p>
+ * Date Created: Oct 17, 2026
+ * 
+ * @param <K>	The type of the context keys.
+ */
+final class StageCache<K> {
+	
+	private final Map<K, MenuStage> stages;
+	
+	//counts invalidations, so that a stage generated across one is not
+	// put into the cache afterwards
+	private long invalidations;
+	
+	private long hits;
+	private long misses;
+	
+	
+	/**
+	 * Class constructor.
+	 * 
+	 * @param maxSize	The maximum number of stages to keep. Must be
+	 * 					positive.
+	 * 
+	 * @throws IllegalArgumentException	if the maximum size is not positive.
+	 */
+	StageCache(final int maxSize) throws IllegalArgumentException {
+		if(maxSize <= 0)
+			throw new IllegalArgumentException("the maximum size must be positive");
+		
+		this.stages = new LinkedHashMap<K, MenuStage>(16, 0.75f, true) {
+			private static final long serialVersionUID = 1L;
+
+			@Override
+			protected boolean removeEldestEntry(Map.Entry<K, MenuStage> eldest) {
+				return size() > maxSize;
+			}
+		};
+	}
+	
+	
+	//--------
+	//DEFAULT
+	//--------
+	
+	/**
+	 * Gets the stage for a key, generating and caching it if it is not
+	 * already cached.
+	 * 
+	 * @param key		The context key. Not <code>null</code>.
+	 * @param generator	Generates the stage on a miss.
+	 * @param menu		The menu the stage is for.
+	 * @return			The stage.
+	 * 
+	 * @throws IllegalStateException	if the generator produces no stage.
+	 */
+	MenuStage get(K key, StageGenerator<K> generator, Menu menu) 
+			throws IllegalStateException {
+		
+		long seen;
+		synchronized(this) {
+			MenuStage stage = stages.get(key);
+			if(stage != null) {
+				hits++;
+				return stage;
+			}
+			
+			misses++;
+			seen = invalidations;
+		}
+		
+		MenuStage stage = generator.generate(menu, key);
+		if(stage == null)
+			throw new IllegalStateException("the generator produced no stage");
+		
+		synchronized(this) {
+			if(seen != invalidations)
+				return stage;
+			
+			//keeps a stage generated at the same time for another menu, so
+			// that menus sharing a key are still shown the same stage
+			MenuStage existing = stages.get(key);
+			if(existing != null)
+				return existing;
+			
+			stages.put(key, stage);
+			return stage;
+		}
+	}
+	
+	/**
+	 * Removes the stage for a key, so it is generated again the next time
+	 * it is needed.
+	 * 
+	 * @param key	The context key.
+	 */
+	synchronized void invalidate(K key) {
+		invalidations++;
+		stages.remove(key);
+	}
+	
+	/**
+	 * Removes every stage.
+	 */
+	synchronized void clear() {
+		invalidations++;
+		stages.clear();
+	}
+	
+	/**
+	 * Gets the number of cached stages.
+	 * 
+	 * @return	This cache's size.
+	 */
+	synchronized int size() {
+		return stages.size();
+	}
+	
+	/**
+	 * Gets the number of requested stages that were already cached.
+	 * 
+	 * @return	The number of cache hits.
+	 */
+	synchronized long getHits() {
+		return hits;
+	}
+	
+	/**
+	 * Gets the number of requested stages that had to be generated.
+	 * 
+	 * @return	The number of cache misses.
+	 */
+	synchronized long getMisses() {
+		return misses;
+	}
+	
+}
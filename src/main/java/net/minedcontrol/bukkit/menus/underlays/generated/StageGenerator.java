@@ -0,0 +1,65 @@
+package net.minedcontrol.bukkit.menus.underlays.generated;
+
+import net.minedcontrol.bukkit.menus.basis.Menu;
+import net.minedcontrol.bukkit.menus.basis.MenuOption;
+import net.minedcontrol.bukkit.menus.basis.MenuStage;
+import net.minedcontrol.bukkit.menus.basis.UnderlayNode;
+
+/**
+ * Produces the stage of a generated node for a menu, such as a stage that
+ * lists the members of the menu user's party, and decides where each of
+ * its options lead.
+ * <p>
+ * Menus that would be shown the same stage share a context key, such as
+ * the id of the party, and the stage is only generated once per key until
+ * it is invalidated or dropped from the node's cache. A key can include
+ * anything else the stage depends on, such as a page number.
+ * <p>
+ * Menu options register themselves with the menu manager by their id when
+ * they are constructed, so generators should reuse the options they
+ * produce, for instance one option per party member, rather than 
+ * constructing new ones for every stage. Options that will not be shown
+ * again, such as that of a member who left the party, should be removed 
+ * with {@link net.minedcontrol.bukkit.menus.MenuManager#removeOption(MenuOption)}
+ * so that the manager does not keep them.
+ * <p>
+ * Date Created: Oct 17, 2026
+ * 
+ * @param <K>	The type of the context keys.
+ * 
+ * @see GeneratedNode
+ */
+public interface StageGenerator<K> {
+
+	/**
+	 * Gets the context key of a menu, which identifies the stage it should
+	 * be shown. Menus with equal keys are shown the same stage.
+	 * 
+	 * @param menu	The menu. Not <code>null</code>.
+	 * @return		The menu's context key. Not <code>null</code>.
+	 */
+	public K getContextKey(Menu menu);
+	
+	/**
+	 * Generates the stage for a context key.
+	 * 
+	 * @param menu	The menu the stage is first being generated for. Not 
+	 * 				<code>null</code>.
+	 * @param key	The menu's context key.
+	 * @return		The stage. Not <code>null</code>.
+	 */
+	public MenuStage generate(Menu menu, K key);
+	
+	/**
+	 * Gets the node that a selection from a generated stage leads to.
+	 * 
+	 * @param menu		The menu making the selection. Not 
+	 * 					<code>null</code>.
+	 * @param selection	The selected option, which is one of the options of 
+	 * 					the stage the menu was shown. Not <code>null</code>.
+	 * @return			The next node. <code>null</code> if the selection
+	 * 					ends the menu.
+	 */
+	public UnderlayNode getNext(Menu menu, MenuOption selection);
+	
+}
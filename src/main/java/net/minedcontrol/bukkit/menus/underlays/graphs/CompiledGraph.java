@@ -0,0 +1,380 @@
+package net.minedcontrol.bukkit.menus.underlays.graphs;
+
+import net.minedcontrol.bukkit.menus.basis.MenuOption;
+import net.minedcontrol.bukkit.menus.basis.MenuStage;
+
+/**
+ * An immutable, compact form of a directed graph underlay, made by
+ * {@link DirectedGraphUnderlay#compile()} once the graph has been built.
+ * <p>
+ * The options of every node are laid out one after another in flat
+ * arrays, with the options of a node taking up the range from its offset
+ * to the next node's offset, in the order of the node's stage. Each
+ * option has the index of the node it leads to alongside it, or
+ * {@link #LEAF} if it ends the graph. Following a selection is a lookup of
+ * the option's position in the stage and a read from those arrays.
+ * <p>
+ * Safe to read from any thread, as it never changes once made. Edits 
+ * made afterwards replace it with a newly compiled graph, or with a copy 
+ * that only has the edited node's options replaced.
+ * <p>
+ * Date Created: Oct 17, 2026
+ *
+ * @see DirectedGraphUnderlay#getCompiled()
+ */
+public final class CompiledGraph {
+
+	/**
+	 * The target of an option that does not lead to another node, which
+	 * ends the graph.
+	 */
+	public static final int LEAF = -1;
+
+	private final DirectedGraphUnderlay underlay;
+
+	//by node index
+	private final DirectedGraphNode[] nodes;
+	private final MenuStage[] stages;
+
+	//the position in the flat arrays of each node's first option, with one
+	// more entry at the end for the total number of options
+	private final int[] offsets;
+
+	//by position, for every option of every node
+	private final int[] options;
+	private final int[] targets;
+	
+	//made the first time it is asked for
+	private volatile GraphAnalysis analysis;
+
+
+	/**
+	 * Class constructor. Compiles every node the underlay has created.
+	 * Must be called while holding the underlay's lock, so that no edit is
+	 * committed meanwhile.
+	 *
+	 * @param underlay	The underlay to compile. Not <code>null</code>.
+	 * @param nodes		The underlay's nodes, by index.
+	 * @param count		The number of nodes.
+	 */
+	CompiledGraph(DirectedGraphUnderlay underlay, DirectedGraphNode[] nodes,
+			int count) {
+
+		this.underlay = underlay;
+		this.nodes = new DirectedGraphNode[count];
+		this.stages = new MenuStage[count];
+		this.offsets = new int[count + 1];
+
+		//reads each node's state once, so the stages and the children
+		// agree
+		NodeState[] states = new NodeState[count];
+		
+		int edges = 0;
+		for(int i = 0; i < count; i++) {
+			this.nodes[i] = nodes[i];
+			states[i] = nodes[i].getState();
+			this.stages[i] = states[i].getStage();
+
+			offsets[i] = edges;
+			edges += stages[i].numOptions();
+		}
+		offsets[count] = edges;
+
+		this.options = new int[edges];
+		this.targets = new int[edges];
+
+		for(int i = 0; i < count; i++) {
+			writeOptions(states[i], options, targets, offsets[i]);
+		}
+	}
+
+	/**
+	 * Class constructor taking the finished arrays, which are not copied.
+	 *
+	 * @param underlay	The underlay this is a compiled form of.
+	 * @param nodes		The nodes, by index.
+	 * @param stages	The stages of the nodes, by index.
+	 * @param offsets	The position of each node's first option.
+	 * @param options	The options, by position.
+	 * @param targets	The targets of the options, by position.
+	 */
+	private CompiledGraph(DirectedGraphUnderlay underlay, 
+			DirectedGraphNode[] nodes, MenuStage[] stages, int[] offsets, 
+			int[] options, int[] targets) {
+		
+		this.underlay = underlay;
+		this.nodes = nodes;
+		this.stages = stages;
+		this.offsets = offsets;
+		this.options = options;
+		this.targets = targets;
+	}
+
+
+	//--------
+	//PUBLIC
+	//--------
+
+	/**
+	 * Gets the underlay this is a compiled form of.
+	 *
+	 * @return	The underlay.
+	 */
+	public DirectedGraphUnderlay getUnderlay() {
+		return underlay;
+	}
+
+	/**
+	 * Analyzes the shape of this graph, such as which nodes can be reached
+	 * and which nodes menus can be trapped at. Only done the first time it
+	 * is asked for.
+	 * 
+	 * @return	The analysis of this graph.
+	 */
+	public GraphAnalysis analyze() {
+		GraphAnalysis current = analysis;
+		if(current == null)
+			analysis = current = new GraphAnalysis(this);
+		
+		return current;
+	}
+	
+	/**
+	 * Gets the number of nodes in this graph.
+	 *
+	 * @return	The number of nodes.
+	 */
+	public int numNodes() {
+		return nodes.length;
+	}
+
+	/**
+	 * Gets the number of options across every node of this graph.
+	 *
+	 * @return	The number of options.
+	 */
+	public int numOptions() {
+		return options.length;
+	}
+
+	/**
+	 * Gets a node by its index.
+	 *
+	 * @param node	The index of the node.
+	 * @return		The node.
+	 *
+	 * @throws IndexOutOfBoundsException	if no node has the index.
+	 */
+	public DirectedGraphNode getNode(int node) throws IndexOutOfBoundsException {
+		return nodes[node];
+	}
+
+	/**
+	 * Gets the stage of a node as it was when this graph was compiled.
+	 *
+	 * @param node	The index of the node.
+	 * @return		The node's stage.
+	 *
+	 * @throws IndexOutOfBoundsException	if no node has the index.
+	 */
+	public MenuStage getStage(int node) throws IndexOutOfBoundsException {
+		return stages[node];
+	}
+
+	/**
+	 * Gets the number of options of a node.
+	 *
+	 * @param node	The index of the node.
+	 * @return		The number of options.
+	 *
+	 * @throws IndexOutOfBoundsException	if no node has the index.
+	 */
+	public int numOptions(int node) throws IndexOutOfBoundsException {
+		return offsets[node + 1] - offsets[node];
+	}
+
+	/**
+	 * Gets the index of an option of a node, by its position in the
+	 * node's stage.
+	 *
+	 * @param node	The index of the node.
+	 * @param slot	The position of the option in the node's stage.
+	 * @return		The option's index.
+	 *
+	 * @throws IndexOutOfBoundsException	if no node has the index, or the
+	 * 										node has no option at the
+	 * 										position.
+	 *
+	 * @see MenuOption#getIndex()
+	 */
+	public int getOption(int node, int slot) throws IndexOutOfBoundsException {
+		return options[position(node, slot)];
+	}
+
+	/**
+	 * Gets the index of the node an option of a node leads to, by the
+	 * option's position in the node's stage.
+	 *
+	 * @param node	The index of the node.
+	 * @param slot	The position of the option in the node's stage.
+	 * @return		The index of the node the option leads to, or
+	 * 				{@link #LEAF} if it ends the graph.
+	 *
+	 * @throws IndexOutOfBoundsException	if no node has the index, or the
+	 * 										node has no option at the
+	 * 										position.
+	 */
+	public int getTarget(int node, int slot) throws IndexOutOfBoundsException {
+		return targets[position(node, slot)];
+	}
+
+	/**
+	 * Gets the index of the node that selecting an option at a node leads
+	 * to.
+	 *
+	 * @param node		The index of the node.
+	 * @param option	The selected option.
+	 * @return			The index of the node the option leads to, or
+	 * 					{@link #LEAF} if it ends the graph.
+	 *
+	 * @throws IllegalArgumentException		if the option is not one of the
+	 * 										node's.
+	 * @throws IndexOutOfBoundsException	if no node has the index.
+	 */
+	public int getNext(int node, MenuOption option)
+			throws IllegalArgumentException, IndexOutOfBoundsException {
+
+		int slot = stages[node].indexOf(option);
+		if(slot < 0)
+			throw new IllegalArgumentException("invalid selection");
+
+		return targets[offsets[node] + slot];
+	}
+
+	/**
+	 * Gets the index of the node that selecting an option at a node leads
+	 * to, by the option's index. Searches the node's options in order, so
+	 * {@link #getNext(int, MenuOption)} is quicker for nodes with many
+	 * options.
+	 *
+	 * @param node			The index of the node.
+	 * @param optionIndex	The index of the selected option.
+	 * @return				The index of the node the option leads to, or
+	 * 						{@link #LEAF} if it ends the graph.
+	 *
+	 * @throws IllegalArgumentException		if no option of the node has the
+	 * 										index.
+	 * @throws IndexOutOfBoundsException	if no node has the index.
+	 */
+	public int getNext(int node, int optionIndex)
+			throws IllegalArgumentException, IndexOutOfBoundsException {
+
+		int end = offsets[node + 1];
+		for(int i = offsets[node]; i < end; i++) {
+			if(options[i] == optionIndex)
+				return targets[i];
+		}
+
+		throw new IllegalArgumentException("invalid selection");
+	}
+
+
+	//--------
+	//DEFAULT
+	//--------
+
+	/**
+	 * Makes a copy of this graph with the state of one node replaced, such
+	 * as after a single edit. Only the edited node's state is read, and 
+	 * the options of the other nodes are copied over as they are, which is 
+	 * far cheaper than compiling the graph again.
+	 *
+	 * @param node	The index of the node. Must be a node of this graph.
+	 * @param state	The node's new state. Every child must be a node of 
+	 * 				this graph.
+	 * @return		The new graph.
+	 */
+	CompiledGraph withState(int node, NodeState state) {
+		MenuStage stage = state.getStage();
+
+		int start = offsets[node];
+		int end = offsets[node + 1];
+		int shift = stage.numOptions() - (end - start);
+
+		MenuStage[] newStages = stages.clone();
+		newStages[node] = stage;
+
+		//the offsets before the node stay the same, so they are shared 
+		// when the number of options does too
+		int[] newOffsets = offsets;
+		if(shift != 0) {
+			newOffsets = offsets.clone();
+			for(int i = node + 1; i < newOffsets.length; i++) {
+				newOffsets[i] += shift;
+			}
+		}
+
+		int[] newOptions = new int[options.length + shift];
+		int[] newTargets = new int[targets.length + shift];
+
+		System.arraycopy(options, 0, newOptions, 0, start);
+		System.arraycopy(targets, 0, newTargets, 0, start);
+		System.arraycopy(options, end, newOptions, end + shift, 
+				options.length - end);
+		System.arraycopy(targets, end, newTargets, end + shift, 
+				targets.length - end);
+
+		writeOptions(state, newOptions, newTargets, start);
+
+		return new CompiledGraph(underlay, nodes, newStages, newOffsets, 
+				newOptions, newTargets);
+	}
+
+
+	//--------
+	//PRIVATE
+	//--------
+
+	/**
+	 * Writes the options of a node and their targets into the flat arrays.
+	 *
+	 * @param state		The node's state.
+	 * @param options	The options, by position.
+	 * @param targets	The targets of the options, by position.
+	 * @param offset	The position of the node's first option.
+	 */
+	private static void writeOptions(NodeState state, int[] options, 
+			int[] targets, int offset) {
+		
+		MenuStage stage = state.getStage();
+		
+		for(int slot = 0; slot < stage.numOptions(); slot++) {
+			MenuOption option = stage.getOption(slot);
+			DirectedGraphNode target = state.getChild(option.getIndex());
+
+			options[offset + slot] = option.getIndex();
+			targets[offset + slot] = target != null ? target.getIndex() : LEAF;
+		}
+	}
+
+	/**
+	 * Gets the position in the flat arrays of an option of a node.
+	 *
+	 * @param node	The index of the node.
+	 * @param slot	The position of the option in the node's stage.
+	 * @return		The position in the flat arrays.
+	 *
+	 * @throws IndexOutOfBoundsException	if no node has the index, or the
+	 * 										node has no option at the
+	 * 										position.
+	 */
+	private int position(int node, int slot) throws IndexOutOfBoundsException {
+		int offset = offsets[node];
+		if(slot < 0 || slot >= offsets[node + 1] - offset)
+			throw new IndexOutOfBoundsException("slot " + slot + " of a node with "
+					+ (offsets[node + 1] - offset) + " options");
+
+		return offset + slot;
+	}
+
+}
@@ -1,14 +1,5 @@
 package net.minedcontrol.bukkit.menus.underlays.graphs;
 
-import java.util.ArrayList;
-import java.util.HashMap;
-import java.util.HashSet;
-import java.util.List;
-import java.util.Map;
-import java.util.Queue;
-import java.util.Set;
-import java.util.concurrent.LinkedBlockingQueue;
-
 import net.minedcontrol.bukkit.menus.basis.Menu;
 import net.minedcontrol.bukkit.menus.basis.MenuElement;
 import net.minedcontrol.bukkit.menus.basis.MenuOption;
@@ -54,6 +45,24 @@ import net.minedcontrol.bukkit.menus.basis.UnderlayNode;
  * during runtime, and potentially enormous portions of the graph could be 
  * arbitrarily removed, reincorporated, an reorganized as desired.
  * <p>
+ * Each node is given a dense integer index within its underlay when it
+ * is created, and looks up the results of its options by their integer
+ * indices, so following a selection hashes neither strings nor objects.
+ * <p>
+ * The options of a node are kept as an immutable state that each edit
+ * replaces in a single write, so menus can read a node without locking
+ * while it is edited and always see it either before or after an edit.
+ * Edits to several nodes can be batched with 
+ * {@link DirectedGraphUnderlay#edit()}, so that they are published 
+ * together. Edits made through a node itself are made from its current
+ * state while holding its underlay's lock, so they never conflict with
+ * other edits.
+ * <p>
+ * Nodes are for building and changing a graph. Once it is built, 
+ * {@link DirectedGraphUnderlay#compile()} makes an immutable, compact form
+ * of it that nodes then answer selections from, until the graph is 
+ * changed again.
+ * <p>
  * Date Created: Jan 20, 2014
  * 
  * @author Brutus
@@ -65,29 +74,17 @@ public class DirectedGraphNode implements UnderlayNode {
 	//The underlay this graph is a part of.
 	private final DirectedGraphUnderlay underlay;
 	
-	//The title of this node, how it is presented when actually displayed
-	// in a menu interface.
-	private final MenuElement title;
+	//this node's dense index within its underlay
+	private final int index;
 	
-	//An ordered collection of all of the options of this node. 
-	// This collection is meant primarily to generate the MenuStage and 
-	// provide the options in order for the frontend. The options of this 
-	// node are stored/referenced twice, once here and once in one of the 
-	// other following collections, which govern the structure of the 
-	// options and the behavior resulting from selections.
-	private final Queue<MenuOption> optQueue;
+	//the options of this node in order, with the stage that summarizes
+	// them for menu interfaces and what each of them leads to. Replaced
+	// as a whole whenever the node is edited.
+	private volatile NodeState state;
 	
-	//options that lead to a child node. (<option, child>)
-	private final Map<MenuOption, DirectedGraphNode> children;
-	//options that do not lead to another node, that mark an end of the 
-	// graph structure.
-	private final Set<MenuOption> leaves;
-	
-	
-	//a non-final object that summarizes the display information of this
-	// node for menu interfaces. Refreshed on-edit as options/children
-	// are added and removed.
-	private MenuStage stage;
+	//the name of this node within its underlay, if it has one. Set 
+	// through the underlay.
+	private volatile String id;
 	
 	
 	/**
@@ -95,7 +92,9 @@ public class DirectedGraphNode implements UnderlayNode {
 	 * 
 	 * @param underlay	The underlay this node is a part of. Not
 	 * 					<code>null</code>
-	 * @param title		The title of this node. Not <code>null</code>.
+	 * @param title		The title of this node, how it is presented when
+	 * 					displayed in a menu interface. Not 
+	 * 					<code>null</code>.
 	 * 	
 	 * @throws IllegalArgumentException	on a <code>null</code> parameter.
 	 */
@@ -107,13 +106,9 @@ public class DirectedGraphNode implements UnderlayNode {
 			throw new IllegalArgumentException("params cannot be null");
 		
 		this.underlay = underlay;
-		this.title = title;
 		
-		this.optQueue = new LinkedBlockingQueue<MenuOption>();
-		this.children = new HashMap<MenuOption, DirectedGraphNode>();
-		this.leaves = new HashSet<MenuOption>();
-		
-		updateStage();
+		this.state = new NodeState(title);
+		this.index = underlay.addNode(this);
 	}
 	
 	
@@ -146,28 +141,7 @@ public class DirectedGraphNode implements UnderlayNode {
 	public final void addChild(MenuOption selection, DirectedGraphNode result) 
 			throws NullPointerException,IllegalArgumentException {
 		
-		if(selection == null) 
-			throw new NullPointerException("option cannot be null");
-		
-		if(result != null && !underlay.equals(result.getUnderlay()))
-			throw new IllegalArgumentException("nodes need to be part of"
-					+ " the same underlay to become parent and child");
-		
-		//removes any old instances of the option to overwrite its
-		// previous state.
-		if(leaves.remove(selection) || children.remove(selection) != null) 
-			optQueue.remove(selection);
-		
-		if(result == null)
-			leaves.add(selection);
-		
-		else {
-			children.put(selection, result);
-		}
-		
-		optQueue.add(selection);
-		
-		updateStage();
+		underlay.addChild(this, selection, result);
 	}
 	
 	/**
@@ -193,32 +167,7 @@ public class DirectedGraphNode implements UnderlayNode {
 	public final void setChild(MenuOption option, DirectedGraphNode result)
 			throws NullPointerException,IllegalArgumentException {
 
-		if(option == null) 
-			throw new NullPointerException("option cannot be null");
-		
-		if(result != null && !underlay.equals(result.getUnderlay()))
-			throw new IllegalArgumentException("nodes need to be part of"
-					+ " the same underlay to become parent and child");
-		
-		//if the option was not in the queue, just adds it normally and
-		// returns
-		if(!optQueue.contains(option)) {
-			addChild(option, result);
-			return;
-		}
-		
-		//else is overwriting a previous state, and either sets it as
-		// as a part of the children map or as a leaf with no child
-		if(result == null) {
-			children.remove(option);
-			leaves.add(option);
-			
-		} else {
-			leaves.remove(option);
-			children.put(option, result);
-		}
-		
-		updateStage();
+		underlay.setChild(this, option, result);
 	}
 	
 	/**
@@ -229,29 +178,19 @@ public class DirectedGraphNode implements UnderlayNode {
 	 * @return			<code>true</code> if the node contained the element.
 	 */
 	public final boolean removeOption(MenuOption option) {
-		if(option == null) 
+		if(option == null || !state.contains(option.getIndex())) 
 			return false;
 		
-		if(leaves.remove(option)) {
-			optQueue.remove(option);
-			updateStage();
-			return true;
-		}
-
-		//removes the child from the children map of this node.
-		DirectedGraphNode child = children.remove(option);
-		if(child != null) {
-			optQueue.remove(option);
-			updateStage();
-			return true;
-		}
-		
-		else return false;
+		return underlay.removeOption(this, option);
 	}
 
 	@Override
 	public final MenuStage getMenuStage(Menu menu) {
-		return this.stage;
+		CompiledGraph compiled = underlay.getCompiled();
+		if(compiled != null && index < compiled.numNodes())
+			return compiled.getStage(index);
+		
+		return state.getStage();
 	}
 
 	@Override
@@ -260,10 +199,46 @@ public class DirectedGraphNode implements UnderlayNode {
 		
 		if(selection == null)
 			throw new IllegalArgumentException("invalid selection");
-			
-		DirectedGraphNode child = children.get(selection);
 		
-		if(child == null && !leaves.contains(selection))
+		CompiledGraph compiled = underlay.getCompiled();
+		if(compiled != null && index < compiled.numNodes()) {
+			int next = compiled.getNext(index, selection);
+			return next != CompiledGraph.LEAF ? compiled.getNode(next) : null;
+		}
+		
+		return getNext(menu, selection.getIndex());
+	}
+	
+	/**
+	 * Gets the node that selecting an option leads to, by the option's
+	 * integer index.
+	 * 
+	 * @param menu			The menu making the selection.
+	 * @param optionIndex	The index of the selected option.
+	 * @return				The child node the option leads to. 
+	 * 						<code>null</code> if the option is a leaf, which 
+	 * 						ends the graph.
+	 * 
+	 * @throws IllegalArgumentException	if no option of this node has the
+	 * 									index.
+	 * 
+	 * @see MenuOption#getIndex()
+	 */
+	public final DirectedGraphNode getNext(Menu menu, int optionIndex)
+			throws IllegalArgumentException {
+		
+		CompiledGraph compiled = underlay.getCompiled();
+		if(compiled != null && index < compiled.numNodes()) {
+			int next = compiled.getNext(index, optionIndex);
+			return next != CompiledGraph.LEAF ? compiled.getNode(next) : null;
+		}
+		
+		//reads the state once, so a concurrent edit is seen whole or not
+		// at all
+		NodeState current = state;
+		DirectedGraphNode child = current.getChild(optionIndex);
+		
+		if(child == null && !current.contains(optionIndex))
 			throw new IllegalArgumentException("invalid selection");
 		
 		//returns the child; returns null if the selection is part of
@@ -271,6 +246,32 @@ public class DirectedGraphNode implements UnderlayNode {
 		return child;
 	}
 
+	/**
+	 * Gets the id of this node within its underlay, which menus resumed
+	 * from a snapshot use to find it again.
+	 * 
+	 * @return	This node's id. <code>null</code> if it has none.
+	 * 
+	 * @see DirectedGraphUnderlay#setNodeId(DirectedGraphNode, String)
+	 */
+	public final String getId() {
+		return this.id;
+	}
+	
+	/**
+	 * Gets the integer index of this node within its underlay. Nodes are
+	 * numbered from <code>0</code>, starting with the underlay's start 
+	 * node, in the order they are created. Unlike the id, the index is not
+	 * the same across restarts.
+	 * 
+	 * @return	This node's index.
+	 * 
+	 * @see DirectedGraphUnderlay#getNode(int)
+	 */
+	public final int getIndex() {
+		return this.index;
+	}
+	
 	/**
 	 * Gets the menu underlay of this node.
 	 * 
@@ -282,17 +283,37 @@ public class DirectedGraphNode implements UnderlayNode {
 	
 	
 	//--------
-	//PRIVATE
+	//DEFAULT
 	//--------
 	
 	/**
-	 * Private helper method that updates the menu stage contained in this
-	 * node. Should be called whenever the elements of the node are edited.
+	 * Sets the id of this node. Only to be done by its underlay, which 
+	 * keeps the ids unique.
+	 * 
+	 * @param id	The new id, <code>null</code> for none.
+	 */
+	final void setId(String id) {
+		this.id = id;
+	}
+	
+	/**
+	 * Gets the current state of this node.
+	 * 
+	 * @return	The node's state.
+	 */
+	final NodeState getState() {
+		return state;
+	}
+	
+	/**
+	 * Replaces the state of this node. Only to be done by its underlay 
+	 * while holding its lock.
+	 * 
+	 * @param state	The new state.
 	 */
-	private void updateStage() {
-		List<MenuOption> options = new ArrayList<MenuOption>(optQueue);
-		this.stage = new MenuStage(title, options);
+	final void setState(NodeState state) {
+		this.state = state;
 	}
 
 
-}
+}
\ No newline at end of file
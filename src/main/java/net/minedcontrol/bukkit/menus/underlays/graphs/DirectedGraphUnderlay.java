@@ -1,13 +1,22 @@
 package net.minedcontrol.bukkit.menus.underlays.graphs;
 
 
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.ConcurrentModificationException;
 import java.util.HashSet;
+import java.util.Map;
 import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
 
 import net.minedcontrol.bukkit.menus.Menus;
 import net.minedcontrol.bukkit.menus.basis.Menu;
 import net.minedcontrol.bukkit.menus.basis.MenuElement;
-import net.minedcontrol.bukkit.menus.basis.MenuUnderlay;
+import net.minedcontrol.bukkit.menus.basis.MenuOption;
+import net.minedcontrol.bukkit.menus.basis.PathLimitedUnderlay;
+import net.minedcontrol.bukkit.menus.basis.ResumableUnderlay;
+import net.minedcontrol.bukkit.menus.basis.UnderlayNode;
 
 /**
  * A wrapper and manager for a set of underlay nodes organized into a
@@ -17,6 +26,19 @@ import net.minedcontrol.bukkit.menus.basis.MenuUnderlay;
  * Also serves as a collection of the menus currently traversing this
  * underlay.
  * <p>
+ * Nodes that are given ids can be resumed at by menus restored from a 
+ * snapshot.
+ * <p>
+ * Every node created for this graph is given a dense integer index and
+ * kept by it, whether or not it is connected, so that nodes can be looked
+ * up by index.
+ * <p>
+ * Once built, a graph should be compiled with {@link #compile()}, after 
+ * which its nodes answer menus from the compiled form rather than from 
+ * their own states. Edits to a compiled graph replace its compiled form
+ * on the editing thread, so a batch of edits made through {@link #edit()} 
+ * is seen by menus all at once.
+ * <p>
  * Date Created: Jan 20, 2014
  * 
  * @author Brutus
@@ -24,14 +46,34 @@ import net.minedcontrol.bukkit.menus.basis.MenuUnderlay;
  * @see DirectedGraphNode
  */
 
-public class DirectedGraphUnderlay implements MenuUnderlay {
+public class DirectedGraphUnderlay implements PathLimitedUnderlay, 
+		ResumableUnderlay {
+	
+	//the initial length of the array of nodes by index
+	private static final int INITIAL_NODE_CAPACITY = 16;
 	
 	private final String id;
 	// The starting point of the underlay. User-defined, not inherent
 	// in a directed graph.
 	private final DirectedGraphNode start; 
 	
-	private Set<Menu> menus;
+	private final Set<Menu> menus;
+	
+	//how many choices menus over this graph remember, 0 for the default
+	private int pathCapacity;
+	
+	//the nodes of this graph that have ids, keyed by their id
+	private final ConcurrentMap<String, DirectedGraphNode> namedNodes;
+	
+	//every node created for this graph, by index. Written while 
+	// synchronized and republished after each write, so it can be read
+	// without locking.
+	private volatile DirectedGraphNode[] nodes;
+	private int nodeCount;
+	
+	//the immutable form of the graph. null until it is first compiled, then
+	// replaced by each edit.
+	private volatile CompiledGraph compiled;
 	
 	/**
 	 * Class constructor. Creates a new directed graph menu underlay, 
@@ -55,8 +97,10 @@ public class DirectedGraphUnderlay implements MenuUnderlay {
 			throw new IllegalArgumentException("id cannot be empty");
 		
 		this.id = underlayId;
+		this.namedNodes = new ConcurrentHashMap<String, DirectedGraphNode>();
+		this.nodes = new DirectedGraphNode[INITIAL_NODE_CAPACITY];
 		this.start = new DirectedGraphNode(this, headNodeTitle);
-		this.menus = new HashSet<Menu>();
+		this.menus = Collections.newSetFromMap(new ConcurrentHashMap<Menu, Boolean>());
 		
 		Menus.getManager().addUnderlay(this);
 	}
@@ -85,9 +129,367 @@ public class DirectedGraphUnderlay implements MenuUnderlay {
 		return menus.remove(menu);
 	}
 
+	/**
+	 * Gets the number of menus currently traversing this underlay, without
+	 * copying them.
+	 * 
+	 * @return	The number of menus.
+	 */
+	public final int numMenus() {
+		return menus.size();
+	}
+
 	@Override
 	public final String getId() {
 		return this.id;
 	}
+	
+	@Override
+	public final int getPathCapacity() {
+		return this.pathCapacity;
+	}
+	
+	@Override
+	public final String getNodeId(UnderlayNode node) {
+		if(!(node instanceof DirectedGraphNode))
+			return null;
+		
+		DirectedGraphNode graphNode = (DirectedGraphNode) node;
+		if(graphNode.getUnderlay() != this)
+			return null;
+		
+		return graphNode.getId();
+	}
+	
+	@Override
+	public final DirectedGraphNode getNode(String id) {
+		if(id == null)
+			return null;
+		
+		return namedNodes.get(id);
+	}
+	
+	/**
+	 * Gets a node of this graph by its integer index.
+	 * 
+	 * @param index	The index of the node.
+	 * @return		The node. <code>null</code> if no node of this graph has
+	 * 				the index.
+	 * 
+	 * @see DirectedGraphNode#getIndex()
+	 */
+	public final DirectedGraphNode getNode(int index) {
+		DirectedGraphNode[] byIndex = nodes;
+		if(index < 0 || index >= byIndex.length)
+			return null;
+		
+		return byIndex[index];
+	}
+	
+	/**
+	 * Compiles this graph into an immutable, compact form, which its nodes
+	 * answer menus from from then on. Should be done once the graph has 
+	 * been built. 
+	 * <p>
+	 * Batches of edits committed afterwards compile it again at once. 
+	 * Edits to a single node only replace that node's options in a copy
+	 * of the compiled form, so that a run of single edits does not compile
+	 * the graph for each of them. Either is done by the editing thread, 
+	 * never by the menus reading the graph.
+	 * 
+	 * @return	The compiled graph.
+	 */
+	public final synchronized CompiledGraph compile() {
+		return compiled = new CompiledGraph(this, nodes, nodeCount);
+	}
+	
+	/**
+	 * Starts a batch of edits to the nodes of this graph, which menus only
+	 * see once it is committed. Committing throws a
+	 * <code>ConcurrentModificationException</code> if any node it changes
+	 * was changed by another edit since, so that it never overwrites it.
+	 * 
+	 * @return	A new edit.
+	 * 
+	 * @see GraphEdit#commit()
+	 */
+	public final GraphEdit edit() {
+		return new GraphEdit(this);
+	}
+	
+	/**
+	 * Gets the compiled form of this graph, if it has been compiled. It is
+	 * kept up to date with edits, so reading it never compiles anything.
+	 * 
+	 * @return	The compiled graph. <code>null</code> if the graph has 
+	 * 			never been compiled.
+	 * 
+	 * @see #compile()
+	 */
+	public final CompiledGraph getCompiled() {
+		return compiled;
+	}
+	
+	/**
+	 * Gets the number of nodes that have been created for this graph, 
+	 * which is one more than the highest node index.
+	 * 
+	 * @return	The number of nodes.
+	 */
+	public final synchronized int numNodes() {
+		return nodeCount;
+	}
+	
+	/**
+	 * Gives a node of this graph an id, replacing any id it had. Menus 
+	 * resumed from a snapshot find the node they were at by its id, so 
+	 * ids should stay the same across restarts.
+	 * 
+	 * @param node	The node. Must be part of this graph.
+	 * @param id	The id, unique within this graph. <code>null</code> or
+	 * 				empty to remove the node's id.
+	 * @return		<code>true</code> if the id was set. <code>false</code>
+	 * 				if another node of this graph already has the id.
+	 * 
+	 * @throws IllegalArgumentException	if the node is <code>null</code> or
+	 * 									not part of this graph.
+	 */
+	public final synchronized boolean setNodeId(DirectedGraphNode node, 
+			String id) throws IllegalArgumentException {
+		
+		if(node == null || node.getUnderlay() != this)
+			throw new IllegalArgumentException("the node must be part of this graph");
+		
+		if(id != null && id.equals(""))
+			id = null;
+		
+		if(id != null) {
+			DirectedGraphNode existing = namedNodes.get(id);
+			if(existing == node)
+				return true;
+			if(existing != null)
+				return false;
+		}
+		
+		if(node.getId() != null)
+			namedNodes.remove(node.getId());
+		
+		if(id != null)
+			namedNodes.put(id, node);
+		
+		node.setId(id);
+		return true;
+	}
+	
+	/**
+	 * Sets how many past choices menus traversing this graph remember. 
+	 * Only affects menus created afterwards.
+	 * 
+	 * @param capacity	The number of choices. <code>0</code> or less to
+	 * 					use the default.
+	 */
+	public final void setPathCapacity(int capacity) {
+		this.pathCapacity = Math.max(capacity, 0);
+	}
+	
+	
+	//--------
+	//DEFAULT
+	//--------
+	
+	/**
+	 * Compiles this graph as it is now without keeping the result, so 
+	 * that its nodes go on answering menus the way they were. Used to 
+	 * inspect a graph that has not been compiled.
+	 * 
+	 * @return	A compiled copy of the graph.
+	 */
+	final synchronized CompiledGraph compileCopy() {
+		return new CompiledGraph(this, nodes, nodeCount);
+	}
+	
+	/**
+	 * Adds a newly created node to this graph, giving it the next index.
+	 * Done by the node when it is constructed.
+	 * 
+	 * @param node	The node.
+	 * @return		The node's index.
+	 */
+	final synchronized int addNode(DirectedGraphNode node) {
+		DirectedGraphNode[] byIndex = nodes;
+		int index = nodeCount++;
+		
+		if(index >= byIndex.length)
+			byIndex = Arrays.copyOf(byIndex, byIndex.length * 2);
+		
+		//the compiled graph stays valid, as a new node has no parents
+		// yet. It answers for itself until the graph is compiled again.
+		byIndex[index] = node;
+		nodes = byIndex;
+		return index;
+	}
+	
+	/**
+	 * Adds a child to a node from its current state. Done by the node.
+	 * 
+	 * @param node		The node.
+	 * @param selection	The option. Not <code>null</code>.
+	 * @param result	The node the option leads to. <code>null</code> for
+	 * 					a leaf.
+	 * 
+	 * @throws NullPointerException		if the option is <code>null</code>.
+	 * @throws IllegalArgumentException	if either node is not part of this
+	 * 									underlay.
+	 * 
+	 * @see DirectedGraphNode#addChild(MenuOption, DirectedGraphNode)
+	 */
+	final synchronized void addChild(DirectedGraphNode node, 
+			MenuOption selection, DirectedGraphNode result)
+			throws NullPointerException, IllegalArgumentException {
+		
+		checkChange(node, selection, result);
+		
+		NodeState.Builder builder = node.getState().toBuilder();
+		builder.add(selection, result);
+		publish(node, builder);
+	}
+	
+	/**
+	 * Sets the child of an option of a node from its current state. Done
+	 * by the node.
+	 * 
+	 * @param node		The node.
+	 * @param option	The option. Not <code>null</code>.
+	 * @param result	The node the option leads to. <code>null</code> for
+	 * 					a leaf.
+	 * 
+	 * @throws NullPointerException		if the option is <code>null</code>.
+	 * @throws IllegalArgumentException	if either node is not part of this
+	 * 									underlay.
+	 * 
+	 * @see DirectedGraphNode#setChild(MenuOption, DirectedGraphNode)
+	 */
+	final synchronized void setChild(DirectedGraphNode node, 
+			MenuOption option, DirectedGraphNode result)
+			throws NullPointerException, IllegalArgumentException {
+		
+		checkChange(node, option, result);
+		
+		NodeState.Builder builder = node.getState().toBuilder();
+		builder.set(option, result);
+		publish(node, builder);
+	}
+	
+	/**
+	 * Removes an option from a node from its current state. Done by the 
+	 * node.
+	 * 
+	 * @param node		The node.
+	 * @param option	The option. Not <code>null</code>.
+	 * @return			<code>true</code> if the node had the option.
+	 * 
+	 * @see DirectedGraphNode#removeOption(MenuOption)
+	 */
+	final synchronized boolean removeOption(DirectedGraphNode node, 
+			MenuOption option) {
+		
+		NodeState.Builder builder = node.getState().toBuilder();
+		if(!builder.remove(option))
+			return false;
+		
+		publish(node, builder);
+		return true;
+	}
+	
+	/**
+	 * Checks that a change to a node joins nodes of this underlay.
+	 * 
+	 * @param node		The node changed.
+	 * @param option	The option changed.
+	 * @param result	The option's new child, if any.
+	 * 
+	 * @throws NullPointerException		if the option is <code>null</code>.
+	 * @throws IllegalArgumentException	if either node is not part of this
+	 * 									underlay.
+	 */
+	final void checkChange(DirectedGraphNode node, MenuOption option, 
+			DirectedGraphNode result) throws NullPointerException, 
+			IllegalArgumentException {
+		
+		if(option == null)
+			throw new NullPointerException("option cannot be null");
+		
+		if(node == null || node.getUnderlay() != this
+				|| (result != null && result.getUnderlay() != this))
+			throw new IllegalArgumentException("nodes need to be part of"
+					+ " the same underlay to become parent and child");
+	}
+	
+	/**
+	 * Publishes the new states of the nodes changed by an edit, then 
+	 * compiles the graph again if it has been compiled. Done by the edit.
+	 * 
+	 * @param changes	The builders of the new states, by node.
+	 * 
+	 * @throws ConcurrentModificationException	if any of the nodes was 
+	 * 											changed since the edit 
+	 * 											began.
+	 */
+	final synchronized void commit(Map<DirectedGraphNode, 
+			NodeState.Builder> changes) throws ConcurrentModificationException {
+		
+		//checks every node before changing any, so a failed edit changes
+		// nothing
+		for(Map.Entry<DirectedGraphNode, NodeState.Builder> change 
+				: changes.entrySet()) {
+			
+			if(change.getKey().getState() != change.getValue().getBase())
+				throw new ConcurrentModificationException("a node was "
+						+ "changed by another edit");
+		}
+		
+		for(Map.Entry<DirectedGraphNode, NodeState.Builder> change 
+				: changes.entrySet()) {
+			
+			change.getKey().setState(change.getValue().build());
+		}
+		
+		//menus answered by the compiled graph only see the edit once the
+		// new one replaces it, and then see all of it
+		if(compiled != null)
+			compiled = new CompiledGraph(this, nodes, nodeCount);
+	}
+	
+	
+	//--------
+	//PRIVATE
+	//--------
+	
+	/**
+	 * Publishes the new state of a single node. Must be called while 
+	 * synchronized.
+	 * <p>
+	 * If the graph has been compiled, only the node's options are replaced
+	 * in a copy of the compiled form, unless nodes have been created since
+	 * it was compiled, which the edit may lead to. Only the one node 
+	 * changes, so menus see it either before or after the edit, as they do
+	 * when it answers for itself.
+	 * 
+	 * @param node		The node.
+	 * @param builder	The builder of its new state.
+	 */
+	private void publish(DirectedGraphNode node, NodeState.Builder builder) {
+		NodeState state = builder.build();
+		node.setState(state);
+		
+		CompiledGraph current = compiled;
+		if(current == null)
+			return;
+		
+		if(current.numNodes() == nodeCount)
+			compiled = current.withState(node.getIndex(), state);
+		else
+			compiled = new CompiledGraph(this, nodes, nodeCount);
+	}
 
 }
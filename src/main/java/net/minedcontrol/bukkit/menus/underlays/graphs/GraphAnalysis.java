@@ -0,0 +1,448 @@
+package net.minedcontrol.bukkit.menus.underlays.graphs;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+
+/**
+ * An analysis of the shape of a compiled directed graph: which nodes can
+ * be reached from the start, or from another node such as the start of a
+ * view, how many choices away they are, which nodes form cycles, and
+ * which nodes a menu can never finish from.
+ * <p>
+ * A menu that reaches a node it can never finish from is trapped: it
+ * either stops at a node without options, a dead end, or goes around a
+ * cycle without a way out forever, and is kept until its player leaves.
+ * A sound graph has no such nodes reachable from its start.
+ * <p>
+ * Takes time linear in the size of the graph. Cycles are found as the
+ * strongly connected components of the graph, with an iterative form of
+ * Tarjan's algorithm so that deep graphs do not overflow the stack.
+ * Immutable.
+ * <p>
+ * Date Created: Oct 17, 2026
+ *
+ * @see CompiledGraph#analyze()
+ */
+public final class GraphAnalysis {
+
+	private static final int[] NONE = new int[0];
+
+	private final CompiledGraph graph;
+	private final int start;
+
+	//by node index. -1 for nodes that cannot be reached.
+	private final int[] depths;
+	//key: a depth. value: the number of reachable nodes at it.
+	private final int[] depthHistogram;
+	private final int reachable;
+
+	//by node index, the strongly connected component of each node
+	private final int[] components;
+	private final int numComponents;
+	//by component, whether a menu in it can still finish
+	private final boolean[] finishable;
+
+	//the components that are cycles, as the indices of their nodes
+	private final List<int[]> cycles;
+
+	private final int[] unreachable;
+	private final int[] deadEnds;
+	private final int[] trapped;
+
+
+	/**
+	 * Class constructor. Analyzes a compiled graph from its start.
+	 *
+	 * @param graph	The graph to analyze. Not <code>null</code>.
+	 *
+	 * @throws IllegalArgumentException	on a <code>null</code> graph.
+	 */
+	public GraphAnalysis(CompiledGraph graph) throws IllegalArgumentException {
+		this(graph, graph != null 
+				? graph.getUnderlay().getStart(null).getIndex() : 0);
+	}
+
+	/**
+	 * Class constructor. Analyzes a compiled graph from any of its nodes,
+	 * such as the start of a view of it.
+	 *
+	 * @param graph	The graph to analyze. Not <code>null</code>.
+	 * @param start	The index of the node to analyze the graph from.
+	 *
+	 * @throws IllegalArgumentException	on a <code>null</code> graph, or a
+	 * 									start that is not one of its nodes.
+	 *
+	 * @see GraphView#analyze()
+	 */
+	public GraphAnalysis(CompiledGraph graph, int start)
+			throws IllegalArgumentException {
+
+		if(graph == null)
+			throw new IllegalArgumentException("graph cannot be null");
+
+		if(start < 0 || start >= graph.numNodes())
+			throw new IllegalArgumentException("the start must be a node of the graph");
+
+		this.graph = graph;
+		this.start = start;
+
+		int count = graph.numNodes();
+
+		//--reachability and depths, breadth first from the start--
+		this.depths = new int[count];
+		Arrays.fill(depths, -1);
+
+		int[] queue = new int[count];
+		int head = 0, tail = 0;
+		int maxDepth = 0;
+		depths[start] = 0;
+		queue[tail++] = start;
+
+		while(head < tail) {
+			int node = queue[head++];
+			for(int slot = 0, n = graph.numOptions(node); slot < n; slot++) {
+				int target = graph.getTarget(node, slot);
+				if(target == CompiledGraph.LEAF || depths[target] >= 0)
+					continue;
+
+				depths[target] = depths[node] + 1;
+				maxDepth = Math.max(maxDepth, depths[target]);
+				queue[tail++] = target;
+			}
+		}
+
+		this.reachable = tail;
+		this.depthHistogram = new int[tail > 0 ? maxDepth + 1 : 0];
+		for(int i = 0; i < tail; i++) {
+			depthHistogram[depths[queue[i]]]++;
+		}
+
+		//--strongly connected components--
+		this.components = new int[count];
+		//the nodes grouped by component, in the order the components are
+		// found, which puts every component after those it leads to
+		int[] order = new int[count];
+		int[] componentStarts = new int[count + 1];
+		this.numComponents = findComponents(order, componentStarts);
+
+		//--which components can still finish, and which are cycles--
+		this.finishable = new boolean[numComponents];
+		List<int[]> cycleList = new ArrayList<int[]>();
+
+		for(int c = 0; c < numComponents; c++) {
+			boolean cycle = componentStarts[c + 1] - componentStarts[c] > 1;
+
+			for(int i = componentStarts[c]; i < componentStarts[c + 1]; i++) {
+				int node = order[i];
+
+				for(int slot = 0, n = graph.numOptions(node); slot < n; slot++) {
+					int target = graph.getTarget(node, slot);
+
+					//components that are led to were found earlier, so
+					// whether they can finish is already known
+					if(target == CompiledGraph.LEAF
+							|| (components[target] != c && finishable[components[target]]))
+						finishable[c] = true;
+					else if(target == node)
+						cycle = true;
+				}
+			}
+
+			if(cycle) {
+				cycleList.add(Arrays.copyOfRange(order, componentStarts[c],
+						componentStarts[c + 1]));
+			}
+		}
+
+		this.cycles = Collections.unmodifiableList(cycleList);
+
+		//--the nodes to report--
+		int[] unreachableNodes = new int[count - reachable];
+		int[] deadEndNodes = new int[count];
+		int[] trappedNodes = new int[count];
+		int u = 0, d = 0, t = 0;
+
+		for(int node = 0; node < count; node++) {
+			if(depths[node] < 0) {
+				unreachableNodes[u++] = node;
+				continue;
+			}
+
+			if(graph.numOptions(node) == 0)
+				deadEndNodes[d++] = node;
+
+			if(!finishable[components[node]])
+				trappedNodes[t++] = node;
+		}
+
+		this.unreachable = unreachableNodes;
+		this.deadEnds = d > 0 ? Arrays.copyOf(deadEndNodes, d) : NONE;
+		this.trapped = t > 0 ? Arrays.copyOf(trappedNodes, t) : NONE;
+	}
+
+
+	//--------
+	//PUBLIC
+	//--------
+
+	/**
+	 * Gets the graph that was analyzed.
+	 *
+	 * @return	The compiled graph.
+	 */
+	public CompiledGraph getGraph() {
+		return graph;
+	}
+
+	/**
+	 * Gets the node the graph was analyzed from.
+	 *
+	 * @return	The index of the start node.
+	 */
+	public int getStart() {
+		return start;
+	}
+
+	/**
+	 * Gets whether no menu starting at the start of the graph can ever be
+	 * trapped in it.
+	 *
+	 * @return	<code>true</code> if every reachable node can still finish.
+	 */
+	public boolean isSound() {
+		return trapped.length == 0;
+	}
+
+	/**
+	 * Gets the number of nodes that can be reached from the start,
+	 * including the start.
+	 *
+	 * @return	The number of reachable nodes.
+	 */
+	public int numReachable() {
+		return reachable;
+	}
+
+	/**
+	 * Gets whether a node can be reached from the start.
+	 *
+	 * @param node	The index of the node.
+	 * @return		<code>true</code> if it can be reached.
+	 *
+	 * @throws IndexOutOfBoundsException	if no node has the index.
+	 */
+	public boolean isReachable(int node) throws IndexOutOfBoundsException {
+		return depths[node] >= 0;
+	}
+
+	/**
+	 * Gets the fewest choices it takes to reach a node from the start.
+	 *
+	 * @param node	The index of the node.
+	 * @return		The node's depth, <code>0</code> for the start.
+	 * 				<code>-1</code> if it cannot be reached.
+	 *
+	 * @throws IndexOutOfBoundsException	if no node has the index.
+	 */
+	public int getDepth(int node) throws IndexOutOfBoundsException {
+		return depths[node];
+	}
+
+	/**
+	 * Gets the deepest any reachable node is.
+	 *
+	 * @return	The greatest depth.
+	 */
+	public int getMaxDepth() {
+		return depthHistogram.length - 1;
+	}
+
+	/**
+	 * Gets how many reachable nodes are at each depth.
+	 *
+	 * @return	A copy of the counts, indexed by depth.
+	 */
+	public int[] getDepthHistogram() {
+		return depthHistogram.clone();
+	}
+
+	/**
+	 * Gets the strongly connected component a node is part of. Nodes that
+	 * can each be reached from the other are in the same component.
+	 *
+	 * @param node	The index of the node.
+	 * @return		The index of the node's component.
+	 *
+	 * @throws IndexOutOfBoundsException	if no node has the index.
+	 */
+	public int getComponent(int node) throws IndexOutOfBoundsException {
+		return components[node];
+	}
+
+	/**
+	 * Gets the number of strongly connected components of the graph.
+	 *
+	 * @return	The number of components.
+	 */
+	public int numComponents() {
+		return numComponents;
+	}
+
+	/**
+	 * Gets the cycles of the graph, as the components with more than one
+	 * node or with a node that leads back to itself. Includes cycles that
+	 * cannot be reached.
+	 *
+	 * @return	An unmodifiable list of the node indices of each cycle.
+	 */
+	public List<int[]> getCycles() {
+		return cycles;
+	}
+
+	/**
+	 * Gets whether a menu at a node can still finish.
+	 *
+	 * @param node	The index of the node.
+	 * @return		<code>true</code> if some path from the node ends the
+	 * 				graph.
+	 *
+	 * @throws IndexOutOfBoundsException	if no node has the index.
+	 */
+	public boolean canFinish(int node) throws IndexOutOfBoundsException {
+		return finishable[components[node]];
+	}
+
+	/**
+	 * Gets the nodes that cannot be reached from the start.
+	 *
+	 * @return	A copy of the node indices.
+	 */
+	public int[] getUnreachable() {
+		return unreachable.clone();
+	}
+
+	/**
+	 * Gets the reachable nodes without any options, at which menus stop
+	 * without finishing.
+	 *
+	 * @return	A copy of the node indices.
+	 */
+	public int[] getDeadEnds() {
+		return deadEnds.clone();
+	}
+
+	/**
+	 * Gets the reachable nodes that a menu can never finish from.
+	 *
+	 * @return	A copy of the node indices.
+	 */
+	public int[] getTrapped() {
+		return trapped.clone();
+	}
+
+	@Override
+	public String toString() {
+		return graph.getUnderlay().getId() + ": " + graph.numNodes() + " nodes, "
+				+ reachable + " reachable, " + graph.numOptions() + " options, "
+				+ cycles.size() + " cycles, max depth " + getMaxDepth() + ", "
+				+ deadEnds.length + " dead ends, " + trapped.length + " trapped";
+	}
+
+
+	//--------
+	//PRIVATE
+	//--------
+
+	/**
+	 * Finds the strongly connected components of the graph with Tarjan's
+	 * algorithm, keeping its own stack of the nodes being searched rather
+	 * than recursing.
+	 *
+	 * @param order				Filled with the nodes grouped by component,
+	 * 							in the order the components are found.
+	 * @param componentStarts	Filled with where each component starts in
+	 * 							the order, with one more entry at the end.
+	 * @return					The number of components.
+	 */
+	private int findComponents(int[] order, int[] componentStarts) {
+		int count = graph.numNodes();
+
+		int[] index = new int[count];
+		int[] low = new int[count];
+		boolean[] onStack = new boolean[count];
+		Arrays.fill(index, -1);
+
+		//the nodes not yet assigned a component
+		int[] stack = new int[count];
+		int stackSize = 0;
+
+		//the nodes being searched, and the next option of each to follow
+		int[] calls = new int[count];
+		int[] slots = new int[count];
+		int depth = 0;
+
+		int counter = 0, found = 0, ordered = 0;
+
+		for(int root = 0; root < count; root++) {
+			if(index[root] >= 0)
+				continue;
+
+			index[root] = low[root] = counter++;
+			stack[stackSize++] = root;
+			onStack[root] = true;
+			calls[0] = root;
+			slots[0] = 0;
+			depth = 1;
+
+			while(depth > 0) {
+				int node = calls[depth - 1];
+
+				if(slots[depth - 1] < graph.numOptions(node)) {
+					int target = graph.getTarget(node, slots[depth - 1]++);
+					if(target == CompiledGraph.LEAF)
+						continue;
+
+					if(index[target] < 0) {
+						index[target] = low[target] = counter++;
+						stack[stackSize++] = target;
+						onStack[target] = true;
+						calls[depth] = target;
+						slots[depth] = 0;
+						depth++;
+					}
+					else if(onStack[target]) {
+						low[node] = Math.min(low[node], index[target]);
+					}
+					continue;
+				}
+
+				//every option followed, so the node is done
+				if(low[node] == index[node]) {
+					componentStarts[found] = ordered;
+
+					int member;
+					do {
+						member = stack[--stackSize];
+						onStack[member] = false;
+						components[member] = found;
+						order[ordered++] = member;
+					} while(member != node);
+
+					found++;
+				}
+
+				depth--;
+				if(depth > 0) {
+					int parent = calls[depth - 1];
+					low[parent] = Math.min(low[parent], low[node]);
+				}
+			}
+		}
+
+		componentStarts[found] = ordered;
+		return found;
+	}
+
+}
@@ -0,0 +1,180 @@
+package net.minedcontrol.bukkit.menus.underlays.graphs;
+
+import java.util.ConcurrentModificationException;
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+import net.minedcontrol.bukkit.menus.basis.MenuOption;
+
+/**
+ * A batch of changes to the nodes of a directed graph underlay, which
+ * menus only see once it is committed.
+ * <p>
+ * Committing publishes the new state of every changed node at once and,
+ * if the graph has been compiled, compiles it again a single time. Menus
+ * answered by the compiled graph see either none or all of the batch;
+ * each node on its own is always seen either before or after it.
+ * <p>
+ * Made by {@link DirectedGraphUnderlay#edit()}. Not thread-safe, and can
+ * only be committed once.
+ * <p>
+ * Date Created: Oct 17, 2026
+ *
+ * @see DirectedGraphNode
+ */
+public final class GraphEdit {
+
+	private final DirectedGraphUnderlay underlay;
+
+	//the changed nodes, in the order they were first changed
+	private final Map<DirectedGraphNode, NodeState.Builder> changes;
+
+	private boolean committed;
+
+
+	/**
+	 * Class constructor.
+	 *
+	 * @param underlay	The underlay to edit.
+	 */
+	GraphEdit(DirectedGraphUnderlay underlay) {
+		this.underlay = underlay;
+		this.changes = new LinkedHashMap<DirectedGraphNode, NodeState.Builder>();
+	}
+
+
+	//--------
+	//PUBLIC
+	//--------
+
+	/**
+	 * Adds a child to a node along with the option that leads to it, as
+	 * {@link DirectedGraphNode#addChild(MenuOption, DirectedGraphNode)}
+	 * does.
+	 *
+	 * @param node		The node to add the option to. Not
+	 * 					<code>null</code>.
+	 * @param selection	The option. Not <code>null</code>.
+	 * @param result	The node the option leads to. <code>null</code> for
+	 * 					a leaf.
+	 * @return			This edit.
+	 *
+	 * @throws NullPointerException		if the option is <code>null</code>.
+	 * @throws IllegalArgumentException	if either node is not part of the
+	 * 									edited underlay.
+	 * @throws IllegalStateException	if this edit has been committed.
+	 */
+	public GraphEdit addChild(DirectedGraphNode node, MenuOption selection,
+			DirectedGraphNode result) throws NullPointerException,
+			IllegalArgumentException, IllegalStateException {
+
+		getBuilder(node, selection, result).add(selection, result);
+		return this;
+	}
+
+	/**
+	 * Sets the child of an option of a node, keeping its place among the
+	 * node's options, as
+	 * {@link DirectedGraphNode#setChild(MenuOption, DirectedGraphNode)}
+	 * does.
+	 *
+	 * @param node		The node the option is part of. Not
+	 * 					<code>null</code>.
+	 * @param option	The option. Not <code>null</code>.
+	 * @param result	The node the option leads to. <code>null</code> for
+	 * 					a leaf.
+	 * @return			This edit.
+	 *
+	 * @throws NullPointerException		if the option is <code>null</code>.
+	 * @throws IllegalArgumentException	if either node is not part of the
+	 * 									edited underlay.
+	 * @throws IllegalStateException	if this edit has been committed.
+	 */
+	public GraphEdit setChild(DirectedGraphNode node, MenuOption option,
+			DirectedGraphNode result) throws NullPointerException,
+			IllegalArgumentException, IllegalStateException {
+
+		getBuilder(node, option, result).set(option, result);
+		return this;
+	}
+
+	/**
+	 * Removes an option from a node, along with the child it led to.
+	 *
+	 * @param node		The node. Not <code>null</code>.
+	 * @param option	The option to remove.
+	 * @return			<code>true</code> if the node had the option.
+	 *
+	 * @throws IllegalArgumentException	if the node is not part of the
+	 * 									edited underlay.
+	 * @throws IllegalStateException	if this edit has been committed.
+	 */
+	public boolean removeOption(DirectedGraphNode node, MenuOption option)
+			throws IllegalArgumentException, IllegalStateException {
+
+		if(option == null)
+			return false;
+
+		return getBuilder(node, option, null).remove(option);
+	}
+
+	/**
+	 * Publishes every change of this edit to the graph.
+	 *
+	 * @throws ConcurrentModificationException	if a node this edit changes
+	 * 											was changed by another edit
+	 * 											since. None of this edit's
+	 * 											changes are published.
+	 * @throws IllegalStateException			if this edit has already
+	 * 											been committed.
+	 */
+	public void commit() throws ConcurrentModificationException,
+			IllegalStateException {
+
+		checkOpen();
+		committed = true;
+
+		if(changes.isEmpty())
+			return;
+
+		underlay.commit(changes);
+	}
+
+
+	//--------
+	//PRIVATE
+	//--------
+
+	/**
+	 * Checks a change to a node and gets the builder of its new state,
+	 * starting one from its current state if it has not been changed yet.
+	 *
+	 * @param node		The node.
+	 * @param option	The option changed.
+	 * @param result	The option's new child, if any.
+	 * @return			The builder of the node's new state.
+	 */
+	private NodeState.Builder getBuilder(DirectedGraphNode node,
+			MenuOption option, DirectedGraphNode result) {
+
+		checkOpen();
+		underlay.checkChange(node, option, result);
+
+		NodeState.Builder builder = changes.get(node);
+		if(builder == null)
+			changes.put(node, builder = node.getState().toBuilder());
+
+		return builder;
+	}
+
+	/**
+	 * Checks that this edit has not been committed.
+	 *
+	 * @throws IllegalStateException	if it has.
+	 */
+	private void checkOpen() throws IllegalStateException {
+		if(committed)
+			throw new IllegalStateException("the edit has already been committed");
+	}
+
+}
@@ -0,0 +1,164 @@
+package net.minedcontrol.bukkit.menus.underlays.graphs;
+
+import java.util.Collections;
+import java.util.HashSet;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+
+import net.minedcontrol.bukkit.menus.Menus;
+import net.minedcontrol.bukkit.menus.basis.Menu;
+import net.minedcontrol.bukkit.menus.basis.PathLimitedUnderlay;
+import net.minedcontrol.bukkit.menus.basis.ResumableUnderlay;
+import net.minedcontrol.bukkit.menus.basis.UnderlayNode;
+
+/**
+ * An underlay that starts at any node of a directed graph underlay and
+ * traverses the same nodes as it, without copying any of them. Any number
+ * of views can share a graph, such as dialogues that differ only in where
+ * they begin.
+ * <p>
+ * A view is only an id and a starting node. Edits to the graph are seen
+ * by every view of it, and menus over a view are resumed at the graph's
+ * nodes by their ids, as menus over the graph are.
+ * <p>
+ * Date Created: Oct 17, 2026
+ *
+ * @see DirectedGraphUnderlay
+ */
+public class GraphView implements PathLimitedUnderlay, ResumableUnderlay {
+
+	private final String id;
+	private final DirectedGraphNode start;
+
+	private final Set<Menu> menus;
+
+	//how many choices menus over this view remember, 0 for the graph's
+	private int pathCapacity;
+
+
+	/**
+	 * Class constructor.
+	 *
+	 * @param viewId	The string id of this underlay. Should be unique
+	 * 					within a runtime and is used to access this
+	 * 					underlay from the menu manager singleton.
+	 * @param start		The node of a graph that menus over this view start
+	 * 					at. Not <code>null</code>.
+	 *
+	 * @throws IllegalArgumentException	On a <code>null</code> parameter
+	 * 									or an empty id.
+	 */
+	public GraphView(String viewId, DirectedGraphNode start)
+			throws IllegalArgumentException {
+
+		if(viewId == null || start == null)
+			throw new IllegalArgumentException("params cannot be null");
+
+		if(viewId.equals(""))
+			throw new IllegalArgumentException("id cannot be empty");
+
+		this.id = viewId;
+		this.start = start;
+		this.menus = Collections.newSetFromMap(new ConcurrentHashMap<Menu, Boolean>());
+
+		Menus.getManager().addUnderlay(this);
+	}
+
+
+	//--------
+	//PUBLIC
+	//--------
+
+	/**
+	 * Gets the graph this is a view of.
+	 *
+	 * @return	The graph underlay.
+	 */
+	public final DirectedGraphUnderlay getGraph() {
+		return start.getUnderlay();
+	}
+
+	/**
+	 * Analyzes the graph as seen from this view's start, such as which of
+	 * its nodes menus over this view can reach and be trapped at.
+	 * <p>
+	 * Uses the compiled graph if it is up to date, and otherwise analyzes
+	 * a compiled copy that is thrown away afterwards, so analyzing a graph
+	 * never changes how it answers menus.
+	 *
+	 * @return	The analysis.
+	 */
+	public final GraphAnalysis analyze() {
+		CompiledGraph compiled = getGraph().getCompiled();
+		if(compiled == null || start.getIndex() >= compiled.numNodes())
+			compiled = getGraph().compileCopy();
+
+		return new GraphAnalysis(compiled, start.getIndex());
+	}
+
+	@Override
+	public final DirectedGraphNode getStart(Menu menu) {
+		return start;
+	}
+
+	@Override
+	public final Set<Menu> getMenus() {
+		return new HashSet<Menu>(menus);
+	}
+
+	@SuppressWarnings("deprecation")
+	@Override
+	public final boolean addMenu(Menu menu) {
+		if(!equals(menu.getUnderlay()))
+			return false;
+
+		return menus.add(menu);
+	}
+
+	@Override
+	public final boolean removeMenu(Menu menu) {
+		return menus.remove(menu);
+	}
+
+	/**
+	 * Gets the number of menus currently traversing this underlay, without
+	 * copying them.
+	 *
+	 * @return	The number of menus.
+	 */
+	public final int numMenus() {
+		return menus.size();
+	}
+
+	@Override
+	public final String getId() {
+		return this.id;
+	}
+
+	@Override
+	public final int getPathCapacity() {
+		return pathCapacity > 0 ? pathCapacity : getGraph().getPathCapacity();
+	}
+
+	@Override
+	public final String getNodeId(UnderlayNode node) {
+		return getGraph().getNodeId(node);
+	}
+
+	@Override
+	public final DirectedGraphNode getNode(String id) {
+		return getGraph().getNode(id);
+	}
+
+	/**
+	 * Sets how many past choices menus traversing this view remember.
+	 * Only affects menus created afterwards.
+	 *
+	 * @param capacity	The number of choices. <code>0</code> or less to
+	 * 					use the graph's.
+	 */
+	public final void setPathCapacity(int capacity) {
+		this.pathCapacity = Math.max(capacity, 0);
+	}
+
+}
@@ -0,0 +1,195 @@
+package net.minedcontrol.bukkit.menus.underlays.graphs;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+
+import net.minedcontrol.bukkit.menus.basis.MenuElement;
+import net.minedcontrol.bukkit.menus.basis.MenuOption;
+import net.minedcontrol.bukkit.menus.basis.MenuStage;
+import net.minedcontrol.bukkit.menus.util.IntObjectHashMap;
+
+/**
+ * The options of a directed graph node and what they lead to, at one
+ * point in time. Never changed once made, so a node can hand its current
+ * state to any number of threads; edits make a new state that replaces it.
+ * <p>
+ * Date Created: Oct 17, 2026
+ *
+ * @see DirectedGraphNode
+ * @see GraphEdit
+ */
+final class NodeState {
+
+	//the options in order, as shown to menus
+	private final MenuStage stage;
+
+	//options that lead to a child node, keyed by the option's index.
+	private final IntObjectHashMap<DirectedGraphNode> children;
+	//options that do not lead to another node, that mark an end of the
+	// graph structure, keyed by the option's index.
+	private final IntObjectHashMap<MenuOption> leaves;
+
+
+	/**
+	 * Class constructor for the state of a node without options.
+	 *
+	 * @param title	The title of the node.
+	 */
+	NodeState(MenuElement title) {
+		this(new MenuStage(title, Collections.<MenuOption>emptyList()),
+				new IntObjectHashMap<DirectedGraphNode>(0),
+				new IntObjectHashMap<MenuOption>(0));
+	}
+
+	private NodeState(MenuStage stage, IntObjectHashMap<DirectedGraphNode> children,
+			IntObjectHashMap<MenuOption> leaves) {
+
+		this.stage = stage;
+		this.children = children;
+		this.leaves = leaves;
+	}
+
+
+	//--------
+	//DEFAULT
+	//--------
+
+	/**
+	 * Gets the stage of the node in this state.
+	 *
+	 * @return	The stage.
+	 */
+	MenuStage getStage() {
+		return stage;
+	}
+
+	/**
+	 * Gets the child an option leads to.
+	 *
+	 * @param optionIndex	The index of the option.
+	 * @return				The child. <code>null</code> if the option is a
+	 * 						leaf or not part of the node.
+	 */
+	DirectedGraphNode getChild(int optionIndex) {
+		return children.get(optionIndex);
+	}
+
+	/**
+	 * Gets whether an option is part of the node.
+	 *
+	 * @param optionIndex	The index of the option.
+	 * @return				<code>true</code> if it leads to a child or is a
+	 * 						leaf.
+	 */
+	boolean contains(int optionIndex) {
+		return children.get(optionIndex) != null
+				|| leaves.get(optionIndex) != null;
+	}
+
+	/**
+	 * Creates a builder that starts from this state.
+	 *
+	 * @return	A new builder.
+	 */
+	Builder toBuilder() {
+		return new Builder(this);
+	}
+
+
+	/**
+	 * A changeable copy of a node's state, which makes a new state once
+	 * the edits to it are done. Not thread-safe.
+	 */
+	static final class Builder {
+
+		private final NodeState base;
+		private final MenuElement title;
+
+		private final List<MenuOption> options;
+		private final IntObjectHashMap<DirectedGraphNode> children;
+		private final IntObjectHashMap<MenuOption> leaves;
+
+		private Builder(NodeState base) {
+			this.base = base;
+			this.title = base.stage.getTitle();
+			this.options = new ArrayList<MenuOption>(base.stage.getOptions());
+			this.children = new IntObjectHashMap<DirectedGraphNode>(base.children);
+			this.leaves = new IntObjectHashMap<MenuOption>(base.leaves);
+		}
+
+		/**
+		 * Gets the state this builder started from.
+		 *
+		 * @return	The base state.
+		 */
+		NodeState getBase() {
+			return base;
+		}
+
+		/**
+		 * Adds an option at the end of the options, replacing it if it was
+		 * already there.
+		 *
+		 * @param option	The option.
+		 * @param result	The child it leads to, <code>null</code> for a
+		 * 					leaf.
+		 */
+		void add(MenuOption option, DirectedGraphNode result) {
+			remove(option);
+			options.add(option);
+			put(option, result);
+		}
+
+		/**
+		 * Sets the child of an option, keeping its place among the options,
+		 * or adds it at the end if it was not there.
+		 *
+		 * @param option	The option.
+		 * @param result	The child it leads to, <code>null</code> for a
+		 * 					leaf.
+		 */
+		void set(MenuOption option, DirectedGraphNode result) {
+			int key = option.getIndex();
+			if(children.remove(key) == null && leaves.remove(key) == null) {
+				add(option, result);
+				return;
+			}
+
+			put(option, result);
+		}
+
+		/**
+		 * Removes an option.
+		 *
+		 * @param option	The option.
+		 * @return			<code>true</code> if it was part of the node.
+		 */
+		boolean remove(MenuOption option) {
+			int key = option.getIndex();
+			if(children.remove(key) == null && leaves.remove(key) == null)
+				return false;
+
+			options.remove(option);
+			return true;
+		}
+
+		/**
+		 * Makes the state the edits have led to. The builder must not be
+		 * used afterwards, as the state takes its maps.
+		 *
+		 * @return	The new state.
+		 */
+		NodeState build() {
+			return new NodeState(new MenuStage(title, options), children, leaves);
+		}
+
+		private void put(MenuOption option, DirectedGraphNode result) {
+			if(result == null)
+				leaves.put(option.getIndex(), option);
+			else
+				children.put(option.getIndex(), result);
+		}
+	}
+
+}
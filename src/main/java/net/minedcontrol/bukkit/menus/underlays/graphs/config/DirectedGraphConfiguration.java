@@ -1,7 +1,9 @@
 package net.minedcontrol.bukkit.menus.underlays.graphs.config;
 
+import java.util.ArrayList;
 import java.util.HashMap;
 import java.util.HashSet;
+import java.util.List;
 import java.util.Map;
 import java.util.Set;
 
@@ -14,6 +16,10 @@ import net.minedcontrol.bukkit.menus.basis.MenuElement;
 import net.minedcontrol.bukkit.menus.basis.MenuOption;
 import net.minedcontrol.bukkit.menus.underlays.graphs.DirectedGraphNode;
 import net.minedcontrol.bukkit.menus.underlays.graphs.DirectedGraphUnderlay;
+import net.minedcontrol.bukkit.menus.underlays.graphs.CompiledGraph;
+import net.minedcontrol.bukkit.menus.underlays.graphs.GraphAnalysis;
+import net.minedcontrol.bukkit.menus.underlays.graphs.GraphEdit;
+import net.minedcontrol.bukkit.menus.underlays.graphs.GraphView;
 import net.minedcontrol.zamalib.messaging.messages.framework.MultilingualMessage;
 import net.minedcontrol.zamalib.plugins.config.Configuration;
 import net.minedcontrol.zamalib.plugins.config.YAMLConfigAccessor;
@@ -37,14 +43,25 @@ public class DirectedGraphConfiguration extends Configuration {
 	private static final String FILE_NAME = "directedgraphs.yml";
 	//stores it directly inside the plugin's data folder.
 	private static final String SUBDIRECTORY = "underlays";
+	
+	//the most nodes named in each warning about a graph's shape
+	private static final int MAX_REPORTED_NODES = 10;
 
 	private MenusPlugin plugin;
 
 	//name of the current graph, for use in error messages
 	private String currentGraphId;
+	
+	//the edit the current graph is built through, committed once the
+	// whole graph has been parsed
+	private GraphEdit currentEdit;
 
 	//the graphs loaded from the config
 	private Map<String, DirectedGraphUnderlay> graphs;
+	//the nodes of every graph that were given a 'uniqueid' in the config
+	private Set<DirectedGraphNode> uniqueNodes;
+	//the views of the graphs loaded from the config
+	private Map<String, GraphView> views;
 
 
 	/**
@@ -63,6 +80,8 @@ public class DirectedGraphConfiguration extends Configuration {
 	protected void onLoad() throws IllegalStateException {
 		if(plugin == null) plugin = Menus.getPlugin();
 		this.graphs = new HashMap<String, DirectedGraphUnderlay>();
+		this.views = new HashMap<String, GraphView>();
+		this.uniqueNodes = new HashSet<DirectedGraphNode>();
 
 		FileConfiguration config = getConfig();
 
@@ -84,10 +103,79 @@ public class DirectedGraphConfiguration extends Configuration {
 			DirectedGraphNode graphStart = parseGraph(graphsSec.getConfigurationSection(graphId), 
 					null, null, null);
 
-			if(graphStart != null)
+			if(graphStart != null) {
+				graphStart.getUnderlay().setPathCapacity(
+						graphsSec.getInt(graphId + ".path-capacity", 0));
+				CompiledGraph compiled = graphStart.getUnderlay().compile();
+				logAnalysis(compiled.analyze());
 				graphs.put(graphId, graphStart.getUnderlay());
+			}
 
 		}
+		
+		//the views are optional, and are loaded once every graph they
+		// can be of has been
+		ConfigurationSection viewsSec = config.getConfigurationSection("views");
+		if(viewsSec != null) {
+			for(String viewId : viewsSec.getKeys(false)) {
+				if(viewId == null || viewId.equals("")) continue;
+				
+				parseView(viewId, viewsSec.getConfigurationSection(viewId));
+			}
+		}
+		
+		//only known once the views are, as they can start anywhere
+		for(Map.Entry<String, DirectedGraphUnderlay> graph : graphs.entrySet()) {
+			logUnreachable(graph.getKey(), graph.getValue());
+		}
+	}
+	
+	
+	/**
+	 * Parses a view of a graph, which starts at one of the graph's named 
+	 * nodes.
+	 * 
+	 * @param viewId	The id of the view.
+	 * @param sec		The config section of the view.
+	 * 
+	 * @throws IllegalStateException	if the section is incorrectly 
+	 * 									formatted, or refers to a graph or
+	 * 									node that was not loaded.
+	 */
+	private void parseView(String viewId, ConfigurationSection sec) 
+			throws IllegalStateException {
+		
+		String where = "Error while loading a view in " 
+				+ ((SUBDIRECTORY != null ? "/" + SUBDIRECTORY + "/" : "") + FILE_NAME) 
+				+ " (" + viewId + "): ";
+		
+		if(sec == null)
+			throw new IllegalStateException(where + "the view has no settings");
+		
+		String graphId = sec.getString("graph");
+		DirectedGraphUnderlay graph = graphId != null ? graphs.get(graphId) : null;
+		if(graph == null)
+			throw new IllegalStateException(where + "no graph found with the id " 
+					+ graphId);
+		
+		//starts at the graph's start if no node is named
+		String startId = sec.getString("start");
+		DirectedGraphNode start = startId != null 
+				? graph.getNode(startId) : graph.getStart(null);
+		if(start == null)
+			throw new IllegalStateException(where + "no node found in graph " 
+					+ graphId + " with the id " + startId);
+		
+		GraphView view = new GraphView(viewId, start);
+		view.setPathCapacity(sec.getInt("path-capacity", 0));
+		views.put(viewId, view);
+		
+		GraphAnalysis analysis = view.analyze();
+		String summary = "Loaded view " + viewId + " of graph " + graphId 
+				+ " at " + (startId != null ? startId : "its start") + ": " 
+				+ analysis.numReachable() + " reachable nodes, " 
+				+ analysis.getTrapped().length + " trapped";
+		Zama.debug(plugin, summary, summary);
 	}
 
 
@@ -166,6 +254,7 @@ public class DirectedGraphConfiguration extends Configuration {
 			underlay = new DirectedGraphUnderlay(currentGraphId, title);
 			node = underlay.getStart(null);
 			headNode = true;
+			currentEdit = underlay.edit();
 
 		//else makes this part of the existing underlay
 		} else {
@@ -182,8 +271,15 @@ public class DirectedGraphConfiguration extends Configuration {
 						+ "a duplicated 'uniqueid' field was encountered");
 			
 			namedNodes.put(id, node);
+			uniqueNodes.add(node);
 		}
 		
+		//names the node for resuming menus, by its unique id if it has one
+		// or else by where it is in the file, which only changes if the
+		// file is edited
+		underlay.setNodeId(node, id != null && !id.equals("") 
+				? id : sec.getCurrentPath());
+		
 		
 
 		//--gets the options for the node--
@@ -240,7 +336,7 @@ public class DirectedGraphConfiguration extends Configuration {
 			String reference = optionSec.getString("child.goto");
 			if(reference != null && !reference.equals("")) { // base case 1
 				
-				node.addChild(option, null);
+				currentEdit.addChild(node, option, null);
 				references.add(new ReferenceAttempt(node, option, reference));
 
 				//debug
@@ -262,7 +358,7 @@ public class DirectedGraphConfiguration extends Configuration {
 							+ "encountered a child node in " + currentGraphId);
 					
 					//adds the result of the recursive call to the node as a child.
-					node.addChild(option, child);
+					currentEdit.addChild(node, option, child);
 
 				//else no child is defined, treat the option as a leaf option
 				// that ends the menu dialogue when selected.
@@ -272,7 +368,7 @@ public class DirectedGraphConfiguration extends Configuration {
 					Zama.debug(Menus.getPlugin(), null, "Graph loading: "
 							+ "encountered a leaf node in " + currentGraphId);
 					
-					node.addChild(option, null);
+					currentEdit.addChild(node, option, null);
 
 				}
 			}
@@ -295,10 +391,14 @@ public class DirectedGraphConfiguration extends Configuration {
 							+ " with the id " + attempt.getReferencedId());
 				
 				//makes the reference
-				attempt.getReferencer().setChild(attempt.getOption(), referenced);
+				currentEdit.setChild(attempt.getReferencer(), 
+						attempt.getOption(), referenced);
 					
 			}
 			
+			//publishes the whole graph at once
+			currentEdit.commit();
+			currentEdit = null;
 		}
 		
 		//returns the node after it has been successfully defined and each
@@ -308,6 +408,109 @@ public class DirectedGraphConfiguration extends Configuration {
 	}
 	
 	
+	/**
+	 * Logs the shape of a loaded graph, warning of nodes that menus can be
+	 * trapped at.
+	 * 
+	 * @param analysis	The analysis of the graph.
+	 * 
+	 * @see #logUnreachable(String, DirectedGraphUnderlay)
+	 */
+	private void logAnalysis(GraphAnalysis analysis) {
+		String summary = "Loaded graph " + analysis;
+		Zama.debug(plugin, summary, summary);
+		
+		CompiledGraph graph = analysis.getGraph();
+		
+		int[] deadEnds = analysis.getDeadEnds();
+		if(deadEnds.length > 0) {
+			String message = "Graph " + currentGraphId + ": nodes without "
+					+ "options, where menus stop without finishing: " 
+					+ describeNodes(graph, deadEnds, deadEnds.length);
+			Zama.debug(plugin, message, message);
+		}
+		
+		int[] trapped = analysis.getTrapped();
+		if(trapped.length > deadEnds.length) {
+			String message = "Graph " + currentGraphId + ": nodes from which "
+					+ "menus can never finish: " 
+					+ describeNodes(graph, trapped, trapped.length);
+			Zama.debug(plugin, message, message);
+		}
+	}
+	
+	/**
+	 * Warns of the nodes of a loaded graph that cannot be reached from its
+	 * start or from any view of it.
+	 * <p>
+	 * Only nodes with a 'uniqueid' are reported, as nodes without one are
+	 * defined under their parent and so can only be unreachable along with
+	 * it. 
+	 * 
+	 * @param graphId	The id of the graph.
+	 * @param underlay	The graph.
+	 */
+	private void logUnreachable(String graphId, DirectedGraphUnderlay underlay) {
+		CompiledGraph graph = underlay.getCompiled();
+		int[] unreachable = graph.analyze().getUnreachable();
+		
+		//nodes that views start at, and below, are meant to be reached 
+		// from there instead
+		List<GraphAnalysis> viewAnalyses = new ArrayList<GraphAnalysis>();
+		for(GraphView view : views.values()) {
+			if(view.getGraph() == underlay)
+				viewAnalyses.add(view.analyze());
+		}
+		
+		int reported = 0;
+		for(int i = 0; i < unreachable.length; i++) {
+			if(!uniqueNodes.contains(graph.getNode(unreachable[i])))
+				continue;
+			
+			boolean viewed = false;
+			for(GraphAnalysis viewAnalysis : viewAnalyses) {
+				viewed |= viewAnalysis.isReachable(unreachable[i]);
+			}
+			
+			if(!viewed)
+				unreachable[reported++] = unreachable[i];
+		}
+		
+		if(reported > 0) {
+			String message = "Graph " + graphId + ": nodes that cannot "
+					+ "be reached from the start or any view: " 
+					+ describeNodes(graph, unreachable, reported);
+			Zama.debug(plugin, message, message);
+		}
+	}
+	
+	/**
+	 * Describes some of the nodes of a graph for a log message, by their 
+	 * ids or, for nodes without one, their indices.
+	 * 
+	 * @param graph	The graph.
+	 * @param nodes	The indices of the nodes.
+	 * @param count	The number of nodes to describe from the array.
+	 * @return		The description.
+	 */
+	private static String describeNodes(CompiledGraph graph, int[] nodes, 
+			int count) {
+		
+		StringBuilder sb = new StringBuilder();
+		for(int i = 0; i < count && i < MAX_REPORTED_NODES; i++) {
+			if(i > 0)
+				sb.append(", ");
+			
+			String id = graph.getNode(nodes[i]).getId();
+			sb.append(id != null ? id : "#" + nodes[i]);
+		}
+		
+		if(count > MAX_REPORTED_NODES)
+			sb.append(" and ").append(count - MAX_REPORTED_NODES).append(" more");
+		
+		return sb.toString();
+	}
+	
 	/**
 	 * Gets a title menu element from the ids of its component multilingual
 	 * messages.
@@ -0,0 +1,229 @@
+package net.minedcontrol.bukkit.menus.util;
+
+/**
+ * A hash map from primitive <code>int</code> keys to object values, using
+ * open addressing with linear probing. Lookups do not allocate.
+ * <p>
+ * <code>null</code> values mark empty slots and cannot be stored.
+ * <p>
+ * Not thread-safe.
+ * <p>
+ * Date Created: Oct 17, 2026
+ *
+ * @param <V>	The type of the values.
+ */
+public class IntObjectHashMap<V> {
+
+	private int[] keys;
+	private Object[] values;
+
+	private int mask;
+	private int size;
+	private int resizeAt;
+
+
+	/**
+	 * Class constructor.
+	 *
+	 * @param expectedSize	The number of entries to size the table for
+	 * 						before it has to grow.
+	 */
+	public IntObjectHashMap(int expectedSize) {
+		allocate(LongIntHashMap.capacityFor(expectedSize));
+	}
+
+	/**
+	 * Copy constructor. Creates a map with the same entries as another,
+	 * which can be changed without affecting the original.
+	 *
+	 * @param other	The map to copy. Not <code>null</code>.
+	 */
+	public IntObjectHashMap(IntObjectHashMap<V> other) {
+		this.keys = other.keys.clone();
+		this.values = other.values.clone();
+		this.mask = other.mask;
+		this.size = other.size;
+		this.resizeAt = other.resizeAt;
+	}
+
+
+	//--------
+	//PUBLIC
+	//--------
+
+	/**
+	 * Gets the value mapped to a key.
+	 *
+	 * @param key	The key.
+	 * @return		The mapped value, or <code>null</code> if the key is
+	 * 				not mapped.
+	 */
+	@SuppressWarnings("unchecked")
+	public V get(int key) {
+		int slot = slot(key);
+		while(values[slot] != null) {
+			if(keys[slot] == key)
+				return (V) values[slot];
+
+			slot = (slot + 1) & mask;
+		}
+		return null;
+	}
+
+	/**
+	 * Maps a value to a key, replacing any previous value.
+	 *
+	 * @param key	The key.
+	 * @param value	The value. Not <code>null</code>.
+	 * @return		The previous value of the key, or <code>null</code> if
+	 * 				it was not mapped.
+	 *
+	 * @throws NullPointerException	if the value is <code>null</code>.
+	 */
+	@SuppressWarnings("unchecked")
+	public V put(int key, V value) {
+		if(value == null)
+			throw new NullPointerException("values cannot be null");
+
+		int slot = slot(key);
+		while(values[slot] != null) {
+			if(keys[slot] == key) {
+				V old = (V) values[slot];
+				values[slot] = value;
+				return old;
+			}
+			slot = (slot + 1) & mask;
+		}
+
+		keys[slot] = key;
+		values[slot] = value;
+
+		if(++size > resizeAt)
+			rehash(keys.length << 1);
+
+		return null;
+	}
+
+	/**
+	 * Removes the mapping of a key, if any.
+	 *
+	 * @param key	The key.
+	 * @return		The value the key was mapped to, or <code>null</code>
+	 * 				if it was not mapped.
+	 */
+	@SuppressWarnings("unchecked")
+	public V remove(int key) {
+		int slot = slot(key);
+		while(values[slot] != null) {
+			if(keys[slot] == key) {
+				V old = (V) values[slot];
+				removeAt(slot);
+				return old;
+			}
+			slot = (slot + 1) & mask;
+		}
+		return null;
+	}
+
+	/**
+	 * Gets the number of mapped keys.
+	 *
+	 * @return	This map's size.
+	 */
+	public int size() {
+		return size;
+	}
+
+	/**
+	 * Gets whether no keys are mapped.
+	 *
+	 * @return	<code>true</code> if the map is empty.
+	 */
+	public boolean isEmpty() {
+		return size == 0;
+	}
+
+
+	//--------
+	//PRIVATE
+	//--------
+
+	/**
+	 * Gets the home slot of a key.
+	 *
+	 * @param key	The key.
+	 * @return		The slot to start probing from.
+	 */
+	private int slot(int key) {
+		int h = key * 0x9E3779B9;
+		return (h ^ (h >>> 16)) & mask;
+	}
+
+	/**
+	 * Empties a slot, shifting back any later entries of the same probe
+	 * run that could live in it so that lookups still find them.
+	 *
+	 * @param slot	The slot to empty.
+	 */
+	private void removeAt(int slot) {
+		int gap = slot;
+		int next = (gap + 1) & mask;
+
+		while(values[next] != null) {
+			int home = slot(keys[next]);
+
+			boolean stays = (gap <= next)
+					? (gap < home && home <= next)
+					: (gap < home || home <= next);
+
+			if(!stays) {
+				keys[gap] = keys[next];
+				values[gap] = values[next];
+				gap = next;
+			}
+			next = (next + 1) & mask;
+		}
+
+		values[gap] = null;
+		size--;
+	}
+
+	/**
+	 * Moves every entry into a new table.
+	 *
+	 * @param capacity	The new table size, a power of two.
+	 */
+	private void rehash(int capacity) {
+		int[] oldKeys = keys;
+		Object[] oldValues = values;
+
+		allocate(capacity);
+
+		for(int i = 0; i < oldValues.length; i++) {
+			if(oldValues[i] == null)
+				continue;
+
+			int slot = slot(oldKeys[i]);
+			while(values[slot] != null)
+				slot = (slot + 1) & mask;
+
+			keys[slot] = oldKeys[i];
+			values[slot] = oldValues[i];
+		}
+	}
+
+	/**
+	 * Replaces the table with an empty one. Does not change the size
+	 * count.
+	 *
+	 * @param capacity	The new table size, a power of two.
+	 */
+	private void allocate(int capacity) {
+		keys = new int[capacity];
+		values = new Object[capacity];
+
+		mask = capacity - 1;
+		resizeAt = (int) (capacity * 0.6f);
+	}
+
+}
@@ -0,0 +1,337 @@
+package net.minedcontrol.bukkit.menus.util;
+
+import java.util.Arrays;
+
+/**
+ * A hash map from primitive <code>long</code> keys to primitive
+ * <code>int</code> values, using open addressing with linear probing.
+ * <p>
+ * Lookups, insertions of existing keys and removals do not allocate.
+ * Removals shift later entries back into the freed slot instead of
+ * leaving tombstones, so the table never degrades from churn.
+ * <p>
+ * One <code>int</code> value is reserved to mark empty slots and is
+ * returned by {@link #get(long)} when a key is not mapped. That value
+ * cannot be stored.
+ * <p>
+ * Not thread-safe.
+ * <p>
+ * Date Created: Oct 17, 2026
+ *
+ */
+public class LongIntHashMap {
+
+	private static final int MIN_CAPACITY = 8;
+
+	//the table is grown once it is more than this full
+	private static final float LOAD_FACTOR = 0.6f;
+
+	private final int missingValue;
+
+	private long[] keys;
+	private int[] values;
+
+	private int mask;
+	private int size;
+	private int resizeAt;
+
+
+	/**
+	 * Class constructor.
+	 *
+	 * @param expectedSize	The number of entries to size the table for
+	 * 						before it has to grow.
+	 * @param missingValue	The value returned for keys that are not
+	 * 						mapped. Cannot be stored in the map.
+	 */
+	public LongIntHashMap(int expectedSize, int missingValue) {
+		this.missingValue = missingValue;
+		allocate(capacityFor(expectedSize));
+	}
+
+
+	//--------
+	//PUBLIC
+	//--------
+
+	/**
+	 * Gets the value mapped to a key.
+	 *
+	 * @param key	The key.
+	 * @return		The mapped value, or the missing value if the key is
+	 * 				not mapped.
+	 */
+	public int get(long key) {
+		int slot = slot(key);
+		while(values[slot] != missingValue) {
+			if(keys[slot] == key)
+				return values[slot];
+
+			slot = (slot + 1) & mask;
+		}
+		return missingValue;
+	}
+
+	/**
+	 * Gets whether a key is mapped.
+	 *
+	 * @param key	The key.
+	 * @return		<code>true</code> if the key has a value.
+	 */
+	public boolean containsKey(long key) {
+		return get(key) != missingValue;
+	}
+
+	/**
+	 * Maps a value to a key, replacing any previous value.
+	 *
+	 * @param key	The key.
+	 * @param value	The value. Cannot be the missing value.
+	 * @return		The previous value of the key, or the missing value
+	 * 				if it was not mapped.
+	 *
+	 * @throws IllegalArgumentException	if the value is the missing value.
+	 */
+	public int put(long key, int value) {
+		if(value == missingValue)
+			throw new IllegalArgumentException("the missing value cannot be stored");
+
+		int slot = slot(key);
+		while(values[slot] != missingValue) {
+			if(keys[slot] == key) {
+				int old = values[slot];
+				values[slot] = value;
+				return old;
+			}
+			slot = (slot + 1) & mask;
+		}
+
+		keys[slot] = key;
+		values[slot] = value;
+
+		if(++size > resizeAt)
+			rehash(keys.length << 1);
+
+		return missingValue;
+	}
+
+	/**
+	 * Removes the mapping of a key, if any.
+	 *
+	 * @param key	The key.
+	 * @return		The value the key was mapped to, or the missing value
+	 * 				if it was not mapped.
+	 */
+	public int remove(long key) {
+		int slot = slot(key);
+		while(values[slot] != missingValue) {
+			if(keys[slot] == key) {
+				int old = values[slot];
+				removeAt(slot);
+				return old;
+			}
+			slot = (slot + 1) & mask;
+		}
+		return missingValue;
+	}
+
+	/**
+	 * Removes the mapping of a key if it is mapped to a given value.
+	 *
+	 * @param key	The key.
+	 * @param value	The value the key must be mapped to.
+	 * @return		<code>true</code> if the mapping was removed.
+	 */
+	public boolean remove(long key, int value) {
+		int slot = slot(key);
+		while(values[slot] != missingValue) {
+			if(keys[slot] == key) {
+				if(values[slot] != value)
+					return false;
+
+				removeAt(slot);
+				return true;
+			}
+			slot = (slot + 1) & mask;
+		}
+		return false;
+	}
+
+	/**
+	 * Gets the number of mapped keys.
+	 *
+	 * @return	This map's size.
+	 */
+	public int size() {
+		return size;
+	}
+
+	/**
+	 * Gets whether no keys are mapped.
+	 *
+	 * @return	<code>true</code> if the map is empty.
+	 */
+	public boolean isEmpty() {
+		return size == 0;
+	}
+
+	/**
+	 * Removes every mapping. Keeps the current table size.
+	 */
+	public void clear() {
+		Arrays.fill(values, missingValue);
+		size = 0;
+	}
+
+	/**
+	 * Gets the size of the table, for iterating over its slots with
+	 * {@link #isSlotUsed(int)}, {@link #keyAt(int)} and 
+	 * {@link #valueAt(int)}. The map must not be changed while iterating.
+	 *
+	 * @return	The number of slots in the table.
+	 */
+	public int capacity() {
+		return values.length;
+	}
+
+	/**
+	 * Gets whether a slot of the table holds an entry.
+	 *
+	 * @param slot	The slot, less than {@link #capacity()}.
+	 * @return		<code>true</code> if the slot is in use.
+	 */
+	public boolean isSlotUsed(int slot) {
+		return values[slot] != missingValue;
+	}
+
+	/**
+	 * Gets the key of the entry in a slot of the table.
+	 *
+	 * @param slot	A used slot.
+	 * @return		The key in the slot.
+	 */
+	public long keyAt(int slot) {
+		return keys[slot];
+	}
+
+	/**
+	 * Gets the value of the entry in a slot of the table.
+	 *
+	 * @param slot	A used slot.
+	 * @return		The value in the slot.
+	 */
+	public int valueAt(int slot) {
+		return values[slot];
+	}
+
+	/**
+	 * Gets the value returned for keys that are not mapped.
+	 *
+	 * @return	This map's missing value.
+	 */
+	public int getMissingValue() {
+		return missingValue;
+	}
+
+
+	//--------
+	//PRIVATE
+	//--------
+
+	/**
+	 * Gets the home slot of a key.
+	 *
+	 * @param key	The key.
+	 * @return		The slot to start probing from.
+	 */
+	private int slot(long key) {
+		long h = key * 0x9E3779B97F4A7C15L;
+		return (int) (h ^ (h >>> 32)) & mask;
+	}
+
+	/**
+	 * Empties a slot, shifting back any later entries of the same probe
+	 * run that could live in it so that lookups still find them.
+	 *
+	 * @param slot	The slot to empty.
+	 */
+	private void removeAt(int slot) {
+		int gap = slot;
+		int next = (gap + 1) & mask;
+
+		while(values[next] != missingValue) {
+			int home = slot(keys[next]);
+
+			//moves the entry into the gap unless its home slot lies
+			// (cyclically) after the gap and at or before its position
+			boolean stays = (gap <= next)
+					? (gap < home && home <= next)
+					: (gap < home || home <= next);
+
+			if(!stays) {
+				keys[gap] = keys[next];
+				values[gap] = values[next];
+				gap = next;
+			}
+			next = (next + 1) & mask;
+		}
+
+		values[gap] = missingValue;
+		size--;
+	}
+
+	/**
+	 * Moves every entry into a new table.
+	 *
+	 * @param capacity	The new table size, a power of two.
+	 */
+	private void rehash(int capacity) {
+		long[] oldKeys = keys;
+		int[] oldValues = values;
+
+		allocate(capacity);
+
+		for(int i = 0; i < oldValues.length; i++) {
+			if(oldValues[i] == missingValue)
+				continue;
+
+			int slot = slot(oldKeys[i]);
+			while(values[slot] != missingValue)
+				slot = (slot + 1) & mask;
+
+			keys[slot] = oldKeys[i];
+			values[slot] = oldValues[i];
+		}
+	}
+
+	/**
+	 * Replaces the table with an empty one. Does not change the size
+	 * count.
+	 *
+	 * @param capacity	The new table size, a power of two.
+	 */
+	private void allocate(int capacity) {
+		keys = new long[capacity];
+		values = new int[capacity];
+		Arrays.fill(values, missingValue);
+
+		mask = capacity - 1;
+		resizeAt = (int) (capacity * LOAD_FACTOR);
+	}
+
+	/**
+	 * Gets the table size needed to hold a number of entries.
+	 *
+	 * @param expectedSize	The number of entries.
+	 * @return				A power of two table size.
+	 */
+	static int capacityFor(int expectedSize) {
+		int needed = (int) Math.ceil(Math.max(expectedSize, 1) / LOAD_FACTOR);
+		int capacity = MIN_CAPACITY;
+		while(capacity < needed)
+			capacity <<= 1;
+
+		return capacity;
+	}
+
+}